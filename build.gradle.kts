@@ -9,17 +9,52 @@ repositories {
     mavenCentral()
 }
 
+val jmh: SourceSet by sourceSets.creating {
+    compileClasspath += sourceSets.main.get().output
+    runtimeClasspath += sourceSets.main.get().output
+}
+
+val loadtest: SourceSet by sourceSets.creating {
+    compileClasspath += sourceSets.main.get().output
+    runtimeClasspath += sourceSets.main.get().output
+}
+
 dependencies {
     testImplementation(platform("org.junit:junit-bom:5.10.2"))
     testImplementation("org.junit.jupiter:junit-jupiter")
     testImplementation("org.assertj:assertj-core:3.25.3")
+    testImplementation("com.h2database:h2:2.2.224")
+
+    "jmhImplementation"("org.openjdk.jmh:jmh-core:1.37")
+    "jmhAnnotationProcessor"("org.openjdk.jmh:jmh-generator-annprocess:1.37")
+    "jmhRuntimeOnly"("com.h2database:h2:2.2.224")
+}
+
+tasks.withType<JavaCompile> {
+    options.encoding = "UTF-8"
 }
 
 tasks.test {
     useJUnitPlatform()
 }
 
+tasks.register<JavaExec>("jmh") {
+    description = "Runs JMH benchmarks, optionally filtered with -PjmhIncludes=<regex>"
+    group = "verification"
+    classpath = jmh.runtimeClasspath
+    mainClass = "org.openjdk.jmh.Main"
+    args(providers.gradleProperty("jmhIncludes").getOrElse(".*"))
+}
+
+tasks.register<JavaExec>("loadTest") {
+    description = "Runs the load generator, pass options with --args=\"--threads=8 --rate=100000\""
+    group = "verification"
+    classpath = loadtest.runtimeClasspath
+    mainClass = "io.dragon.loadtest.LoadTest"
+    jvmArgs("-Xms1g", "-Xmx1g")
+}
+
 tasks.jar {
     archiveBaseName = "Dragon-rockets-library";
     archiveVersion = version.toString()
-}
\ No newline at end of file
+}
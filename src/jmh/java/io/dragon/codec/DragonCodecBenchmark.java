@@ -0,0 +1,78 @@
+package io.dragon.codec;
+
+import io.dragon.domain.Mission;
+import io.dragon.domain.Rocket;
+import io.dragon.domain.RocketStatus;
+import io.dragon.domain.Summary;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the binary summary encoding with the textual form produced by {@link Summary#printSummary()}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DragonCodecBenchmark {
+
+    @Param({"100", "10000"})
+    int missions;
+
+    private Summary summary;
+    private ByteBuffer buffer;
+    private ByteBuffer encoded;
+
+    @Setup
+    public void setUp() {
+        List<Mission> summaryMissions = new ArrayList<>(missions);
+        RocketStatus[] statuses = RocketStatus.values();
+        for (int i = 0; i < missions; i++) {
+            Mission mission = Mission.create("mission-" + i);
+            for (int r = 0; r < i % 6; r++) {
+                Rocket rocket = Rocket.createNewRocket("rocket-" + i + "-" + r).assignMission(mission.name());
+                mission = mission.assignRocket(rocket.setStatus(statuses[r % statuses.length]));
+            }
+            summaryMissions.add(mission);
+        }
+        summary = new Summary(List.copyOf(summaryMissions));
+        buffer = ByteBuffer.allocate(DragonCodec.sizeOf(summary));
+        encoded = ByteBuffer.wrap(DragonCodec.encode(summary));
+    }
+
+    @Benchmark
+    public ByteBuffer encodeBinary() {
+        buffer.clear();
+        DragonCodec.putSummary(buffer, summary);
+        return buffer;
+    }
+
+    @Benchmark
+    public Summary decodeBinary() {
+        return DragonCodec.getSummary(encoded.duplicate());
+    }
+
+    @Benchmark
+    public byte[] encodeText() {
+        StringBuilder text = new StringBuilder();
+        summary.missions().forEach(mission -> text.append(mission.printToStatus()).append('\n'));
+        return text.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
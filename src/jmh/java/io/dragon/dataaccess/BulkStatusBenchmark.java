@@ -0,0 +1,91 @@
+package io.dragon.dataaccess;
+
+import io.dragon.domain.RocketStatus;
+import io.dragon.domain.SpaceXDragonRocketsRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@code setRocketStatuses} with one {@code setRocketStatus} call per rocket, for missions of ten rockets
+ * stored in an embedded H2 database. Every invocation flips all rockets between in space and in repair.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BulkStatusBenchmark {
+
+    private static final int ROCKETS_PER_MISSION = 10;
+
+    @Param({"10", "100", "1000"})
+    int rockets;
+
+    private JdbcFleetStore store;
+    private SpaceXDragonRocketsRepository dragonRocketsRepository;
+    private Map<String, RocketStatus> inSpace;
+    private Map<String, RocketStatus> inRepair;
+    private boolean flipped;
+
+    @Setup
+    public void setUp() throws SQLException {
+        store = new JdbcFleetStore(DriverManager.getConnection("jdbc:h2:mem:bulk-status-benchmark"));
+        dragonRocketsRepository = new SpaceXDragonRocketsRepository(new JdbcRocketRepository(store),
+                new JdbcMissionRepository(store));
+        inSpace = new HashMap<>(rockets);
+        inRepair = new HashMap<>(rockets);
+        for (int mission = 0; mission * ROCKETS_PER_MISSION < rockets; mission++) {
+            String missionName = "mission-" + mission;
+            dragonRocketsRepository.addMission(missionName);
+            Set<String> rocketNames = new HashSet<>();
+            int last = Math.min(rockets, (mission + 1) * ROCKETS_PER_MISSION);
+            for (int i = mission * ROCKETS_PER_MISSION; i < last; i++) {
+                String rocketName = "rocket-" + i;
+                dragonRocketsRepository.addRocket(rocketName);
+                rocketNames.add(rocketName);
+                inSpace.put(rocketName, RocketStatus.IN_SPACE);
+                inRepair.put(rocketName, RocketStatus.IN_REPAIR);
+            }
+            dragonRocketsRepository.assignRocketsToMission(rocketNames, missionName);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        store.close();
+    }
+
+    @Benchmark
+    public void bulk() {
+        dragonRocketsRepository.setRocketStatuses(nextStatuses());
+    }
+
+    @Benchmark
+    public void callPerRocket() {
+        nextStatuses().forEach(dragonRocketsRepository::setRocketStatus);
+    }
+
+    private Map<String, RocketStatus> nextStatuses() {
+        flipped = !flipped;
+        return flipped ? inSpace : inRepair;
+    }
+}
@@ -0,0 +1,77 @@
+package io.dragon.dataaccess;
+
+import io.dragon.domain.Mission;
+import io.dragon.domain.Rocket;
+import io.dragon.domain.RocketStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares writing the rockets of a mission as JDBC batches with one statement per rocket, against an embedded
+ * H2 database. Every invocation assigns all rockets to the mission and releases them again, like
+ * {@code assignRocketsToMission} followed by {@code endMission}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JdbcBatchBenchmark {
+
+    @Param({"10", "100", "1000"})
+    int rockets;
+
+    private JdbcFleetStore store;
+    private JdbcRocketRepository rocketRepository;
+    private List<Rocket> assigned;
+    private List<Rocket> released;
+
+    @Setup
+    public void setUp() throws SQLException {
+        store = new JdbcFleetStore(DriverManager.getConnection("jdbc:h2:mem:batch-benchmark"));
+        rocketRepository = new JdbcRocketRepository(store);
+        new JdbcMissionRepository(store).save(Mission.create("benchmark"));
+        assigned = new ArrayList<>(rockets);
+        released = new ArrayList<>(rockets);
+        for (int i = 0; i < rockets; i++) {
+            Rocket rocket = rocketRepository.save(Rocket.createNewRocket("rocket-" + i));
+            Rocket withMission = rocket.assignMission("benchmark").setStatus(RocketStatus.IN_SPACE);
+            assigned.add(withMission);
+            released.add(withMission.removeMission());
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        store.close();
+    }
+
+    @Benchmark
+    public void batched() {
+        rocketRepository.updateAll(assigned);
+        rocketRepository.updateAll(released);
+    }
+
+    @Benchmark
+    public void statementPerRocket() {
+        assigned.forEach(rocketRepository::update);
+        released.forEach(rocketRepository::update);
+    }
+}
@@ -0,0 +1,30 @@
+package io.dragon.loadtest;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Picks indexes of preloaded entities either uniformly or with a Zipfian skew, where index 0 is the hottest.
+ */
+interface KeyChooser {
+
+    int next();
+
+    static KeyChooser uniform(int keys) {
+        return () -> ThreadLocalRandom.current().nextInt(keys);
+    }
+
+    static KeyChooser zipfian(int keys, double exponent) {
+        double[] cumulative = new double[keys];
+        double sum = 0;
+        for (int i = 0; i < keys; i++) {
+            sum += 1.0 / Math.pow(i + 1, exponent);
+            cumulative[i] = sum;
+        }
+        double total = sum;
+        return () -> {
+            int index = Arrays.binarySearch(cumulative, ThreadLocalRandom.current().nextDouble() * total);
+            return Math.min(keys - 1, index >= 0 ? index : -index - 1);
+        };
+    }
+}
@@ -0,0 +1,88 @@
+package io.dragon.loadtest;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Log-linear histogram of nanosecond latencies with about 3% relative precision. Written by a single worker
+ * thread and drained by the reporter, so recording never contends with other workers. Recording increments
+ * atomically, so a sample recorded while the reporter drains its bucket is never lost or counted twice.
+ */
+final class LatencyHistogram {
+
+    private static final int LINEAR_BUCKETS = 64;
+    private static final int SUB_BUCKETS = 32;
+    private static final int BUCKETS = LINEAR_BUCKETS + 58 * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+    void record(long nanos) {
+        int index = indexOf(Math.max(0, nanos));
+        counts.getAndIncrement(index);
+    }
+
+    /**
+     * Moves all recorded values into {@code target} and resets this histogram.
+     */
+    void drainInto(LatencyHistogram target) {
+        for (int i = 0; i < BUCKETS; i++) {
+            long count = counts.getAndSet(i, 0);
+            if (count != 0) target.counts.addAndGet(i, count);
+        }
+    }
+
+    void addAll(LatencyHistogram other) {
+        for (int i = 0; i < BUCKETS; i++) {
+            long count = other.counts.get(i);
+            if (count != 0) counts.addAndGet(i, count);
+        }
+    }
+
+    void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+    }
+
+    long count() {
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            total += counts.get(i);
+        }
+        return total;
+    }
+
+    /**
+     * Returns the upper bound of the bucket holding the given percentile, 0 when nothing was recorded.
+     */
+    long percentile(double percentile) {
+        long total = count();
+        if (total == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(total * percentile / 100.0));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) return valueAt(i);
+        }
+        return valueAt(BUCKETS - 1);
+    }
+
+    long max() {
+        for (int i = BUCKETS - 1; i >= 0; i--) {
+            if (counts.get(i) != 0) return valueAt(i);
+        }
+        return 0;
+    }
+
+    static int indexOf(long nanos) {
+        if (nanos < LINEAR_BUCKETS) return (int) nanos;
+        int shift = 58 - Long.numberOfLeadingZeros(nanos);
+        return LINEAR_BUCKETS + (shift - 1) * SUB_BUCKETS + (int) ((nanos >>> shift) - SUB_BUCKETS);
+    }
+
+    static long valueAt(int index) {
+        if (index < LINEAR_BUCKETS) return index;
+        int shift = (index - LINEAR_BUCKETS) / SUB_BUCKETS + 1;
+        long top = (index - LINEAR_BUCKETS) % SUB_BUCKETS + SUB_BUCKETS;
+        return ((top + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,143 @@
+package io.dragon.loadtest;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Soak test driving {@code SpaceXDragonRocketsRepository} with a mixed workload, for example:
+ * <pre>
+ * ./gradlew loadTest --args="--threads=8 --duration=60 --rate=200000 --skew=zipf:0.99"
+ * </pre>
+ * With {@code --rate} every worker runs open loop: operations are scheduled at fixed intervals and latency is
+ * measured from the scheduled start, so a stalled operation is charged to every operation queued behind it
+ * instead of silently lowering the request rate (coordinated omission). Without a rate workers run closed loop
+ * and latency is service time only.
+ */
+public final class LoadTest {
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        LoadTestConfig config = LoadTestConfig.parse(args);
+        System.out.printf("Preloading %d rockets and %d missions%n", config.rockets(), config.missions());
+        Workload workload = new Workload(config);
+
+        List<Worker> workers = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        long periodNanos = config.rate() > 0 ? TimeUnit.SECONDS.toNanos(config.threads()) / config.rate() : 0;
+        for (int i = 0; i < config.threads(); i++) {
+            Worker worker = new Worker(workload, periodNanos);
+            workers.add(worker);
+            Thread thread = new Thread(worker, "load-worker-" + i);
+            thread.setDaemon(true);
+            threads.add(thread);
+        }
+        threads.forEach(Thread::start);
+
+        report(config, workers);
+
+        workers.forEach(Worker::stop);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+    }
+
+    private static void report(LoadTestConfig config, List<Worker> workers) throws InterruptedException {
+        LatencyHistogram interval = new LatencyHistogram();
+        LatencyHistogram total = new LatencyHistogram();
+        long start = System.nanoTime();
+        long end = start + config.duration().toNanos();
+        long previousOperations = 0;
+        long previousRejected = 0;
+        long[] previousGc = gcTotals();
+        System.out.printf("%8s %12s %10s %10s %10s %10s %10s %10s %8s %10s%n", "time[s]", "ops/s", "rejected",
+                "p50[us]", "p90[us]", "p99[us]", "p99.9[us]", "max[us]", "gc", "gc[ms]");
+        for (long next = start + config.reportInterval().toNanos(); next <= end;
+             next += config.reportInterval().toNanos()) {
+            LockSupport.parkNanos(next - System.nanoTime());
+            long operations = 0;
+            long rejected = 0;
+            for (Worker worker : workers) {
+                worker.histogram.drainInto(interval);
+                operations += worker.operations.get();
+                rejected += worker.rejected.get();
+            }
+            long[] gc = gcTotals();
+            double seconds = config.reportInterval().toNanos() / 1e9;
+            System.out.printf("%8.1f %12.0f %10d %10.1f %10.1f %10.1f %10.1f %10.1f %8d %10d%n",
+                    (System.nanoTime() - start) / 1e9, (operations - previousOperations) / seconds,
+                    rejected - previousRejected, micros(interval.percentile(50)), micros(interval.percentile(90)),
+                    micros(interval.percentile(99)), micros(interval.percentile(99.9)), micros(interval.max()),
+                    gc[0] - previousGc[0], gc[1] - previousGc[1]);
+            total.addAll(interval);
+            interval.reset();
+            previousOperations = operations;
+            previousRejected = rejected;
+            previousGc = gc;
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("Total: %d operations (%d rejected), %.0f ops/s, p50 %.1f us, p99 %.1f us, "
+                        + "p99.9 %.1f us, max %.1f us%n", previousOperations, previousRejected,
+                previousOperations / seconds, micros(total.percentile(50)), micros(total.percentile(99)),
+                micros(total.percentile(99.9)), micros(total.max()));
+    }
+
+    private static long[] gcTotals() {
+        long count = 0;
+        long time = 0;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, collector.getCollectionCount());
+            time += Math.max(0, collector.getCollectionTime());
+        }
+        return new long[]{count, time};
+    }
+
+    private static double micros(long nanos) {
+        return nanos / 1000.0;
+    }
+
+    private static final class Worker implements Runnable {
+
+        private final Workload workload;
+        private final long periodNanos;
+        private final LatencyHistogram histogram = new LatencyHistogram();
+        private final AtomicLong operations = new AtomicLong();
+        private final AtomicLong rejected = new AtomicLong();
+        private volatile boolean running = true;
+
+        private Worker(Workload workload, long periodNanos) {
+            this.workload = workload;
+            this.periodNanos = periodNanos;
+        }
+
+        @Override
+        public void run() {
+            long scheduled = System.nanoTime();
+            while (running) {
+                long start;
+                if (periodNanos > 0) {
+                    scheduled += periodNanos;
+                    long wait = scheduled - System.nanoTime();
+                    if (wait > 0) LockSupport.parkNanos(wait);
+                    start = scheduled;
+                } else {
+                    start = System.nanoTime();
+                }
+                boolean accepted = workload.execute(workload.nextOperation());
+                histogram.record(System.nanoTime() - start);
+                operations.lazySet(operations.get() + 1);
+                if (!accepted) rejected.lazySet(rejected.get() + 1);
+            }
+        }
+
+        private void stop() {
+            running = false;
+        }
+    }
+}
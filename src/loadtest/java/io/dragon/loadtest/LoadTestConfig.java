@@ -0,0 +1,75 @@
+package io.dragon.loadtest;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Harness settings parsed from {@code --name=value} arguments.
+ *
+ * @param rate total operations per second scheduled by the workers, 0 runs closed loop as fast as possible
+ * @param skew {@code uniform} or {@code zipf:<exponent>}
+ */
+record LoadTestConfig(int threads, Duration duration, Duration reportInterval, long rate, int rockets, int missions,
+                      String skew, int bulkSize, Map<Operation, Integer> mix) {
+
+    static LoadTestConfig parse(String[] args) {
+        int threads = Runtime.getRuntime().availableProcessors();
+        Duration duration = Duration.ofSeconds(30);
+        Duration reportInterval = Duration.ofSeconds(1);
+        long rate = 0;
+        int rockets = 100_000;
+        int missions = 10_000;
+        String skew = "uniform";
+        int bulkSize = 5;
+        Map<Operation, Integer> mix = defaultMix();
+        for (String arg : args) {
+            String[] option = arg.split("=", 2);
+            if (option.length != 2 || !option[0].startsWith("--"))
+                throw new IllegalArgumentException("Expected --name=value but got %s".formatted(arg));
+            String value = option[1];
+            switch (option[0].substring(2)) {
+                case "threads" -> threads = Integer.parseInt(value);
+                case "duration" -> duration = Duration.ofSeconds(Long.parseLong(value));
+                case "report-interval" -> reportInterval = Duration.ofMillis(Long.parseLong(value));
+                case "rate" -> rate = Long.parseLong(value);
+                case "rockets" -> rockets = Integer.parseInt(value);
+                case "missions" -> missions = Integer.parseInt(value);
+                case "skew" -> skew = value;
+                case "bulk-size" -> bulkSize = Integer.parseInt(value);
+                case "mix" -> mix = parseMix(value);
+                default -> throw new IllegalArgumentException("Unknown option %s".formatted(option[0]));
+            }
+        }
+        return new LoadTestConfig(threads, duration, reportInterval, rate, rockets, missions, skew, bulkSize, mix);
+    }
+
+    KeyChooser keyChooser(int keys) {
+        if (skew.equals("uniform")) return KeyChooser.uniform(keys);
+        if (skew.startsWith("zipf:")) return KeyChooser.zipfian(keys, Double.parseDouble(skew.substring(5)));
+        throw new IllegalArgumentException("Unknown skew %s".formatted(skew));
+    }
+
+    private static Map<Operation, Integer> defaultMix() {
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        mix.put(Operation.ADD, 5);
+        mix.put(Operation.ASSIGN, 20);
+        mix.put(Operation.BULK_ASSIGN, 5);
+        mix.put(Operation.STATUS_FLIP, 60);
+        mix.put(Operation.END_MISSION, 5);
+        mix.put(Operation.SUMMARY, 5);
+        return mix;
+    }
+
+    /**
+     * Parses weights like {@code add:5,assign:20,summary:1}; operations not listed are not run.
+     */
+    private static Map<Operation, Integer> parseMix(String value) {
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        for (String entry : value.split(",")) {
+            String[] weight = entry.split(":", 2);
+            mix.put(Operation.valueOf(weight[0].trim().toUpperCase().replace('-', '_')), Integer.parseInt(weight[1]));
+        }
+        return mix;
+    }
+}
@@ -0,0 +1,10 @@
+package io.dragon.loadtest;
+
+enum Operation {
+    ADD,
+    ASSIGN,
+    BULK_ASSIGN,
+    STATUS_FLIP,
+    END_MISSION,
+    SUMMARY
+}
@@ -0,0 +1,100 @@
+package io.dragon.loadtest;
+
+import io.dragon.dataaccess.InMemoryMissionRepository;
+import io.dragon.dataaccess.InMemoryRocketRepository;
+import io.dragon.domain.RocketStatus;
+import io.dragon.domain.SpaceXDragonRocketsRepository;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Preloaded fleet and the operations run against it. The domain service is not thread-safe, so every call is
+ * serialized on the service; with several workers the measured latency includes waiting for that monitor.
+ */
+final class Workload {
+
+    private static final RocketStatus[] STATUSES = RocketStatus.values();
+
+    private final SpaceXDragonRocketsRepository dragonRocketsRepository =
+            new SpaceXDragonRocketsRepository(new InMemoryRocketRepository(), new InMemoryMissionRepository());
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+    private final KeyChooser rocketKeys;
+    private final KeyChooser missionKeys;
+    private final int bulkSize;
+    private final AtomicLong addedEntities = new AtomicLong();
+
+    Workload(LoadTestConfig config) {
+        this.operations = config.mix().keySet().toArray(Operation[]::new);
+        this.cumulativeWeights = new int[operations.length];
+        int sum = 0;
+        for (int i = 0; i < operations.length; i++) {
+            sum += config.mix().get(operations[i]);
+            cumulativeWeights[i] = sum;
+        }
+        if (sum <= 0) throw new IllegalArgumentException("Operation mix must have a positive weight");
+        this.rocketKeys = config.keyChooser(config.rockets());
+        this.missionKeys = config.keyChooser(config.missions());
+        this.bulkSize = config.bulkSize();
+        for (int i = 0; i < config.rockets(); i++) {
+            dragonRocketsRepository.addRocket(rocketName(i));
+        }
+        for (int i = 0; i < config.missions(); i++) {
+            dragonRocketsRepository.addMission(missionName(i));
+        }
+    }
+
+    Operation nextOperation() {
+        int pick = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (pick < cumulativeWeights[i]) return operations[i];
+        }
+        return operations[operations.length - 1];
+    }
+
+    /**
+     * Runs the operation and tells whether the domain accepted it. Rejections, such as assigning a rocket which
+     * already has a mission, are normal in a random workload and are only counted, so the exception-free
+     * variants are used.
+     */
+    boolean execute(Operation operation) {
+        synchronized (dragonRocketsRepository) {
+            return switch (operation) {
+                case ADD -> {
+                    long id = addedEntities.incrementAndGet();
+                    yield id % 2 == 0
+                            ? dragonRocketsRepository.tryAddRocket("added-rocket-" + id).isOk()
+                            : dragonRocketsRepository.tryAddMission("added-mission-" + id).isOk();
+                }
+                case ASSIGN -> dragonRocketsRepository.tryAssignRocketToMission(
+                        rocketName(rocketKeys.next()), missionName(missionKeys.next())).isOk();
+                case BULK_ASSIGN -> {
+                    Set<String> rocketNames = new HashSet<>();
+                    for (int i = 0; i < bulkSize; i++) {
+                        rocketNames.add(rocketName(rocketKeys.next()));
+                    }
+                    yield dragonRocketsRepository.tryAssignRocketsToMission(rocketNames,
+                            missionName(missionKeys.next())).isOk();
+                }
+                case STATUS_FLIP -> dragonRocketsRepository.trySetRocketStatus(rocketName(rocketKeys.next()),
+                        STATUSES[ThreadLocalRandom.current().nextInt(STATUSES.length)]).isOk();
+                case END_MISSION -> dragonRocketsRepository.tryEndMission(missionName(missionKeys.next())).isOk();
+                case SUMMARY -> {
+                    dragonRocketsRepository.getDragonsSummary();
+                    yield true;
+                }
+            };
+        }
+    }
+
+    private static String rocketName(int index) {
+        return "rocket-" + index;
+    }
+
+    private static String missionName(int index) {
+        return "mission-" + index;
+    }
+}
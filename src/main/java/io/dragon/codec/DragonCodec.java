@@ -0,0 +1,305 @@
+package io.dragon.codec;
+
+import io.dragon.domain.ChangedMission;
+import io.dragon.domain.Mission;
+import io.dragon.domain.Rocket;
+import io.dragon.domain.RocketStatus;
+import io.dragon.domain.Summary;
+import io.dragon.domain.SummaryChanges;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Versioned binary encoding of rockets, missions and summaries.
+ * <ul>
+ *     <li>lengths and counts are unsigned varints (7 bits per byte, least significant group first); a count read
+ *     back is checked against the remaining bytes, as every element takes at least one, before anything is sized
+ *     from it,</li>
+ *     <li>strings are a varint UTF-8 length followed by the bytes, written straight into the buffer,</li>
+ *     <li>statuses and flags are single bytes,</li>
+ *     <li>rockets inside a mission are written as name and status only, the mission name is implied.</li>
+ * </ul>
+ * A summary starts with {@link #FORMAT_VERSION}, as do summary changes, followed by their epoch and summary
+ * version as fixed eight bytes each and the changed missions, each preceded by its position; the other records are
+ * meant to be embedded in versioned envelopes. Callers size buffers with the {@code sizeOf} methods.
+ */
+public final class DragonCodec {
+
+    public static final byte FORMAT_VERSION = 2;
+
+    private static final RocketStatus[] ROCKET_STATUSES = RocketStatus.values();
+
+    private DragonCodec() {
+    }
+
+    public static int sizeOfVarint(int value) {
+        int size = 1;
+        while ((value & ~0x7F) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+
+    public static void putVarint(ByteBuffer buffer, int value) {
+        while ((value & ~0x7F) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    public static int getVarint(ByteBuffer buffer) {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) return value;
+        }
+        throw new IllegalArgumentException("Malformed varint");
+    }
+
+    /**
+     * Reads the number of elements which follow, each taking at least one byte.
+     *
+     * @throws IllegalArgumentException when the count is negative or larger than the remaining bytes
+     */
+    public static int getCount(ByteBuffer buffer) {
+        int count = getVarint(buffer);
+        if (count < 0 || count > buffer.remaining()) {
+            throw new IllegalArgumentException("Invalid count %d with %d bytes remaining".formatted(count,
+                    buffer.remaining()));
+        }
+        return count;
+    }
+
+    public static int sizeOfVarlong(long value) {
+        int size = 1;
+        while ((value & ~0x7FL) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+
+    public static void putVarlong(ByteBuffer buffer, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    public static long getVarlong(ByteBuffer buffer) {
+        long value = 0;
+        for (int shift = 0; shift < 70; shift += 7) {
+            byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) return value;
+        }
+        throw new IllegalArgumentException("Malformed varlong");
+    }
+
+    public static int sizeOf(String value) {
+        int length = utf8Length(value);
+        return sizeOfVarint(length) + length;
+    }
+
+    public static void putString(ByteBuffer buffer, String value) {
+        putVarint(buffer, utf8Length(value));
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                buffer.put((byte) c);
+            } else if (c < 0x800) {
+                buffer.put((byte) (0xC0 | (c >> 6)));
+                buffer.put((byte) (0x80 | (c & 0x3F)));
+            } else if (Character.isSurrogate(c)) {
+                if (isSurrogatePair(value, i)) {
+                    int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                    buffer.put((byte) (0xF0 | (codePoint >> 18)));
+                    buffer.put((byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+                    buffer.put((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+                    buffer.put((byte) (0x80 | (codePoint & 0x3F)));
+                } else {
+                    buffer.put((byte) '?');
+                }
+            } else {
+                buffer.put((byte) (0xE0 | (c >> 12)));
+                buffer.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+                buffer.put((byte) (0x80 | (c & 0x3F)));
+            }
+        }
+    }
+
+    public static String getString(ByteBuffer buffer) {
+        int length = getVarint(buffer);
+        if (length < 0 || length > buffer.remaining()) throw new BufferUnderflowException();
+        String value;
+        if (buffer.hasArray()) {
+            value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+            buffer.position(buffer.position() + length);
+        } else {
+            byte[] bytes = new byte[length];
+            buffer.get(bytes);
+            value = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return value;
+    }
+
+    public static void putRocketStatus(ByteBuffer buffer, RocketStatus status) {
+        buffer.put((byte) status.ordinal());
+    }
+
+    public static RocketStatus getRocketStatus(ByteBuffer buffer) {
+        byte ordinal = buffer.get();
+        if (ordinal < 0 || ordinal >= ROCKET_STATUSES.length)
+            throw new IllegalArgumentException("Unknown rocket status %d".formatted(ordinal));
+        return ROCKET_STATUSES[ordinal];
+    }
+
+    public static int sizeOf(Rocket rocket) {
+        return sizeOf(rocket.name()) + 2 + rocket.missionName().map(DragonCodec::sizeOf).orElse(0);
+    }
+
+    public static void putRocket(ByteBuffer buffer, Rocket rocket) {
+        putString(buffer, rocket.name());
+        putRocketStatus(buffer, rocket.status());
+        buffer.put((byte) (rocket.missionName().isPresent() ? 1 : 0));
+        rocket.missionName().ifPresent(missionName -> putString(buffer, missionName));
+    }
+
+    public static Rocket getRocket(ByteBuffer buffer) {
+        String name = getString(buffer);
+        RocketStatus status = getRocketStatus(buffer);
+        Optional<String> missionName = buffer.get() == 1 ? Optional.of(getString(buffer)) : Optional.empty();
+        return new Rocket(name, status, missionName);
+    }
+
+    public static int sizeOf(Mission mission) {
+        int size = sizeOf(mission.name()) + 1 + sizeOfVarint(mission.rockets().size());
+        for (Rocket rocket : mission.rockets().values()) {
+            size += sizeOf(rocket.name()) + 1;
+        }
+        return size;
+    }
+
+    public static void putMission(ByteBuffer buffer, Mission mission) {
+        putString(buffer, mission.name());
+        buffer.put((byte) (mission.isEnded() ? 1 : 0));
+        putVarint(buffer, mission.rockets().size());
+        for (Rocket rocket : mission.rockets().values()) {
+            putString(buffer, rocket.name());
+            putRocketStatus(buffer, rocket.status());
+        }
+    }
+
+    public static Mission getMission(ByteBuffer buffer) {
+        String name = getString(buffer);
+        boolean ended = buffer.get() == 1;
+        int rocketCount = getCount(buffer);
+        if (rocketCount == 0) return new Mission(name, Map.of(), ended);
+        Optional<String> missionName = Optional.of(name);
+        Map<String, Rocket> rockets = new HashMap<>(rocketCount * 2);
+        for (int i = 0; i < rocketCount; i++) {
+            String rocketName = getString(buffer);
+            rockets.put(rocketName, new Rocket(rocketName, getRocketStatus(buffer), missionName));
+        }
+        return new Mission(name, Map.copyOf(rockets), ended);
+    }
+
+    public static int sizeOf(Summary summary) {
+        int size = 1 + sizeOfVarint(summary.missions().size());
+        for (Mission mission : summary.missions()) {
+            size += sizeOf(mission);
+        }
+        return size;
+    }
+
+    public static void putSummary(ByteBuffer buffer, Summary summary) {
+        buffer.put(FORMAT_VERSION);
+        putVarint(buffer, summary.missions().size());
+        for (Mission mission : summary.missions()) {
+            putMission(buffer, mission);
+        }
+    }
+
+    public static Summary getSummary(ByteBuffer buffer) {
+        byte version = buffer.get();
+        if (version != FORMAT_VERSION)
+            throw new IllegalArgumentException("Unsupported summary format version %d".formatted(version));
+        int missionCount = getCount(buffer);
+        List<Mission> missions = new ArrayList<>(missionCount);
+        for (int i = 0; i < missionCount; i++) {
+            missions.add(getMission(buffer));
+        }
+        return new Summary(List.copyOf(missions));
+    }
+
+    public static int sizeOf(SummaryChanges summaryChanges) {
+        int size = 1 + 2 * Long.BYTES + sizeOfVarint(summaryChanges.changes().size());
+        for (ChangedMission change : summaryChanges.changes()) {
+            size += sizeOfVarint(change.position()) + sizeOf(change.mission());
+        }
+        return size;
+    }
+
+    public static void putSummaryChanges(ByteBuffer buffer, SummaryChanges summaryChanges) {
+        buffer.put(FORMAT_VERSION);
+        buffer.putLong(summaryChanges.epoch());
+        buffer.putLong(summaryChanges.version());
+        putVarint(buffer, summaryChanges.changes().size());
+        for (ChangedMission change : summaryChanges.changes()) {
+            putVarint(buffer, change.position());
+            putMission(buffer, change.mission());
+        }
+    }
+
+    public static SummaryChanges getSummaryChanges(ByteBuffer buffer) {
+        byte version = buffer.get();
+        if (version != FORMAT_VERSION)
+            throw new IllegalArgumentException("Unsupported summary format version %d".formatted(version));
+        long epoch = buffer.getLong();
+        long summaryVersion = buffer.getLong();
+        int changeCount = getCount(buffer);
+        List<ChangedMission> changes = new ArrayList<>(changeCount);
+        for (int i = 0; i < changeCount; i++) {
+            int position = getVarint(buffer);
+            changes.add(new ChangedMission(getMission(buffer), position));
+        }
+        return new SummaryChanges(epoch, summaryVersion, changes);
+    }
+
+    public static byte[] encode(Summary summary) {
+        ByteBuffer buffer = ByteBuffer.allocate(sizeOf(summary));
+        putSummary(buffer, summary);
+        return buffer.array();
+    }
+
+    private static int utf8Length(String value) {
+        int length = value.length();
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) continue;
+            if (c < 0x800) length++;
+            else if (!Character.isSurrogate(c)) length += 2;
+            else if (isSurrogatePair(value, i)) {
+                length += 2;
+                i++;
+            }
+        }
+        return length;
+    }
+
+    private static boolean isSurrogatePair(String value, int index) {
+        return Character.isHighSurrogate(value.charAt(index)) && index + 1 < value.length()
+                && Character.isLowSurrogate(value.charAt(index + 1));
+    }
+}
@@ -0,0 +1,13 @@
+package io.dragon.dataaccess;
+
+public record CacheStatistics(long hits, long misses, long evictions) {
+
+    public long requests() {
+        return hits + misses;
+    }
+
+    public double hitRate() {
+        long requests = requests();
+        return requests == 0 ? 1.0 : (double) hits / requests;
+    }
+}
@@ -0,0 +1,76 @@
+package io.dragon.dataaccess;
+
+import io.dragon.domain.Mission;
+import io.dragon.domain.MissionRepository;
+
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Read-through cache in front of any {@link MissionRepository}. {@link #findAll()} always goes to the delegate,
+ * as a full scan would only flush the hot entries out of the cache.
+ */
+public class CachingMissionRepository implements MissionRepository {
+
+    private final MissionRepository delegate;
+    private final TinyLfuCache<String, Mission> cache;
+
+    public CachingMissionRepository(MissionRepository delegate, int maximumSize) {
+        this.delegate = delegate;
+        this.cache = new TinyLfuCache<>(maximumSize);
+    }
+
+    @Override
+    public Mission save(Mission mission) {
+        Mission saved = delegate.save(mission);
+        cache.put(saved.name(), saved);
+        return saved;
+    }
+
+    @Override
+    public Mission update(Mission mission) {
+        Mission updated;
+        try {
+            updated = delegate.update(mission);
+        } catch (RuntimeException e) {
+            cache.invalidate(mission.name());
+            throw e;
+        }
+        cache.put(updated.name(), updated);
+        return updated;
+    }
+
+    @Override
+    public void updateAll(Collection<Mission> missions) {
+        try {
+            delegate.updateAll(missions);
+        } catch (RuntimeException e) {
+            missions.forEach(mission -> cache.invalidate(mission.name()));
+            throw e;
+        }
+        missions.forEach(mission -> cache.put(mission.name(), mission));
+    }
+
+    @Override
+    public Optional<Mission> findByName(String id) {
+        Mission cached = cache.get(id);
+        if (cached != null) return Optional.of(cached);
+        Optional<Mission> loaded = delegate.findByName(id);
+        loaded.ifPresent(mission -> cache.put(id, mission));
+        return loaded;
+    }
+
+    @Override
+    public boolean exists(String id) {
+        return cache.contains(id) || delegate.exists(id);
+    }
+
+    @Override
+    public Collection<Mission> findAll() {
+        return delegate.findAll();
+    }
+
+    public CacheStatistics statistics() {
+        return cache.statistics();
+    }
+}
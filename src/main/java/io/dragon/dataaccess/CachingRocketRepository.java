@@ -0,0 +1,77 @@
+package io.dragon.dataaccess;
+
+import io.dragon.domain.Rocket;
+import io.dragon.domain.RocketRepository;
+
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Read-through cache in front of any {@link RocketRepository}. Writes go to the delegate first and are then
+ * written through to the cache, so a failed write never leaves a stale entry behind. {@link #findAll()} always goes
+ * to the delegate, as a full scan would only flush the hot entries out of the cache.
+ */
+public class CachingRocketRepository implements RocketRepository {
+
+    private final RocketRepository delegate;
+    private final TinyLfuCache<String, Rocket> cache;
+
+    public CachingRocketRepository(RocketRepository delegate, int maximumSize) {
+        this.delegate = delegate;
+        this.cache = new TinyLfuCache<>(maximumSize);
+    }
+
+    @Override
+    public Rocket save(Rocket rocket) {
+        Rocket saved = delegate.save(rocket);
+        cache.put(saved.name(), saved);
+        return saved;
+    }
+
+    @Override
+    public Rocket update(Rocket rocket) {
+        Rocket updated;
+        try {
+            updated = delegate.update(rocket);
+        } catch (RuntimeException e) {
+            cache.invalidate(rocket.name());
+            throw e;
+        }
+        cache.put(updated.name(), updated);
+        return updated;
+    }
+
+    @Override
+    public void updateAll(Collection<Rocket> rockets) {
+        try {
+            delegate.updateAll(rockets);
+        } catch (RuntimeException e) {
+            rockets.forEach(rocket -> cache.invalidate(rocket.name()));
+            throw e;
+        }
+        rockets.forEach(rocket -> cache.put(rocket.name(), rocket));
+    }
+
+    @Override
+    public Optional<Rocket> findByName(String id) {
+        Rocket cached = cache.get(id);
+        if (cached != null) return Optional.of(cached);
+        Optional<Rocket> loaded = delegate.findByName(id);
+        loaded.ifPresent(rocket -> cache.put(id, rocket));
+        return loaded;
+    }
+
+    @Override
+    public boolean exists(String id) {
+        return cache.contains(id) || delegate.exists(id);
+    }
+
+    @Override
+    public Collection<Rocket> findAll() {
+        return delegate.findAll();
+    }
+
+    public CacheStatistics statistics() {
+        return cache.statistics();
+    }
+}
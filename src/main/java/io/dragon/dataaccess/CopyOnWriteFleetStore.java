@@ -0,0 +1,164 @@
+package io.dragon.dataaccess;
+
+import io.dragon.domain.Mission;
+import io.dragon.domain.Rocket;
+import io.dragon.domain.Summary;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read model shared by {@link CopyOnWriteRocketRepository} and {@link CopyOnWriteMissionRepository} for
+ * read-dominated workloads. Writers, serialized on the store, build a new immutable snapshot of rockets, missions
+ * and missions presorted in {@link Summary#MISSION_ORDER}, and publish it with a single volatile write; readers
+ * never lock or copy.
+ * <p>
+ * Publishing is O(fleet) per write: the snapshot copies the map of rockets when rockets changed, and the map of
+ * missions together with the presorted array when missions changed, even for a single changed entry. The store
+ * therefore suits fleets read far more often than written; with frequent writes, a coalescing window pays that
+ * copy once per window rather than once per write.
+ * <p>
+ * With a coalescing window, writes are first kept in pending maps, consulted by {@code findByName} and
+ * {@code exists}, and published together once the window after the first of them elapses. Sorted reads then
+ * return the last published snapshot, which lags the writes by at most the window; {@link #flush()} publishes at
+ * once.
+ */
+public final class CopyOnWriteFleetStore implements AutoCloseable {
+
+    /**
+     * Number of changed missions up to which the presorted array is patched in place of being sorted again.
+     */
+    private static final int INCREMENTAL_SORT_LIMIT = 8;
+
+    private final Map<String, Rocket> pendingRockets = new ConcurrentHashMap<>();
+    private final Map<String, Mission> pendingMissions = new ConcurrentHashMap<>();
+    private final long coalescingWindowNanos;
+    private final ScheduledExecutorService publisher;
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+    private boolean publishScheduled;
+
+    public CopyOnWriteFleetStore() {
+        this(Duration.ZERO);
+    }
+
+    public CopyOnWriteFleetStore(Duration coalescingWindow) {
+        if (coalescingWindow.isNegative())
+            throw new IllegalArgumentException("Coalescing window must not be negative");
+        this.coalescingWindowNanos = coalescingWindow.toNanos();
+        this.publisher = coalescingWindow.isZero() ? null : Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "fleet-snapshot-publisher");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Publishes pending writes immediately.
+     */
+    public synchronized void flush() {
+        publishScheduled = false;
+        if (pendingRockets.isEmpty() && pendingMissions.isEmpty()) return;
+        Snapshot current = snapshot;
+        Map<String, Rocket> rockets = current.rockets;
+        if (!pendingRockets.isEmpty()) {
+            rockets = new HashMap<>(current.rockets);
+            rockets.putAll(pendingRockets);
+        }
+        Map<String, Mission> missions = current.missions;
+        List<Mission> sortedMissions = current.sortedMissions;
+        if (!pendingMissions.isEmpty()) {
+            missions = new HashMap<>(current.missions);
+            missions.putAll(pendingMissions);
+            sortedMissions = sort(current, missions);
+        }
+        snapshot = new Snapshot(rockets, missions, sortedMissions);
+        pendingRockets.clear();
+        pendingMissions.clear();
+    }
+
+    @Override
+    public void close() {
+        flush();
+        if (publisher != null) publisher.shutdown();
+    }
+
+    Rocket findRocket(String name) {
+        Rocket pending = pendingRockets.get(name);
+        return pending != null ? pending : snapshot.rockets.get(name);
+    }
+
+    Mission findMission(String name) {
+        Mission pending = pendingMissions.get(name);
+        return pending != null ? pending : snapshot.missions.get(name);
+    }
+
+    /**
+     * Returns the published rockets, without pending writes.
+     */
+    Collection<Rocket> rockets() {
+        return Collections.unmodifiableCollection(snapshot.rockets.values());
+    }
+
+    /**
+     * Returns the published missions, without pending writes, in {@link Summary#MISSION_ORDER}.
+     */
+    List<Mission> sortedMissions() {
+        return snapshot.sortedMissions;
+    }
+
+    synchronized void writeRockets(List<Rocket> rockets) {
+        rockets.forEach(rocket -> pendingRockets.put(rocket.name(), rocket));
+        publish();
+    }
+
+    synchronized void writeMissions(List<Mission> missions) {
+        missions.forEach(mission -> pendingMissions.put(mission.name(), mission));
+        publish();
+    }
+
+    private void publish() {
+        if (publisher == null) {
+            flush();
+        } else if (!publishScheduled) {
+            publishScheduled = true;
+            publisher.schedule(this::flush, coalescingWindowNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private List<Mission> sort(Snapshot current, Map<String, Mission> missions) {
+        Mission[] sorted;
+        if (pendingMissions.size() <= INCREMENTAL_SORT_LIMIT) {
+            List<Mission> patched = new ArrayList<>(current.sortedMissions);
+            for (Mission changed : pendingMissions.values()) {
+                Mission previous = current.missions.get(changed.name());
+                if (previous != null)
+                    patched.remove(Collections.binarySearch(patched, previous, Summary.MISSION_ORDER));
+            }
+            for (Mission changed : pendingMissions.values()) {
+                int position = Collections.binarySearch(patched, changed, Summary.MISSION_ORDER);
+                patched.add(-position - 1, changed);
+            }
+            sorted = patched.toArray(Mission[]::new);
+        } else {
+            sorted = missions.values().toArray(Mission[]::new);
+            if (sorted.length >= Summary.PARALLEL_THRESHOLD) Arrays.parallelSort(sorted, Summary.MISSION_ORDER);
+            else Arrays.sort(sorted, Summary.MISSION_ORDER);
+        }
+        return Collections.unmodifiableList(Arrays.asList(sorted));
+    }
+
+    private record Snapshot(Map<String, Rocket> rockets, Map<String, Mission> missions, List<Mission> sortedMissions) {
+
+        static final Snapshot EMPTY = new Snapshot(Map.of(), Map.of(), List.of());
+    }
+}
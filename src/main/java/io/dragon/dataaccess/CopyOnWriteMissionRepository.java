@@ -0,0 +1,75 @@
+package io.dragon.dataaccess;
+
+import io.dragon.domain.Mission;
+import io.dragon.domain.MissionRepository;
+import io.dragon.domain.Summary;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Mission repository reading from the published snapshot of a {@link CopyOnWriteFleetStore}. Reads are safe from
+ * any thread and never lock; sorting in {@link Summary#MISSION_ORDER} returns the presorted missions of the
+ * snapshot as they are.
+ */
+public class CopyOnWriteMissionRepository implements MissionRepository {
+
+    private final CopyOnWriteFleetStore store;
+
+    public CopyOnWriteMissionRepository(CopyOnWriteFleetStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public Mission save(Mission mission) {
+        synchronized (store) {
+            if (store.findMission(mission.name()) != null)
+                throw new IllegalArgumentException("Mission %s already exists".formatted(mission.name()));
+            store.writeMissions(List.of(mission));
+        }
+        return mission;
+    }
+
+    @Override
+    public Mission update(Mission mission) {
+        updateAll(List.of(mission));
+        return mission;
+    }
+
+    @Override
+    public void updateAll(Collection<Mission> missions) {
+        synchronized (store) {
+            for (Mission mission : missions) {
+                if (store.findMission(mission.name()) == null)
+                    throw new IllegalArgumentException(String.format("Mission %s doesn't exist", mission.name()));
+            }
+            store.writeMissions(List.copyOf(missions));
+        }
+    }
+
+    @Override
+    public Optional<Mission> findByName(String id) {
+        return Optional.ofNullable(store.findMission(id));
+    }
+
+    @Override
+    public boolean exists(String id) {
+        return store.findMission(id) != null;
+    }
+
+    /**
+     * Returns the published missions; with a coalescing window, missions added within it are not included yet.
+     */
+    @Override
+    public Collection<Mission> findAll() {
+        return store.sortedMissions();
+    }
+
+    @Override
+    public List<Mission> findAllSorted(Comparator<? super Mission> order) {
+        if (order == Summary.MISSION_ORDER) return store.sortedMissions();
+        return MissionRepository.super.findAllSorted(order);
+    }
+}
@@ -0,0 +1,66 @@
+package io.dragon.dataaccess;
+
+import io.dragon.domain.Rocket;
+import io.dragon.domain.RocketRepository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Rocket repository reading from the published snapshot of a {@link CopyOnWriteFleetStore}. Reads are safe from
+ * any thread and never lock; every write, including {@link #updateAll(Collection)}, publishes one snapshot.
+ */
+public class CopyOnWriteRocketRepository implements RocketRepository {
+
+    private final CopyOnWriteFleetStore store;
+
+    public CopyOnWriteRocketRepository(CopyOnWriteFleetStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public Rocket save(Rocket rocket) {
+        synchronized (store) {
+            if (store.findRocket(rocket.name()) != null)
+                throw new IllegalArgumentException("Rocket %s already exists".formatted(rocket.name()));
+            store.writeRockets(List.of(rocket));
+        }
+        return rocket;
+    }
+
+    @Override
+    public Rocket update(Rocket rocket) {
+        updateAll(List.of(rocket));
+        return rocket;
+    }
+
+    @Override
+    public void updateAll(Collection<Rocket> rockets) {
+        synchronized (store) {
+            for (Rocket rocket : rockets) {
+                if (store.findRocket(rocket.name()) == null)
+                    throw new IllegalArgumentException(String.format("Rocket %s doesn't exist", rocket.name()));
+            }
+            store.writeRockets(List.copyOf(rockets));
+        }
+    }
+
+    @Override
+    public Optional<Rocket> findByName(String id) {
+        return Optional.ofNullable(store.findRocket(id));
+    }
+
+    @Override
+    public boolean exists(String id) {
+        return store.findRocket(id) != null;
+    }
+
+    /**
+     * Returns the published rockets; with a coalescing window, rockets written within it may be missing or stale.
+     */
+    @Override
+    public Collection<Rocket> findAll() {
+        return store.rockets();
+    }
+}
@@ -0,0 +1,12 @@
+package io.dragon.dataaccess;
+
+/**
+ * Failure of the underlying store, such as a lost database connection. Not thrown for missing or duplicate
+ * entities, which are reported like in the in-memory repositories.
+ */
+public class DataAccessException extends RuntimeException {
+
+    public DataAccessException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
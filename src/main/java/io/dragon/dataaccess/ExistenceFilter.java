@@ -0,0 +1,54 @@
+package io.dragon.dataaccess;
+
+import java.util.Collection;
+
+/**
+ * Names known to a repository, kept in a {@link ScalableBloomFilter}, with statistics of how lookups were
+ * answered. Shared by the existence-filter decorators. Not thread-safe.
+ */
+final class ExistenceFilter {
+
+    private final int initialCapacity;
+    private final double falsePositiveRate;
+    private ScalableBloomFilter filter;
+    private long filteredLookups;
+    private long backendLookups;
+    private long falsePositives;
+
+    ExistenceFilter(Collection<String> names, int initialCapacity, double falsePositiveRate) {
+        this.initialCapacity = initialCapacity;
+        this.falsePositiveRate = falsePositiveRate;
+        rebuild(names);
+    }
+
+    void add(String name) {
+        filter.add(name);
+    }
+
+    /**
+     * Tells whether the name may be known; when it may, the caller asks the backend and reports the answer with
+     * {@link #backendAnswered(boolean)}.
+     */
+    boolean mightContain(String name) {
+        if (filter.mightContain(name)) return true;
+        filteredLookups++;
+        return false;
+    }
+
+    void backendAnswered(boolean found) {
+        backendLookups++;
+        if (!found) falsePositives++;
+    }
+
+    void rebuild(Collection<String> names) {
+        int capacity = Math.max(initialCapacity, names.size());
+        ScalableBloomFilter rebuilt = new ScalableBloomFilter(capacity, falsePositiveRate);
+        names.forEach(rebuilt::add);
+        filter = rebuilt;
+    }
+
+    ExistenceFilterStatistics statistics() {
+        return new ExistenceFilterStatistics(filteredLookups, backendLookups, falsePositives,
+                filter.expectedFalsePositiveRate());
+    }
+}
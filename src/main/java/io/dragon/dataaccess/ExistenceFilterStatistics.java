@@ -0,0 +1,21 @@
+package io.dragon.dataaccess;
+
+/**
+ * Lookups answered by an existence filter alone, lookups passed to the backend and those of them the backend did
+ * not find, which are the false positives of the filter.
+ */
+public record ExistenceFilterStatistics(long filteredLookups, long backendLookups, long falsePositives,
+                                        double expectedFalsePositiveRate) {
+
+    public long lookups() {
+        return filteredLookups + backendLookups;
+    }
+
+    /**
+     * Returns the share of lookups of absent names which the filter could not answer.
+     */
+    public double observedFalsePositiveRate() {
+        long absentLookups = filteredLookups + falsePositives;
+        return absentLookups == 0 ? 0.0 : (double) falsePositives / absentLookups;
+    }
+}
@@ -0,0 +1,91 @@
+package io.dragon.dataaccess;
+
+import io.dragon.domain.Mission;
+import io.dragon.domain.MissionRepository;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Keeps a scalable Bloom filter of the mission names in front of a {@link MissionRepository} whose lookups are
+ * expensive, such as a database. {@link #exists(String)} and {@link #findByName(String)} for unknown names are
+ * answered by the filter alone; only possible hits reach the delegate. The filter is seeded from
+ * {@link MissionRepository#findAll()} and follows the missions saved through this decorator; {@link #rebuild()}
+ * builds it again when the delegate was changed by other means. Not thread-safe.
+ */
+public class ExistenceFilteringMissionRepository implements MissionRepository {
+
+    private final MissionRepository delegate;
+    private final ExistenceFilter filter;
+
+    public ExistenceFilteringMissionRepository(MissionRepository delegate, int expectedMissions,
+                                               double falsePositiveRate) {
+        this.delegate = delegate;
+        this.filter = new ExistenceFilter(missionNames(delegate.findAll()), expectedMissions, falsePositiveRate);
+    }
+
+    @Override
+    public Mission save(Mission mission) {
+        Mission saved = delegate.save(mission);
+        filter.add(saved.name());
+        return saved;
+    }
+
+    @Override
+    public Mission update(Mission mission) {
+        return delegate.update(mission);
+    }
+
+    @Override
+    public void updateAll(Collection<Mission> missions) {
+        delegate.updateAll(missions);
+    }
+
+    @Override
+    public Optional<Mission> findByName(String id) {
+        if (!filter.mightContain(id)) return Optional.empty();
+        Optional<Mission> mission = delegate.findByName(id);
+        filter.backendAnswered(mission.isPresent());
+        return mission;
+    }
+
+    @Override
+    public boolean exists(String id) {
+        if (!filter.mightContain(id)) return false;
+        boolean exists = delegate.exists(id);
+        filter.backendAnswered(exists);
+        return exists;
+    }
+
+    @Override
+    public Collection<Mission> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public List<Mission> findAllSorted(Comparator<? super Mission> order) {
+        return delegate.findAllSorted(order);
+    }
+
+    @Override
+    public boolean storesRocketReferences() {
+        return delegate.storesRocketReferences();
+    }
+
+    /**
+     * Replaces the filter with one built from a snapshot of all missions in the delegate.
+     */
+    public void rebuild() {
+        filter.rebuild(missionNames(delegate.findAll()));
+    }
+
+    public ExistenceFilterStatistics statistics() {
+        return filter.statistics();
+    }
+
+    private static List<String> missionNames(Collection<Mission> missions) {
+        return missions.stream().map(Mission::name).toList();
+    }
+}
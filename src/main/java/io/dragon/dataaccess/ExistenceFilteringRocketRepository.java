@@ -0,0 +1,75 @@
+package io.dragon.dataaccess;
+
+import io.dragon.domain.Rocket;
+import io.dragon.domain.RocketRepository;
+
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Keeps a scalable Bloom filter of the rocket names in front of a {@link RocketRepository} whose lookups are
+ * expensive, such as a database. {@link #exists(String)} and {@link #findByName(String)} for unknown names are
+ * answered by the filter alone; only possible hits reach the delegate. The filter is seeded with the names already
+ * in the delegate and follows the rockets saved through this decorator; {@link #rebuild(Collection)} replaces it
+ * when the delegate was changed by other means. Not thread-safe.
+ */
+public class ExistenceFilteringRocketRepository implements RocketRepository {
+
+    private final RocketRepository delegate;
+    private final ExistenceFilter filter;
+
+    public ExistenceFilteringRocketRepository(RocketRepository delegate, Collection<String> existingNames,
+                                              int expectedRockets, double falsePositiveRate) {
+        this.delegate = delegate;
+        this.filter = new ExistenceFilter(existingNames, expectedRockets, falsePositiveRate);
+    }
+
+    @Override
+    public Rocket save(Rocket rocket) {
+        Rocket saved = delegate.save(rocket);
+        filter.add(saved.name());
+        return saved;
+    }
+
+    @Override
+    public Rocket update(Rocket rocket) {
+        return delegate.update(rocket);
+    }
+
+    @Override
+    public void updateAll(Collection<Rocket> rockets) {
+        delegate.updateAll(rockets);
+    }
+
+    @Override
+    public Optional<Rocket> findByName(String id) {
+        if (!filter.mightContain(id)) return Optional.empty();
+        Optional<Rocket> rocket = delegate.findByName(id);
+        filter.backendAnswered(rocket.isPresent());
+        return rocket;
+    }
+
+    @Override
+    public boolean exists(String id) {
+        if (!filter.mightContain(id)) return false;
+        boolean exists = delegate.exists(id);
+        filter.backendAnswered(exists);
+        return exists;
+    }
+
+    @Override
+    public Collection<Rocket> findAll() {
+        return delegate.findAll();
+    }
+
+    /**
+     * Replaces the filter with one built from a snapshot of all rocket names in the delegate.
+     */
+    public void rebuild(Collection<String> rocketNames) {
+        filter.rebuild(rocketNames);
+    }
+
+    public ExistenceFilterStatistics statistics() {
+        return filter.statistics();
+    }
+}
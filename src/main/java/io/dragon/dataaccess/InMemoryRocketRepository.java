@@ -3,7 +3,9 @@ package io.dragon.dataaccess;
 import io.dragon.domain.Rocket;
 import io.dragon.domain.RocketRepository;
 
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
@@ -40,4 +42,9 @@ public class InMemoryRocketRepository implements RocketRepository {
     public boolean exists(String id) {
         return rockets.containsKey(id);
     }
+
+    @Override
+    public Collection<Rocket> findAll() {
+        return List.copyOf(rockets.values());
+    }
 }
@@ -0,0 +1,146 @@
+package io.dragon.dataaccess;
+
+import io.dragon.domain.UnitOfWork;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Database connection shared by {@link JdbcRocketRepository} and {@link JdbcMissionRepository}. Creates their
+ * schema when missing and caches prepared statements, so every statement is parsed once per store. Assignments
+ * live in the {@code mission_rockets} join table, one row per assigned rocket. Every repository call runs in its
+ * own transaction, unless it is made within {@link #execute(Runnable)}; passing the store to the domain service as
+ * its {@link UnitOfWork} therefore commits all writes of one domain operation together. Statements use only
+ * standard SQL. Like the in-memory repositories, not thread-safe.
+ */
+public final class JdbcFleetStore implements UnitOfWork, AutoCloseable {
+
+    private static final List<String> SCHEMA = List.of(
+            "CREATE TABLE IF NOT EXISTS rockets (name VARCHAR(255) PRIMARY KEY, status VARCHAR(16) NOT NULL)",
+            "CREATE TABLE IF NOT EXISTS missions (name VARCHAR(255) PRIMARY KEY, ended BOOLEAN NOT NULL)",
+            "CREATE TABLE IF NOT EXISTS mission_rockets ("
+                    + "rocket_name VARCHAR(255) PRIMARY KEY REFERENCES rockets (name), "
+                    + "mission_name VARCHAR(255) NOT NULL REFERENCES missions (name))",
+            "CREATE INDEX IF NOT EXISTS mission_rockets_mission ON mission_rockets (mission_name)");
+
+    private static final String UNIQUE_VIOLATION = "23505";
+
+    private final Connection connection;
+    private final Map<String, PreparedStatement> statements = new HashMap<>();
+    private boolean inUnitOfWork;
+
+    public JdbcFleetStore(Connection connection) {
+        this.connection = connection;
+        try {
+            connection.setAutoCommit(false);
+            try (Statement statement = connection.createStatement()) {
+                for (String ddl : SCHEMA) {
+                    statement.execute(ddl);
+                }
+            }
+            connection.commit();
+        } catch (SQLException e) {
+            throw new DataAccessException("Cannot create fleet schema", e);
+        }
+    }
+
+    public static JdbcFleetStore open(DataSource dataSource) {
+        try {
+            return new JdbcFleetStore(dataSource.getConnection());
+        } catch (SQLException e) {
+            throw new DataAccessException("Cannot connect to fleet database", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            for (PreparedStatement statement : statements.values()) {
+                statement.close();
+            }
+            statements.clear();
+            connection.close();
+        } catch (SQLException e) {
+            throw new DataAccessException("Cannot close fleet database connection", e);
+        }
+    }
+
+    PreparedStatement prepare(String sql) throws SQLException {
+        PreparedStatement statement = statements.get(sql);
+        if (statement == null) {
+            statement = connection.prepareStatement(sql);
+            statements.put(sql, statement);
+        }
+        return statement;
+    }
+
+    /**
+     * Runs the repository calls made by the writes in one transaction, committed when the writes return and rolled
+     * back when they throw. Nested calls join the transaction already running.
+     */
+    @Override
+    public void execute(Runnable writes) {
+        if (inUnitOfWork) {
+            writes.run();
+            return;
+        }
+        inTransaction("commit unit of work", () -> {
+            inUnitOfWork = true;
+            try {
+                writes.run();
+            } finally {
+                inUnitOfWork = false;
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Runs the work and commits it, or rolls it back when it fails; within {@link #execute(Runnable)}, the work
+     * joins the running transaction instead. Runtime exceptions are rethrown as they are, SQL exceptions as
+     * {@link DataAccessException}.
+     */
+    <T> T inTransaction(String description, SqlWork<T> work) {
+        if (inUnitOfWork) {
+            try {
+                return work.run();
+            } catch (SQLException e) {
+                throw new DataAccessException("Cannot " + description, e);
+            }
+        }
+        try {
+            T result = work.run();
+            connection.commit();
+            return result;
+        } catch (SQLException e) {
+            rollback(e);
+            throw new DataAccessException("Cannot " + description, e);
+        } catch (RuntimeException e) {
+            rollback(e);
+            throw e;
+        }
+    }
+
+    static boolean isUniqueViolation(SQLException e) {
+        return UNIQUE_VIOLATION.equals(e.getSQLState());
+    }
+
+    private void rollback(Exception cause) {
+        try {
+            connection.rollback();
+        } catch (SQLException e) {
+            cause.addSuppressed(e);
+        }
+    }
+
+    @FunctionalInterface
+    interface SqlWork<T> {
+        T run() throws SQLException;
+    }
+}
@@ -0,0 +1,156 @@
+package io.dragon.dataaccess;
+
+import io.dragon.domain.Mission;
+import io.dragon.domain.MissionRepository;
+import io.dragon.domain.Rocket;
+import io.dragon.domain.RocketStatus;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Mission repository stored in a relational database through {@link JdbcFleetStore}. Rockets of a mission are
+ * read through the {@code mission_rockets} join table, which {@link JdbcRocketRepository} writes whenever a rocket
+ * is assigned or released, so writing a mission stores only its own row.
+ */
+public class JdbcMissionRepository implements MissionRepository {
+
+    private static final String INSERT_MISSION = "INSERT INTO missions (name, ended) VALUES (?, ?)";
+    private static final String UPDATE_MISSION = "UPDATE missions SET ended = ? WHERE name = ?";
+    private static final String SELECT_MISSIONS = "SELECT m.name, m.ended, r.name, r.status FROM missions m "
+            + "LEFT JOIN mission_rockets mr ON mr.mission_name = m.name "
+            + "LEFT JOIN rockets r ON r.name = mr.rocket_name";
+    private static final String FIND_MISSION = SELECT_MISSIONS + " WHERE m.name = ?";
+    private static final String FIND_ALL_MISSIONS = SELECT_MISSIONS + " ORDER BY m.name";
+    private static final String MISSION_EXISTS = "SELECT 1 FROM missions WHERE name = ?";
+
+    private final JdbcFleetStore store;
+
+    public JdbcMissionRepository(JdbcFleetStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public Mission save(Mission mission) {
+        return store.inTransaction("save mission " + mission.name(), () -> {
+            PreparedStatement insert = store.prepare(INSERT_MISSION);
+            insert.setString(1, mission.name());
+            insert.setBoolean(2, mission.isEnded());
+            try {
+                insert.executeUpdate();
+            } catch (SQLException e) {
+                if (JdbcFleetStore.isUniqueViolation(e))
+                    throw new IllegalArgumentException("Mission %s already exists".formatted(mission.name()), e);
+                throw e;
+            }
+            return mission;
+        });
+    }
+
+    @Override
+    public Mission update(Mission mission) {
+        updateAll(List.of(mission));
+        return mission;
+    }
+
+    /**
+     * Stores whether the missions ended. Their rockets are not written: the rockets of a mission are derived from
+     * the rocket rows assigned to it, so a rocket joins or leaves a mission only through
+     * {@link JdbcRocketRepository}, and the rockets of a mission passed here are ignored.
+     */
+    @Override
+    public void updateAll(Collection<Mission> missions) {
+        if (missions.isEmpty()) return;
+        List<Mission> updated = List.copyOf(missions);
+        store.inTransaction("update missions", () -> {
+            PreparedStatement update = store.prepare(UPDATE_MISSION);
+            try {
+                for (Mission mission : updated) {
+                    update.setBoolean(1, mission.isEnded());
+                    update.setString(2, mission.name());
+                    update.addBatch();
+                }
+                int[] updateCounts = update.executeBatch();
+                for (int i = 0; i < updateCounts.length; i++) {
+                    if (updateCounts[i] == 0) {
+                        String name = updated.get(i).name();
+                        throw new IllegalArgumentException(String.format("Mission %s doesn't exist", name));
+                    }
+                }
+            } finally {
+                update.clearBatch();
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public Optional<Mission> findByName(String id) {
+        return store.inTransaction("find mission " + id, () -> {
+            PreparedStatement find = store.prepare(FIND_MISSION);
+            find.setString(1, id);
+            try (ResultSet rows = find.executeQuery()) {
+                List<Mission> missions = readMissions(rows);
+                return missions.isEmpty() ? Optional.empty() : Optional.of(missions.get(0));
+            }
+        });
+    }
+
+    @Override
+    public boolean exists(String id) {
+        return store.inTransaction("check mission " + id, () -> {
+            PreparedStatement exists = store.prepare(MISSION_EXISTS);
+            exists.setString(1, id);
+            try (ResultSet row = exists.executeQuery()) {
+                return row.next();
+            }
+        });
+    }
+
+    @Override
+    public Collection<Mission> findAll() {
+        return store.inTransaction("find missions", () -> {
+            try (ResultSet rows = store.prepare(FIND_ALL_MISSIONS).executeQuery()) {
+                return readMissions(rows);
+            }
+        });
+    }
+
+    @Override
+    public boolean storesRocketReferences() {
+        return true;
+    }
+
+    /**
+     * Groups consecutive rows of the same mission, one row per assigned rocket or a single row without rocket.
+     */
+    private static List<Mission> readMissions(ResultSet rows) throws SQLException {
+        List<Mission> missions = new ArrayList<>();
+        String name = null;
+        boolean ended = false;
+        Map<String, Rocket> rockets = new HashMap<>();
+        while (rows.next()) {
+            String rowMission = rows.getString(1);
+            if (!rowMission.equals(name)) {
+                if (name != null) missions.add(new Mission(name, Map.copyOf(rockets), ended));
+                name = rowMission;
+                ended = rows.getBoolean(2);
+                rockets.clear();
+            }
+            String rocketName = rows.getString(3);
+            if (rocketName != null) {
+                rockets.put(rocketName, new Rocket(rocketName, RocketStatus.valueOf(rows.getString(4)),
+                        Optional.of(name)));
+            }
+        }
+        if (name != null) missions.add(new Mission(name, Map.copyOf(rockets), ended));
+        return missions;
+    }
+}
@@ -0,0 +1,202 @@
+package io.dragon.dataaccess;
+
+import io.dragon.domain.Rocket;
+import io.dragon.domain.RocketRepository;
+import io.dragon.domain.RocketStatus;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Rocket repository stored in a relational database through {@link JdbcFleetStore}. The mission of a rocket is
+ * its row in the {@code mission_rockets} join table, written together with the rocket. {@link #updateAll(Collection)}
+ * sends all rockets as JDBC batches in a single transaction; it reads the stored assignments of the rockets with
+ * {@code IN} lists of up to 64 names and writes only the rows of rockets whose mission changed, so a status change
+ * is the update of the rocket row and one query.
+ */
+public class JdbcRocketRepository implements RocketRepository {
+
+    private static final String INSERT_ROCKET = "INSERT INTO rockets (name, status) VALUES (?, ?)";
+    private static final String UPDATE_ROCKET = "UPDATE rockets SET status = ? WHERE name = ?";
+    private static final String DELETE_ASSIGNMENT = "DELETE FROM mission_rockets WHERE rocket_name = ?";
+    private static final String UPDATE_ASSIGNMENT = "UPDATE mission_rockets SET mission_name = ? WHERE rocket_name = ?";
+    private static final String INSERT_ASSIGNMENT =
+            "INSERT INTO mission_rockets (rocket_name, mission_name) VALUES (?, ?)";
+    private static final String SELECT_ROCKETS = "SELECT r.name, r.status, mr.mission_name FROM rockets r "
+            + "LEFT JOIN mission_rockets mr ON mr.rocket_name = r.name";
+    private static final String FIND_ROCKET = SELECT_ROCKETS + " WHERE r.name = ?";
+    private static final String FIND_ALL_ROCKETS = SELECT_ROCKETS + " ORDER BY r.name";
+    private static final String FIND_ASSIGNMENTS = "SELECT rocket_name, mission_name FROM mission_rockets "
+            + "WHERE rocket_name IN (%s)";
+    private static final int MAX_ASSIGNMENT_CHUNK = 64;
+    private static final String ROCKET_EXISTS = "SELECT 1 FROM rockets WHERE name = ?";
+
+    private final JdbcFleetStore store;
+
+    public JdbcRocketRepository(JdbcFleetStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public Rocket save(Rocket rocket) {
+        return store.inTransaction("save rocket " + rocket.name(), () -> {
+            PreparedStatement insert = store.prepare(INSERT_ROCKET);
+            insert.setString(1, rocket.name());
+            insert.setString(2, rocket.status().name());
+            try {
+                insert.executeUpdate();
+            } catch (SQLException e) {
+                if (JdbcFleetStore.isUniqueViolation(e))
+                    throw new IllegalArgumentException("Rocket %s already exists".formatted(rocket.name()), e);
+                throw e;
+            }
+            if (rocket.missionName().isPresent()) {
+                PreparedStatement assign = store.prepare(INSERT_ASSIGNMENT);
+                assign.setString(1, rocket.name());
+                assign.setString(2, rocket.missionName().get());
+                assign.executeUpdate();
+            }
+            return rocket;
+        });
+    }
+
+    @Override
+    public Rocket update(Rocket rocket) {
+        updateAll(List.of(rocket));
+        return rocket;
+    }
+
+    @Override
+    public void updateAll(Collection<Rocket> rockets) {
+        if (rockets.isEmpty()) return;
+        List<Rocket> updated = List.copyOf(rockets);
+        store.inTransaction("update rockets", () -> {
+            PreparedStatement update = store.prepare(UPDATE_ROCKET);
+            try {
+                for (Rocket rocket : updated) {
+                    update.setString(1, rocket.status().name());
+                    update.setString(2, rocket.name());
+                    update.addBatch();
+                }
+                int[] updateCounts = update.executeBatch();
+                for (int i = 0; i < updateCounts.length; i++) {
+                    if (updateCounts[i] == 0) {
+                        String name = updated.get(i).name();
+                        throw new IllegalArgumentException(String.format("Rocket %s doesn't exist", name));
+                    }
+                }
+            } finally {
+                update.clearBatch();
+            }
+            updateAssignments(updated);
+            return null;
+        });
+    }
+
+    @Override
+    public Optional<Rocket> findByName(String id) {
+        return store.inTransaction("find rocket " + id, () -> {
+            PreparedStatement find = store.prepare(FIND_ROCKET);
+            find.setString(1, id);
+            try (ResultSet row = find.executeQuery()) {
+                return row.next() ? Optional.of(readRocket(row)) : Optional.empty();
+            }
+        });
+    }
+
+    @Override
+    public boolean exists(String id) {
+        return store.inTransaction("check rocket " + id, () -> {
+            PreparedStatement exists = store.prepare(ROCKET_EXISTS);
+            exists.setString(1, id);
+            try (ResultSet row = exists.executeQuery()) {
+                return row.next();
+            }
+        });
+    }
+
+    @Override
+    public Collection<Rocket> findAll() {
+        return store.inTransaction("find rockets", () -> {
+            List<Rocket> rockets = new ArrayList<>();
+            try (ResultSet rows = store.prepare(FIND_ALL_ROCKETS).executeQuery()) {
+                while (rows.next()) {
+                    rockets.add(readRocket(rows));
+                }
+            }
+            return rockets;
+        });
+    }
+
+    /**
+     * Writes the assignment rows of the rockets whose mission differs from the stored one. The stored assignments
+     * are read in chunks whose number of parameters is rounded up to a power of two, repeating the last name, so
+     * only a handful of statements is ever prepared.
+     */
+    private void updateAssignments(List<Rocket> rockets) throws SQLException {
+        Map<String, String> stored = new HashMap<>();
+        for (int from = 0; from < rockets.size(); from += MAX_ASSIGNMENT_CHUNK) {
+            List<Rocket> chunk = rockets.subList(from, Math.min(rockets.size(), from + MAX_ASSIGNMENT_CHUNK));
+            int parameters = Integer.highestOneBit(chunk.size() * 2 - 1);
+            PreparedStatement find = store.prepare(FIND_ASSIGNMENTS.formatted(
+                    String.join(", ", Collections.nCopies(parameters, "?"))));
+            for (int i = 0; i < parameters; i++) {
+                find.setString(i + 1, chunk.get(Math.min(i, chunk.size() - 1)).name());
+            }
+            try (ResultSet rows = find.executeQuery()) {
+                while (rows.next()) {
+                    stored.put(rows.getString(1), rows.getString(2));
+                }
+            }
+        }
+        PreparedStatement unassign = store.prepare(DELETE_ASSIGNMENT);
+        PreparedStatement reassign = store.prepare(UPDATE_ASSIGNMENT);
+        PreparedStatement assign = store.prepare(INSERT_ASSIGNMENT);
+        try {
+            int unassigned = 0;
+            int reassigned = 0;
+            int assigned = 0;
+            for (Rocket rocket : rockets) {
+                String storedMission = stored.get(rocket.name());
+                String missionName = rocket.missionName().orElse(null);
+                if (Objects.equals(storedMission, missionName)) continue;
+                if (missionName == null) {
+                    unassign.setString(1, rocket.name());
+                    unassign.addBatch();
+                    unassigned++;
+                } else if (storedMission != null) {
+                    reassign.setString(1, missionName);
+                    reassign.setString(2, rocket.name());
+                    reassign.addBatch();
+                    reassigned++;
+                } else {
+                    assign.setString(1, rocket.name());
+                    assign.setString(2, missionName);
+                    assign.addBatch();
+                    assigned++;
+                }
+            }
+            if (unassigned > 0) unassign.executeBatch();
+            if (reassigned > 0) reassign.executeBatch();
+            if (assigned > 0) assign.executeBatch();
+        } finally {
+            unassign.clearBatch();
+            reassign.clearBatch();
+            assign.clearBatch();
+        }
+    }
+
+    private static Rocket readRocket(ResultSet row) throws SQLException {
+        return new Rocket(row.getString(1), RocketStatus.valueOf(row.getString(2)),
+                Optional.ofNullable(row.getString(3)));
+    }
+}
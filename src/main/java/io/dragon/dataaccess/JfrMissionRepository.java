@@ -0,0 +1,113 @@
+package io.dragon.dataaccess;
+
+import io.dragon.domain.Mission;
+import io.dragon.domain.MissionRepository;
+import io.dragon.monitoring.RepositoryCallEvent;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Emits a {@link RepositoryCallEvent} for every call of the decorated repository, also when the call throws.
+ * Costs next to nothing while the event is disabled.
+ */
+public class JfrMissionRepository implements MissionRepository {
+
+    private static final String REPOSITORY = "mission";
+
+    private final MissionRepository delegate;
+
+    public JfrMissionRepository(MissionRepository delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public Mission save(Mission mission) {
+        RepositoryCallEvent event = RepositoryCallEvent.start(REPOSITORY, "save", mission.name());
+        try {
+            Mission saved = delegate.save(mission);
+            event.succeeded(1);
+            return saved;
+        } finally {
+            event.finish();
+        }
+    }
+
+    @Override
+    public Mission update(Mission mission) {
+        RepositoryCallEvent event = RepositoryCallEvent.start(REPOSITORY, "update", mission.name());
+        try {
+            Mission updated = delegate.update(mission);
+            event.succeeded(1);
+            return updated;
+        } finally {
+            event.finish();
+        }
+    }
+
+    @Override
+    public void updateAll(Collection<Mission> missions) {
+        RepositoryCallEvent event = RepositoryCallEvent.start(REPOSITORY, "updateAll", null);
+        try {
+            delegate.updateAll(missions);
+            event.succeeded(missions.size());
+        } finally {
+            event.finish();
+        }
+    }
+
+    @Override
+    public Optional<Mission> findByName(String id) {
+        RepositoryCallEvent event = RepositoryCallEvent.start(REPOSITORY, "findByName", id);
+        try {
+            Optional<Mission> mission = delegate.findByName(id);
+            event.succeeded(mission.isPresent() ? 1 : 0);
+            return mission;
+        } finally {
+            event.finish();
+        }
+    }
+
+    @Override
+    public boolean exists(String id) {
+        RepositoryCallEvent event = RepositoryCallEvent.start(REPOSITORY, "exists", id);
+        try {
+            boolean exists = delegate.exists(id);
+            event.succeeded(exists ? 1 : 0);
+            return exists;
+        } finally {
+            event.finish();
+        }
+    }
+
+    @Override
+    public Collection<Mission> findAll() {
+        RepositoryCallEvent event = RepositoryCallEvent.start(REPOSITORY, "findAll", null);
+        try {
+            Collection<Mission> missions = delegate.findAll();
+            event.succeeded(missions.size());
+            return missions;
+        } finally {
+            event.finish();
+        }
+    }
+
+    @Override
+    public List<Mission> findAllSorted(Comparator<? super Mission> order) {
+        RepositoryCallEvent event = RepositoryCallEvent.start(REPOSITORY, "findAllSorted", null);
+        try {
+            List<Mission> missions = delegate.findAllSorted(order);
+            event.succeeded(missions.size());
+            return missions;
+        } finally {
+            event.finish();
+        }
+    }
+
+    @Override
+    public boolean storesRocketReferences() {
+        return delegate.storesRocketReferences();
+    }
+}
@@ -0,0 +1,94 @@
+package io.dragon.dataaccess;
+
+import io.dragon.domain.Rocket;
+import io.dragon.domain.RocketRepository;
+import io.dragon.monitoring.RepositoryCallEvent;
+
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Emits a {@link RepositoryCallEvent} for every call of the decorated repository, also when the call throws.
+ * Costs next to nothing while the event is disabled.
+ */
+public class JfrRocketRepository implements RocketRepository {
+
+    private static final String REPOSITORY = "rocket";
+
+    private final RocketRepository delegate;
+
+    public JfrRocketRepository(RocketRepository delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public Rocket save(Rocket rocket) {
+        RepositoryCallEvent event = RepositoryCallEvent.start(REPOSITORY, "save", rocket.name());
+        try {
+            Rocket saved = delegate.save(rocket);
+            event.succeeded(1);
+            return saved;
+        } finally {
+            event.finish();
+        }
+    }
+
+    @Override
+    public Rocket update(Rocket rocket) {
+        RepositoryCallEvent event = RepositoryCallEvent.start(REPOSITORY, "update", rocket.name());
+        try {
+            Rocket updated = delegate.update(rocket);
+            event.succeeded(1);
+            return updated;
+        } finally {
+            event.finish();
+        }
+    }
+
+    @Override
+    public void updateAll(Collection<Rocket> rockets) {
+        RepositoryCallEvent event = RepositoryCallEvent.start(REPOSITORY, "updateAll", null);
+        try {
+            delegate.updateAll(rockets);
+            event.succeeded(rockets.size());
+        } finally {
+            event.finish();
+        }
+    }
+
+    @Override
+    public Optional<Rocket> findByName(String id) {
+        RepositoryCallEvent event = RepositoryCallEvent.start(REPOSITORY, "findByName", id);
+        try {
+            Optional<Rocket> rocket = delegate.findByName(id);
+            event.succeeded(rocket.isPresent() ? 1 : 0);
+            return rocket;
+        } finally {
+            event.finish();
+        }
+    }
+
+    @Override
+    public boolean exists(String id) {
+        RepositoryCallEvent event = RepositoryCallEvent.start(REPOSITORY, "exists", id);
+        try {
+            boolean exists = delegate.exists(id);
+            event.succeeded(exists ? 1 : 0);
+            return exists;
+        } finally {
+            event.finish();
+        }
+    }
+
+    @Override
+    public Collection<Rocket> findAll() {
+        RepositoryCallEvent event = RepositoryCallEvent.start(REPOSITORY, "findAll", null);
+        try {
+            Collection<Rocket> rockets = delegate.findAll();
+            event.succeeded(rockets.size());
+            return rockets;
+        } finally {
+            event.finish();
+        }
+    }
+}
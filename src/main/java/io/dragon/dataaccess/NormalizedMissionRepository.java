@@ -0,0 +1,86 @@
+package io.dragon.dataaccess;
+
+import io.dragon.domain.Mission;
+import io.dragon.domain.MissionRepository;
+import io.dragon.domain.Rocket;
+import io.dragon.domain.RocketRepository;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Mission repository keeping only the names of assigned rockets. Rocket state is read from the rocket repository
+ * whenever a mission is loaded, so every rocket is stored once and changing a rocket never requires writing its
+ * mission.
+ */
+public class NormalizedMissionRepository implements MissionRepository {
+
+    private final RocketRepository rocketRepository;
+    private final Map<String, StoredMission> missions;
+
+    public NormalizedMissionRepository(RocketRepository rocketRepository) {
+        this.rocketRepository = rocketRepository;
+        this.missions = new HashMap<>();
+    }
+
+    @Override
+    public Mission save(Mission mission) {
+        if (missions.containsKey(mission.name()))
+            throw new IllegalArgumentException("Mission %s already exists".formatted(mission.name()));
+        missions.put(mission.name(), StoredMission.of(mission));
+        return mission;
+    }
+
+    @Override
+    public Mission update(Mission mission) {
+        if (!missions.containsKey(mission.name()))
+            throw new IllegalArgumentException(String.format("Mission %s doesn't exist", mission.name()));
+        missions.put(mission.name(), StoredMission.of(mission));
+        return mission;
+    }
+
+    @Override
+    public Optional<Mission> findByName(String id) {
+        return Optional.ofNullable(missions.get(id)).map(this::resolve);
+    }
+
+    @Override
+    public boolean exists(String id) {
+        return missions.containsKey(id);
+    }
+
+    @Override
+    public Collection<Mission> findAll() {
+        return missions.values().stream()
+                .map(this::resolve)
+                .toList();
+    }
+
+    @Override
+    public boolean storesRocketReferences() {
+        return true;
+    }
+
+    private Mission resolve(StoredMission stored) {
+        if (stored.rocketNames().isEmpty()) return new Mission(stored.name(), Map.of(), stored.isEnded());
+        Map<String, Rocket> rockets = new HashMap<>(stored.rocketNames().size() * 2);
+        for (String rocketName : stored.rocketNames()) {
+            Rocket rocket = rocketRepository.findByName(rocketName)
+                    .orElseThrow(() -> new IllegalStateException("Rocket %s of mission %s doesn't exist"
+                            .formatted(rocketName, stored.name())));
+            rockets.put(rocketName, rocket);
+        }
+        return new Mission(stored.name(), Map.copyOf(rockets), stored.isEnded());
+    }
+
+    private record StoredMission(String name, Set<String> rocketNames, boolean isEnded) {
+
+        static StoredMission of(Mission mission) {
+            return new StoredMission(mission.name(), Set.copyOf(mission.rockets().keySet()), mission.isEnded());
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package io.dragon.dataaccess;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Scalable Bloom filter of names. Starts with a stage sized for the initial capacity; once a stage is full a new
+ * one is added with twice the capacity and half the false positive rate, so the overall rate stays below the
+ * requested one however many names are added. Not thread-safe.
+ */
+final class ScalableBloomFilter {
+
+    private static final int GROWTH = 2;
+    private static final double TIGHTENING = 0.5;
+
+    private final List<Stage> stages = new ArrayList<>();
+    private final double firstStageRate;
+    private long size;
+
+    ScalableBloomFilter(int initialCapacity, double falsePositiveRate) {
+        if (initialCapacity < 1) throw new IllegalArgumentException("Initial capacity must be positive");
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1)
+            throw new IllegalArgumentException("False positive rate must be between 0 and 1");
+        this.firstStageRate = falsePositiveRate * (1 - TIGHTENING);
+        stages.add(new Stage(initialCapacity, firstStageRate));
+    }
+
+    void add(String name) {
+        long hash = hash(name);
+        if (mightContain(hash)) return;
+        Stage last = stages.get(stages.size() - 1);
+        if (last.count >= last.capacity) {
+            last = new Stage(last.capacity * GROWTH,
+                    firstStageRate * Math.pow(TIGHTENING, stages.size()));
+            stages.add(last);
+        }
+        last.add(hash);
+        size++;
+    }
+
+    boolean mightContain(String name) {
+        return mightContain(hash(name));
+    }
+
+    /**
+     * Returns the number of distinct names added, undercounted by names mistaken for already added ones.
+     */
+    long size() {
+        return size;
+    }
+
+    /**
+     * Returns the false positive rate expected from the current fill of the stages.
+     */
+    double expectedFalsePositiveRate() {
+        double noFalsePositive = 1;
+        for (Stage stage : stages) {
+            noFalsePositive *= 1 - stage.expectedFalsePositiveRate();
+        }
+        return 1 - noFalsePositive;
+    }
+
+    private boolean mightContain(long hash) {
+        for (Stage stage : stages) {
+            if (stage.mightContain(hash)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * 64-bit FNV-1a over the characters, finished with the MurmurHash3 mixer.
+     */
+    private static long hash(String name) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < name.length(); i++) {
+            hash = (hash ^ name.charAt(i)) * 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        return hash ^ (hash >>> 33);
+    }
+
+    private static final class Stage {
+        private final long[] bits;
+        private final long bitCount;
+        private final int hashCount;
+        private final long capacity;
+        private long count;
+
+        private Stage(long capacity, double falsePositiveRate) {
+            long optimalBits = (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+            this.bitCount = Math.max(Long.SIZE, (optimalBits + Long.SIZE - 1) / Long.SIZE * Long.SIZE);
+            this.bits = new long[Math.toIntExact(bitCount / Long.SIZE)];
+            this.hashCount = Math.max(1, (int) Math.round((double) bitCount / capacity * Math.log(2)));
+            this.capacity = capacity;
+        }
+
+        private void add(long hash) {
+            int first = (int) hash;
+            int second = (int) (hash >>> 32);
+            for (int i = 0; i < hashCount; i++) {
+                long index = Math.floorMod(first + (long) i * second, bitCount);
+                bits[(int) (index >>> 6)] |= 1L << index;
+            }
+            count++;
+        }
+
+        private boolean mightContain(long hash) {
+            int first = (int) hash;
+            int second = (int) (hash >>> 32);
+            for (int i = 0; i < hashCount; i++) {
+                long index = Math.floorMod(first + (long) i * second, bitCount);
+                if ((bits[(int) (index >>> 6)] & (1L << index)) == 0) return false;
+            }
+            return true;
+        }
+
+        private double expectedFalsePositiveRate() {
+            return Math.pow(1 - Math.exp(-(double) hashCount * count / bitCount), hashCount);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package io.dragon.dataaccess;
+
+import io.dragon.domain.Mission;
+import io.dragon.domain.MissionRepository;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Mission repository partitioned by name hash across independent shards. Sorted reads sort every shard in
+ * parallel and k-way merge the results, so the summary does not have to sort the whole fleet on one thread.
+ */
+public class ShardedMissionRepository implements MissionRepository {
+
+    private final Shards<MissionRepository> shards;
+    private final boolean storesRocketReferences;
+
+    public ShardedMissionRepository(int shardCount) {
+        this(shardCount, InMemoryMissionRepository::new);
+    }
+
+    public ShardedMissionRepository(int shardCount, Supplier<MissionRepository> shardFactory) {
+        this.shards = new Shards<>(shardCount, shardFactory);
+        this.storesRocketReferences = shards.allMatch(MissionRepository::storesRocketReferences);
+    }
+
+    @Override
+    public Mission save(Mission mission) {
+        return shards.write(mission.name(), shard -> shard.save(mission));
+    }
+
+    @Override
+    public Mission update(Mission mission) {
+        return shards.write(mission.name(), shard -> shard.update(mission));
+    }
+
+    @Override
+    public Optional<Mission> findByName(String id) {
+        return shards.read(id, shard -> shard.findByName(id));
+    }
+
+    @Override
+    public boolean exists(String id) {
+        return shards.read(id, shard -> shard.exists(id));
+    }
+
+    @Override
+    public Collection<Mission> findAll() {
+        return List.copyOf(shards.readAll(shard -> List.copyOf(shard.findAll())));
+    }
+
+    @Override
+    public List<Mission> findAllSorted(Comparator<? super Mission> order) {
+        return shards.readAllSorted(shard -> List.copyOf(shard.findAll()), order);
+    }
+
+    @Override
+    public boolean storesRocketReferences() {
+        return storesRocketReferences;
+    }
+}
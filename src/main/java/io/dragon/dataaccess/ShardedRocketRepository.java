@@ -0,0 +1,51 @@
+package io.dragon.dataaccess;
+
+import io.dragon.domain.Rocket;
+import io.dragon.domain.RocketRepository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Rocket repository partitioned by name hash across independent shards. Each shard is a separate
+ * {@link RocketRepository} with its own lock, so writes to different shards never contend.
+ */
+public class ShardedRocketRepository implements RocketRepository {
+
+    private final Shards<RocketRepository> shards;
+
+    public ShardedRocketRepository(int shardCount) {
+        this(shardCount, InMemoryRocketRepository::new);
+    }
+
+    public ShardedRocketRepository(int shardCount, Supplier<RocketRepository> shardFactory) {
+        this.shards = new Shards<>(shardCount, shardFactory);
+    }
+
+    @Override
+    public Rocket save(Rocket rocket) {
+        return shards.write(rocket.name(), shard -> shard.save(rocket));
+    }
+
+    @Override
+    public Rocket update(Rocket rocket) {
+        return shards.write(rocket.name(), shard -> shard.update(rocket));
+    }
+
+    @Override
+    public Optional<Rocket> findByName(String id) {
+        return shards.read(id, shard -> shard.findByName(id));
+    }
+
+    @Override
+    public boolean exists(String id) {
+        return shards.read(id, shard -> shard.exists(id));
+    }
+
+    @Override
+    public Collection<Rocket> findAll() {
+        return List.copyOf(shards.readAll(shard -> List.copyOf(shard.findAll())));
+    }
+}
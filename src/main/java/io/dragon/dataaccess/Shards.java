@@ -0,0 +1,122 @@
+package io.dragon.dataaccess;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+/**
+ * Fixed set of independent shards, each guarded by its own read-write lock. Entities are placed by the hash
+ * of their name, so operations on names living in different shards never wait for each other.
+ */
+final class Shards<S> {
+
+    private final List<S> shards;
+    private final List<ReadWriteLock> locks;
+
+    Shards(int shardCount, Supplier<S> shardFactory) {
+        if (shardCount < 1) throw new IllegalArgumentException("Shard count must be positive");
+        this.shards = new ArrayList<>(shardCount);
+        this.locks = new ArrayList<>(shardCount);
+        for (int i = 0; i < shardCount; i++) {
+            shards.add(shardFactory.get());
+            locks.add(new ReentrantReadWriteLock());
+        }
+    }
+
+    int count() {
+        return shards.size();
+    }
+
+    boolean allMatch(Predicate<S> condition) {
+        return shards.stream().allMatch(condition);
+    }
+
+    <R> R read(String name, Function<S, R> operation) {
+        return read(indexOf(name), operation);
+    }
+
+    <R> R write(String name, Function<S, R> operation) {
+        int index = indexOf(name);
+        ReadWriteLock lock = locks.get(index);
+        lock.writeLock().lock();
+        try {
+            return operation.apply(shards.get(index));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    <T> List<T> readAll(Function<S, ? extends List<T>> operation) {
+        List<T> result = new ArrayList<>();
+        for (int i = 0; i < shards.size(); i++) {
+            result.addAll(read(i, operation));
+        }
+        return result;
+    }
+
+    /**
+     * Sorts the contents of every shard in parallel and merges the sorted runs with a k-way merge.
+     */
+    <T> List<T> readAllSorted(Function<S, ? extends List<T>> operation, Comparator<? super T> order) {
+        List<List<T>> runs = IntStream.range(0, shards.size())
+                .parallel()
+                .mapToObj(i -> read(i, operation).stream().sorted(order).toList())
+                .toList();
+        return merge(runs, order);
+    }
+
+    private <R> R read(int index, Function<S, R> operation) {
+        ReadWriteLock lock = locks.get(index);
+        lock.readLock().lock();
+        try {
+            return operation.apply(shards.get(index));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int indexOf(String name) {
+        int h = name.hashCode() * 0x9e3779b9;
+        return Math.floorMod(h ^ (h >>> 16), shards.size());
+    }
+
+    private static <T> List<T> merge(List<List<T>> runs, Comparator<? super T> order) {
+        int size = runs.stream().mapToInt(List::size).sum();
+        List<T> merged = new ArrayList<>(size);
+        PriorityQueue<Cursor<T>> heads = new PriorityQueue<>((a, b) -> order.compare(a.current(), b.current()));
+        for (List<T> run : runs) {
+            if (!run.isEmpty()) heads.add(new Cursor<>(run));
+        }
+        while (!heads.isEmpty()) {
+            Cursor<T> head = heads.poll();
+            merged.add(head.current());
+            if (head.advance()) heads.add(head);
+        }
+        return merged;
+    }
+
+    private static final class Cursor<T> {
+
+        private final List<T> run;
+        private int position;
+
+        private Cursor(List<T> run) {
+            this.run = run;
+        }
+
+        private T current() {
+            return run.get(position);
+        }
+
+        private boolean advance() {
+            return ++position < run.size();
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package io.dragon.dataaccess;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded cache with W-TinyLFU admission and eviction. New entries land in a small LRU window; entries evicted
+ * from the window compete with the eldest entry of the main segment and are admitted only if they were requested
+ * more often, according to a {@link FrequencySketch}. The main segment is a segmented LRU: entries hit a second
+ * time move from probation to the protected segment. Not thread-safe.
+ */
+final class TinyLfuCache<K, V> {
+
+    private final int windowCapacity;
+    private final int mainCapacity;
+    private final int protectedCapacity;
+
+    private final LinkedHashMap<K, V> window = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<K, V> probation = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<K, V> protectedSegment = new LinkedHashMap<>(16, 0.75f, true);
+    private final FrequencySketch<K> sketch;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    TinyLfuCache(int maximumSize) {
+        if (maximumSize < 1) throw new IllegalArgumentException("Maximum size must be positive");
+        this.windowCapacity = Math.max(1, maximumSize / 100);
+        this.mainCapacity = maximumSize - windowCapacity;
+        this.protectedCapacity = mainCapacity * 4 / 5;
+        this.sketch = new FrequencySketch<>(maximumSize);
+    }
+
+    V get(K key) {
+        sketch.increment(key);
+        V value = window.get(key);
+        if (value == null) value = protectedSegment.get(key);
+        if (value == null) {
+            value = probation.remove(key);
+            if (value != null) promote(key, value);
+        }
+        if (value == null) misses++;
+        else hits++;
+        return value;
+    }
+
+    boolean contains(K key) {
+        return window.containsKey(key) || protectedSegment.containsKey(key) || probation.containsKey(key);
+    }
+
+    void put(K key, V value) {
+        if (replaceIfPresent(window, key, value)
+                || replaceIfPresent(protectedSegment, key, value)
+                || replaceIfPresent(probation, key, value)) return;
+        window.put(key, value);
+        if (window.size() > windowCapacity) evictFromWindow();
+    }
+
+    void invalidate(K key) {
+        if (window.remove(key) == null && protectedSegment.remove(key) == null) probation.remove(key);
+    }
+
+    int size() {
+        return window.size() + probation.size() + protectedSegment.size();
+    }
+
+    CacheStatistics statistics() {
+        return new CacheStatistics(hits, misses, evictions);
+    }
+
+    private void promote(K key, V value) {
+        protectedSegment.put(key, value);
+        if (protectedSegment.size() > protectedCapacity) {
+            Map.Entry<K, V> demoted = removeEldest(protectedSegment);
+            probation.put(demoted.getKey(), demoted.getValue());
+        }
+    }
+
+    private void evictFromWindow() {
+        Map.Entry<K, V> candidate = removeEldest(window);
+        if (probation.size() + protectedSegment.size() < mainCapacity) {
+            probation.put(candidate.getKey(), candidate.getValue());
+            return;
+        }
+        LinkedHashMap<K, V> victimSegment = probation.isEmpty() ? protectedSegment : probation;
+        if (!victimSegment.isEmpty()) {
+            K victim = victimSegment.keySet().iterator().next();
+            if (sketch.frequency(candidate.getKey()) > sketch.frequency(victim)) {
+                victimSegment.remove(victim);
+                probation.put(candidate.getKey(), candidate.getValue());
+            }
+        }
+        evictions++;
+    }
+
+    private boolean replaceIfPresent(Map<K, V> segment, K key, V value) {
+        if (!segment.containsKey(key)) return false;
+        segment.put(key, value);
+        return true;
+    }
+
+    private static <K, V> Map.Entry<K, V> removeEldest(LinkedHashMap<K, V> segment) {
+        Iterator<Map.Entry<K, V>> iterator = segment.entrySet().iterator();
+        Map.Entry<K, V> eldest = iterator.next();
+        Map.Entry<K, V> removed = Map.entry(eldest.getKey(), eldest.getValue());
+        iterator.remove();
+        return removed;
+    }
+}
@@ -0,0 +1,7 @@
+package io.dragon.domain;
+
+/**
+ * Current state of a mission changed since a summary version, with its zero-based position in the summary.
+ */
+public record ChangedMission(Mission mission, int position) {
+}
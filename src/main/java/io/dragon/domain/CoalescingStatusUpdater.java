@@ -0,0 +1,181 @@
+package io.dragon.domain;
+
+import io.dragon.domain.exception.MissionDoesNotExistException;
+import io.dragon.domain.exception.RocketDoesNotExistException;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Optional front of {@link SpaceXDragonRocketsRepository#setRocketStatus(String, RocketStatus)} for rockets whose
+ * status flaps faster than it is worth writing. Submitted statuses are buffered per rocket, each replacing the
+ * previous one, and flushed once the oldest of them waited for the window; only the latest status of every rocket
+ * reaches the service, and a rocket back in the status it had before the window is not written at all.
+ * <p>
+ * A flush groups the rockets by the mission they are assigned to and sends each group to the service as one
+ * {@code setRocketStatuses} call, which writes the rockets in one batch and the mission once. The rules of the
+ * service, such as no rocket in space without mission, are checked at that moment on the latest status; when the
+ * service rejects a group, its rockets are set one by one and the rejected ones are reported. When a group fails
+ * with any other exception, such as a repository error, the service has written nothing of it, so every rocket of
+ * the group goes back to the buffer, unless a newer status was submitted meanwhile, and is retried by the next
+ * flush. Submitting is safe from any thread; flushing uses the
+ * service, so the caller has to be the only thread using it during the call.
+ */
+public class CoalescingStatusUpdater implements AutoCloseable {
+
+    /**
+     * Outcome of a flush: how many statuses were submitted since the previous flush, how many rockets were
+     * written or found already in their latest status, the rockets whose latest status was rejected, and the
+     * rockets which failed unexpectedly and were put back to the buffer. Statuses put back count as submitted
+     * again for the next flush.
+     */
+    public record Flush(int submitted, int applied, Map<String, OperationResult> rejected,
+                        Map<String, RuntimeException> failed) {
+
+        public static final Flush NONE = new Flush(0, 0, Map.of(), Map.of());
+
+        /**
+         * Returns the number of submitted statuses which were replaced by a later status of the same rocket.
+         */
+        public int coalesced() {
+            return submitted - applied - rejected.size() - failed.size();
+        }
+    }
+
+    private final SpaceXDragonRocketsRepository dragonRocketsRepository;
+    private final Clock clock;
+    private final long windowMillis;
+    private Map<String, RocketStatus> pending = new LinkedHashMap<>();
+    private int submitted;
+    private long firstPendingAt;
+    private ScheduledExecutorService flusher;
+
+    public CoalescingStatusUpdater(SpaceXDragonRocketsRepository dragonRocketsRepository, Clock clock,
+                                   Duration window) {
+        if (window.toMillis() < 1) throw new IllegalArgumentException("Window must be at least one millisecond");
+        this.dragonRocketsRepository = dragonRocketsRepository;
+        this.clock = clock;
+        this.windowMillis = window.toMillis();
+    }
+
+    public synchronized void submit(String rocketName, RocketStatus status) {
+        if (pending.isEmpty()) firstPendingAt = clock.millis();
+        pending.put(rocketName, status);
+        submitted++;
+    }
+
+    public synchronized int pending() {
+        return pending.size();
+    }
+
+    /**
+     * Flushes the buffered statuses if the oldest of them waited for the window.
+     */
+    public Flush flushDue() {
+        synchronized (this) {
+            if (pending.isEmpty() || clock.millis() - firstPendingAt < windowMillis) return Flush.NONE;
+        }
+        return flush();
+    }
+
+    /**
+     * Sends the latest buffered status of every rocket to the service right away.
+     */
+    public Flush flush() {
+        Map<String, RocketStatus> statuses;
+        int flushedSubmissions;
+        synchronized (this) {
+            if (pending.isEmpty()) return Flush.NONE;
+            statuses = pending;
+            flushedSubmissions = submitted;
+            pending = new LinkedHashMap<>();
+            submitted = 0;
+        }
+        Map<Optional<String>, Map<String, RocketStatus>> byMission = new LinkedHashMap<>();
+        statuses.forEach((rocketName, status) -> {
+            Rocket rocket = dragonRocketsRepository.knownRocket(rocketName);
+            Optional<String> missionName = rocket == null ? Optional.empty() : rocket.missionName();
+            byMission.computeIfAbsent(missionName, name -> new LinkedHashMap<>()).put(rocketName, status);
+        });
+        Map<String, OperationResult> rejected = new LinkedHashMap<>();
+        Map<String, RuntimeException> failed = new LinkedHashMap<>();
+        byMission.values().forEach(group -> apply(group, rejected, failed));
+        if (!failed.isEmpty()) requeue(statuses, failed.keySet());
+        return new Flush(flushedSubmissions, statuses.size() - rejected.size() - failed.size(), Map.copyOf(rejected),
+                Map.copyOf(failed));
+    }
+
+    /**
+     * Calls {@link #flushDue()} every window on a daemon thread, so a status reaches the service at most two
+     * windows after it was submitted. The thread synchronizes on the domain service while flushing, so other
+     * threads using the service have to synchronize on it as well. An exception escaping a flush is passed to the
+     * thread's uncaught exception handler and the next flush runs as usual.
+     */
+    public synchronized void start() {
+        if (flusher != null) throw new IllegalStateException("Updater is already started");
+        flusher = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "coalescing-status-updater");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(() -> {
+            try {
+                synchronized (dragonRocketsRepository) {
+                    flushDue();
+                }
+            } catch (RuntimeException e) {
+                Thread thread = Thread.currentThread();
+                thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+            }
+        }, windowMillis, windowMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops the flushing thread, if started, and flushes the statuses still buffered.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (flusher != null) flusher.shutdownNow();
+        }
+        synchronized (dragonRocketsRepository) {
+            flush();
+        }
+    }
+
+    private void apply(Map<String, RocketStatus> group, Map<String, OperationResult> rejected,
+                       Map<String, RuntimeException> failed) {
+        try {
+            dragonRocketsRepository.setRocketStatuses(group);
+            return;
+        } catch (RocketDoesNotExistException | MissionDoesNotExistException | IllegalStateException e) {
+            // the service checks every rocket before writing, so nothing was applied
+        } catch (RuntimeException e) {
+            // a failed write is rolled back by the service, so the whole group is retried by the next flush
+            group.keySet().forEach(rocketName -> failed.put(rocketName, e));
+            return;
+        }
+        group.forEach((rocketName, status) -> {
+            try {
+                OperationResult result = dragonRocketsRepository.trySetRocketStatus(rocketName, status);
+                if (!result.isOk()) rejected.put(rocketName, result);
+            } catch (RuntimeException e) {
+                failed.put(rocketName, e);
+            }
+        });
+    }
+
+    private synchronized void requeue(Map<String, RocketStatus> statuses, Collection<String> rocketNames) {
+        if (pending.isEmpty()) firstPendingAt = clock.millis();
+        for (String rocketName : rocketNames) {
+            if (pending.putIfAbsent(rocketName, statuses.get(rocketName)) == null) submitted++;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package io.dragon.domain;
+
+import java.util.Collection;
+
+/**
+ * Receives the changes committed by {@link SpaceXDragonRocketsRepository}. Callbacks run synchronously on the
+ * calling thread after the repositories were written, in the order the changes were made. The operation callbacks
+ * describe what was requested; {@link #missionChanged(Mission, Mission)} is additionally called for every write of
+ * a mission, whatever the operation.
+ */
+public interface FleetChangeListener {
+
+    default void rocketAdded(Rocket rocket) {
+    }
+
+    default void missionAdded(Mission mission) {
+    }
+
+    default void rocketsAssigned(Mission mission, Collection<Rocket> assignedRockets) {
+    }
+
+    default void rocketStatusChanged(Rocket previous, Rocket updated) {
+    }
+
+    default void missionEnded(Mission previous, Mission ended) {
+    }
+
+    default void missionChanged(Mission previous, Mission updated) {
+    }
+
+}
@@ -0,0 +1,31 @@
+package io.dragon.domain;
+
+/**
+ * In-memory index which {@link SpaceXDragonRocketsRepository} keeps up to date from its change events once
+ * enabled with {@link SpaceXDragonRocketsRepository#enableIndexes(FleetIndex...)}. Every index is seeded from the
+ * repositories when it is enabled, holds its own copy of the part of the fleet it needs and afterwards sees only
+ * the changes made through that service instance, so enable only the indexes whose operations are used.
+ */
+public enum FleetIndex {
+
+    /** Fleet totals of {@link SpaceXDragonRocketsRepository#getFleetStatistics()}. */
+    STATISTICS,
+    /** Missions in summary order for {@link SpaceXDragonRocketsRepository#getLazyDragonsSummary()}. */
+    LAZY_SUMMARY,
+    /**
+     * Versions of the missions for {@link SpaceXDragonRocketsRepository#getSummaryChangesSince(long)}; enables
+     * {@link #LAZY_SUMMARY} as well, which gives the positions of the changed missions.
+     */
+    SUMMARY_CHANGES,
+    /** Rockets free for {@link SpaceXDragonRocketsRepository#assignAvailableRockets(String, int)}. */
+    FREE_ROCKETS,
+    /** Rockets in repair for {@link SpaceXDragonRocketsRepository#getNextRepairs(int)}. */
+    REPAIR_BACKLOG,
+    /**
+     * Missions and rockets for {@link SpaceXDragonRocketsRepository#queryMissions()} and
+     * {@link SpaceXDragonRocketsRepository#queryRockets()}; without it every query reads the repositories.
+     */
+    QUERIES,
+    /** Rendered status blocks reused by {@link SpaceXDragonRocketsRepository#printDragonsSummary}. */
+    RENDER_CACHE
+}
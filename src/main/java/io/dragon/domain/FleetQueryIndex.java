@@ -0,0 +1,143 @@
+package io.dragon.domain;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Indexes used by {@link MissionQuery} and {@link RocketQuery}, updated from the change events of
+ * {@link SpaceXDragonRocketsRepository} and seeded with the repositories when the index is enabled. Missions are
+ * indexed by name, and by status together with rocket count, so a status and rocket count range is one ordered
+ * range per status; a histogram of rocket counts estimates the size of a range without visiting it. Rockets are
+ * indexed by name and by status. Accessed only by the thread changing the service.
+ */
+final class FleetQueryIndex implements FleetChangeListener {
+
+    private final Map<String, Mission> missions = new HashMap<>();
+    private final Map<MissionStatus, NavigableMap<CountKey, Mission>> missionsByStatus =
+            new EnumMap<>(MissionStatus.class);
+    private final NavigableMap<Integer, Integer> missionsByRocketCount = new TreeMap<>();
+    private final Map<String, Rocket> rockets = new HashMap<>();
+    private final Map<RocketStatus, Map<String, Rocket>> rocketsByStatus = new EnumMap<>(RocketStatus.class);
+
+    FleetQueryIndex(Collection<Rocket> existingRockets, Collection<Mission> existingMissions) {
+        for (MissionStatus status : MissionStatus.values()) {
+            missionsByStatus.put(status, new TreeMap<>());
+        }
+        for (RocketStatus status : RocketStatus.values()) {
+            rocketsByStatus.put(status, new HashMap<>());
+        }
+        existingRockets.forEach(this::rocketAdded);
+        existingMissions.forEach(this::missionAdded);
+    }
+
+    @Override
+    public void rocketAdded(Rocket rocket) {
+        putRocket(rocket);
+    }
+
+    @Override
+    public void rocketsAssigned(Mission mission, Collection<Rocket> assignedRockets) {
+        assignedRockets.forEach(this::putRocket);
+    }
+
+    @Override
+    public void rocketStatusChanged(Rocket previous, Rocket updated) {
+        putRocket(updated);
+    }
+
+    @Override
+    public void missionEnded(Mission previous, Mission ended) {
+        previous.rockets().values().forEach(rocket -> putRocket(rocket.removeMission()));
+    }
+
+    @Override
+    public void missionAdded(Mission mission) {
+        putMission(mission);
+    }
+
+    @Override
+    public void missionChanged(Mission previous, Mission updated) {
+        putMission(updated);
+    }
+
+    Mission mission(String name) {
+        return missions.get(name);
+    }
+
+    Collection<Mission> missions() {
+        return missions.values();
+    }
+
+    /**
+     * Returns the missions with the status and a rocket count within the range, ordered by rocket count and name.
+     */
+    Collection<Mission> missions(MissionStatus status, int minRockets, int maxRockets) {
+        return missionsByStatus.get(status)
+                .subMap(new CountKey(minRockets, ""), true, new CountKey(maxRockets, null), true)
+                .values();
+    }
+
+    int missionCount(MissionStatus status) {
+        return missionsByStatus.get(status).size();
+    }
+
+    int missionCount(int minRockets, int maxRockets) {
+        int count = 0;
+        for (int missions : missionsByRocketCount.subMap(minRockets, true, maxRockets, true).values()) {
+            count += missions;
+        }
+        return count;
+    }
+
+    Rocket rocket(String name) {
+        return rockets.get(name);
+    }
+
+    Collection<Rocket> rockets() {
+        return rockets.values();
+    }
+
+    Collection<Rocket> rockets(RocketStatus status) {
+        return rocketsByStatus.get(status).values();
+    }
+
+    private void putMission(Mission mission) {
+        Mission previous = missions.put(mission.name(), mission);
+        if (previous != null) {
+            missionsByStatus.get(previous.status()).remove(CountKey.of(previous));
+            missionsByRocketCount.compute(previous.rockets().size(), (count, missions) -> missions == 1 ? null
+                    : missions - 1);
+        }
+        missionsByStatus.get(mission.status()).put(CountKey.of(mission), mission);
+        missionsByRocketCount.merge(mission.rockets().size(), 1, Integer::sum);
+    }
+
+    private void putRocket(Rocket rocket) {
+        Rocket previous = rockets.put(rocket.name(), rocket);
+        if (previous != null) rocketsByStatus.get(previous.status()).remove(rocket.name());
+        rocketsByStatus.get(rocket.status()).put(rocket.name(), rocket);
+    }
+
+    /**
+     * Rocket count and mission name; a null name sorts after every name and bounds a range of counts.
+     */
+    private record CountKey(int rocketCount, String name) implements Comparable<CountKey> {
+
+        private static final Comparator<CountKey> ORDER = Comparator.comparingInt(CountKey::rocketCount)
+                .thenComparing(CountKey::name, Comparator.nullsLast(Comparator.naturalOrder()));
+
+        static CountKey of(Mission mission) {
+            return new CountKey(mission.rockets().size(), mission.name());
+        }
+
+        @Override
+        public int compareTo(CountKey other) {
+            return ORDER.compare(this, other);
+        }
+    }
+}
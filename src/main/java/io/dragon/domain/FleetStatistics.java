@@ -0,0 +1,27 @@
+package io.dragon.domain;
+
+import java.util.Map;
+
+/**
+ * Fleet totals returned by {@link SpaceXDragonRocketsRepository#getFleetStatistics()}. Both maps have an entry for
+ * every status.
+ */
+public record FleetStatistics(Map<RocketStatus, Long> rocketsByStatus,
+                              Map<MissionStatus, Long> missionsByStatus,
+                              long assignedRockets,
+                              long unassignedRockets) {
+
+    public FleetStatistics {
+        rocketsByStatus = Map.copyOf(rocketsByStatus);
+        missionsByStatus = Map.copyOf(missionsByStatus);
+    }
+
+    public long rockets() {
+        return assignedRockets + unassignedRockets;
+    }
+
+    public long missions() {
+        return missionsByStatus.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+}
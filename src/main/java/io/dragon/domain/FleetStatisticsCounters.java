@@ -0,0 +1,91 @@
+package io.dragon.domain;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fleet totals maintained from the change events of {@link SpaceXDragonRocketsRepository}, so reading them never
+ * touches the repositories. Counters are {@link LongAdder}s and can be read from any thread while the service is
+ * being changed; a snapshot taken during a change may then reflect only part of it. The counters start from the
+ * rockets and missions in the repositories when the index is enabled; afterwards only changes made through the
+ * service are counted.
+ */
+final class FleetStatisticsCounters implements FleetChangeListener {
+
+    private static final RocketStatus[] ROCKET_STATUSES = RocketStatus.values();
+    private static final MissionStatus[] MISSION_STATUSES = MissionStatus.values();
+
+    private final LongAdder[] rocketsByStatus = counters(ROCKET_STATUSES.length);
+    private final LongAdder[] missionsByStatus = counters(MISSION_STATUSES.length);
+    private final LongAdder assignedRockets = new LongAdder();
+    private final LongAdder unassignedRockets = new LongAdder();
+
+    FleetStatisticsCounters(Collection<Rocket> existingRockets, Collection<Mission> existingMissions) {
+        existingRockets.forEach(this::rocketAdded);
+        existingMissions.forEach(this::missionAdded);
+    }
+
+    @Override
+    public void rocketAdded(Rocket rocket) {
+        rocketsByStatus[rocket.status().ordinal()].increment();
+        (rocket.missionName().isPresent() ? assignedRockets : unassignedRockets).increment();
+    }
+
+    @Override
+    public void missionAdded(Mission mission) {
+        missionsByStatus[mission.status().ordinal()].increment();
+    }
+
+    @Override
+    public void rocketsAssigned(Mission mission, Collection<Rocket> assignedRockets) {
+        this.assignedRockets.add(assignedRockets.size());
+        unassignedRockets.add(-assignedRockets.size());
+    }
+
+    @Override
+    public void rocketStatusChanged(Rocket previous, Rocket updated) {
+        move(rocketsByStatus, previous.status().ordinal(), updated.status().ordinal());
+    }
+
+    @Override
+    public void missionEnded(Mission previous, Mission ended) {
+        for (Rocket rocket : previous.rockets().values()) {
+            move(rocketsByStatus, rocket.status().ordinal(), rocket.removeMission().status().ordinal());
+        }
+        assignedRockets.add(-previous.rockets().size());
+        unassignedRockets.add(previous.rockets().size());
+    }
+
+    @Override
+    public void missionChanged(Mission previous, Mission updated) {
+        move(missionsByStatus, previous.status().ordinal(), updated.status().ordinal());
+    }
+
+    FleetStatistics snapshot() {
+        Map<RocketStatus, Long> rockets = new EnumMap<>(RocketStatus.class);
+        for (RocketStatus status : ROCKET_STATUSES) {
+            rockets.put(status, rocketsByStatus[status.ordinal()].sum());
+        }
+        Map<MissionStatus, Long> missions = new EnumMap<>(MissionStatus.class);
+        for (MissionStatus status : MISSION_STATUSES) {
+            missions.put(status, missionsByStatus[status.ordinal()].sum());
+        }
+        return new FleetStatistics(rockets, missions, assignedRockets.sum(), unassignedRockets.sum());
+    }
+
+    private static void move(LongAdder[] counters, int from, int to) {
+        if (from == to) return;
+        counters[from].decrement();
+        counters[to].increment();
+    }
+
+    private static LongAdder[] counters(int length) {
+        LongAdder[] counters = new LongAdder[length];
+        for (int i = 0; i < length; i++) {
+            counters[i] = new LongAdder();
+        }
+        return counters;
+    }
+}
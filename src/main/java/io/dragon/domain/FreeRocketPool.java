@@ -0,0 +1,88 @@
+package io.dragon.domain;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Names of the rockets which can be sent on a mission right away: on ground and without mission. Updated from the
+ * change events of {@link SpaceXDragonRocketsRepository} and seeded with the rockets in the repository when the
+ * index is enabled.
+ * <p>
+ * Membership is a concurrent set and the queue only orders the candidates. Removing a rocket leaves its name in
+ * the queue, where it is skipped when polled, so every update is O(1) and claiming {@code n} rockets costs O(n)
+ * amortized. Such stale names are purged once they outnumber the free rockets, so the queue stays proportional to
+ * the pool even when rockets change status without ever being claimed. A rocket is claimed by removing it from
+ * the set, which succeeds for exactly one caller, so concurrent claims never return the same rocket.
+ */
+final class FreeRocketPool implements FleetChangeListener {
+
+    private static final int PURGE_SLACK = 64;
+
+    private final Set<String> free = ConcurrentHashMap.newKeySet();
+    private final Queue<String> candidates = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+
+    FreeRocketPool(Collection<Rocket> existingRockets) {
+        existingRockets.forEach(this::rocketAdded);
+    }
+
+    static boolean isFree(Rocket rocket) {
+        return rocket.status() == RocketStatus.ON_GROUND && rocket.missionName().isEmpty();
+    }
+
+    @Override
+    public void rocketAdded(Rocket rocket) {
+        if (isFree(rocket)) release(rocket.name());
+    }
+
+    @Override
+    public void rocketsAssigned(Mission mission, Collection<Rocket> assignedRockets) {
+        assignedRockets.forEach(rocket -> free.remove(rocket.name()));
+    }
+
+    @Override
+    public void rocketStatusChanged(Rocket previous, Rocket updated) {
+        if (isFree(updated)) release(updated.name());
+        else free.remove(updated.name());
+    }
+
+    @Override
+    public void missionEnded(Mission previous, Mission ended) {
+        for (Rocket rocket : previous.rockets().values()) {
+            if (isFree(rocket.removeMission())) release(rocket.name());
+        }
+    }
+
+    /**
+     * Claims up to {@code count} free rockets; claimed rockets are no longer free until they are released.
+     */
+    List<String> claim(int count) {
+        List<String> claimed = new ArrayList<>(Math.min(count, free.size()));
+        while (claimed.size() < count) {
+            String candidate = candidates.poll();
+            if (candidate == null) break;
+            queued.decrementAndGet();
+            if (free.remove(candidate)) claimed.add(candidate);
+        }
+        return claimed;
+    }
+
+    void release(String rocketName) {
+        if (!free.add(rocketName)) return;
+        candidates.add(rocketName);
+        if (queued.incrementAndGet() > 2 * free.size() + PURGE_SLACK) {
+            candidates.removeIf(candidate -> !free.contains(candidate));
+            queued.set(candidates.size());
+        }
+    }
+
+    int size() {
+        return free.size();
+    }
+}
@@ -0,0 +1,71 @@
+package io.dragon.domain;
+
+import java.io.PrintStream;
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Summary evaluated on demand. Missions are read one by one, in summary order, from an index maintained by
+ * {@link SpaceXDragonRocketsRepository}; nothing is copied or sorted up front, so stopping after the first few
+ * missions costs only those missions. The view is live: each iteration reflects the missions at the time it
+ * reaches them.
+ */
+public final class LazySummary implements Iterable<Mission> {
+
+    private final Iterable<Mission> missions;
+    private final Function<Mission, String> renderer;
+
+    LazySummary(Iterable<Mission> missions, Function<Mission, String> renderer) {
+        this.missions = missions;
+        this.renderer = renderer;
+    }
+
+    @Override
+    public Iterator<Mission> iterator() {
+        return missions.iterator();
+    }
+
+    public Stream<Mission> stream() {
+        Spliterator<Mission> spliterator = Spliterators.spliteratorUnknownSize(iterator(),
+                Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL);
+        return StreamSupport.stream(spliterator, false);
+    }
+
+    /**
+     * Status blocks of the missions in summary order, each rendered only when the stream reaches it.
+     */
+    public Stream<String> statusBlocks() {
+        return stream().map(renderer);
+    }
+
+    /**
+     * Returns the first missions materialized as a {@link Summary}.
+     */
+    public Summary first(int maxMissions) {
+        return new Summary(stream().limit(maxMissions).toList());
+    }
+
+    public void printSummary() {
+        printSummary(System.out);
+    }
+
+    public void printSummary(PrintStream out) {
+        printSummary(out, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Prints the same lines as {@link Summary#printSummary(PrintStream)} for the first {@code maxMissions}
+     * missions, without reading any mission after them.
+     */
+    public void printSummary(PrintStream out, int maxMissions) {
+        if (maxMissions < 0) throw new IllegalArgumentException("Maximum number of missions must not be negative");
+        Iterator<Mission> iterator = iterator();
+        for (int printed = 0; printed < maxMissions && iterator.hasNext(); printed++) {
+            out.println(renderer.apply(iterator.next()));
+        }
+    }
+}
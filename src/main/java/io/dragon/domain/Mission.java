@@ -1,7 +1,9 @@
 package io.dragon.domain;
 
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 public record Mission(String name, Map<String, Rocket> rockets, boolean isEnded) {
@@ -31,14 +33,23 @@ public record Mission(String name, Map<String, Rocket> rockets, boolean isEnded)
     }
 
     public Mission updateRocket(Rocket rocket) {
+        return updateRockets(List.of(rocket));
+    }
+
+    /**
+     * Replaces several assigned rockets at once, copying the rocket map a single time.
+     */
+    public Mission updateRockets(Collection<Rocket> updatedRockets) {
         if (isEnded) throw new IllegalStateException("Mission is already ended");
-        if (!rockets.containsKey(rocket.name())) {
-            throw new IllegalArgumentException("Rocket is not assigned to the mission");
-        }
-        if (rocket.missionName().isEmpty() || !rocket.missionName().get().equals(name))
-            throw new IllegalArgumentException("Rocket is not assigned to the mission");
         HashMap<String, Rocket> rocketsUpdated = new HashMap<>(this.rockets);
-        rocketsUpdated.put(rocket.name(), rocket);
+        for (Rocket rocket : updatedRockets) {
+            if (!rockets.containsKey(rocket.name())) {
+                throw new IllegalArgumentException("Rocket is not assigned to the mission");
+            }
+            if (rocket.missionName().isEmpty() || !rocket.missionName().get().equals(name))
+                throw new IllegalArgumentException("Rocket is not assigned to the mission");
+            rocketsUpdated.put(rocket.name(), rocket);
+        }
         return new Mission(this.name, Map.copyOf(rocketsUpdated), this.isEnded);
     }
 
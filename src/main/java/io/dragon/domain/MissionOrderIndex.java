@@ -0,0 +1,47 @@
+package io.dragon.domain;
+
+import java.util.Collection;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Missions kept in {@link Summary#MISSION_ORDER}, updated from the change events of
+ * {@link SpaceXDragonRocketsRepository}, so the head of the summary is available without sorting. Mission names
+ * are unique, so the order never considers two different missions equal. Iteration is weakly consistent and never
+ * fails because of concurrent changes. Positions come from a separate rank tree, which is accessed only by the
+ * thread changing the service.
+ */
+final class MissionOrderIndex implements FleetChangeListener {
+
+    private final NavigableSet<Mission> missions = new ConcurrentSkipListSet<>(Summary.MISSION_ORDER);
+    private final MissionRankTree ranks = new MissionRankTree(Summary.MISSION_ORDER);
+
+    MissionOrderIndex(Collection<Mission> existingMissions) {
+        existingMissions.forEach(this::missionAdded);
+    }
+
+    @Override
+    public void missionAdded(Mission mission) {
+        missions.add(mission);
+        ranks.add(mission);
+    }
+
+    @Override
+    public void missionChanged(Mission previous, Mission updated) {
+        missions.remove(previous);
+        ranks.remove(previous);
+        missions.add(updated);
+        ranks.add(updated);
+    }
+
+    /**
+     * Returns the position of the mission in the summary.
+     */
+    int position(Mission mission) {
+        return ranks.rank(mission);
+    }
+
+    NavigableSet<Mission> missions() {
+        return missions;
+    }
+}
@@ -0,0 +1,200 @@
+package io.dragon.domain;
+
+import io.dragon.monitoring.DomainOperationEvent;
+
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Ad-hoc query over the missions known to {@link SpaceXDragonRocketsRepository}, for example the first 50 missions
+ * in progress, by name, with more than 10 rockets of which at least one is in space:
+ * <pre>{@code
+ * dragonRocketsRepository.queryMissions()
+ *         .withStatus(MissionStatus.IN_PROGRESS)
+ *         .withMoreRocketsThan(10)
+ *         .withAnyRocketIn(RocketStatus.IN_SPACE)
+ *         .sortedBy(Comparator.comparing(Mission::name))
+ *         .limit(50)
+ *         .list();
+ * }</pre>
+ * Conditions are combined with AND. When the query runs, the planner reads the candidates from the index promising
+ * the fewest of them, see {@link AccessPath}, and checks every condition on each candidate; a query without
+ * indexed conditions scans all missions, in parallel for large fleets. Results are in {@link Summary#MISSION_ORDER}
+ * unless another order is given. Not thread-safe; run it on the thread changing the service.
+ */
+public final class MissionQuery {
+
+    /**
+     * Where the planner reads candidate missions from.
+     */
+    public enum AccessPath {
+        /** The mission with the queried name. */
+        NAME,
+        /** The missions with the queried statuses, restricted to the rocket count range. */
+        STATUS,
+        /** The missions within the rocket count range. */
+        ROCKET_COUNT,
+        /** The missions of the rockets with the queried statuses. */
+        ROCKET_STATUS,
+        /** All missions. */
+        SCAN
+    }
+
+    private final FleetQueryIndex index;
+    private String name;
+    private Set<MissionStatus> statuses;
+    private int minRockets;
+    private int maxRockets = Integer.MAX_VALUE;
+    private Set<RocketStatus> rocketStatuses;
+    private Predicate<Mission> filter = mission -> true;
+    private Comparator<? super Mission> order = Summary.MISSION_ORDER;
+    private int limit = Integer.MAX_VALUE;
+
+    MissionQuery(FleetQueryIndex index) {
+        this.index = index;
+    }
+
+    public MissionQuery named(String missionName) {
+        this.name = Objects.requireNonNull(missionName);
+        return this;
+    }
+
+    public MissionQuery withStatus(MissionStatus status, MissionStatus... otherStatuses) {
+        this.statuses = EnumSet.of(status, otherStatuses);
+        return this;
+    }
+
+    /**
+     * Keeps the missions with at least {@code min} and at most {@code max} rockets.
+     */
+    public MissionQuery withRocketCountBetween(int min, int max) {
+        if (min < 0 || max < min) {
+            throw new IllegalArgumentException(String.format("Invalid rocket count range %d-%d", min, max));
+        }
+        this.minRockets = min;
+        this.maxRockets = max;
+        return this;
+    }
+
+    public MissionQuery withMoreRocketsThan(int count) {
+        if (count == Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(String.format("No mission can have more than %d rockets", count));
+        }
+        return withRocketCountBetween(Math.max(0, count + 1), Integer.MAX_VALUE);
+    }
+
+    /**
+     * Keeps the missions with at least one rocket in any of the statuses.
+     */
+    public MissionQuery withAnyRocketIn(RocketStatus status, RocketStatus... otherStatuses) {
+        this.rocketStatuses = EnumSet.of(status, otherStatuses);
+        return this;
+    }
+
+    /**
+     * Adds a condition which no index can answer; it is checked on every candidate.
+     */
+    public MissionQuery where(Predicate<? super Mission> condition) {
+        Predicate<Mission> previous = filter;
+        this.filter = mission -> previous.test(mission) && condition.test(mission);
+        return this;
+    }
+
+    public MissionQuery sortedBy(Comparator<? super Mission> order) {
+        this.order = Objects.requireNonNull(order);
+        return this;
+    }
+
+    public MissionQuery limit(int maxMissions) {
+        if (maxMissions < 0) throw new IllegalArgumentException("Limit must not be negative");
+        this.limit = maxMissions;
+        return this;
+    }
+
+    /**
+     * Returns the access path the query would use if it ran now.
+     */
+    public AccessPath accessPath() {
+        if (name != null) return AccessPath.NAME;
+        AccessPath best = AccessPath.SCAN;
+        long fewest = index.missions().size();
+        if (statuses != null) {
+            long candidates = 0;
+            for (MissionStatus status : statuses) {
+                candidates += index.missionCount(status);
+            }
+            if (hasRocketCountRange()) candidates = Math.min(candidates, index.missionCount(minRockets, maxRockets));
+            if (candidates <= fewest) {
+                best = AccessPath.STATUS;
+                fewest = candidates;
+            }
+        }
+        if (hasRocketCountRange() && statuses == null) {
+            long candidates = index.missionCount(minRockets, maxRockets);
+            if (candidates < fewest) {
+                best = AccessPath.ROCKET_COUNT;
+                fewest = candidates;
+            }
+        }
+        if (rocketStatuses != null) {
+            long candidates = 0;
+            for (RocketStatus status : rocketStatuses) {
+                candidates += index.rockets(status).size();
+            }
+            if (candidates < fewest) best = AccessPath.ROCKET_STATUS;
+        }
+        return best;
+    }
+
+    public List<Mission> list() {
+        DomainOperationEvent event = DomainOperationEvent.start("queryMissions");
+        try {
+            List<Mission> missions = QueryResults.select(candidates(accessPath()).filter(this::matches), order, limit);
+            event.batchSize(missions.size()).succeeded();
+            return missions;
+        } finally {
+            event.finish();
+        }
+    }
+
+    private Stream<Mission> candidates(AccessPath accessPath) {
+        switch (accessPath) {
+            case NAME:
+                return Stream.ofNullable(index.mission(name));
+            case STATUS:
+                return statuses.stream().flatMap(status -> index.missions(status, minRockets, maxRockets).stream());
+            case ROCKET_COUNT:
+                return Stream.of(MissionStatus.values())
+                        .flatMap(status -> index.missions(status, minRockets, maxRockets).stream());
+            case ROCKET_STATUS:
+                return rocketStatuses.stream()
+                        .flatMap(status -> index.rockets(status).stream())
+                        .flatMap(rocket -> rocket.missionName().stream())
+                        .distinct()
+                        .map(index::mission);
+            default:
+                return QueryResults.scan(index.missions());
+        }
+    }
+
+    private boolean matches(Mission mission) {
+        if (name != null && !name.equals(mission.name())) return false;
+        if (statuses != null && !statuses.contains(mission.status())) return false;
+        int rocketCount = mission.rockets().size();
+        if (rocketCount < minRockets || rocketCount > maxRockets) return false;
+        if (rocketStatuses != null
+                && mission.rockets().values().stream().noneMatch(rocket -> rocketStatuses.contains(rocket.status()))) {
+            return false;
+        }
+        return filter.test(mission);
+    }
+
+    private boolean hasRocketCountRange() {
+        return minRockets > 0 || maxRockets < Integer.MAX_VALUE;
+    }
+}
@@ -0,0 +1,120 @@
+package io.dragon.domain;
+
+import java.util.Comparator;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Treap of missions augmented with subtree sizes, answering the position of a mission in a given order in
+ * O(log n). Not thread-safe.
+ */
+final class MissionRankTree {
+
+    private final Comparator<? super Mission> order;
+    private Node root;
+
+    MissionRankTree(Comparator<? super Mission> order) {
+        this.order = order;
+    }
+
+    void add(Mission mission) {
+        root = insert(root, new Node(mission, ThreadLocalRandom.current().nextInt()));
+    }
+
+    void remove(Mission mission) {
+        root = delete(root, mission);
+    }
+
+    int size() {
+        return size(root);
+    }
+
+    /**
+     * Returns the number of missions ordered before the given one, which is its position when present.
+     */
+    int rank(Mission mission) {
+        int rank = 0;
+        Node node = root;
+        while (node != null) {
+            int comparison = order.compare(mission, node.mission);
+            if (comparison <= 0) {
+                node = node.left;
+            } else {
+                rank += size(node.left) + 1;
+                node = node.right;
+            }
+        }
+        return rank;
+    }
+
+    private Node insert(Node node, Node inserted) {
+        if (node == null) return inserted;
+        if (inserted.priority > node.priority) {
+            Node[] split = split(node, inserted.mission);
+            inserted.left = split[0];
+            inserted.right = split[1];
+            return inserted.update();
+        }
+        if (order.compare(inserted.mission, node.mission) < 0) node.left = insert(node.left, inserted);
+        else node.right = insert(node.right, inserted);
+        return node.update();
+    }
+
+    /**
+     * Splits the subtree into the missions ordered before the key and the rest.
+     */
+    private Node[] split(Node node, Mission key) {
+        if (node == null) return new Node[2];
+        if (order.compare(node.mission, key) < 0) {
+            Node[] split = split(node.right, key);
+            node.right = split[0];
+            split[0] = node.update();
+            return split;
+        }
+        Node[] split = split(node.left, key);
+        node.left = split[1];
+        split[1] = node.update();
+        return split;
+    }
+
+    private Node delete(Node node, Mission mission) {
+        if (node == null) return null;
+        int comparison = order.compare(mission, node.mission);
+        if (comparison == 0) return merge(node.left, node.right);
+        if (comparison < 0) node.left = delete(node.left, mission);
+        else node.right = delete(node.right, mission);
+        return node.update();
+    }
+
+    private static Node merge(Node left, Node right) {
+        if (left == null) return right;
+        if (right == null) return left;
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            return left.update();
+        }
+        right.left = merge(left, right.left);
+        return right.update();
+    }
+
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static final class Node {
+        private final Mission mission;
+        private final int priority;
+        private int size = 1;
+        private Node left;
+        private Node right;
+
+        private Node(Mission mission, int priority) {
+            this.mission = mission;
+            this.priority = priority;
+        }
+
+        private Node update() {
+            size = 1 + MissionRankTree.size(left) + MissionRankTree.size(right);
+            return this;
+        }
+    }
+}
@@ -1,6 +1,10 @@
 package io.dragon.domain;
 
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Optional;
 
 public interface MissionRepository {
@@ -9,10 +13,33 @@ public interface MissionRepository {
 
     Mission update(Mission mission);
 
+    /**
+     * Updates several missions at once. Repositories with a per-call cost, such as a database round trip, write
+     * them together; the default updates them one by one.
+     */
+    default void updateAll(Collection<Mission> missions) {
+        missions.forEach(this::update);
+    }
+
     Optional<Mission> findByName(String id);
 
     boolean exists(String id);
 
     Collection<Mission> findAll();
 
+    default List<Mission> findAllSorted(Comparator<? super Mission> order) {
+        Mission[] missions = findAll().toArray(Mission[]::new);
+        if (missions.length >= Summary.PARALLEL_THRESHOLD) Arrays.parallelSort(missions, order);
+        else Arrays.sort(missions, order);
+        return Collections.unmodifiableList(Arrays.asList(missions));
+    }
+
+    /**
+     * Tells whether missions are stored with references to their rockets and resolved from the rocket store on
+     * read. Such repositories do not need a mission write when only the state of one of its rockets changes.
+     */
+    default boolean storesRocketReferences() {
+        return false;
+    }
+
 }
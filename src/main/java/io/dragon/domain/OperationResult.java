@@ -0,0 +1,22 @@
+package io.dragon.domain;
+
+/**
+ * Outcome of the {@code try*} operations of {@link SpaceXDragonRocketsRepository}. Each failure corresponds to an
+ * exception thrown by the throwing variant of the operation.
+ */
+public enum OperationResult {
+
+    OK,
+    ROCKET_ALREADY_EXISTS,
+    MISSION_ALREADY_EXISTS,
+    ROCKET_DOES_NOT_EXIST,
+    MISSION_DOES_NOT_EXIST,
+    ROCKET_ALREADY_ASSIGNED,
+    ROCKET_NOT_ASSIGNED,
+    MISSION_ALREADY_ENDED;
+
+    public boolean isOk() {
+        return this == OK;
+    }
+
+}
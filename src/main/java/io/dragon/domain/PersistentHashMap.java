@@ -0,0 +1,196 @@
+package io.dragon.domain;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Immutable hash array mapped trie. Every {@link #put} returns a new map which copies only the nodes on the path
+ * to the key, at most seven of them, and shares all other nodes with the map it was derived from, so keeping many
+ * versions of a large map costs memory proportional to the changes between them. Every node holds up to 32
+ * entries, selected by five bits of the key hash, and stores only the present ones next to a bitmap of them; keys
+ * with equal hashes share a collision node. Keys may not be null.
+ */
+final class PersistentHashMap<K, V> {
+
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+    private static final PersistentHashMap<?, ?> EMPTY = new PersistentHashMap<>(BitmapNode.EMPTY, 0);
+
+    private final Node root;
+    private final int size;
+
+    private PersistentHashMap(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <K, V> PersistentHashMap<K, V> empty() {
+        return (PersistentHashMap<K, V>) EMPTY;
+    }
+
+    PersistentHashMap<K, V> put(K key, V value) {
+        boolean[] added = new boolean[1];
+        Node updated = root.put(0, hash(key), key, value, added);
+        if (updated == root) return this;
+        return new PersistentHashMap<>(updated, added[0] ? size + 1 : size);
+    }
+
+    @SuppressWarnings("unchecked")
+    V get(K key) {
+        return (V) root.get(0, hash(key), key);
+    }
+
+    int size() {
+        return size;
+    }
+
+    @SuppressWarnings("unchecked")
+    void forEachValue(Consumer<? super V> action) {
+        root.forEachValue((Consumer<Object>) action);
+    }
+
+    private static int hash(Object key) {
+        int hash = key.hashCode();
+        return hash ^ (hash >>> 16);
+    }
+
+    private static int bit(int hash, int shift) {
+        return 1 << ((hash >>> shift) & MASK);
+    }
+
+    private interface Node {
+
+        Node put(int shift, int hash, Object key, Object value, boolean[] added);
+
+        Object get(int shift, int hash, Object key);
+
+        void forEachValue(Consumer<Object> action);
+    }
+
+    /**
+     * Present entries as key and value pairs in bit order; a null key marks a pair whose value is a child node.
+     */
+    private static final class BitmapNode implements Node {
+
+        static final BitmapNode EMPTY = new BitmapNode(0, new Object[0]);
+
+        final int bitmap;
+        final Object[] pairs;
+
+        BitmapNode(int bitmap, Object[] pairs) {
+            this.bitmap = bitmap;
+            this.pairs = pairs;
+        }
+
+        @Override
+        public Node put(int shift, int hash, Object key, Object value, boolean[] added) {
+            int bit = bit(hash, shift);
+            int index = 2 * Integer.bitCount(bitmap & (bit - 1));
+            if ((bitmap & bit) == 0) {
+                added[0] = true;
+                Object[] copy = new Object[pairs.length + 2];
+                System.arraycopy(pairs, 0, copy, 0, index);
+                copy[index] = key;
+                copy[index + 1] = value;
+                System.arraycopy(pairs, index, copy, index + 2, pairs.length - index);
+                return new BitmapNode(bitmap | bit, copy);
+            }
+            Object presentKey = pairs[index];
+            Object presentValue = pairs[index + 1];
+            if (presentKey == null) {
+                Node child = ((Node) presentValue).put(shift + BITS, hash, key, value, added);
+                return child == presentValue ? this : with(index, null, child);
+            }
+            if (presentKey.equals(key)) {
+                return presentValue == value ? this : with(index, key, value);
+            }
+            added[0] = true;
+            return with(index, null, split(shift + BITS, presentKey, presentValue, hash, key, value));
+        }
+
+        @Override
+        public Object get(int shift, int hash, Object key) {
+            int bit = bit(hash, shift);
+            if ((bitmap & bit) == 0) return null;
+            int index = 2 * Integer.bitCount(bitmap & (bit - 1));
+            Object presentKey = pairs[index];
+            if (presentKey == null) return ((Node) pairs[index + 1]).get(shift + BITS, hash, key);
+            return presentKey.equals(key) ? pairs[index + 1] : null;
+        }
+
+        @Override
+        public void forEachValue(Consumer<Object> action) {
+            for (int i = 0; i < pairs.length; i += 2) {
+                if (pairs[i] == null) ((Node) pairs[i + 1]).forEachValue(action);
+                else action.accept(pairs[i + 1]);
+            }
+        }
+
+        private BitmapNode with(int index, Object key, Object value) {
+            Object[] copy = pairs.clone();
+            copy[index] = key;
+            copy[index + 1] = value;
+            return new BitmapNode(bitmap, copy);
+        }
+
+        private static Node split(int shift, Object firstKey, Object firstValue,
+                                  int secondHash, Object secondKey, Object secondValue) {
+            int firstHash = hash(firstKey);
+            if (firstHash == secondHash) {
+                return new CollisionNode(firstHash, new Object[]{firstKey, firstValue, secondKey, secondValue});
+            }
+            boolean[] ignored = new boolean[1];
+            return EMPTY.put(shift, firstHash, firstKey, firstValue, ignored)
+                    .put(shift, secondHash, secondKey, secondValue, ignored);
+        }
+    }
+
+    private static final class CollisionNode implements Node {
+
+        final int hash;
+        final Object[] pairs;
+
+        CollisionNode(int hash, Object[] pairs) {
+            this.hash = hash;
+            this.pairs = pairs;
+        }
+
+        @Override
+        public Node put(int shift, int hash, Object key, Object value, boolean[] added) {
+            if (hash != this.hash) {
+                BitmapNode nested = new BitmapNode(bit(this.hash, shift), new Object[]{null, this});
+                return nested.put(shift, hash, key, value, added);
+            }
+            for (int i = 0; i < pairs.length; i += 2) {
+                if (pairs[i].equals(key)) {
+                    if (pairs[i + 1] == value) return this;
+                    Object[] copy = pairs.clone();
+                    copy[i + 1] = value;
+                    return new CollisionNode(hash, copy);
+                }
+            }
+            added[0] = true;
+            Object[] copy = Arrays.copyOf(pairs, pairs.length + 2);
+            copy[pairs.length] = key;
+            copy[pairs.length + 1] = value;
+            return new CollisionNode(hash, copy);
+        }
+
+        @Override
+        public Object get(int shift, int hash, Object key) {
+            if (hash != this.hash) return null;
+            for (int i = 0; i < pairs.length; i += 2) {
+                if (pairs[i].equals(key)) return pairs[i + 1];
+            }
+            return null;
+        }
+
+        @Override
+        public void forEachValue(Consumer<Object> action) {
+            for (int i = 1; i < pairs.length; i += 2) {
+                action.accept(pairs[i]);
+            }
+        }
+    }
+}
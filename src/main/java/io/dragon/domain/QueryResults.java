@@ -0,0 +1,45 @@
+package io.dragon.domain;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.stream.Stream;
+
+/**
+ * Ordering and limiting of the matches of {@link MissionQuery} and {@link RocketQuery}. A limited sequential query
+ * keeps only the best {@code limit} matches in a bounded heap, so it never holds or sorts all of its candidates.
+ */
+final class QueryResults {
+
+    private QueryResults() {
+    }
+
+    /**
+     * Returns a stream over the collection which is parallel when the collection is large enough for splitting it
+     * to pay off.
+     */
+    static <T> Stream<T> scan(Collection<T> candidates) {
+        return candidates.size() >= Summary.PARALLEL_THRESHOLD ? candidates.parallelStream() : candidates.stream();
+    }
+
+    static <T> List<T> select(Stream<T> matches, Comparator<? super T> order, int limit) {
+        if (limit == Integer.MAX_VALUE || matches.isParallel()) {
+            return matches.sorted(order).limit(limit).toList();
+        }
+        if (limit == 0) return List.of();
+        PriorityQueue<T> best = new PriorityQueue<>(limit, order.reversed());
+        matches.forEach(match -> {
+            if (best.size() < limit) {
+                best.add(match);
+            } else if (order.compare(match, best.peek()) < 0) {
+                best.poll();
+                best.add(match);
+            }
+        });
+        List<T> selected = new ArrayList<>(best);
+        selected.sort(order);
+        return List.copyOf(selected);
+    }
+}
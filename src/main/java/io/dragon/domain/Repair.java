@@ -0,0 +1,16 @@
+package io.dragon.domain;
+
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Rocket waiting in repair, with the mission it holds in {@link MissionStatus#PENDING}, if any. A repair unblocks
+ * the mission when the rocket is the only damaged rocket of that mission.
+ */
+public record Repair(String rocketName, Instant inRepairSince, Optional<String> missionName,
+                     boolean unblocksMission) {
+
+    public Optional<String> unblockedMission() {
+        return unblocksMission ? missionName : Optional.empty();
+    }
+}
@@ -0,0 +1,228 @@
+package io.dragon.domain;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Rockets in {@link RocketStatus#IN_REPAIR}, kept in an indexed binary heap ordered by repair priority and updated
+ * from the change events of {@link SpaceXDragonRocketsRepository}. Repairs which would unblock a mission come
+ * first, then repairs of rockets of a mission which has other damaged rockets too, then rockets without mission;
+ * within each group, the rocket in repair for the longest time comes first. Every entry knows its heap index, so
+ * a status change, assignment or mission end is O(log n), plus the rockets of the affected mission when the
+ * number of its damaged rockets moves between one and more. The time a rocket enters repair comes from the clock
+ * of the service; rockets already in repair when the index is enabled count from the time given by the
+ * {@link RepairLog} of the service, or from that moment when the log has no repair of them. Accessed only by the
+ * thread changing the service.
+ */
+final class RepairBacklog implements FleetChangeListener {
+
+    private static final Comparator<Entry> PRIORITY = Comparator
+            .comparing((Entry entry) -> !entry.unblocksMission)
+            .thenComparing(entry -> entry.missionName == null)
+            .thenComparing(entry -> entry.since)
+            .thenComparing(entry -> entry.rocketName);
+
+    private final Clock clock;
+    private final Map<String, Entry> entries = new HashMap<>();
+    private final Map<String, Set<String>> damagedByMission = new HashMap<>();
+    private Entry[] heap = new Entry[16];
+    private int size;
+
+    RepairBacklog(Clock clock, Collection<Rocket> existingRockets, Map<String, Instant> repairsInProgress) {
+        this.clock = clock;
+        Instant now = clock.instant();
+        for (Rocket rocket : existingRockets) {
+            if (rocket.status() == RocketStatus.IN_REPAIR)
+                enter(rocket, repairsInProgress.getOrDefault(rocket.name(), now));
+        }
+    }
+
+    @Override
+    public void rocketAdded(Rocket rocket) {
+        if (rocket.status() == RocketStatus.IN_REPAIR) enter(rocket, clock.instant());
+    }
+
+    @Override
+    public void rocketStatusChanged(Rocket previous, Rocket updated) {
+        boolean wasInRepair = entries.containsKey(updated.name());
+        boolean inRepair = updated.status() == RocketStatus.IN_REPAIR;
+        if (inRepair && !wasInRepair) enter(updated, clock.instant());
+        else if (!inRepair && wasInRepair) leave(updated.name());
+    }
+
+    @Override
+    public void rocketsAssigned(Mission mission, Collection<Rocket> assignedRockets) {
+        for (Rocket rocket : assignedRockets) {
+            Entry entry = entries.get(rocket.name());
+            if (entry != null) moveToMission(entry, mission.name());
+        }
+    }
+
+    @Override
+    public void missionEnded(Mission previous, Mission ended) {
+        Set<String> damaged = damagedByMission.get(previous.name());
+        if (damaged == null) return;
+        for (String rocketName : List.copyOf(damaged)) {
+            moveToMission(entries.get(rocketName), null);
+        }
+    }
+
+    /**
+     * Returns up to {@code count} repairs with the highest priority, in priority order, in O(count log count).
+     */
+    List<Repair> next(int count) {
+        List<Repair> repairs = new ArrayList<>(Math.min(count, size));
+        if (size == 0) return repairs;
+        PriorityQueue<Entry> frontier = new PriorityQueue<>(PRIORITY);
+        frontier.add(heap[0]);
+        while (repairs.size() < count && !frontier.isEmpty()) {
+            Entry entry = frontier.poll();
+            repairs.add(entry.toRepair());
+            for (int child = 2 * entry.index + 1; child <= 2 * entry.index + 2 && child < size; child++) {
+                frontier.add(heap[child]);
+            }
+        }
+        return repairs;
+    }
+
+    /**
+     * Returns the missions which would no longer be pending once all the given rockets are repaired.
+     */
+    List<String> missionsUnblockedBy(Collection<String> rocketNames) {
+        Map<String, Integer> repairedByMission = new HashMap<>();
+        for (String rocketName : new LinkedHashSet<>(rocketNames)) {
+            Entry entry = entries.get(rocketName);
+            if (entry != null && entry.missionName != null)
+                repairedByMission.merge(entry.missionName, 1, Integer::sum);
+        }
+        List<String> unblocked = new ArrayList<>();
+        repairedByMission.forEach((missionName, repaired) -> {
+            if (repaired == damagedByMission.get(missionName).size()) unblocked.add(missionName);
+        });
+        unblocked.sort(Comparator.naturalOrder());
+        return unblocked;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private void enter(Rocket rocket, Instant since) {
+        Entry entry = new Entry(rocket.name(), since);
+        entries.put(entry.rocketName, entry);
+        if (size == heap.length) heap = Arrays.copyOf(heap, size * 2);
+        entry.index = size;
+        heap[size++] = entry;
+        siftUp(entry.index);
+        rocket.missionName().ifPresent(missionName -> moveToMission(entry, missionName));
+    }
+
+    private void leave(String rocketName) {
+        Entry entry = entries.remove(rocketName);
+        moveToMission(entry, null);
+        int index = entry.index;
+        entry.index = -1;
+        Entry last = heap[--size];
+        heap[size] = null;
+        if (index < size) {
+            heap[index] = last;
+            last.index = index;
+            siftDown(index);
+            siftUp(last.index);
+        }
+    }
+
+    private void moveToMission(Entry entry, String missionName) {
+        String previousMission = entry.missionName;
+        if (previousMission != null) {
+            Set<String> damaged = damagedByMission.get(previousMission);
+            damaged.remove(entry.rocketName);
+            if (damaged.isEmpty()) damagedByMission.remove(previousMission);
+        }
+        entry.missionName = missionName;
+        if (missionName != null) {
+            damagedByMission.computeIfAbsent(missionName, name -> new LinkedHashSet<>()).add(entry.rocketName);
+        }
+        refresh(entry);
+        if (previousMission != null) refreshMission(previousMission);
+        if (missionName != null) refreshMission(missionName);
+    }
+
+    /**
+     * Recomputes whether each damaged rocket of the mission is its only one; changes only when the count of
+     * damaged rockets moves between one and more.
+     */
+    private void refreshMission(String missionName) {
+        Set<String> damaged = damagedByMission.get(missionName);
+        if (damaged == null) return;
+        for (String rocketName : damaged) {
+            Entry entry = entries.get(rocketName);
+            if (entry.unblocksMission != (damaged.size() == 1)) refresh(entry);
+        }
+    }
+
+    private void refresh(Entry entry) {
+        Set<String> damaged = entry.missionName == null ? null : damagedByMission.get(entry.missionName);
+        entry.unblocksMission = damaged != null && damaged.size() == 1;
+        if (entry.index < 0) return;
+        siftUp(entry.index);
+        siftDown(entry.index);
+    }
+
+    private void siftUp(int index) {
+        Entry entry = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) / 2;
+            if (PRIORITY.compare(entry, heap[parent]) >= 0) break;
+            heap[index] = heap[parent];
+            heap[index].index = index;
+            index = parent;
+        }
+        heap[index] = entry;
+        entry.index = index;
+    }
+
+    private void siftDown(int index) {
+        Entry entry = heap[index];
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= size) break;
+            if (child + 1 < size && PRIORITY.compare(heap[child + 1], heap[child]) < 0) child++;
+            if (PRIORITY.compare(heap[child], entry) >= 0) break;
+            heap[index] = heap[child];
+            heap[index].index = index;
+            index = child;
+        }
+        heap[index] = entry;
+        entry.index = index;
+    }
+
+    private static final class Entry {
+
+        private final String rocketName;
+        private final Instant since;
+        private String missionName;
+        private boolean unblocksMission;
+        private int index = -1;
+
+        private Entry(String rocketName, Instant since) {
+            this.rocketName = rocketName;
+            this.since = since;
+        }
+
+        private Repair toRepair() {
+            return new Repair(rocketName, since, Optional.ofNullable(missionName), unblocksMission);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package io.dragon.domain;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Durable record of rockets entering and leaving {@link RocketStatus#IN_REPAIR}, such as the status history, from
+ * which the repair backlog takes since when the rockets already in repair have been there when it is enabled.
+ */
+@FunctionalInterface
+public interface RepairLog {
+
+    RepairLog NONE = Map::of;
+
+    /**
+     * Returns the time each rocket entered repair, for the rockets whose latest recorded change left them in
+     * repair.
+     */
+    Map<String, Instant> repairsInProgress();
+}
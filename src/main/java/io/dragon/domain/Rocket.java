@@ -9,12 +9,16 @@ public record Rocket(String name, RocketStatus status, Optional<String> missionN
     }
 
     public Rocket setStatus(RocketStatus status) {
-        if (status == RocketStatus.IN_SPACE && missionName().isEmpty()) {
+        if (!canChangeStatusTo(status)) {
             throw new IllegalStateException("Cannot send rocket to space without mission");
         }
         return new Rocket(this.name, status, this.missionName);
     }
 
+    public boolean canChangeStatusTo(RocketStatus status) {
+        return status != RocketStatus.IN_SPACE || missionName().isPresent();
+    }
+
     public Rocket assignMission(String missionName) {
         if (this.missionName.isPresent()) throw new IllegalStateException("Mission already assigned");
         return new Rocket(this.name, status, Optional.of(missionName));
@@ -0,0 +1,148 @@
+package io.dragon.domain;
+
+import io.dragon.monitoring.DomainOperationEvent;
+
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Ad-hoc query over the rockets known to {@link SpaceXDragonRocketsRepository}. Conditions are combined with AND.
+ * When the query runs, the planner reads the candidates from the index promising the fewest of them, see
+ * {@link AccessPath}, and checks every condition on each candidate; a query without indexed conditions scans all
+ * rockets, in parallel for large fleets. Results are ordered by name unless another order is given. Not
+ * thread-safe; run it on the thread changing the service.
+ */
+public final class RocketQuery {
+
+    private static final Comparator<Rocket> BY_NAME = Comparator.comparing(Rocket::name);
+
+    /**
+     * Where the planner reads candidate rockets from.
+     */
+    public enum AccessPath {
+        /** The rocket with the queried name. */
+        NAME,
+        /** The rockets of the queried mission. */
+        MISSION,
+        /** The rockets with the queried statuses. */
+        STATUS,
+        /** All rockets. */
+        SCAN
+    }
+
+    private final FleetQueryIndex index;
+    private String name;
+    private Set<RocketStatus> statuses;
+    private Optional<String> missionName;
+    private Predicate<Rocket> filter = rocket -> true;
+    private Comparator<? super Rocket> order = BY_NAME;
+    private int limit = Integer.MAX_VALUE;
+
+    RocketQuery(FleetQueryIndex index) {
+        this.index = index;
+    }
+
+    public RocketQuery named(String rocketName) {
+        this.name = Objects.requireNonNull(rocketName);
+        return this;
+    }
+
+    public RocketQuery withStatus(RocketStatus status, RocketStatus... otherStatuses) {
+        this.statuses = EnumSet.of(status, otherStatuses);
+        return this;
+    }
+
+    public RocketQuery assignedTo(String missionName) {
+        this.missionName = Optional.of(missionName);
+        return this;
+    }
+
+    public RocketQuery unassigned() {
+        this.missionName = Optional.empty();
+        return this;
+    }
+
+    /**
+     * Adds a condition which no index can answer; it is checked on every candidate.
+     */
+    public RocketQuery where(Predicate<? super Rocket> condition) {
+        Predicate<Rocket> previous = filter;
+        this.filter = rocket -> previous.test(rocket) && condition.test(rocket);
+        return this;
+    }
+
+    public RocketQuery sortedBy(Comparator<? super Rocket> order) {
+        this.order = Objects.requireNonNull(order);
+        return this;
+    }
+
+    public RocketQuery limit(int maxRockets) {
+        if (maxRockets < 0) throw new IllegalArgumentException("Limit must not be negative");
+        this.limit = maxRockets;
+        return this;
+    }
+
+    /**
+     * Returns the access path the query would use if it ran now.
+     */
+    public AccessPath accessPath() {
+        if (name != null) return AccessPath.NAME;
+        AccessPath best = AccessPath.SCAN;
+        long fewest = index.rockets().size();
+        if (missionName != null && missionName.isPresent()) {
+            Mission mission = index.mission(missionName.get());
+            long candidates = mission == null ? 0 : mission.rockets().size();
+            if (candidates <= fewest) {
+                best = AccessPath.MISSION;
+                fewest = candidates;
+            }
+        }
+        if (statuses != null) {
+            long candidates = 0;
+            for (RocketStatus status : statuses) {
+                candidates += index.rockets(status).size();
+            }
+            if (candidates < fewest) best = AccessPath.STATUS;
+        }
+        return best;
+    }
+
+    public List<Rocket> list() {
+        DomainOperationEvent event = DomainOperationEvent.start("queryRockets");
+        try {
+            List<Rocket> rockets = QueryResults.select(candidates(accessPath()).filter(this::matches), order, limit);
+            event.batchSize(rockets.size()).succeeded();
+            return rockets;
+        } finally {
+            event.finish();
+        }
+    }
+
+    private Stream<Rocket> candidates(AccessPath accessPath) {
+        switch (accessPath) {
+            case NAME:
+                return Stream.ofNullable(index.rocket(name));
+            case MISSION:
+                return Stream.ofNullable(index.mission(missionName.get()))
+                        .flatMap(mission -> mission.rockets().keySet().stream())
+                        .map(index::rocket);
+            case STATUS:
+                return statuses.stream().flatMap(status -> index.rockets(status).stream());
+            default:
+                return QueryResults.scan(index.rockets());
+        }
+    }
+
+    private boolean matches(Rocket rocket) {
+        if (name != null && !name.equals(rocket.name())) return false;
+        if (statuses != null && !statuses.contains(rocket.status())) return false;
+        if (missionName != null && !missionName.equals(rocket.missionName())) return false;
+        return filter.test(rocket);
+    }
+}
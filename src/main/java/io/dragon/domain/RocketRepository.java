@@ -1,5 +1,6 @@
 package io.dragon.domain;
 
+import java.util.Collection;
 import java.util.Optional;
 
 public interface RocketRepository {
@@ -8,8 +9,25 @@ public interface RocketRepository {
 
     Rocket update(Rocket rocket);
 
+    /**
+     * Updates several rockets at once. Repositories with a per-call cost, such as a database round trip, write
+     * them together; the default updates them one by one.
+     */
+    default void updateAll(Collection<Rocket> rockets) {
+        rockets.forEach(this::update);
+    }
+
     Optional<Rocket> findByName(String id);
 
     boolean exists(String id);
 
+    /**
+     * Returns every rocket. It is read when an index of {@link SpaceXDragonRocketsRepository} is enabled and by
+     * queries without index; repositories which cannot list their rockets keep the default, which throws, and
+     * cannot be used with those.
+     */
+    default Collection<Rocket> findAll() {
+        throw new UnsupportedOperationException("Listing rockets is not supported by " + getClass().getName());
+    }
+
 }
@@ -4,96 +4,723 @@ import io.dragon.domain.exception.MissionAlreadyExistsException;
 import io.dragon.domain.exception.MissionDoesNotExistException;
 import io.dragon.domain.exception.RocketAlreadyExistsException;
 import io.dragon.domain.exception.RocketDoesNotExistException;
+import io.dragon.monitoring.DomainOperationEvent;
 
+import java.io.PrintStream;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.*;
 
 public class SpaceXDragonRocketsRepository {
 
+    private static final Set<FleetIndex> ROCKET_INDEXES =
+            Set.of(FleetIndex.STATISTICS, FleetIndex.FREE_ROCKETS, FleetIndex.REPAIR_BACKLOG, FleetIndex.QUERIES);
+
     private final RocketRepository rocketRepository;
     private final MissionRepository missionRepository;
+    private final List<FleetChangeListener> listeners = new ArrayList<>();
+    private final Clock clock;
+    private final UnitOfWork unitOfWork;
+    private final Set<FleetIndex> enabledIndexes = EnumSet.noneOf(FleetIndex.class);
+    private final SummaryHistory summaryHistory;
+    private RepairLog repairLog = RepairLog.NONE;
+    private StatusRenderCache renderCache;
+    private FleetStatisticsCounters statistics;
+    private MissionOrderIndex missionOrder;
+    private SummaryVersions summaryVersions;
+    private FreeRocketPool freeRockets;
+    private RepairBacklog repairBacklog;
+    private FleetQueryIndex queryIndex;
 
     public SpaceXDragonRocketsRepository(RocketRepository rocketRepository, MissionRepository missionRepository) {
+        this(rocketRepository, missionRepository, Clock.systemUTC());
+    }
+
+    /**
+     * Creates the service writing every operation in one unit of work, such as a transaction of the store shared
+     * by both repositories.
+     */
+    public SpaceXDragonRocketsRepository(RocketRepository rocketRepository, MissionRepository missionRepository,
+                                         UnitOfWork unitOfWork) {
+        this(rocketRepository, missionRepository, Clock.systemUTC(), Duration.ZERO, unitOfWork);
+    }
+
+    /**
+     * Creates the service with the clock used to record when rockets enter repair.
+     */
+    public SpaceXDragonRocketsRepository(RocketRepository rocketRepository, MissionRepository missionRepository,
+                                         Clock clock) {
+        this(rocketRepository, missionRepository, clock, Duration.ZERO);
+    }
+
+    /**
+     * Creates the service with the clock used to record when rockets enter repair and when missions change, and
+     * the time for which past summaries are kept for {@link #getDragonsSummaryAsOf(Instant)}. Past summaries are
+     * recorded, starting from the missions in the repository, only when the retention is positive.
+     */
+    public SpaceXDragonRocketsRepository(RocketRepository rocketRepository, MissionRepository missionRepository,
+                                         Clock clock, Duration summaryRetention) {
+        this(rocketRepository, missionRepository, clock, summaryRetention, UnitOfWork.NONE);
+    }
+
+    /**
+     * Creates the service with the clock, the summary retention and the unit of work in which the writes of every
+     * operation run.
+     */
+    public SpaceXDragonRocketsRepository(RocketRepository rocketRepository, MissionRepository missionRepository,
+                                         Clock clock, Duration summaryRetention, UnitOfWork unitOfWork) {
         this.rocketRepository = rocketRepository;
         this.missionRepository = missionRepository;
+        this.clock = clock;
+        this.unitOfWork = unitOfWork;
+        if (summaryRetention.isNegative()) throw new IllegalArgumentException("Retention must not be negative");
+        this.summaryHistory = summaryRetention.isZero() ? null
+                : new SummaryHistory(clock, summaryRetention, missionRepository.findAll());
+        if (summaryHistory != null) listeners.add(summaryHistory);
+    }
+
+    /**
+     * Enables the indexes, each seeded from the repositories, which are read once for all of them. Operations
+     * backed by an index which is not enabled throw {@link IllegalStateException}, except queries, which then read
+     * the repositories. Indexes see only the changes made through this instance; call it on the thread changing
+     * the service, before the operations relying on the indexes.
+     */
+    public void enableIndexes(FleetIndex... indexes) {
+        Set<FleetIndex> missing = EnumSet.noneOf(FleetIndex.class);
+        for (FleetIndex index : indexes) {
+            missing.add(index);
+            if (index == FleetIndex.SUMMARY_CHANGES) missing.add(FleetIndex.LAZY_SUMMARY);
+        }
+        missing.removeAll(enabledIndexes);
+        if (missing.isEmpty()) return;
+        Collection<Mission> existingMissions = missionRepository.findAll();
+        Collection<Rocket> existingRockets = missing.stream().anyMatch(ROCKET_INDEXES::contains)
+                ? rocketRepository.findAll() : List.of();
+        for (FleetIndex index : missing) {
+            FleetChangeListener listener = switch (index) {
+                case STATISTICS -> statistics = new FleetStatisticsCounters(existingRockets, existingMissions);
+                case LAZY_SUMMARY -> missionOrder = new MissionOrderIndex(existingMissions);
+                case SUMMARY_CHANGES -> summaryVersions = new SummaryVersions(existingMissions);
+                case FREE_ROCKETS -> freeRockets = new FreeRocketPool(existingRockets);
+                case REPAIR_BACKLOG -> repairBacklog =
+                        new RepairBacklog(clock, existingRockets, repairLog.repairsInProgress());
+                case QUERIES -> queryIndex = new FleetQueryIndex(existingRockets, existingMissions);
+                case RENDER_CACHE -> renderCache = new StatusRenderCache();
+            };
+            listeners.add(listener);
+            enabledIndexes.add(index);
+        }
+    }
+
+    /**
+     * Sets the log from which {@link FleetIndex#REPAIR_BACKLOG} takes, when it is enabled afterwards, the time the
+     * rockets already in repair entered it. Without a log, or for rockets the log has no repair of, that time is
+     * the moment the index is enabled.
+     */
+    public void setRepairLog(RepairLog repairLog) {
+        this.repairLog = repairLog;
+    }
+
+    public void addListener(FleetChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(FleetChangeListener listener) {
+        listeners.remove(listener);
     }
 
     public Rocket addRocket(String rocketName) {
-        if (rocketRepository.exists(rocketName))
-            throw new RocketAlreadyExistsException(rocketName);
-        Rocket rocket = Rocket.createNewRocket(rocketName);
-        return rocketRepository.save(rocket);
+        DomainOperationEvent event = DomainOperationEvent.start("addRocket").rocket(rocketName);
+        try {
+            if (rocketRepository.exists(rocketName))
+                throw new RocketAlreadyExistsException(rocketName);
+            Rocket saved = createRocket(rocketName);
+            event.rocketsTouched(1).succeeded();
+            return saved;
+        } finally {
+            event.finish();
+        }
+    }
+
+    public OperationResult tryAddRocket(String rocketName) {
+        DomainOperationEvent event = DomainOperationEvent.start("tryAddRocket").rocket(rocketName);
+        try {
+            if (rocketRepository.exists(rocketName)) return OperationResult.ROCKET_ALREADY_EXISTS;
+            createRocket(rocketName);
+            event.rocketsTouched(1).succeeded();
+            return OperationResult.OK;
+        } finally {
+            event.finish();
+        }
     }
 
     public Mission addMission(String missionName) {
-        if (missionRepository.exists(missionName))
-            throw new MissionAlreadyExistsException(missionName);
-        Mission mission = Mission.create(missionName);
-        return missionRepository.save(mission);
+        DomainOperationEvent event = DomainOperationEvent.start("addMission").mission(missionName);
+        try {
+            if (missionRepository.exists(missionName))
+                throw new MissionAlreadyExistsException(missionName);
+            Mission saved = createMission(missionName);
+            event.succeeded();
+            return saved;
+        } finally {
+            event.finish();
+        }
+    }
+
+    public OperationResult tryAddMission(String missionName) {
+        DomainOperationEvent event = DomainOperationEvent.start("tryAddMission").mission(missionName);
+        try {
+            if (missionRepository.exists(missionName)) return OperationResult.MISSION_ALREADY_EXISTS;
+            createMission(missionName);
+            event.succeeded();
+            return OperationResult.OK;
+        } finally {
+            event.finish();
+        }
     }
 
     public void assignRocketToMission(String rocketName, String missionName) {
-        Rocket rocket = rocketRepository.findByName(rocketName)
-                .orElseThrow(() -> new RocketDoesNotExistException(rocketName));
-        Mission mission = missionRepository.findByName(missionName)
-                .orElseThrow(() -> new MissionDoesNotExistException(missionName));
-        Rocket withMission = rocket.assignMission(mission.name());
-        Mission withRocket = mission.assignRocket(withMission);
-        rocketRepository.update(withMission);
-        missionRepository.update(withRocket);
+        DomainOperationEvent event = DomainOperationEvent.start("assignRocketToMission")
+                .rocket(rocketName)
+                .mission(missionName);
+        try {
+            Rocket rocket = rocketRepository.findByName(rocketName)
+                    .orElseThrow(() -> new RocketDoesNotExistException(rocketName));
+            Mission mission = missionRepository.findByName(missionName)
+                    .orElseThrow(() -> new MissionDoesNotExistException(missionName));
+            Rocket withMission = rocket.assignMission(mission.name());
+            assignRockets(mission, List.of(withMission));
+            event.rocketsTouched(1).succeeded();
+        } finally {
+            event.finish();
+        }
+    }
+
+    public OperationResult tryAssignRocketToMission(String rocketName, String missionName) {
+        DomainOperationEvent event = DomainOperationEvent.start("tryAssignRocketToMission")
+                .rocket(rocketName)
+                .mission(missionName);
+        try {
+            Optional<Rocket> rocket = rocketRepository.findByName(rocketName);
+            if (rocket.isEmpty()) return OperationResult.ROCKET_DOES_NOT_EXIST;
+            Optional<Mission> mission = missionRepository.findByName(missionName);
+            if (mission.isEmpty()) return OperationResult.MISSION_DOES_NOT_EXIST;
+            if (rocket.get().missionName().isPresent()) return OperationResult.ROCKET_ALREADY_ASSIGNED;
+            assignRockets(mission.get(), List.of(rocket.get().assignMission(missionName)));
+            event.rocketsTouched(1).succeeded();
+            return OperationResult.OK;
+        } finally {
+            event.finish();
+        }
     }
 
     public void assignRocketsToMission(Set<String> rocketsNames, String missionName) {
-        List<Rocket> rocketsWithMission = rocketsNames.stream()
-                .map(name -> rocketRepository.findByName(name).orElseThrow(() -> new RocketDoesNotExistException(name)))
-                .map(rocket -> rocket.assignMission(missionName))
-                .toList();
-        Mission withRockets = missionRepository.findByName(missionName)
-                .orElseThrow(() -> new MissionDoesNotExistException(missionName));
-        for (Rocket withMission : rocketsWithMission) {
-            withRockets = withRockets.assignRocket(withMission);
+        DomainOperationEvent event = DomainOperationEvent.start("assignRocketsToMission")
+                .mission(missionName)
+                .batchSize(rocketsNames.size());
+        try {
+            List<Rocket> rocketsWithMission = rocketsNames.stream()
+                    .map(name -> rocketRepository.findByName(name).orElseThrow(() -> new RocketDoesNotExistException(name)))
+                    .map(rocket -> rocket.assignMission(missionName))
+                    .toList();
+            Mission mission = missionRepository.findByName(missionName)
+                    .orElseThrow(() -> new MissionDoesNotExistException(missionName));
+            assignRockets(mission, rocketsWithMission);
+            event.rocketsTouched(rocketsWithMission.size()).succeeded();
+        } finally {
+            event.finish();
+        }
+    }
+
+    /**
+     * Assigns all the rockets or, when any of them is missing or already assigned, none of them.
+     */
+    public OperationResult tryAssignRocketsToMission(Set<String> rocketsNames, String missionName) {
+        DomainOperationEvent event = DomainOperationEvent.start("tryAssignRocketsToMission")
+                .mission(missionName)
+                .batchSize(rocketsNames.size());
+        try {
+            List<Rocket> rocketsWithMission = new ArrayList<>(rocketsNames.size());
+            for (String name : rocketsNames) {
+                Optional<Rocket> rocket = rocketRepository.findByName(name);
+                if (rocket.isEmpty()) return OperationResult.ROCKET_DOES_NOT_EXIST;
+                if (rocket.get().missionName().isPresent()) return OperationResult.ROCKET_ALREADY_ASSIGNED;
+                rocketsWithMission.add(rocket.get().assignMission(missionName));
+            }
+            Optional<Mission> mission = missionRepository.findByName(missionName);
+            if (mission.isEmpty()) return OperationResult.MISSION_DOES_NOT_EXIST;
+            assignRockets(mission.get(), rocketsWithMission);
+            event.rocketsTouched(rocketsWithMission.size()).succeeded();
+            return OperationResult.OK;
+        } finally {
+            event.finish();
+        }
+    }
+
+    /**
+     * Assigns up to {@code count} rockets which are on ground and without mission, taken from a pool of free
+     * rockets instead of scanning the fleet, and returns the assigned rockets. Fewer rockets are assigned when
+     * fewer are free. Requires {@link FleetIndex#FREE_ROCKETS}.
+     * <p>
+     * The call synchronizes on the service, like the scheduler and the status updater do, so allocations made from
+     * several threads run one after another and none of them overwrites the rockets another one gave the mission.
+     * Other operations are not synchronized, so threads running them at the same time have to synchronize on the
+     * service as well.
+     */
+    public synchronized List<Rocket> assignAvailableRockets(String missionName, int count) {
+        if (count < 0) throw new IllegalArgumentException("Count must not be negative");
+        DomainOperationEvent event = DomainOperationEvent.start("assignAvailableRockets")
+                .mission(missionName)
+                .batchSize(count);
+        try {
+            Mission mission = missionRepository.findByName(missionName)
+                    .orElseThrow(() -> new MissionDoesNotExistException(missionName));
+            if (mission.isEnded()) throw new IllegalStateException("Mission is already ended");
+            FreeRocketPool freeRockets = index(this.freeRockets, FleetIndex.FREE_ROCKETS);
+            List<String> claimed = freeRockets.claim(count);
+            List<Rocket> rocketsWithMission = new ArrayList<>(claimed.size());
+            Set<String> notFree = new HashSet<>();
+            try {
+                for (String rocketName : claimed) {
+                    Optional<Rocket> rocket = rocketRepository.findByName(rocketName);
+                    if (rocket.isPresent() && FreeRocketPool.isFree(rocket.get()))
+                        rocketsWithMission.add(rocket.get().assignMission(missionName));
+                    else notFree.add(rocketName);
+                }
+                if (!rocketsWithMission.isEmpty()) assignRockets(mission, rocketsWithMission);
+            } catch (RuntimeException e) {
+                claimed.stream().filter(rocketName -> !notFree.contains(rocketName)).forEach(freeRockets::release);
+                throw e;
+            }
+            event.rocketsTouched(rocketsWithMission.size()).succeeded();
+            return rocketsWithMission;
+        } finally {
+            event.finish();
         }
-        rocketsWithMission.forEach(rocketRepository::update);
-        missionRepository.update(withRockets);
+    }
+
+    /**
+     * Returns the number of rockets which are on ground and without mission. Requires
+     * {@link FleetIndex#FREE_ROCKETS}.
+     */
+    public int getAvailableRocketCount() {
+        return index(freeRockets, FleetIndex.FREE_ROCKETS).size();
+    }
+
+    /**
+     * Returns up to {@code count} rockets in repair, most urgent first: repairs which would unblock a pending
+     * mission, then repairs of other rockets of pending missions, then rockets without mission, each group by
+     * time spent in repair. Kept in an index updated on every change, so the cost depends on {@code count} only.
+     * Requires {@link FleetIndex#REPAIR_BACKLOG}.
+     */
+    public List<Repair> getNextRepairs(int count) {
+        if (count < 0) throw new IllegalArgumentException("Count must not be negative");
+        return index(repairBacklog, FleetIndex.REPAIR_BACKLOG).next(count);
+    }
+
+    /**
+     * Returns the names of the pending missions which would no longer be pending once the given rockets are
+     * repaired, because they are all the damaged rockets of those missions. Requires
+     * {@link FleetIndex#REPAIR_BACKLOG}.
+     */
+    public List<String> getMissionsUnblockedBy(Collection<String> rocketNames) {
+        return index(repairBacklog, FleetIndex.REPAIR_BACKLOG).missionsUnblockedBy(rocketNames);
+    }
+
+    public int getRepairBacklogSize() {
+        return index(repairBacklog, FleetIndex.REPAIR_BACKLOG).size();
     }
 
     public void setRocketStatus(String rocketName, RocketStatus status) {
-        Rocket rocket = rocketRepository.findByName(rocketName)
-                .orElseThrow(() -> new RocketDoesNotExistException(rocketName));
-        if (rocket.status() == status) return;
-        Rocket updatedRocket = rocket.setStatus(status);
-        updateRocket(updatedRocket);
+        DomainOperationEvent event = DomainOperationEvent.start("setRocketStatus").rocket(rocketName);
+        try {
+            Rocket rocket = rocketRepository.findByName(rocketName)
+                    .orElseThrow(() -> new RocketDoesNotExistException(rocketName));
+            if (rocket.status() != status) {
+                Rocket updatedRocket = rocket.setStatus(status);
+                updateRocket(rocket, updatedRocket);
+                event.mission(updatedRocket.missionName().orElse(null)).rocketsTouched(1);
+            }
+            event.succeeded();
+        } finally {
+            event.finish();
+        }
+    }
+
+    /**
+     * Changes the statuses of several rockets at once. Every rocket is checked before anything is written; the
+     * rockets are then written in one batch and each affected mission is rebuilt and written once, however many
+     * of its rockets changed. When a write fails the rockets and missions are written back, so a failed call
+     * leaves the fleet as it was.
+     */
+    public void setRocketStatuses(Map<String, RocketStatus> statuses) {
+        DomainOperationEvent event = DomainOperationEvent.start("setRocketStatuses").batchSize(statuses.size());
+        try {
+            List<Rocket> rockets = new ArrayList<>(statuses.size());
+            List<Rocket> updatedRockets = new ArrayList<>(statuses.size());
+            Map<String, List<Rocket>> updatedRocketsByMission = new LinkedHashMap<>();
+            statuses.forEach((rocketName, status) -> {
+                Rocket rocket = rocketRepository.findByName(rocketName)
+                        .orElseThrow(() -> new RocketDoesNotExistException(rocketName));
+                if (rocket.status() == status) return;
+                Rocket updatedRocket = rocket.setStatus(status);
+                rockets.add(rocket);
+                updatedRockets.add(updatedRocket);
+                updatedRocket.missionName().ifPresent(missionName -> updatedRocketsByMission
+                        .computeIfAbsent(missionName, name -> new ArrayList<>()).add(updatedRocket));
+            });
+            List<Mission> missions = new ArrayList<>(updatedRocketsByMission.size());
+            List<Mission> updatedMissions = new ArrayList<>(updatedRocketsByMission.size());
+            updatedRocketsByMission.forEach((missionName, missionRockets) -> {
+                Mission mission = missionRepository.findByName(missionName)
+                        .orElseThrow(() -> new MissionDoesNotExistException(missionName));
+                missions.add(mission);
+                updatedMissions.add(mission.updateRockets(missionRockets));
+            });
+            boolean writesMissions = !missionRepository.storesRocketReferences();
+            write(() -> rocketRepository.updateAll(updatedRockets), rockets, () -> {
+                if (writesMissions) missionRepository.updateAll(updatedMissions);
+            }, writesMissions ? missions : List.of());
+            for (int i = 0; i < rockets.size(); i++) {
+                Rocket rocket = rockets.get(i);
+                Rocket updatedRocket = updatedRockets.get(i);
+                listeners.forEach(listener -> listener.rocketStatusChanged(rocket, updatedRocket));
+            }
+            notifyMissionsChanged(missions, updatedMissions);
+            event.rocketsTouched(updatedRockets.size()).succeeded();
+        } finally {
+            event.finish();
+        }
+    }
+
+    public OperationResult trySetRocketStatus(String rocketName, RocketStatus status) {
+        DomainOperationEvent event = DomainOperationEvent.start("trySetRocketStatus").rocket(rocketName);
+        try {
+            Optional<Rocket> rocket = rocketRepository.findByName(rocketName);
+            if (rocket.isEmpty()) return OperationResult.ROCKET_DOES_NOT_EXIST;
+            if (rocket.get().status() != status) {
+                if (!rocket.get().canChangeStatusTo(status)) return OperationResult.ROCKET_NOT_ASSIGNED;
+                Optional<Mission> mission = missionOf(rocket.get());
+                if (mission.isPresent() && mission.get().isEnded()) return OperationResult.MISSION_ALREADY_ENDED;
+                Rocket updatedRocket = rocket.get().setStatus(status);
+                updateRocket(rocket.get(), updatedRocket, mission);
+                event.mission(updatedRocket.missionName().orElse(null)).rocketsTouched(1);
+            }
+            event.succeeded();
+            return OperationResult.OK;
+        } finally {
+            event.finish();
+        }
     }
 
     public void endMission(String missionName) {
-        Mission mission = missionRepository.findByName(missionName)
-                .orElseThrow(() -> new MissionDoesNotExistException(missionName));
-        mission.rockets().values().stream()
-                .map(Rocket::removeMission)
-                .forEach(rocketRepository::update);
-        Mission ended = mission.endMission();
-        missionRepository.update(ended);
+        DomainOperationEvent event = DomainOperationEvent.start("endMission").mission(missionName);
+        try {
+            Mission mission = missionRepository.findByName(missionName)
+                    .orElseThrow(() -> new MissionDoesNotExistException(missionName));
+            endMission(mission);
+            event.rocketsTouched(mission.rockets().size()).succeeded();
+        } finally {
+            event.finish();
+        }
+    }
+
+    /**
+     * Ends several missions at once. Every mission is checked before anything is written; the released rockets
+     * and the ended missions are then written in one batch each.
+     */
+    public void endMissions(Collection<String> missionNames) {
+        DomainOperationEvent event = DomainOperationEvent.start("endMissions").batchSize(missionNames.size());
+        try {
+            List<Mission> missions = new ArrayList<>(missionNames.size());
+            for (String missionName : new LinkedHashSet<>(missionNames)) {
+                missions.add(missionRepository.findByName(missionName)
+                        .orElseThrow(() -> new MissionDoesNotExistException(missionName)));
+            }
+            int releasedRockets = endMissions(missions);
+            event.rocketsTouched(releasedRockets).succeeded();
+        } finally {
+            event.finish();
+        }
+    }
+
+    public OperationResult tryEndMission(String missionName) {
+        DomainOperationEvent event = DomainOperationEvent.start("tryEndMission").mission(missionName);
+        try {
+            Optional<Mission> mission = missionRepository.findByName(missionName);
+            if (mission.isEmpty()) return OperationResult.MISSION_DOES_NOT_EXIST;
+            if (mission.get().isEnded()) return OperationResult.MISSION_ALREADY_ENDED;
+            endMission(mission.get());
+            event.rocketsTouched(mission.get().rockets().size()).succeeded();
+            return OperationResult.OK;
+        } finally {
+            event.finish();
+        }
     }
 
     public Summary getDragonsSummary() {
-        return new Summary(missionRepository.findAll()
-                .stream()
-                .sorted(Comparator
-                        .comparingInt((Mission mission) -> mission.rockets().size())
-                        .reversed()
-                        .thenComparing(Mission::name, Comparator.reverseOrder()))
-                .toList());
-    }
-
-    private void updateRocket(Rocket updatedRocket) {
-        rocketRepository.update(updatedRocket);
-        Optional<String> missionName = updatedRocket.missionName();
-        if (missionName.isPresent()) {
-            String name = missionName.get();
-            Mission mission = missionRepository.findByName(name)
-                    .orElseThrow(() -> new MissionDoesNotExistException(name));
-            Mission updatedMission = mission.updateRocket(updatedRocket);
-            missionRepository.update(updatedMission);
+        DomainOperationEvent event = DomainOperationEvent.start("getDragonsSummary");
+        try {
+            Summary summary = new Summary(missionRepository.findAllSorted(Summary.MISSION_ORDER));
+            event.batchSize(summary.missions().size()).succeeded();
+            return summary;
+        } finally {
+            event.finish();
         }
     }
 
+    /**
+     * Returns the summary as it was at the given instant, from the closest earlier version kept by this instance,
+     * in O(log versions) plus sorting its missions. Versions are kept for the summary retention given when this
+     * instance was created, which is none by default; only changes made through this instance are recorded.
+     *
+     * @throws IllegalArgumentException when the instant is older than the retention window or than this instance
+     * @throws IllegalStateException    when this instance was created without summary retention
+     */
+    public Summary getDragonsSummaryAsOf(Instant instant) {
+        DomainOperationEvent event = DomainOperationEvent.start("getDragonsSummaryAsOf");
+        try {
+            if (summaryHistory == null) throw new IllegalStateException("Summaries are kept only with retention");
+            Summary summary = summaryHistory.summaryAsOf(instant);
+            event.batchSize(summary.missions().size()).succeeded();
+            return summary;
+        } finally {
+            event.finish();
+        }
+    }
+
+    /**
+     * Starts a query over the missions. With {@link FleetIndex#QUERIES} it is answered from indexes kept by this
+     * instance, which see the missions in the repository when the index was enabled and afterwards the changes made
+     * through this instance; without it, the query indexes the missions and rockets read from the repositories.
+     */
+    public MissionQuery queryMissions() {
+        return new MissionQuery(queryIndex());
+    }
+
+    /**
+     * Starts a query over the rockets, answered in the same way as {@link #queryMissions()}.
+     */
+    public RocketQuery queryRockets() {
+        return new RocketQuery(queryIndex());
+    }
+
+    /**
+     * Returns a summary read lazily, in summary order, from an index of the missions kept by this instance. The
+     * index is filled from the mission repository when it is enabled and afterwards follows the changes made
+     * through this instance. Requires {@link FleetIndex#LAZY_SUMMARY}.
+     */
+    public LazySummary getLazyDragonsSummary() {
+        return new LazySummary(index(missionOrder, FleetIndex.LAZY_SUMMARY).missions(), this::render);
+    }
+
+    /**
+     * Returns the version of the summary, increased by every change of a mission, its rockets or their statuses.
+     * Requires {@link FleetIndex#SUMMARY_CHANGES}.
+     */
+    public long getSummaryVersion() {
+        return index(summaryVersions, FleetIndex.SUMMARY_CHANGES).version();
+    }
+
+    /**
+     * Returns the epoch of the summary versions, which differs for every instance numbering them. Requires
+     * {@link FleetIndex#SUMMARY_CHANGES}.
+     */
+    public long getSummaryEpoch() {
+        return index(summaryVersions, FleetIndex.SUMMARY_CHANGES).epoch();
+    }
+
+    /**
+     * Returns the missions added or changed after the given summary version of the current epoch, see
+     * {@link #getSummaryChangesSince(long, long)}. Requires {@link FleetIndex#SUMMARY_CHANGES}.
+     */
+    public SummaryChanges getSummaryChangesSince(long version) {
+        return getSummaryChangesSince(getSummaryEpoch(), version);
+    }
+
+    /**
+     * Returns the missions added or changed after the given summary version with their positions in the summary.
+     * The cost depends on the number of changed missions, not on the size of the fleet. Version 0 returns every
+     * mission, including the ones which were in the repository when the index was enabled, and so does a version
+     * of another epoch, such as one read before a restart, so that the client replaces its summary. Requires
+     * {@link FleetIndex#SUMMARY_CHANGES}.
+     */
+    public SummaryChanges getSummaryChangesSince(long epoch, long version) {
+        DomainOperationEvent event = DomainOperationEvent.start("getSummaryChangesSince");
+        try {
+            SummaryVersions summaryVersions = index(this.summaryVersions, FleetIndex.SUMMARY_CHANGES);
+            long since = epoch == summaryVersions.epoch() ? version : 0;
+            List<ChangedMission> changes = new ArrayList<>();
+            for (Mission mission : summaryVersions.changedSince(since)) {
+                changes.add(new ChangedMission(mission, missionOrder.position(mission)));
+            }
+            changes.sort(Comparator.comparingInt(ChangedMission::position));
+            event.batchSize(changes.size()).succeeded();
+            return new SummaryChanges(summaryVersions.epoch(), summaryVersions.version(), changes);
+        } finally {
+            event.finish();
+        }
+    }
+
+    /**
+     * Returns fleet totals kept up to date on every change, without reading the repositories. Safe to call from
+     * a monitoring thread; only changes made through this instance are counted. Requires
+     * {@link FleetIndex#STATISTICS}.
+     */
+    public FleetStatistics getFleetStatistics() {
+        return index(statistics, FleetIndex.STATISTICS).snapshot();
+    }
+
+    /**
+     * Prints the same output as {@link Summary#printSummary()}. With {@link FleetIndex#RENDER_CACHE} it reuses the
+     * status block of every mission which did not change since it was last printed; missions changed directly in
+     * the repositories, bypassing this class, are then not detected.
+     */
+    public void printDragonsSummary(PrintStream out) {
+        SummaryRenderer.render(getDragonsSummary().missions(), this::render, out);
+    }
+
+    /**
+     * Returns the rocket as last changed through this instance, or as read from the repository without
+     * {@link FleetIndex#QUERIES}; null when it does not exist.
+     */
+    Rocket knownRocket(String rocketName) {
+        if (queryIndex != null) return queryIndex.rocket(rocketName);
+        return rocketRepository.findByName(rocketName).orElse(null);
+    }
+
+    private FleetQueryIndex queryIndex() {
+        if (queryIndex != null) return queryIndex;
+        return new FleetQueryIndex(rocketRepository.findAll(), missionRepository.findAll());
+    }
+
+    private String render(Mission mission) {
+        return renderCache != null ? renderCache.render(mission) : mission.printToStatus();
+    }
+
+    private static <T> T index(T index, FleetIndex name) {
+        if (index == null) throw new IllegalStateException("Index %s is not enabled".formatted(name));
+        return index;
+    }
+
+    private Rocket createRocket(String rocketName) {
+        Rocket saved = rocketRepository.save(Rocket.createNewRocket(rocketName));
+        listeners.forEach(listener -> listener.rocketAdded(saved));
+        return saved;
+    }
+
+    private Mission createMission(String missionName) {
+        Mission saved = missionRepository.save(Mission.create(missionName));
+        listeners.forEach(listener -> listener.missionAdded(saved));
+        return saved;
+    }
+
+    private void assignRockets(Mission mission, List<Rocket> rocketsWithMission) {
+        Mission withRockets = mission;
+        for (Rocket withMission : rocketsWithMission) {
+            withRockets = withRockets.assignRocket(withMission);
+        }
+        Mission assigned = withRockets;
+        List<Rocket> unassigned = rocketsWithMission.stream()
+                .map(rocket -> new Rocket(rocket.name(), rocket.status(), Optional.empty()))
+                .toList();
+        write(() -> rocketRepository.updateAll(rocketsWithMission), unassigned,
+                () -> missionRepository.update(assigned), List.of(mission));
+        notifyRocketsAssigned(mission, withRockets, rocketsWithMission);
+    }
+
+    private void endMission(Mission mission) {
+        endMissions(List.of(mission));
+    }
+
+    /**
+     * Ends the missions and releases their rockets, returning the number of released rockets.
+     */
+    private int endMissions(List<Mission> missions) {
+        List<Mission> endedMissions = new ArrayList<>(missions.size());
+        List<Rocket> assignedRockets = new ArrayList<>();
+        List<Rocket> releasedRockets = new ArrayList<>();
+        for (Mission mission : missions) {
+            endedMissions.add(mission.endMission());
+            assignedRockets.addAll(mission.rockets().values());
+            mission.rockets().values().forEach(rocket -> releasedRockets.add(rocket.removeMission()));
+        }
+        write(() -> rocketRepository.updateAll(releasedRockets), assignedRockets,
+                () -> missionRepository.updateAll(endedMissions), missions);
+        for (int i = 0; i < missions.size(); i++) {
+            Mission mission = missions.get(i);
+            Mission ended = endedMissions.get(i);
+            listeners.forEach(listener -> listener.missionEnded(mission, ended));
+        }
+        notifyMissionsChanged(missions, endedMissions);
+        return releasedRockets.size();
+    }
+
+    private void updateRocket(Rocket rocket, Rocket updatedRocket) {
+        updateRocket(rocket, updatedRocket, missionOf(updatedRocket));
+    }
+
+    private void updateRocket(Rocket rocket, Rocket updatedRocket, Optional<Mission> assignedMission) {
+        if (assignedMission.isEmpty()) {
+            unitOfWork.execute(() -> rocketRepository.update(updatedRocket));
+            listeners.forEach(listener -> listener.rocketStatusChanged(rocket, updatedRocket));
+            return;
+        }
+        Mission mission = assignedMission.get();
+        Mission updatedMission = mission.updateRocket(updatedRocket);
+        boolean writesMission = !missionRepository.storesRocketReferences();
+        write(() -> rocketRepository.update(updatedRocket), List.of(rocket), () -> {
+            if (writesMission) missionRepository.update(updatedMission);
+        }, writesMission ? List.of(mission) : List.of());
+        listeners.forEach(listener -> listener.rocketStatusChanged(rocket, updatedRocket));
+        listeners.forEach(listener -> listener.missionChanged(mission, updatedMission));
+    }
+
+    /**
+     * Writes the rockets and then the missions of one operation in the unit of work. When any of the writes fails,
+     * the rockets and the missions are written back as they were before the operation, so repositories without
+     * transactions are not left with part of the operation written; listeners are notified only after this
+     * returns.
+     */
+    private void write(Runnable rocketWrites, List<Rocket> previousRockets, Runnable missionWrites,
+                       List<Mission> previousMissions) {
+        unitOfWork.execute(() -> {
+            try {
+                rocketWrites.run();
+                missionWrites.run();
+            } catch (RuntimeException e) {
+                restore(() -> rocketRepository.updateAll(previousRockets), e);
+                restore(() -> missionRepository.updateAll(previousMissions), e);
+                throw e;
+            }
+        });
+    }
+
+    private static void restore(Runnable writes, RuntimeException failure) {
+        try {
+            writes.run();
+        } catch (RuntimeException restoreFailure) {
+            failure.addSuppressed(restoreFailure);
+        }
+    }
+
+    private Optional<Mission> missionOf(Rocket rocket) {
+        return rocket.missionName().map(name -> missionRepository.findByName(name)
+                .orElseThrow(() -> new MissionDoesNotExistException(name)));
+    }
+
+    private void notifyMissionsChanged(List<Mission> missions, List<Mission> updatedMissions) {
+        for (int i = 0; i < missions.size(); i++) {
+            Mission mission = missions.get(i);
+            Mission updatedMission = updatedMissions.get(i);
+            listeners.forEach(listener -> listener.missionChanged(mission, updatedMission));
+        }
+    }
+
+    private void notifyRocketsAssigned(Mission mission, Mission withRockets, List<Rocket> assignedRockets) {
+        listeners.forEach(listener -> listener.rocketsAssigned(withRockets, assignedRockets));
+        listeners.forEach(listener -> listener.missionChanged(mission, withRockets));
+    }
+
 }
@@ -0,0 +1,40 @@
+package io.dragon.domain;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Rendered status blocks of missions, one per mission name, each kept with the mission it was rendered from. A
+ * block is reused only for that mission or an equal one, so rendering an old snapshot of a mission never serves or
+ * caches text which does not belong to the mission asked for. Every change of a mission or of one of its rockets
+ * rewrites the mission, and {@link #missionChanged(Mission, Mission)} drops its block, so the cache holds at most
+ * one block per mission and no block of an outdated state. Safe to use from the parallel summary renderer.
+ */
+final class StatusRenderCache implements FleetChangeListener {
+
+    private final Map<String, Rendered> blocks = new ConcurrentHashMap<>();
+
+    String render(Mission mission) {
+        Rendered rendered = blocks.get(mission.name());
+        if (rendered != null && rendered.isOf(mission)) return rendered.text;
+        String text = mission.printToStatus();
+        blocks.put(mission.name(), new Rendered(mission, text));
+        return text;
+    }
+
+    @Override
+    public void missionChanged(Mission previous, Mission updated) {
+        blocks.remove(updated.name());
+    }
+
+    int size() {
+        return blocks.size();
+    }
+
+    private record Rendered(Mission mission, String text) {
+
+        boolean isOf(Mission other) {
+            return mission == other || mission.equals(other);
+        }
+    }
+}
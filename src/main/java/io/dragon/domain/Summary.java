@@ -1,11 +1,28 @@
 package io.dragon.domain;
 
+import java.io.PrintStream;
+import java.util.Comparator;
 import java.util.List;
 
 public record Summary(List<Mission> missions) {
 
+    public static final Comparator<Mission> MISSION_ORDER = Comparator
+            .comparingInt((Mission mission) -> mission.rockets().size())
+            .reversed()
+            .thenComparing(Mission::name, Comparator.reverseOrder());
+
+    /**
+     * Number of missions from which sorting and rendering the summary is split across the common fork-join pool.
+     * Below it the coordination costs more than it saves.
+     */
+    public static final int PARALLEL_THRESHOLD = 20_000;
+
     public void printSummary() {
-        missions.forEach(mission -> System.out.println(mission.printToStatus()));
+        printSummary(System.out);
+    }
+
+    public void printSummary(PrintStream out) {
+        SummaryRenderer.render(missions, Mission::printToStatus, out);
     }
 
 }
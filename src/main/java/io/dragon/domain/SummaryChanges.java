@@ -0,0 +1,25 @@
+package io.dragon.domain;
+
+import java.util.List;
+
+/**
+ * Missions added or changed after a summary version, ordered by their position in the summary. A client holding
+ * the summary at that version catches up by taking out the changed missions and placing each one at its position,
+ * in the given order; the remaining missions keep their relative order. {@code version} is the version to ask
+ * from on the next poll.
+ * <p>
+ * Versions are numbered from 1 by each service instance, so they restart with every instance. {@code epoch}
+ * identifies the numbering they belong to; changes of another epoch than the one of the client's summary contain
+ * every mission, as for version 0, and the client replaces its summary with them.
+ */
+public record SummaryChanges(long epoch, long version, List<ChangedMission> changes) {
+
+    public SummaryChanges {
+        changes = List.copyOf(changes);
+    }
+
+    public boolean isEmpty() {
+        return changes.isEmpty();
+    }
+
+}
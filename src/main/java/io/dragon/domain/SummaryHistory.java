@@ -0,0 +1,83 @@
+package io.dragon.domain;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Past versions of the missions, with their rockets, updated from the change events of
+ * {@link SpaceXDragonRocketsRepository}. Every change derives a new {@link PersistentHashMap} from the latest one,
+ * which shares all unchanged missions and trie nodes with it, and records it under the time of the change taken
+ * from the clock of the service; several changes within one millisecond keep only the last version. Versions are
+ * indexed by time, so the state as of an instant is the closest earlier version found in O(log versions), and
+ * versions older than the retention window are dropped except the newest of them, which still holds the state at
+ * the start of the window. Changes are recorded by the thread changing the service; reading past versions is
+ * safe from any thread.
+ */
+final class SummaryHistory implements FleetChangeListener {
+
+    private final Clock clock;
+    private final Duration retention;
+    private final NavigableMap<Long, PersistentHashMap<String, Mission>> versions = new ConcurrentSkipListMap<>();
+    private PersistentHashMap<String, Mission> latest = PersistentHashMap.empty();
+
+    SummaryHistory(Clock clock, Duration retention, Collection<Mission> existingMissions) {
+        if (retention.isNegative()) throw new IllegalArgumentException("Retention must not be negative");
+        this.clock = clock;
+        this.retention = retention;
+        existingMissions.forEach(mission -> latest = latest.put(mission.name(), mission));
+        record(latest);
+    }
+
+    @Override
+    public void missionAdded(Mission mission) {
+        record(latest.put(mission.name(), mission));
+    }
+
+    @Override
+    public void missionChanged(Mission previous, Mission updated) {
+        record(latest.put(updated.name(), updated));
+    }
+
+    /**
+     * Returns the summary as it was at the given instant.
+     *
+     * @throws IllegalArgumentException when the instant is before the retention window or before this instance
+     *                                  was created
+     */
+    Summary summaryAsOf(Instant instant) {
+        long at = instant.toEpochMilli();
+        if (at < clock.millis() - retention.toMillis()) {
+            throw new IllegalArgumentException(String.format("Summary as of %s is outside of the retention window",
+                    instant));
+        }
+        Map.Entry<Long, PersistentHashMap<String, Mission>> version = versions.floorEntry(at);
+        if (version == null) {
+            throw new IllegalArgumentException(String.format("Summary as of %s was not recorded", instant));
+        }
+        List<Mission> missions = new ArrayList<>(version.getValue().size());
+        version.getValue().forEachValue(missions::add);
+        missions.sort(Summary.MISSION_ORDER);
+        return new Summary(missions);
+    }
+
+    int versionCount() {
+        return versions.size();
+    }
+
+    private void record(PersistentHashMap<String, Mission> version) {
+        latest = version;
+        long now = versions.isEmpty() ? clock.millis() : Math.max(clock.millis(), versions.lastKey());
+        versions.put(now, version);
+        long windowStart = now - retention.toMillis();
+        if (versions.firstKey() < windowStart) {
+            versions.headMap(versions.floorKey(windowStart), false).clear();
+        }
+    }
+}
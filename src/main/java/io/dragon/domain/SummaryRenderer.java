@@ -0,0 +1,50 @@
+package io.dragon.domain;
+
+import java.io.PrintStream;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+/**
+ * Writes mission blocks of a summary, each followed by an empty line. Large summaries are rendered in waves:
+ * every wave splits into fixed-size chunks rendered in parallel into a pool of reused buffers, which are then
+ * written out in order before the next wave starts, so memory stays bounded by the pool size.
+ */
+final class SummaryRenderer {
+
+    private static final int CHUNK_SIZE = 512;
+
+    private SummaryRenderer() {
+    }
+
+    static void render(List<Mission> missions, Function<Mission, String> renderer, PrintStream out) {
+        if (missions.size() < Summary.PARALLEL_THRESHOLD) {
+            missions.forEach(mission -> out.println(renderer.apply(mission)));
+            return;
+        }
+        String separator = System.lineSeparator();
+        StringBuilder[] buffers = new StringBuilder[ForkJoinPool.getCommonPoolParallelism() * 2];
+        for (int i = 0; i < buffers.length; i++) {
+            buffers[i] = new StringBuilder(CHUNK_SIZE * 64);
+        }
+        int waveSize = CHUNK_SIZE * buffers.length;
+        for (int waveStart = 0; waveStart < missions.size(); waveStart += waveSize) {
+            int start = waveStart;
+            int chunks = Math.min(buffers.length, (missions.size() - start + CHUNK_SIZE - 1) / CHUNK_SIZE);
+            IntStream.range(0, chunks).parallel().forEach(chunk -> {
+                StringBuilder buffer = buffers[chunk];
+                buffer.setLength(0);
+                int from = start + chunk * CHUNK_SIZE;
+                int to = Math.min(from + CHUNK_SIZE, missions.size());
+                for (int i = from; i < to; i++) {
+                    buffer.append(renderer.apply(missions.get(i))).append(separator);
+                }
+            });
+            for (int chunk = 0; chunk < chunks; chunk++) {
+                out.append(buffers[chunk]);
+            }
+        }
+        out.flush();
+    }
+}
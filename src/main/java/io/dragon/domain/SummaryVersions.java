@@ -0,0 +1,54 @@
+package io.dragon.domain;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Change version of the summary and the version at which every mission last changed, updated from the change
+ * events of {@link SpaceXDragonRocketsRepository}. Missions are also indexed by that version, so the missions
+ * changed since a version are found without visiting the others. Versions start again from 1 with every index, so
+ * each index draws a random non-zero epoch which tells its versions apart from those of earlier instances. Not
+ * thread-safe.
+ */
+final class SummaryVersions implements FleetChangeListener {
+
+    private final Map<String, Long> versionByMission = new HashMap<>();
+    private final TreeMap<Long, Mission> missionByVersion = new TreeMap<>();
+    private final long epoch = ThreadLocalRandom.current().nextLong(1, Long.MAX_VALUE);
+    private long version;
+
+    SummaryVersions(Collection<Mission> existingMissions) {
+        existingMissions.forEach(this::missionAdded);
+    }
+
+    @Override
+    public void missionAdded(Mission mission) {
+        record(mission);
+    }
+
+    @Override
+    public void missionChanged(Mission previous, Mission updated) {
+        record(updated);
+    }
+
+    long epoch() {
+        return epoch;
+    }
+
+    long version() {
+        return version;
+    }
+
+    Collection<Mission> changedSince(long version) {
+        return missionByVersion.tailMap(version, false).values();
+    }
+
+    private void record(Mission mission) {
+        Long previousVersion = versionByMission.put(mission.name(), ++version);
+        if (previousVersion != null) missionByVersion.remove(previousVersion);
+        missionByVersion.put(version, mission);
+    }
+}
@@ -0,0 +1,18 @@
+package io.dragon.domain;
+
+/**
+ * Runs the repository writes of one operation of {@link SpaceXDragonRocketsRepository}, such as the rockets and
+ * the mission written when rockets are assigned, so that they are committed together or not at all. Repositories
+ * without transactions use {@link #NONE}; the service then writes back the rockets it already wrote when a later
+ * write of the same operation fails.
+ */
+@FunctionalInterface
+public interface UnitOfWork {
+
+    UnitOfWork NONE = Runnable::run;
+
+    /**
+     * Runs the writes and commits them, or discards all of them when the writes throw.
+     */
+    void execute(Runnable writes);
+}
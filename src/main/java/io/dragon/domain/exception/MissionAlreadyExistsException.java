@@ -4,7 +4,14 @@ public class MissionAlreadyExistsException extends RuntimeException {
 
     public static final String MESSAGE = "Mission with name %s already exists in the system";
 
+    private final String missionName;
+
     public MissionAlreadyExistsException(String missionName) {
         super(MESSAGE.formatted(missionName));
+        this.missionName = missionName;
+    }
+
+    public String getMissionName() {
+        return missionName;
     }
 }
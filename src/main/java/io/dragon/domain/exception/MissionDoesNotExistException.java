@@ -4,7 +4,14 @@ public class MissionDoesNotExistException extends RuntimeException {
 
     public static final String MESSAGE = "Mission with name %s does not exist in the system";
 
+    private final String missionName;
+
     public MissionDoesNotExistException(String missionName) {
         super(MESSAGE.formatted(missionName));
+        this.missionName = missionName;
+    }
+
+    public String getMissionName() {
+        return missionName;
     }
 }
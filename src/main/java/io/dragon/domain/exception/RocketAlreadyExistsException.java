@@ -4,7 +4,14 @@ public class RocketAlreadyExistsException extends RuntimeException {
 
     private static final String MESSAGE = "Rocket with name %s already exists in the system";
 
+    private final String rocketName;
+
     public RocketAlreadyExistsException(String rocketName) {
         super(MESSAGE.formatted(rocketName));
+        this.rocketName = rocketName;
+    }
+
+    public String getRocketName() {
+        return rocketName;
     }
 }
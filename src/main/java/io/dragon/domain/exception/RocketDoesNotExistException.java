@@ -4,7 +4,14 @@ public class RocketDoesNotExistException extends RuntimeException {
 
     private static final String MESSAGE = "Rocket with name %s does not exist in the system";
 
+    private final String rocketName;
+
     public RocketDoesNotExistException(String rocketName) {
         super(MESSAGE.formatted(rocketName));
+        this.rocketName = rocketName;
+    }
+
+    public String getRocketName() {
+        return rocketName;
     }
 }
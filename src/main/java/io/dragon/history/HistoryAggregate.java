@@ -0,0 +1,21 @@
+package io.dragon.history;
+
+import io.dragon.domain.RocketStatus;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Totals computed by {@link StatusHistory#aggregate} over a time range. Rocket time is counted only for the part of
+ * each interval inside the range; completed repairs are the ones which ended inside the range, with their whole
+ * duration.
+ */
+public record HistoryAggregate(Map<RocketStatus, Duration> timeByStatus, Map<String, Duration> timeInSpaceByMission,
+                               long completedRepairs, Duration completedRepairTime) {
+
+    public Optional<Duration> meanTimeInRepair() {
+        if (completedRepairs == 0) return Optional.empty();
+        return Optional.of(completedRepairTime.dividedBy(completedRepairs));
+    }
+}
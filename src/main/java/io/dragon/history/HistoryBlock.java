@@ -0,0 +1,170 @@
+package io.dragon.history;
+
+import io.dragon.codec.DragonCodec;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Immutable block of history events stored column by column. Timestamps are zigzag-encoded varint deltas from the
+ * previous event, rocket and mission ids are varint dictionary ids, status and event type are one byte each. The
+ * time bounds of the block let scans skip it without decoding. A block is written to storage as its bounds followed
+ * by the columns, each prefixed with its length.
+ */
+final class HistoryBlock {
+
+    private final int size;
+    private final long firstTime;
+    private final long minTime;
+    private final long maxTime;
+    private final byte[] timeDeltas;
+    private final byte[] rocketIds;
+    private final byte[] missionIds;
+    private final byte[] statuses;
+    private final byte[] types;
+
+    private HistoryBlock(int size, long firstTime, long minTime, long maxTime, byte[] timeDeltas, byte[] rocketIds,
+                         byte[] missionIds, byte[] statuses, byte[] types) {
+        this.size = size;
+        this.firstTime = firstTime;
+        this.minTime = minTime;
+        this.maxTime = maxTime;
+        this.timeDeltas = timeDeltas;
+        this.rocketIds = rocketIds;
+        this.missionIds = missionIds;
+        this.statuses = statuses;
+        this.types = types;
+    }
+
+    static HistoryBlock encode(long[] times, int[] rocketIds, int[] missionIds, byte[] statuses, byte[] types,
+                               int size) {
+        long minTime = Long.MAX_VALUE;
+        long maxTime = Long.MIN_VALUE;
+        int timeBytes = 0;
+        int rocketBytes = 0;
+        int missionBytes = 0;
+        for (int i = 0; i < size; i++) {
+            minTime = Math.min(minTime, times[i]);
+            maxTime = Math.max(maxTime, times[i]);
+            if (i > 0) timeBytes += DragonCodec.sizeOfVarlong(zigzag(times[i] - times[i - 1]));
+            rocketBytes += DragonCodec.sizeOfVarint(rocketIds[i]);
+            missionBytes += DragonCodec.sizeOfVarint(missionIds[i]);
+        }
+        ByteBuffer timeColumn = ByteBuffer.allocate(timeBytes);
+        ByteBuffer rocketColumn = ByteBuffer.allocate(rocketBytes);
+        ByteBuffer missionColumn = ByteBuffer.allocate(missionBytes);
+        for (int i = 0; i < size; i++) {
+            if (i > 0) DragonCodec.putVarlong(timeColumn, zigzag(times[i] - times[i - 1]));
+            DragonCodec.putVarint(rocketColumn, rocketIds[i]);
+            DragonCodec.putVarint(missionColumn, missionIds[i]);
+        }
+        return new HistoryBlock(size, size == 0 ? 0 : times[0], minTime, maxTime, timeColumn.array(),
+                rocketColumn.array(), missionColumn.array(), copy(statuses, size), copy(types, size));
+    }
+
+    static HistoryBlock read(ByteBuffer buffer) {
+        int size = buffer.getInt();
+        if (size < 0 || size > buffer.remaining()) throw new IllegalArgumentException("Invalid block size " + size);
+        long firstTime = buffer.getLong();
+        long minTime = buffer.getLong();
+        long maxTime = buffer.getLong();
+        byte[] timeDeltas = getColumn(buffer);
+        byte[] rocketIds = getColumn(buffer);
+        byte[] missionIds = getColumn(buffer);
+        byte[] statuses = new byte[size];
+        byte[] types = new byte[size];
+        buffer.get(statuses).get(types);
+        return new HistoryBlock(size, firstTime, minTime, maxTime, timeDeltas, rocketIds, missionIds, statuses,
+                types);
+    }
+
+    int writtenBytes() {
+        return Integer.BYTES + 3 * Long.BYTES + sizeOfColumn(timeDeltas) + sizeOfColumn(rocketIds)
+                + sizeOfColumn(missionIds) + 2 * size;
+    }
+
+    void write(ByteBuffer buffer) {
+        buffer.putInt(size).putLong(firstTime).putLong(minTime).putLong(maxTime);
+        putColumn(buffer, timeDeltas);
+        putColumn(buffer, rocketIds);
+        putColumn(buffer, missionIds);
+        buffer.put(statuses).put(types);
+    }
+
+    int size() {
+        return size;
+    }
+
+    long minTime() {
+        return minTime;
+    }
+
+    long maxTime() {
+        return maxTime;
+    }
+
+    void decodeTimes(long[] into) {
+        ByteBuffer column = ByteBuffer.wrap(timeDeltas);
+        long time = firstTime;
+        for (int i = 0; i < size; i++) {
+            if (i > 0) time += unzigzag(DragonCodec.getVarlong(column));
+            into[i] = time;
+        }
+    }
+
+    void decodeRocketIds(int[] into) {
+        decodeVarints(rocketIds, into);
+    }
+
+    void decodeMissionIds(int[] into) {
+        decodeVarints(missionIds, into);
+    }
+
+    byte status(int index) {
+        return statuses[index];
+    }
+
+    byte type(int index) {
+        return types[index];
+    }
+
+    int encodedBytes() {
+        return timeDeltas.length + rocketIds.length + missionIds.length + statuses.length + types.length
+                + 3 * Long.BYTES;
+    }
+
+    private void decodeVarints(byte[] column, int[] into) {
+        ByteBuffer buffer = ByteBuffer.wrap(column);
+        for (int i = 0; i < size; i++) {
+            into[i] = DragonCodec.getVarint(buffer);
+        }
+    }
+
+    private static int sizeOfColumn(byte[] column) {
+        return DragonCodec.sizeOfVarint(column.length) + column.length;
+    }
+
+    private static void putColumn(ByteBuffer buffer, byte[] column) {
+        DragonCodec.putVarint(buffer, column.length);
+        buffer.put(column);
+    }
+
+    private static byte[] getColumn(ByteBuffer buffer) {
+        byte[] column = new byte[DragonCodec.getCount(buffer)];
+        buffer.get(column);
+        return column;
+    }
+
+    private static byte[] copy(byte[] column, int size) {
+        byte[] copy = new byte[size];
+        System.arraycopy(column, 0, copy, 0, size);
+        return copy;
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
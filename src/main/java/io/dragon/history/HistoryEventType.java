@@ -0,0 +1,14 @@
+package io.dragon.history;
+
+/**
+ * Kind of change recorded in a {@link StatusHistory}.
+ */
+public enum HistoryEventType {
+    ADDED,
+    STATUS_CHANGED,
+    ASSIGNED,
+    /**
+     * The rocket left the mission because the mission ended; the event carries the mission it left.
+     */
+    RELEASED
+}
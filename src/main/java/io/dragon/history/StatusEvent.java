@@ -0,0 +1,14 @@
+package io.dragon.history;
+
+import io.dragon.domain.RocketStatus;
+
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * One recorded change of a rocket, with its status and mission right after the change, except for
+ * {@link HistoryEventType#RELEASED}, which names the mission the rocket left.
+ */
+public record StatusEvent(Instant at, String rocketName, HistoryEventType type, RocketStatus status,
+                          Optional<String> missionName) {
+}
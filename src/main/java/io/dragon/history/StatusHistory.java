@@ -0,0 +1,471 @@
+package io.dragon.history;
+
+import io.dragon.codec.DragonCodec;
+import io.dragon.domain.FleetChangeListener;
+import io.dragon.domain.Mission;
+import io.dragon.domain.RepairLog;
+import io.dragon.domain.Rocket;
+import io.dragon.domain.RocketStatus;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Append-only history of rocket changes, recorded from the change events of the domain service it is added to as
+ * a listener. Events are buffered in primitive columns and sealed into compressed {@link HistoryBlock}s of
+ * {@value #BLOCK_SIZE} events, typically a few bytes per event. Rocket and mission names are stored once in
+ * dictionaries.
+ * <p>
+ * The history is kept in an append-only file. A sealed block is written to it as one length-prefixed record,
+ * together with the names first used since the previous block, and only its position and time bounds stay in
+ * memory; the open block is the only buffered part. {@link #open(Clock, Path)} reads the bounds and names back,
+ * dropping a record torn by a crash, so a crash loses at most the events of the open block, and {@link #close()}
+ * writes the open block as a shorter one.
+ * <p>
+ * Range scans skip every block outside the range by its time bounds and read and decode only the rest. Aggregations
+ * need the state of each rocket when the range starts, so they read every block before its end, but they work on
+ * the decoded columns without creating an object per event. Scans and aggregations run on a snapshot taken under a
+ * short lock and may run on any thread while events are recorded.
+ */
+public class StatusHistory implements FleetChangeListener, RepairLog, AutoCloseable {
+
+    static final int BLOCK_SIZE = 4096;
+
+    private static final RocketStatus[] ROCKET_STATUSES = RocketStatus.values();
+    private static final HistoryEventType[] EVENT_TYPES = HistoryEventType.values();
+    private static final byte RELEASED = (byte) HistoryEventType.RELEASED.ordinal();
+    private static final byte IN_REPAIR = (byte) RocketStatus.IN_REPAIR.ordinal();
+    private static final byte IN_SPACE = (byte) RocketStatus.IN_SPACE.ordinal();
+    private static final byte UNKNOWN = -1;
+    private static final int LENGTH_SIZE = Integer.BYTES;
+
+    private final Clock clock;
+    private final int blockSize;
+    private final FileChannel channel;
+    private final List<BlockRef> blocks = new ArrayList<>();
+    private final Dictionary rocketNames = new Dictionary();
+    private final Dictionary missionNames = new Dictionary();
+    private final long[] times;
+    private final int[] rocketIds;
+    private final int[] missionIds;
+    private final byte[] statuses;
+    private final byte[] types;
+    private int buffered;
+    private long size;
+    private long sealedBytes;
+    private long end;
+    private int largestBlock;
+    private int writtenRocketNames;
+    private int writtenMissionNames;
+
+    private StatusHistory(Clock clock, int blockSize, FileChannel channel) {
+        this.clock = clock;
+        this.blockSize = blockSize;
+        this.channel = channel;
+        this.largestBlock = blockSize;
+        this.times = new long[blockSize];
+        this.rocketIds = new int[blockSize];
+        this.missionIds = new int[blockSize];
+        this.statuses = new byte[blockSize];
+        this.types = new byte[blockSize];
+    }
+
+    /**
+     * Opens the history kept in the file, creating the file if it does not exist.
+     */
+    public static StatusHistory open(Clock clock, Path path) throws IOException {
+        return open(clock, path, BLOCK_SIZE);
+    }
+
+    static StatusHistory open(Clock clock, Path path, int blockSize) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            StatusHistory history = new StatusHistory(clock, blockSize, channel);
+            history.replay();
+            return history;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public void rocketAdded(Rocket rocket) {
+        record(HistoryEventType.ADDED, rocket, rocket.missionName().orElse(null));
+    }
+
+    @Override
+    public void rocketsAssigned(Mission mission, Collection<Rocket> assignedRockets) {
+        for (Rocket rocket : assignedRockets) {
+            record(HistoryEventType.ASSIGNED, rocket, mission.name());
+        }
+    }
+
+    @Override
+    public void rocketStatusChanged(Rocket previous, Rocket updated) {
+        record(HistoryEventType.STATUS_CHANGED, updated, updated.missionName().orElse(null));
+    }
+
+    @Override
+    public void missionEnded(Mission previous, Mission ended) {
+        for (Rocket rocket : previous.rockets().values()) {
+            record(HistoryEventType.RELEASED, rocket.removeMission(), previous.name());
+        }
+    }
+
+    public synchronized long size() {
+        return size;
+    }
+
+    /**
+     * Returns the size of the sealed blocks, without the events of the open block and the name dictionaries.
+     */
+    public synchronized long encodedBytes() {
+        return sealedBytes;
+    }
+
+    /**
+     * Passes the events at or after {@code from} and before {@code to} to the consumer in recording order.
+     */
+    public void scan(Instant from, Instant to, Consumer<StatusEvent> consumer) {
+        Snapshot snapshot = snapshot();
+        long fromMillis = from.toEpochMilli();
+        long toMillis = to.toEpochMilli();
+        long[] blockTimes = new long[snapshot.largestBlock];
+        int[] blockRockets = new int[snapshot.largestBlock];
+        int[] blockMissions = new int[snapshot.largestBlock];
+        for (BlockRef ref : snapshot.blocks) {
+            if (!ref.overlaps(fromMillis, toMillis)) continue;
+            HistoryBlock block = read(ref);
+            block.decodeTimes(blockTimes);
+            block.decodeRocketIds(blockRockets);
+            block.decodeMissionIds(blockMissions);
+            for (int i = 0; i < block.size(); i++) {
+                if (blockTimes[i] < fromMillis || blockTimes[i] >= toMillis) continue;
+                int missionId = blockMissions[i];
+                consumer.accept(new StatusEvent(Instant.ofEpochMilli(blockTimes[i]),
+                        snapshot.rocketNames[blockRockets[i]], EVENT_TYPES[block.type(i)],
+                        ROCKET_STATUSES[block.status(i)],
+                        missionId == 0 ? Optional.empty() : Optional.of(snapshot.missionNames[missionId - 1])));
+            }
+        }
+    }
+
+    public List<StatusEvent> events(Instant from, Instant to) {
+        List<StatusEvent> events = new ArrayList<>();
+        scan(from, to, events::add);
+        return events;
+    }
+
+    /**
+     * Computes time per status, time in space per mission and the completed repairs within the range. Intervals
+     * still open at the end of the history are counted up to the current time of the clock.
+     */
+    public HistoryAggregate aggregate(Instant from, Instant to) {
+        Snapshot snapshot = snapshot();
+        long fromMillis = from.toEpochMilli();
+        long toMillis = Math.min(to.toEpochMilli(), clock.millis());
+        int rocketCount = snapshot.rocketNames.length;
+        byte[] status = new byte[rocketCount];
+        Arrays.fill(status, UNKNOWN);
+        int[] mission = new int[rocketCount];
+        long[] since = new long[rocketCount];
+        long[] repairSince = new long[rocketCount];
+        long[] timeByStatus = new long[ROCKET_STATUSES.length];
+        long[] timeInSpaceByMission = new long[snapshot.missionNames.length + 1];
+        long completedRepairs = 0;
+        long completedRepairTime = 0;
+        long[] blockTimes = new long[snapshot.largestBlock];
+        int[] blockRockets = new int[snapshot.largestBlock];
+        int[] blockMissions = new int[snapshot.largestBlock];
+        for (BlockRef ref : snapshot.blocks) {
+            if (!ref.overlaps(Long.MIN_VALUE, toMillis)) continue;
+            HistoryBlock block = read(ref);
+            block.decodeTimes(blockTimes);
+            block.decodeRocketIds(blockRockets);
+            block.decodeMissionIds(blockMissions);
+            for (int i = 0; i < block.size(); i++) {
+                long time = blockTimes[i];
+                if (time >= toMillis) continue;
+                int rocket = blockRockets[i];
+                byte newStatus = block.status(i);
+                if (status[rocket] != UNKNOWN) {
+                    long overlap = overlap(since[rocket], time, fromMillis, toMillis);
+                    timeByStatus[status[rocket]] += overlap;
+                    if (status[rocket] == IN_SPACE) timeInSpaceByMission[mission[rocket]] += overlap;
+                    if (status[rocket] == IN_REPAIR && newStatus != IN_REPAIR && time >= fromMillis) {
+                        completedRepairs++;
+                        completedRepairTime += time - repairSince[rocket];
+                    }
+                }
+                if (newStatus == IN_REPAIR && status[rocket] != IN_REPAIR) repairSince[rocket] = time;
+                status[rocket] = newStatus;
+                mission[rocket] = block.type(i) == RELEASED ? 0 : blockMissions[i];
+                since[rocket] = time;
+            }
+        }
+        for (int rocket = 0; rocket < rocketCount; rocket++) {
+            if (status[rocket] == UNKNOWN) continue;
+            long overlap = overlap(since[rocket], toMillis, fromMillis, toMillis);
+            timeByStatus[status[rocket]] += overlap;
+            if (status[rocket] == IN_SPACE) timeInSpaceByMission[mission[rocket]] += overlap;
+        }
+        Map<RocketStatus, Duration> byStatus = new EnumMap<>(RocketStatus.class);
+        for (RocketStatus rocketStatus : ROCKET_STATUSES) {
+            byStatus.put(rocketStatus, Duration.ofMillis(timeByStatus[rocketStatus.ordinal()]));
+        }
+        Map<String, Duration> inSpaceByMission = new HashMap<>();
+        for (int missionId = 1; missionId < timeInSpaceByMission.length; missionId++) {
+            if (timeInSpaceByMission[missionId] > 0) {
+                inSpaceByMission.put(snapshot.missionNames[missionId - 1],
+                        Duration.ofMillis(timeInSpaceByMission[missionId]));
+            }
+        }
+        return new HistoryAggregate(byStatus, inSpaceByMission, completedRepairs,
+                Duration.ofMillis(completedRepairTime));
+    }
+
+    /**
+     * Returns the time each rocket entered repair, for the rockets whose latest event left them in repair. Set as
+     * the repair log of the service, it gives the repair backlog the time rockets entered repair before a restart.
+     */
+    @Override
+    public Map<String, Instant> repairsInProgress() {
+        Snapshot snapshot = snapshot();
+        int rocketCount = snapshot.rocketNames.length;
+        byte[] status = new byte[rocketCount];
+        Arrays.fill(status, UNKNOWN);
+        long[] repairSince = new long[rocketCount];
+        long[] blockTimes = new long[snapshot.largestBlock];
+        int[] blockRockets = new int[snapshot.largestBlock];
+        for (BlockRef ref : snapshot.blocks) {
+            HistoryBlock block = read(ref);
+            block.decodeTimes(blockTimes);
+            block.decodeRocketIds(blockRockets);
+            for (int i = 0; i < block.size(); i++) {
+                int rocket = blockRockets[i];
+                byte newStatus = block.status(i);
+                if (newStatus == IN_REPAIR && status[rocket] != IN_REPAIR) repairSince[rocket] = blockTimes[i];
+                status[rocket] = newStatus;
+            }
+        }
+        Map<String, Instant> repairs = new HashMap<>();
+        for (int rocket = 0; rocket < rocketCount; rocket++) {
+            if (status[rocket] == IN_REPAIR)
+                repairs.put(snapshot.rocketNames[rocket], Instant.ofEpochMilli(repairSince[rocket]));
+        }
+        return repairs;
+    }
+
+    /**
+     * Writes the events of the open block and closes the file.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            if (buffered > 0) seal();
+        } finally {
+            channel.close();
+        }
+    }
+
+    private synchronized void record(HistoryEventType type, Rocket rocket, String missionName) {
+        if (buffered == blockSize) seal();
+        times[buffered] = clock.millis();
+        rocketIds[buffered] = rocketNames.idOf(rocket.name());
+        missionIds[buffered] = missionName == null ? 0 : missionNames.idOf(missionName) + 1;
+        statuses[buffered] = (byte) rocket.status().ordinal();
+        types[buffered] = (byte) type.ordinal();
+        buffered++;
+        size++;
+        if (buffered == blockSize) seal();
+    }
+
+    /**
+     * Appends the open block to the file. When the write fails the block stays open and sealing is tried again
+     * with the next event.
+     */
+    private void seal() {
+        HistoryBlock block = HistoryBlock.encode(times, rocketIds, missionIds, statuses, types, buffered);
+        String[] newRocketNames = rocketNames.namesFrom(writtenRocketNames);
+        String[] newMissionNames = missionNames.namesFrom(writtenMissionNames);
+        int namesSize = sizeOf(newRocketNames) + sizeOf(newMissionNames);
+        ByteBuffer record = ByteBuffer.allocate(LENGTH_SIZE + namesSize + block.writtenBytes());
+        record.putInt(record.capacity() - LENGTH_SIZE);
+        putNames(record, newRocketNames);
+        putNames(record, newMissionNames);
+        block.write(record);
+        try {
+            write(record.flip(), end);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write status history", e);
+        }
+        blocks.add(new BlockRef(block.minTime(), block.maxTime(), end + LENGTH_SIZE + namesSize,
+                block.writtenBytes()));
+        end += record.capacity();
+        sealedBytes += block.encodedBytes();
+        writtenRocketNames += newRocketNames.length;
+        writtenMissionNames += newMissionNames.length;
+        buffered = 0;
+    }
+
+    private synchronized Snapshot snapshot() {
+        List<BlockRef> snapshotBlocks = new ArrayList<>(blocks.size() + 1);
+        snapshotBlocks.addAll(blocks);
+        if (buffered > 0) {
+            HistoryBlock open = HistoryBlock.encode(times, rocketIds, missionIds, statuses, types, buffered);
+            snapshotBlocks.add(new BlockRef(open.minTime(), open.maxTime(), open));
+        }
+        return new Snapshot(snapshotBlocks, rocketNames.names(), missionNames.names(), largestBlock);
+    }
+
+    private HistoryBlock read(BlockRef ref) {
+        if (ref.open != null) return ref.open;
+        ByteBuffer buffer = ByteBuffer.allocate(ref.length);
+        try {
+            read(buffer, ref.position);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read status history", e);
+        }
+        return HistoryBlock.read(buffer.flip());
+    }
+
+    /**
+     * Reads the names and block bounds from the file and cuts off a record torn by a crash.
+     */
+    private void replay() throws IOException {
+        long fileSize = channel.size();
+        ByteBuffer length = ByteBuffer.allocate(LENGTH_SIZE);
+        while (fileSize - end >= LENGTH_SIZE) {
+            read(length.clear(), end);
+            int recordLength = length.flip().getInt();
+            if (recordLength < 0 || recordLength > fileSize - end - LENGTH_SIZE) break;
+            ByteBuffer record = ByteBuffer.allocate(recordLength);
+            read(record, end + LENGTH_SIZE);
+            record.flip();
+            for (String name : getNames(record)) {
+                rocketNames.idOf(name);
+            }
+            for (String name : getNames(record)) {
+                missionNames.idOf(name);
+            }
+            int blockStart = record.position();
+            HistoryBlock block = HistoryBlock.read(record);
+            blocks.add(new BlockRef(block.minTime(), block.maxTime(), end + LENGTH_SIZE + blockStart,
+                    recordLength - blockStart));
+            size += block.size();
+            sealedBytes += block.encodedBytes();
+            largestBlock = Math.max(largestBlock, block.size());
+            end += LENGTH_SIZE + recordLength;
+        }
+        if (end < fileSize) channel.truncate(end);
+        writtenRocketNames = rocketNames.names().length;
+        writtenMissionNames = missionNames.names().length;
+    }
+
+    private void write(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    private void read(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position);
+            if (read < 0) throw new IOException("Unexpected end of status history");
+            position += read;
+        }
+    }
+
+    private static int sizeOf(String[] names) {
+        int size = DragonCodec.sizeOfVarint(names.length);
+        for (String name : names) {
+            size += DragonCodec.sizeOf(name);
+        }
+        return size;
+    }
+
+    private static void putNames(ByteBuffer buffer, String[] names) {
+        DragonCodec.putVarint(buffer, names.length);
+        for (String name : names) {
+            DragonCodec.putString(buffer, name);
+        }
+    }
+
+    private static String[] getNames(ByteBuffer buffer) {
+        String[] names = new String[DragonCodec.getCount(buffer)];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = DragonCodec.getString(buffer);
+        }
+        return names;
+    }
+
+    private static long overlap(long start, long end, long from, long to) {
+        return Math.max(0, Math.min(end, to) - Math.max(start, from));
+    }
+
+    private record Snapshot(List<BlockRef> blocks, String[] rocketNames, String[] missionNames, int largestBlock) {
+    }
+
+    /**
+     * Time bounds of a block and where it is written in the file, or the block itself for the open block.
+     */
+    private record BlockRef(long minTime, long maxTime, long position, int length, HistoryBlock open) {
+
+        BlockRef(long minTime, long maxTime, long position, int length) {
+            this(minTime, maxTime, position, length, null);
+        }
+
+        BlockRef(long minTime, long maxTime, HistoryBlock open) {
+            this(minTime, maxTime, -1, 0, open);
+        }
+
+        /**
+         * Tells whether the block may hold events at or after {@code from} and before {@code to}.
+         */
+        boolean overlaps(long from, long to) {
+            return maxTime >= from && minTime < to;
+        }
+    }
+
+    private static final class Dictionary {
+
+        private final Map<String, Integer> ids = new HashMap<>();
+        private String[] names = new String[64];
+        private int size;
+
+        int idOf(String name) {
+            Integer id = ids.get(name);
+            if (id != null) return id;
+            if (size == names.length) names = Arrays.copyOf(names, size * 2);
+            names[size] = name;
+            ids.put(name, size);
+            return size++;
+        }
+
+        String[] names() {
+            return Arrays.copyOf(names, size);
+        }
+
+        String[] namesFrom(int from) {
+            return Arrays.copyOfRange(names, from, size);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package io.dragon.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.SettingDefinition;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * One call of a {@code SpaceXDragonRocketsRepository} operation. Disabled by default; enable it in a recording,
+ * optionally with a threshold and {@code sampleEvery}, e.g.
+ * {@code recording.enable("io.dragon.DomainOperation").withThreshold(Duration.ofMillis(5)).with("sampleEvery", "10")}.
+ * While disabled, creating and finishing the event does no work.
+ */
+@Name("io.dragon.DomainOperation")
+@Label("Dragon Domain Operation")
+@Category({"Dragon", "Domain"})
+@Description("Operation executed by the Dragon rockets domain service")
+@Enabled(false)
+@Threshold("0 ms")
+@StackTrace(false)
+public final class DomainOperationEvent extends Event {
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Mission")
+    String missionName;
+
+    @Label("Rocket")
+    String rocketName;
+
+    @Label("Batch Size")
+    int batchSize;
+
+    @Label("Rockets Touched")
+    int rocketsTouched;
+
+    @Label("Succeeded")
+    boolean succeeded;
+
+    private DomainOperationEvent() {
+    }
+
+    public static DomainOperationEvent start(String operation) {
+        DomainOperationEvent event = new DomainOperationEvent();
+        if (event.isEnabled()) {
+            event.operation = operation;
+            event.begin();
+        }
+        return event;
+    }
+
+    public DomainOperationEvent mission(String missionName) {
+        this.missionName = missionName;
+        return this;
+    }
+
+    public DomainOperationEvent rocket(String rocketName) {
+        this.rocketName = rocketName;
+        return this;
+    }
+
+    public DomainOperationEvent batchSize(int batchSize) {
+        this.batchSize = batchSize;
+        return this;
+    }
+
+    public DomainOperationEvent rocketsTouched(int rocketsTouched) {
+        this.rocketsTouched = rocketsTouched;
+        return this;
+    }
+
+    public void succeeded() {
+        this.succeeded = true;
+    }
+
+    /**
+     * Ends the event and commits it if it passes the threshold and sampling of any active recording. The check is
+     * left to {@link #commit()}, calling {@link #shouldCommit()} as well would consult the sampling setting twice.
+     */
+    public void finish() {
+        if (!isEnabled()) return;
+        end();
+        commit();
+    }
+
+    @Name("sampleEvery")
+    @Label("Sample every")
+    @SettingDefinition
+    boolean sampleEvery(SampleEverySetting setting) {
+        return setting.sample();
+    }
+}
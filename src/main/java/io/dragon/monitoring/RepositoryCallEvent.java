@@ -0,0 +1,78 @@
+package io.dragon.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.SettingDefinition;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * One call of a rocket or mission repository, recorded by the JFR repository decorators, including calls which
+ * threw. Disabled by default, configured like {@link DomainOperationEvent}.
+ */
+@Name("io.dragon.RepositoryCall")
+@Label("Dragon Repository Call")
+@Category({"Dragon", "Repository"})
+@Description("Call of a rocket or mission repository")
+@Enabled(false)
+@Threshold("0 ms")
+@StackTrace(false)
+public final class RepositoryCallEvent extends Event {
+
+    @Label("Repository")
+    String repository;
+
+    @Label("Method")
+    String method;
+
+    @Label("Entity")
+    String entityName;
+
+    @Label("Results")
+    int results;
+
+    @Label("Succeeded")
+    boolean succeeded;
+
+    private RepositoryCallEvent() {
+    }
+
+    public static RepositoryCallEvent start(String repository, String method, String entityName) {
+        RepositoryCallEvent event = new RepositoryCallEvent();
+        if (event.isEnabled()) {
+            event.repository = repository;
+            event.method = method;
+            event.entityName = entityName;
+            event.begin();
+        }
+        return event;
+    }
+
+    /**
+     * Marks the call as returned with the given number of results.
+     */
+    public void succeeded(int results) {
+        this.results = results;
+        this.succeeded = true;
+    }
+
+    /**
+     * Ends the event and commits it, whether the call succeeded or threw; call it from a {@code finally} block.
+     */
+    public void finish() {
+        if (!isEnabled()) return;
+        end();
+        commit();
+    }
+
+    @Name("sampleEvery")
+    @Label("Sample every")
+    @SettingDefinition
+    boolean sampleEvery(SampleEverySetting setting) {
+        return setting.sample();
+    }
+}
@@ -0,0 +1,50 @@
+package io.dragon.monitoring;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.SettingControl;
+
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * JFR setting {@code sampleEvery=<n>} keeping one in n events that passed the other settings. When several
+ * recordings ask for different rates the most frequent sampling wins.
+ */
+@Name("io.dragon.SampleEvery")
+@Label("Sample every")
+@Description("Records one in n events")
+public final class SampleEverySetting extends SettingControl {
+
+    private final AtomicLong counter = new AtomicLong();
+    private volatile long every = 1;
+
+    @Override
+    public String combine(Set<String> values) {
+        return String.valueOf(values.stream().mapToLong(SampleEverySetting::parse).min().orElse(1));
+    }
+
+    @Override
+    public void setValue(String value) {
+        every = parse(value);
+    }
+
+    @Override
+    public String getValue() {
+        return String.valueOf(every);
+    }
+
+    boolean sample() {
+        long current = every;
+        return current <= 1 || counter.getAndIncrement() % current == 0;
+    }
+
+    private static long parse(String value) {
+        try {
+            return Math.max(1, Long.parseLong(value.trim()));
+        } catch (NumberFormatException e) {
+            return 1;
+        }
+    }
+}
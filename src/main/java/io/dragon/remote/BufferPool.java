@@ -0,0 +1,39 @@
+package io.dragon.remote;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+
+/**
+ * Pool of equally sized direct buffers. Allocating direct memory is expensive, so buffers released by one
+ * connection are handed to the next one. Used only by the server's event loop thread.
+ */
+final class BufferPool {
+
+    private final int bufferSize;
+    private final int maxPooled;
+    private final ArrayDeque<ByteBuffer> buffers = new ArrayDeque<>();
+
+    BufferPool(int bufferSize, int maxPooled) {
+        this.bufferSize = bufferSize;
+        this.maxPooled = maxPooled;
+    }
+
+    int bufferSize() {
+        return bufferSize;
+    }
+
+    ByteBuffer acquire() {
+        ByteBuffer buffer = buffers.poll();
+        return buffer != null ? buffer : ByteBuffer.allocateDirect(bufferSize);
+    }
+
+    void release(ByteBuffer buffer) {
+        if (!isPooled(buffer) || buffers.size() >= maxPooled) return;
+        buffer.clear();
+        buffers.push(buffer);
+    }
+
+    boolean isPooled(ByteBuffer buffer) {
+        return buffer.isDirect() && buffer.capacity() == bufferSize;
+    }
+}
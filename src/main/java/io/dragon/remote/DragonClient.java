@@ -0,0 +1,168 @@
+package io.dragon.remote;
+
+import io.dragon.codec.DragonCodec;
+import io.dragon.domain.RocketStatus;
+import io.dragon.domain.Summary;
+import io.dragon.domain.SummaryChanges;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Client of a {@link DragonServer}. Any number of threads can share one client: every request is tagged with
+ * an id, written without waiting for earlier responses and completed when its response arrives, so one connection
+ * carries many outstanding requests.
+ */
+public class DragonClient implements AutoCloseable {
+
+    private final SocketChannel channel;
+    private final AtomicInteger nextRequestId = new AtomicInteger();
+    private final Map<Integer, CompletableFuture<ByteBuffer>> pending = new ConcurrentHashMap<>();
+    private volatile IOException failure;
+
+    private DragonClient(SocketChannel channel) {
+        this.channel = channel;
+    }
+
+    public static DragonClient connect(InetSocketAddress serverAddress) throws IOException {
+        SocketChannel channel = SocketChannel.open(serverAddress);
+        channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+        DragonClient client = new DragonClient(channel);
+        Thread reader = new Thread(client::receive, "dragon-client");
+        reader.setDaemon(true);
+        reader.start();
+        return client;
+    }
+
+    public CompletableFuture<Void> addRocket(String rocketName) {
+        return send(Protocol.ADD_ROCKET, DragonCodec.sizeOf(rocketName),
+                buffer -> DragonCodec.putString(buffer, rocketName), response -> null);
+    }
+
+    public CompletableFuture<Void> addMission(String missionName) {
+        return send(Protocol.ADD_MISSION, DragonCodec.sizeOf(missionName),
+                buffer -> DragonCodec.putString(buffer, missionName), response -> null);
+    }
+
+    public CompletableFuture<Void> assignRocketToMission(String rocketName, String missionName) {
+        return send(Protocol.ASSIGN_ROCKET, DragonCodec.sizeOf(rocketName) + DragonCodec.sizeOf(missionName), buffer -> {
+            DragonCodec.putString(buffer, rocketName);
+            DragonCodec.putString(buffer, missionName);
+        }, response -> null);
+    }
+
+    public CompletableFuture<Void> assignRocketsToMission(Set<String> rocketsNames, String missionName) {
+        int size = DragonCodec.sizeOf(missionName) + DragonCodec.sizeOfVarint(rocketsNames.size());
+        for (String rocketName : rocketsNames) {
+            size += DragonCodec.sizeOf(rocketName);
+        }
+        return send(Protocol.ASSIGN_ROCKETS, size, buffer -> {
+            DragonCodec.putString(buffer, missionName);
+            DragonCodec.putVarint(buffer, rocketsNames.size());
+            rocketsNames.forEach(rocketName -> DragonCodec.putString(buffer, rocketName));
+        }, response -> null);
+    }
+
+    public CompletableFuture<Void> setRocketStatus(String rocketName, RocketStatus status) {
+        return send(Protocol.SET_ROCKET_STATUS, DragonCodec.sizeOf(rocketName) + 1, buffer -> {
+            DragonCodec.putString(buffer, rocketName);
+            DragonCodec.putRocketStatus(buffer, status);
+        }, response -> null);
+    }
+
+    public CompletableFuture<Void> endMission(String missionName) {
+        return send(Protocol.END_MISSION, DragonCodec.sizeOf(missionName),
+                buffer -> DragonCodec.putString(buffer, missionName), response -> null);
+    }
+
+    public CompletableFuture<Summary> getDragonsSummary() {
+        return send(Protocol.GET_SUMMARY, 0, buffer -> {
+        }, DragonCodec::getSummary);
+    }
+
+    /**
+     * Fetches only the missions changed after the given summary version of the given epoch, see
+     * {@link io.dragon.domain.SpaceXDragonRocketsRepository#getSummaryChangesSince(long, long)}. Changes of
+     * another epoch than the requested one hold the whole summary, which replaces the client's summary.
+     */
+    public CompletableFuture<SummaryChanges> getSummaryChangesSince(long epoch, long version) {
+        return send(Protocol.GET_SUMMARY_CHANGES, 2 * Long.BYTES, buffer -> buffer.putLong(epoch).putLong(version),
+                DragonCodec::getSummaryChanges);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private <T> CompletableFuture<T> send(byte operation, int argumentsSize, Consumer<ByteBuffer> arguments,
+                                          Function<ByteBuffer, T> result) {
+        int requestId = nextRequestId.incrementAndGet();
+        CompletableFuture<ByteBuffer> response = new CompletableFuture<>();
+        pending.put(requestId, response);
+        if (failure != null) {
+            pending.remove(requestId);
+            response.completeExceptionally(failure);
+            return response.thenApply(result);
+        }
+        int bodySize = Protocol.REQUEST_HEADER_SIZE + argumentsSize;
+        ByteBuffer request = ByteBuffer.allocate(Protocol.LENGTH_SIZE + bodySize);
+        request.putInt(bodySize).putInt(requestId).put(operation);
+        arguments.accept(request);
+        request.flip();
+        try {
+            synchronized (channel) {
+                while (request.hasRemaining()) {
+                    channel.write(request);
+                }
+            }
+        } catch (IOException e) {
+            pending.remove(requestId);
+            response.completeExceptionally(e);
+        }
+        return response.thenApply(result);
+    }
+
+    private void receive() {
+        ByteBuffer length = ByteBuffer.allocate(Protocol.LENGTH_SIZE);
+        try {
+            while (true) {
+                length.clear();
+                readFully(length);
+                ByteBuffer body = ByteBuffer.allocate(length.getInt());
+                readFully(body);
+                complete(body);
+            }
+        } catch (IOException e) {
+            failure = e;
+        }
+        pending.values().forEach(response -> response.completeExceptionally(failure));
+        pending.clear();
+    }
+
+    private void complete(ByteBuffer body) {
+        CompletableFuture<ByteBuffer> response = pending.remove(body.getInt());
+        if (response == null) return;
+        byte status = body.get();
+        if (status == Protocol.OK) response.complete(body);
+        else response.completeExceptionally(Protocol.toException(status, DragonCodec.getString(body)));
+    }
+
+    private void readFully(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) throw new EOFException("Connection closed by server");
+        }
+        buffer.flip();
+    }
+}
@@ -0,0 +1,222 @@
+package io.dragon.remote;
+
+import io.dragon.codec.DragonCodec;
+import io.dragon.domain.RocketStatus;
+import io.dragon.domain.SpaceXDragonRocketsRepository;
+import io.dragon.domain.Summary;
+import io.dragon.domain.SummaryChanges;
+import io.dragon.domain.exception.MissionAlreadyExistsException;
+import io.dragon.domain.exception.MissionDoesNotExistException;
+import io.dragon.domain.exception.RocketAlreadyExistsException;
+import io.dragon.domain.exception.RocketDoesNotExistException;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+
+/**
+ * Non-blocking server exposing {@link SpaceXDragonRocketsRepository} over the {@link Protocol}. A single event
+ * loop thread accepts connections, reads pipelined requests and executes them one after another, so the
+ * repository is never called concurrently and must not be used directly by other threads while served.
+ */
+public class DragonServer implements AutoCloseable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_POOLED_BUFFERS = 256;
+    /**
+     * Largest request frame accepted by default, without its length prefix.
+     */
+    public static final int DEFAULT_MAX_FRAME_SIZE = 16 * 1024 * 1024;
+
+    private final SpaceXDragonRocketsRepository dragonRocketsRepository;
+    private final Selector selector;
+    private final ServerSocketChannel server;
+    private final BufferPool bufferPool = new BufferPool(BUFFER_SIZE, MAX_POOLED_BUFFERS);
+    private final Set<ServerConnection> connections = new HashSet<>();
+    private final int maxFrameSize;
+    private final Thread eventLoop;
+    private volatile boolean running = true;
+
+    private DragonServer(SpaceXDragonRocketsRepository dragonRocketsRepository, InetSocketAddress bindAddress,
+                         int maxFrameSize) throws IOException {
+        if (maxFrameSize < Protocol.REQUEST_HEADER_SIZE) {
+            throw new IllegalArgumentException("Maximum frame size must fit the request header");
+        }
+        this.dragonRocketsRepository = dragonRocketsRepository;
+        this.maxFrameSize = maxFrameSize;
+        this.selector = Selector.open();
+        this.server = ServerSocketChannel.open().bind(bindAddress);
+        server.configureBlocking(false);
+        server.register(selector, SelectionKey.OP_ACCEPT);
+        this.eventLoop = new Thread(this::run, "dragon-server");
+    }
+
+    public static DragonServer start(SpaceXDragonRocketsRepository dragonRocketsRepository,
+                                     InetSocketAddress bindAddress) throws IOException {
+        return start(dragonRocketsRepository, bindAddress, DEFAULT_MAX_FRAME_SIZE);
+    }
+
+    /**
+     * Starts the server, closing the connection of any client which sends a request frame longer than
+     * {@code maxFrameSize} bytes or too short to hold the request header.
+     */
+    public static DragonServer start(SpaceXDragonRocketsRepository dragonRocketsRepository,
+                                     InetSocketAddress bindAddress, int maxFrameSize) throws IOException {
+        DragonServer dragonServer = new DragonServer(dragonRocketsRepository, bindAddress, maxFrameSize);
+        dragonServer.eventLoop.start();
+        return dragonServer;
+    }
+
+    public InetSocketAddress address() throws IOException {
+        return (InetSocketAddress) server.getLocalAddress();
+    }
+
+    @Override
+    public void close() throws IOException {
+        running = false;
+        selector.wakeup();
+        try {
+            eventLoop.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        try (selector; server) {
+            while (running) {
+                selector.select();
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) continue;
+                    if (key.isAcceptable()) accept();
+                    else handle(key);
+                }
+            }
+        } catch (IOException | ClosedSelectorException e) {
+            // server socket failed, stop serving
+        } finally {
+            connections.forEach(ServerConnection::close);
+            connections.clear();
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel = server.accept();
+        if (channel == null) return;
+        channel.configureBlocking(false);
+        channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+        SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+        ServerConnection connection = new ServerConnection(channel, key, bufferPool, maxFrameSize);
+        key.attach(connection);
+        connections.add(connection);
+    }
+
+    /**
+     * Serves one ready connection. A broken connection or a client violating the protocol closes only that
+     * connection; the event loop keeps serving the others.
+     */
+    private void handle(SelectionKey key) {
+        ServerConnection connection = (ServerConnection) key.attachment();
+        try {
+            boolean open = true;
+            if (key.isReadable()) open = connection.read(request -> execute(request, connection));
+            else if (key.isWritable()) connection.flush();
+            if (!open) {
+                connection.close();
+                connections.remove(connection);
+            }
+        } catch (IOException | RuntimeException e) {
+            connection.close();
+            connections.remove(connection);
+        }
+    }
+
+    private void execute(ByteBuffer request, ServerConnection connection) {
+        int requestId = 0;
+        try {
+            requestId = request.getInt();
+            byte operation = request.get();
+            switch (operation) {
+                case Protocol.ADD_ROCKET -> dragonRocketsRepository.addRocket(DragonCodec.getString(request));
+                case Protocol.ADD_MISSION -> dragonRocketsRepository.addMission(DragonCodec.getString(request));
+                case Protocol.ASSIGN_ROCKET -> {
+                    String rocketName = DragonCodec.getString(request);
+                    dragonRocketsRepository.assignRocketToMission(rocketName, DragonCodec.getString(request));
+                }
+                case Protocol.ASSIGN_ROCKETS -> {
+                    String missionName = DragonCodec.getString(request);
+                    int count = DragonCodec.getCount(request);
+                    Set<String> rocketNames = new HashSet<>();
+                    for (int i = 0; i < count; i++) {
+                        rocketNames.add(DragonCodec.getString(request));
+                    }
+                    dragonRocketsRepository.assignRocketsToMission(rocketNames, missionName);
+                }
+                case Protocol.SET_ROCKET_STATUS -> {
+                    String rocketName = DragonCodec.getString(request);
+                    RocketStatus status = DragonCodec.getRocketStatus(request);
+                    dragonRocketsRepository.setRocketStatus(rocketName, status);
+                }
+                case Protocol.END_MISSION -> dragonRocketsRepository.endMission(DragonCodec.getString(request));
+                case Protocol.GET_SUMMARY -> {
+                    respondSummary(connection, requestId, dragonRocketsRepository.getDragonsSummary());
+                    return;
+                }
+                case Protocol.GET_SUMMARY_CHANGES -> {
+                    long epoch = request.getLong();
+                    long version = request.getLong();
+                    respondSummaryChanges(connection, requestId,
+                            dragonRocketsRepository.getSummaryChangesSince(epoch, version));
+                    return;
+                }
+                default -> throw new IllegalArgumentException("Unknown operation %d".formatted(operation));
+            }
+            respond(connection, requestId, Protocol.OK, null);
+        } catch (RocketAlreadyExistsException e) {
+            respond(connection, requestId, Protocol.ROCKET_ALREADY_EXISTS, e.getRocketName());
+        } catch (MissionAlreadyExistsException e) {
+            respond(connection, requestId, Protocol.MISSION_ALREADY_EXISTS, e.getMissionName());
+        } catch (RocketDoesNotExistException e) {
+            respond(connection, requestId, Protocol.ROCKET_DOES_NOT_EXIST, e.getRocketName());
+        } catch (MissionDoesNotExistException e) {
+            respond(connection, requestId, Protocol.MISSION_DOES_NOT_EXIST, e.getMissionName());
+        } catch (IllegalStateException e) {
+            respond(connection, requestId, Protocol.ILLEGAL_STATE, String.valueOf(e.getMessage()));
+        } catch (RuntimeException e) {
+            respond(connection, requestId, Protocol.ILLEGAL_ARGUMENT, String.valueOf(e.getMessage()));
+        }
+    }
+
+    private void respond(ServerConnection connection, int requestId, byte status, String detail) {
+        int bodySize = Protocol.RESPONSE_HEADER_SIZE + (detail == null ? 0 : DragonCodec.sizeOf(detail));
+        ByteBuffer buffer = connection.reserve(Protocol.LENGTH_SIZE + bodySize);
+        buffer.putInt(bodySize).putInt(requestId).put(status);
+        if (detail != null) DragonCodec.putString(buffer, detail);
+    }
+
+    private void respondSummary(ServerConnection connection, int requestId, Summary summary) {
+        int bodySize = Protocol.RESPONSE_HEADER_SIZE + DragonCodec.sizeOf(summary);
+        ByteBuffer buffer = connection.reserve(Protocol.LENGTH_SIZE + bodySize);
+        buffer.putInt(bodySize).putInt(requestId).put(Protocol.OK);
+        DragonCodec.putSummary(buffer, summary);
+    }
+
+    private void respondSummaryChanges(ServerConnection connection, int requestId, SummaryChanges summaryChanges) {
+        int bodySize = Protocol.RESPONSE_HEADER_SIZE + DragonCodec.sizeOf(summaryChanges);
+        ByteBuffer buffer = connection.reserve(Protocol.LENGTH_SIZE + bodySize);
+        buffer.putInt(bodySize).putInt(requestId).put(Protocol.OK);
+        DragonCodec.putSummaryChanges(buffer, summaryChanges);
+    }
+}
@@ -0,0 +1,51 @@
+package io.dragon.remote;
+
+import io.dragon.domain.exception.MissionAlreadyExistsException;
+import io.dragon.domain.exception.MissionDoesNotExistException;
+import io.dragon.domain.exception.RocketAlreadyExistsException;
+import io.dragon.domain.exception.RocketDoesNotExistException;
+
+/**
+ * Binary protocol shared by {@link DragonServer} and {@link DragonClient}. A request frame is an int length
+ * followed by an int request id, an operation byte and the operation arguments. A response frame is an int length
+ * followed by the request id, a status byte and either the result or, for failures, the name of the offending
+ * entity or the error message. Arguments, results and summaries use {@link io.dragon.codec.DragonCodec}.
+ */
+final class Protocol {
+
+    static final int LENGTH_SIZE = Integer.BYTES;
+    static final int REQUEST_HEADER_SIZE = Integer.BYTES + 1;
+    static final int RESPONSE_HEADER_SIZE = Integer.BYTES + 1;
+
+    static final byte ADD_ROCKET = 1;
+    static final byte ADD_MISSION = 2;
+    static final byte ASSIGN_ROCKET = 3;
+    static final byte ASSIGN_ROCKETS = 4;
+    static final byte SET_ROCKET_STATUS = 5;
+    static final byte END_MISSION = 6;
+    static final byte GET_SUMMARY = 7;
+    static final byte GET_SUMMARY_CHANGES = 8;
+
+    static final byte OK = 0;
+    static final byte ROCKET_ALREADY_EXISTS = 1;
+    static final byte MISSION_ALREADY_EXISTS = 2;
+    static final byte ROCKET_DOES_NOT_EXIST = 3;
+    static final byte MISSION_DOES_NOT_EXIST = 4;
+    static final byte ILLEGAL_STATE = 5;
+    static final byte ILLEGAL_ARGUMENT = 6;
+
+    private Protocol() {
+    }
+
+    static RuntimeException toException(byte status, String detail) {
+        return switch (status) {
+            case ROCKET_ALREADY_EXISTS -> new RocketAlreadyExistsException(detail);
+            case MISSION_ALREADY_EXISTS -> new MissionAlreadyExistsException(detail);
+            case ROCKET_DOES_NOT_EXIST -> new RocketDoesNotExistException(detail);
+            case MISSION_DOES_NOT_EXIST -> new MissionDoesNotExistException(detail);
+            case ILLEGAL_STATE -> new IllegalStateException(detail);
+            case ILLEGAL_ARGUMENT -> new IllegalArgumentException(detail);
+            default -> new IllegalStateException("Unexpected response status %d: %s".formatted(status, detail));
+        };
+    }
+}
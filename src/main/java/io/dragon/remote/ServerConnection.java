@@ -0,0 +1,109 @@
+package io.dragon.remote;
+
+import java.io.IOException;
+import java.net.ProtocolException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.function.Consumer;
+
+/**
+ * State of one client connection on the server's event loop. Every readable event may carry several pipelined
+ * requests; all of them are handled before the responses are flushed with a single gathering write.
+ */
+final class ServerConnection {
+
+    private final SocketChannel channel;
+    private final SelectionKey key;
+    private final BufferPool bufferPool;
+    private final int maxFrameSize;
+    private final ArrayDeque<ByteBuffer> pendingWrites = new ArrayDeque<>();
+    private ByteBuffer input;
+    private ByteBuffer output;
+
+    ServerConnection(SocketChannel channel, SelectionKey key, BufferPool bufferPool, int maxFrameSize) {
+        this.channel = channel;
+        this.key = key;
+        this.bufferPool = bufferPool;
+        this.maxFrameSize = maxFrameSize;
+        this.input = bufferPool.acquire();
+    }
+
+    /**
+     * Reads available bytes and passes every complete request frame, without its length prefix, to the handler.
+     * Returns false when the client closed the connection.
+     *
+     * @throws ProtocolException when a frame is shorter than the request header or longer than the maximum frame
+     *                           size; nothing after it can be trusted, so the connection has to be closed
+     */
+    boolean read(Consumer<ByteBuffer> handler) throws IOException {
+        if (channel.read(input) < 0) return false;
+        input.flip();
+        while (input.remaining() >= Protocol.LENGTH_SIZE) {
+            int length = input.getInt(input.position());
+            if (length < Protocol.REQUEST_HEADER_SIZE || length > maxFrameSize) {
+                throw new ProtocolException("Invalid request frame length %d".formatted(length));
+            }
+            if (input.remaining() < Protocol.LENGTH_SIZE + length) {
+                ensureCapacity(Protocol.LENGTH_SIZE + length);
+                break;
+            }
+            int start = input.position() + Protocol.LENGTH_SIZE;
+            handler.accept(input.slice(start, length));
+            input.position(start + length);
+        }
+        input.compact();
+        flush();
+        return true;
+    }
+
+    /**
+     * Returns a buffer with at least {@code size} bytes of room for a response; the response is queued for the
+     * next flush.
+     */
+    ByteBuffer reserve(int size) {
+        if (output != null && output.remaining() >= size) return output;
+        if (output != null) queueOutput();
+        output = size <= bufferPool.bufferSize() ? bufferPool.acquire() : ByteBuffer.allocate(size);
+        return output;
+    }
+
+    void flush() throws IOException {
+        if (output != null) queueOutput();
+        if (pendingWrites.isEmpty()) return;
+        channel.write(pendingWrites.toArray(ByteBuffer[]::new));
+        while (!pendingWrites.isEmpty() && !pendingWrites.peek().hasRemaining()) {
+            bufferPool.release(pendingWrites.poll());
+        }
+        key.interestOps(pendingWrites.isEmpty() ? SelectionKey.OP_READ : SelectionKey.OP_WRITE);
+    }
+
+    void close() {
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+            // nothing left to do with a broken connection
+        }
+        bufferPool.release(input);
+        if (output != null) bufferPool.release(output);
+        pendingWrites.forEach(bufferPool::release);
+        pendingWrites.clear();
+        key.cancel();
+    }
+
+    private void queueOutput() {
+        output.flip();
+        pendingWrites.add(output);
+        output = null;
+    }
+
+    private void ensureCapacity(int frameSize) {
+        if (frameSize <= input.capacity()) return;
+        ByteBuffer larger = ByteBuffer.allocate(frameSize);
+        larger.put(input);
+        larger.flip();
+        bufferPool.release(input);
+        input = larger;
+    }
+}
@@ -0,0 +1,54 @@
+package io.dragon.replication;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Wire framing between leader and followers. Every frame is an int body length followed by the sequence of the
+ * record, the last sequence known to the leader and the encoded mutation. Heartbeats carry sequence 0 and no
+ * mutation. Mutations of a snapshot carry sequence -1 and are closed by a frame with sequence -2 and, instead of
+ * the leader's last sequence, the sequence the snapshot is as of. A frame with sequence -3 tells the follower that
+ * the sequence it needs was truncated. Followers acknowledge applied mutations by sending their last applied
+ * sequence as a long.
+ */
+final class Frames {
+
+    static final int LENGTH_SIZE = Integer.BYTES;
+    static final int HEADER_SIZE = 2 * Long.BYTES;
+    static final int ACK_SIZE = Long.BYTES;
+    static final long HEARTBEAT = 0;
+    static final long SNAPSHOT = -1;
+    static final long SNAPSHOT_END = -2;
+    static final long TRUNCATED = -3;
+
+    private Frames() {
+    }
+
+    static int sizeOf(byte[] record) {
+        return LENGTH_SIZE + HEADER_SIZE + record.length;
+    }
+
+    static void put(ByteBuffer buffer, long sequence, long leaderSequence, byte[] record) {
+        buffer.putInt(HEADER_SIZE + record.length);
+        buffer.putLong(sequence);
+        buffer.putLong(leaderSequence);
+        buffer.put(record);
+    }
+
+    static void readFully(ReadableByteChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) throw new EOFException("Replication channel closed");
+        }
+        buffer.flip();
+    }
+
+    static void writeFully(WritableByteChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package io.dragon.replication;
+
+import io.dragon.domain.RocketStatus;
+import io.dragon.domain.SpaceXDragonRocketsRepository;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+
+/**
+ * Committed domain operation shipped from the leader to its followers. Followers replay it through their own
+ * {@link SpaceXDragonRocketsRepository}, so the replica enforces the same rules as the leader.
+ */
+public sealed interface Mutation {
+
+    void applyTo(SpaceXDragonRocketsRepository replica);
+
+    record AddRocket(String rocketName) implements Mutation {
+        @Override
+        public void applyTo(SpaceXDragonRocketsRepository replica) {
+            replica.addRocket(rocketName);
+        }
+    }
+
+    record AddMission(String missionName) implements Mutation {
+        @Override
+        public void applyTo(SpaceXDragonRocketsRepository replica) {
+            replica.addMission(missionName);
+        }
+    }
+
+    record AssignRockets(String missionName, List<String> rocketNames) implements Mutation {
+        @Override
+        public void applyTo(SpaceXDragonRocketsRepository replica) {
+            replica.assignRocketsToMission(new LinkedHashSet<>(rocketNames), missionName);
+        }
+    }
+
+    record SetRocketStatus(String rocketName, RocketStatus status) implements Mutation {
+        @Override
+        public void applyTo(SpaceXDragonRocketsRepository replica) {
+            replica.setRocketStatus(rocketName, status);
+        }
+    }
+
+    record EndMission(String missionName) implements Mutation {
+        @Override
+        public void applyTo(SpaceXDragonRocketsRepository replica) {
+            replica.endMission(missionName);
+        }
+    }
+}
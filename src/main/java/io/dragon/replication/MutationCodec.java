@@ -0,0 +1,87 @@
+package io.dragon.replication;
+
+import io.dragon.codec.DragonCodec;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Binary form of a {@link Mutation}: one type byte followed by the operation fields, encoded with
+ * {@link DragonCodec}.
+ */
+final class MutationCodec {
+
+    private static final byte ADD_ROCKET = 1;
+    private static final byte ADD_MISSION = 2;
+    private static final byte ASSIGN_ROCKETS = 3;
+    private static final byte SET_ROCKET_STATUS = 4;
+    private static final byte END_MISSION = 5;
+
+    private MutationCodec() {
+    }
+
+    static byte[] encode(Mutation mutation) {
+        ByteBuffer buffer = ByteBuffer.allocate(sizeOf(mutation));
+        if (mutation instanceof Mutation.AddRocket addRocket) {
+            buffer.put(ADD_ROCKET);
+            DragonCodec.putString(buffer, addRocket.rocketName());
+        } else if (mutation instanceof Mutation.AddMission addMission) {
+            buffer.put(ADD_MISSION);
+            DragonCodec.putString(buffer, addMission.missionName());
+        } else if (mutation instanceof Mutation.AssignRockets assignRockets) {
+            buffer.put(ASSIGN_ROCKETS);
+            DragonCodec.putString(buffer, assignRockets.missionName());
+            DragonCodec.putVarint(buffer, assignRockets.rocketNames().size());
+            assignRockets.rocketNames().forEach(name -> DragonCodec.putString(buffer, name));
+        } else if (mutation instanceof Mutation.SetRocketStatus setRocketStatus) {
+            buffer.put(SET_ROCKET_STATUS);
+            DragonCodec.putString(buffer, setRocketStatus.rocketName());
+            DragonCodec.putRocketStatus(buffer, setRocketStatus.status());
+        } else if (mutation instanceof Mutation.EndMission endMission) {
+            buffer.put(END_MISSION);
+            DragonCodec.putString(buffer, endMission.missionName());
+        }
+        return buffer.array();
+    }
+
+    static Mutation decode(ByteBuffer buffer) {
+        byte type = buffer.get();
+        return switch (type) {
+            case ADD_ROCKET -> new Mutation.AddRocket(DragonCodec.getString(buffer));
+            case ADD_MISSION -> new Mutation.AddMission(DragonCodec.getString(buffer));
+            case ASSIGN_ROCKETS -> {
+                String missionName = DragonCodec.getString(buffer);
+                int count = DragonCodec.getVarint(buffer);
+                List<String> rocketNames = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    rocketNames.add(DragonCodec.getString(buffer));
+                }
+                yield new Mutation.AssignRockets(missionName, List.copyOf(rocketNames));
+            }
+            case SET_ROCKET_STATUS ->
+                    new Mutation.SetRocketStatus(DragonCodec.getString(buffer), DragonCodec.getRocketStatus(buffer));
+            case END_MISSION -> new Mutation.EndMission(DragonCodec.getString(buffer));
+            default -> throw new IllegalArgumentException("Unknown mutation type %d".formatted(type));
+        };
+    }
+
+    private static int sizeOf(Mutation mutation) {
+        if (mutation instanceof Mutation.AddRocket addRocket) return 1 + DragonCodec.sizeOf(addRocket.rocketName());
+        if (mutation instanceof Mutation.AddMission addMission)
+            return 1 + DragonCodec.sizeOf(addMission.missionName());
+        if (mutation instanceof Mutation.AssignRockets assignRockets) {
+            int size = 1 + DragonCodec.sizeOf(assignRockets.missionName())
+                    + DragonCodec.sizeOfVarint(assignRockets.rocketNames().size());
+            for (String rocketName : assignRockets.rocketNames()) {
+                size += DragonCodec.sizeOf(rocketName);
+            }
+            return size;
+        }
+        if (mutation instanceof Mutation.SetRocketStatus setRocketStatus)
+            return 1 + DragonCodec.sizeOf(setRocketStatus.rocketName()) + 1;
+        if (mutation instanceof Mutation.EndMission endMission)
+            return 1 + DragonCodec.sizeOf(endMission.missionName());
+        throw new IllegalArgumentException("Unknown mutation %s".formatted(mutation));
+    }
+}
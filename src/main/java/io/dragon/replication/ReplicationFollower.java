@@ -0,0 +1,152 @@
+package io.dragon.replication;
+
+import io.dragon.domain.SpaceXDragonRocketsRepository;
+import io.dragon.domain.Summary;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Hot standby fed by a {@link ReplicationLeader}. Received mutations are replayed on the follower's own
+ * {@link SpaceXDragonRocketsRepository}, which is not exposed for writing; the follower only serves summaries.
+ * Applied sequences are acknowledged to the leader on every heartbeat and every {@value #ACK_INTERVAL} mutations,
+ * so the leader can truncate its log. A follower whose next sequence was already truncated fails and has to be
+ * connected again with an empty replica.
+ */
+public class ReplicationFollower implements AutoCloseable {
+
+    private static final int ACK_INTERVAL = 1024;
+
+    private final SpaceXDragonRocketsRepository replica;
+    private final SocketChannel channel;
+    private long appliedSequence;
+    private long leaderSequence;
+    private RuntimeException failure;
+
+    private ReplicationFollower(SpaceXDragonRocketsRepository replica, SocketChannel channel, long appliedSequence) {
+        this.replica = replica;
+        this.channel = channel;
+        this.appliedSequence = appliedSequence;
+        this.leaderSequence = appliedSequence;
+    }
+
+    /**
+     * Connects to the leader and requests every mutation after {@code appliedSequence}, which is 0 for an empty
+     * replica.
+     */
+    public static ReplicationFollower connect(SpaceXDragonRocketsRepository replica, long appliedSequence,
+                                              InetSocketAddress leaderAddress) throws IOException {
+        SocketChannel channel = SocketChannel.open(leaderAddress);
+        ReplicationFollower follower = new ReplicationFollower(replica, channel, appliedSequence);
+        ByteBuffer request = ByteBuffer.allocate(Long.BYTES).putLong(appliedSequence + 1);
+        Frames.writeFully(channel, request);
+        Thread reader = new Thread(follower::receive, "replication-follower");
+        reader.setDaemon(true);
+        reader.start();
+        return follower;
+    }
+
+    public synchronized Summary getDragonsSummary() {
+        return replica.getDragonsSummary();
+    }
+
+    public synchronized long appliedSequence() {
+        return appliedSequence;
+    }
+
+    /**
+     * Number of mutations the leader had committed, as of its last frame, that are not applied here yet.
+     */
+    public synchronized long lag() {
+        return Math.max(0, leaderSequence - appliedSequence);
+    }
+
+    public synchronized Optional<RuntimeException> failure() {
+        return Optional.ofNullable(failure);
+    }
+
+    public synchronized boolean awaitSequence(long sequence, Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (appliedSequence < sequence && failure == null) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) return false;
+            wait(Math.max(1, remaining / 1_000_000));
+        }
+        return appliedSequence >= sequence;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private void receive() {
+        ByteBuffer length = ByteBuffer.allocate(Frames.LENGTH_SIZE);
+        try {
+            while (true) {
+                length.clear();
+                Frames.readFully(channel, length);
+                ByteBuffer frame = ByteBuffer.allocate(length.getInt());
+                Frames.readFully(channel, frame);
+                if (apply(frame)) acknowledge();
+            }
+        } catch (IOException e) {
+            // leader went away or the follower was closed
+        } catch (RuntimeException e) {
+            fail(e);
+        }
+    }
+
+    /**
+     * Applies the frame and tells whether the applied sequence should be acknowledged.
+     */
+    private synchronized boolean apply(ByteBuffer frame) {
+        long sequence = frame.getLong();
+        long sequenceField = frame.getLong();
+        boolean acknowledge = false;
+        if (sequence == Frames.SNAPSHOT) {
+            if (appliedSequence != 0) throw new IllegalStateException("Snapshot received by a non-empty replica");
+            MutationCodec.decode(frame).applyTo(replica);
+        } else if (sequence == Frames.SNAPSHOT_END) {
+            appliedSequence = sequenceField;
+            leaderSequence = Math.max(leaderSequence, sequenceField);
+            acknowledge = true;
+        } else if (sequence == Frames.TRUNCATED) {
+            throw new IllegalStateException("Leader truncated sequence %d; the replica has to be rebuilt from empty"
+                    .formatted(appliedSequence + 1));
+        } else {
+            leaderSequence = Math.max(leaderSequence, sequenceField);
+            if (sequence == Frames.HEARTBEAT) {
+                acknowledge = true;
+            } else {
+                if (sequence != appliedSequence + 1)
+                    throw new IllegalStateException("Expected sequence %d but received %d"
+                            .formatted(appliedSequence + 1, sequence));
+                MutationCodec.decode(frame).applyTo(replica);
+                appliedSequence = sequence;
+                acknowledge = sequence % ACK_INTERVAL == 0;
+            }
+        }
+        notifyAll();
+        return acknowledge;
+    }
+
+    private void acknowledge() throws IOException {
+        ByteBuffer acknowledgement = ByteBuffer.allocate(Frames.ACK_SIZE).putLong(appliedSequence());
+        Frames.writeFully(channel, acknowledgement);
+    }
+
+    private synchronized void fail(RuntimeException e) {
+        failure = e;
+        notifyAll();
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+            // already failing
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package io.dragon.replication;
+
+import io.dragon.domain.FleetChangeListener;
+import io.dragon.domain.Mission;
+import io.dragon.domain.Rocket;
+import io.dragon.domain.SpaceXDragonRocketsRepository;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records every mutation committed by the leader's {@link SpaceXDragonRocketsRepository} in a
+ * {@link ReplicationLog} and streams the log to connected followers. A follower opens the connection by sending
+ * the first sequence it needs, which lets it catch up after a restart; a follower starting from an empty replica
+ * first receives the snapshot of the log, which includes the state the leader had when it was attached. While
+ * there is nothing to ship, heartbeats keep followers informed about the leader's last sequence.
+ * <p>
+ * Followers acknowledge the mutations they applied, and the log is truncated up to the sequence acknowledged by
+ * every connected follower. Without connected followers nothing is truncated, so a restarted follower can resume,
+ * until the log reaches its maximum size.
+ */
+public class ReplicationLeader implements FleetChangeListener, AutoCloseable {
+
+    private static final Duration HEARTBEAT_INTERVAL = Duration.ofMillis(200);
+    private static final int MAX_BATCH_BYTES = 64 * 1024;
+    private static final byte[] NO_RECORD = new byte[0];
+
+    private final ReplicationLog log;
+    private final ServerSocketChannel server;
+    private final Set<SocketChannel> followers = ConcurrentHashMap.newKeySet();
+    private final Map<SocketChannel, Long> acknowledged = new ConcurrentHashMap<>();
+    private volatile boolean running = true;
+
+    private ReplicationLeader(ReplicationLog log, InetSocketAddress bindAddress) throws IOException {
+        this.log = log;
+        this.server = ServerSocketChannel.open().bind(bindAddress);
+        Thread acceptor = new Thread(this::acceptFollowers, "replication-acceptor");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    public static ReplicationLeader attach(SpaceXDragonRocketsRepository leader, InetSocketAddress bindAddress)
+            throws IOException {
+        return attach(leader, bindAddress, ReplicationLog.DEFAULT_MAX_RECORDS);
+    }
+
+    /**
+     * Starts replicating the leader, keeping at most {@code maxLogRecords} mutations in memory. Has to be called
+     * by the thread changing the leader, which must not change it during the call.
+     */
+    public static ReplicationLeader attach(SpaceXDragonRocketsRepository leader, InetSocketAddress bindAddress,
+                                           int maxLogRecords) throws IOException {
+        ReplicationLog log = new ReplicationLog(leader, maxLogRecords);
+        ReplicationLeader replicationLeader = new ReplicationLeader(log, bindAddress);
+        leader.addListener(replicationLeader);
+        return replicationLeader;
+    }
+
+    public InetSocketAddress address() throws IOException {
+        return (InetSocketAddress) server.getLocalAddress();
+    }
+
+    public long lastSequence() {
+        return log.lastSequence();
+    }
+
+    /**
+     * Returns the oldest sequence still in the log; a follower which needs an older one has to start over from an
+     * empty replica.
+     */
+    public long firstSequence() {
+        return log.firstSequence();
+    }
+
+    @Override
+    public void rocketAdded(Rocket rocket) {
+        log.append(new Mutation.AddRocket(rocket.name()));
+    }
+
+    @Override
+    public void missionAdded(Mission mission) {
+        log.append(new Mutation.AddMission(mission.name()));
+    }
+
+    @Override
+    public void rocketsAssigned(Mission mission, Collection<Rocket> assignedRockets) {
+        List<String> rocketNames = assignedRockets.stream().map(Rocket::name).toList();
+        log.append(new Mutation.AssignRockets(mission.name(), rocketNames));
+    }
+
+    @Override
+    public void rocketStatusChanged(Rocket previous, Rocket updated) {
+        log.append(new Mutation.SetRocketStatus(updated.name(), updated.status()));
+    }
+
+    @Override
+    public void missionEnded(Mission previous, Mission ended) {
+        log.append(new Mutation.EndMission(ended.name()));
+    }
+
+    @Override
+    public void close() throws IOException {
+        running = false;
+        server.close();
+        for (SocketChannel follower : followers) {
+            follower.close();
+        }
+    }
+
+    private void acceptFollowers() {
+        while (running) {
+            try {
+                SocketChannel follower = server.accept();
+                followers.add(follower);
+                Thread sender = new Thread(() -> serve(follower), "replication-sender");
+                sender.setDaemon(true);
+                sender.start();
+            } catch (ClosedChannelException e) {
+                return;
+            } catch (IOException e) {
+                if (!running) return;
+            }
+        }
+    }
+
+    private void serve(SocketChannel follower) {
+        try (follower) {
+            ByteBuffer request = ByteBuffer.allocate(Long.BYTES);
+            Frames.readFully(follower, request);
+            long next = Math.max(1, request.getLong());
+            ByteBuffer batch = ByteBuffer.allocateDirect(MAX_BATCH_BYTES);
+            if (next == 1) next = sendSnapshot(follower, batch) + 1;
+            acknowledged.put(follower, next - 1);
+            Thread acknowledgements = new Thread(() -> readAcknowledgements(follower), "replication-acknowledgements");
+            acknowledgements.setDaemon(true);
+            acknowledgements.start();
+            while (running) {
+                List<byte[]> records;
+                try {
+                    records = log.awaitFrom(next, HEARTBEAT_INTERVAL);
+                } catch (TruncatedLogException e) {
+                    Frames.put(batch, Frames.TRUNCATED, log.lastSequence(), NO_RECORD);
+                    flush(follower, batch);
+                    return;
+                }
+                long leaderSequence = next + records.size() - 1;
+                if (records.isEmpty()) Frames.put(batch, Frames.HEARTBEAT, leaderSequence, NO_RECORD);
+                for (byte[] record : records) {
+                    send(follower, batch, next++, leaderSequence, record);
+                }
+                flush(follower, batch);
+            }
+        } catch (IOException e) {
+            // follower disconnected, it resumes from its last applied sequence when it reconnects
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            followers.remove(follower);
+            acknowledged.remove(follower);
+        }
+    }
+
+    /**
+     * Sends the snapshot of the log and returns the sequence it is as of.
+     */
+    private long sendSnapshot(SocketChannel follower, ByteBuffer batch) throws IOException {
+        ReplicationLog.Snapshot snapshot = log.snapshot();
+        long leaderSequence = log.lastSequence();
+        for (byte[] mutation : snapshot.mutations()) {
+            send(follower, batch, Frames.SNAPSHOT, leaderSequence, mutation);
+        }
+        send(follower, batch, Frames.SNAPSHOT_END, snapshot.sequence(), NO_RECORD);
+        flush(follower, batch);
+        return snapshot.sequence();
+    }
+
+    private void readAcknowledgements(SocketChannel follower) {
+        ByteBuffer acknowledgement = ByteBuffer.allocate(Frames.ACK_SIZE);
+        try {
+            while (running) {
+                acknowledgement.clear();
+                Frames.readFully(follower, acknowledgement);
+                acknowledged.put(follower, acknowledgement.getLong());
+                long acknowledgedByAll = acknowledged.values().stream().mapToLong(Long::longValue).min().orElse(0);
+                log.truncateTo(acknowledgedByAll);
+            }
+        } catch (IOException e) {
+            // follower disconnected, its sender stops on the next write
+        }
+    }
+
+    private static void send(SocketChannel follower, ByteBuffer batch, long sequence, long leaderSequence,
+                             byte[] record) throws IOException {
+        if (batch.remaining() < Frames.sizeOf(record)) flush(follower, batch);
+        if (batch.remaining() < Frames.sizeOf(record)) {
+            ByteBuffer large = ByteBuffer.allocate(Frames.sizeOf(record));
+            Frames.put(large, sequence, leaderSequence, record);
+            Frames.writeFully(follower, large);
+        } else {
+            Frames.put(batch, sequence, leaderSequence, record);
+        }
+    }
+
+    private static void flush(SocketChannel follower, ByteBuffer batch) throws IOException {
+        if (batch.position() == 0) return;
+        Frames.writeFully(follower, batch);
+        batch.clear();
+    }
+}
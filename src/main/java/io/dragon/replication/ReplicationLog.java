@@ -0,0 +1,119 @@
+package io.dragon.replication;
+
+import io.dragon.dataaccess.InMemoryMissionRepository;
+import io.dragon.dataaccess.InMemoryRocketRepository;
+import io.dragon.domain.SpaceXDragonRocketsRepository;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * In-memory log of encoded mutations on top of a snapshot. Sequence numbers start at 1 and have no gaps, so a
+ * follower can resume from any sequence it has not applied yet, as long as it is still in the log.
+ * <p>
+ * Truncating the log folds its oldest records into the snapshot, a replica of the state as of the last truncated
+ * sequence kept in its own in-memory {@link SpaceXDragonRocketsRepository}; a follower starting from an empty
+ * replica receives the snapshot followed by the rest of the log. The leader truncates what all connected
+ * followers acknowledged, and the log truncates itself to half of {@code maxRecords} when it grows beyond it, so
+ * memory stays bounded even when a follower stops acknowledging; such a follower has to start over from an empty
+ * replica.
+ */
+public class ReplicationLog {
+
+    public static final int DEFAULT_MAX_RECORDS = 1_000_000;
+
+    private final SpaceXDragonRocketsRepository snapshot =
+            new SpaceXDragonRocketsRepository(new InMemoryRocketRepository(), new InMemoryMissionRepository());
+    private final int maxRecords;
+    private final List<byte[]> records = new ArrayList<>();
+    private long snapshotSequence;
+
+    public ReplicationLog() {
+        this(DEFAULT_MAX_RECORDS);
+    }
+
+    public ReplicationLog(int maxRecords) {
+        if (maxRecords < 2) throw new IllegalArgumentException("Log must keep at least two records");
+        this.maxRecords = maxRecords;
+    }
+
+    /**
+     * Creates a log whose snapshot, at sequence 0, is the current state of the repository.
+     */
+    ReplicationLog(SpaceXDragonRocketsRepository initialState, int maxRecords) {
+        this(maxRecords);
+        StateSnapshot.of(initialState).forEach(mutation -> mutation.applyTo(snapshot));
+    }
+
+    public synchronized long append(Mutation mutation) {
+        records.add(MutationCodec.encode(mutation));
+        if (records.size() > maxRecords) truncateTo(lastSequence() - maxRecords / 2);
+        notifyAll();
+        return lastSequence();
+    }
+
+    public synchronized long lastSequence() {
+        return snapshotSequence + records.size();
+    }
+
+    /**
+     * Returns the oldest sequence still in the log; older ones are only part of the snapshot.
+     */
+    public synchronized long firstSequence() {
+        return snapshotSequence + 1;
+    }
+
+    public synchronized Mutation get(long sequence) {
+        return MutationCodec.decode(ByteBuffer.wrap(record(sequence)));
+    }
+
+    /**
+     * Folds the records up to and including {@code sequence} into the snapshot and drops them from the log.
+     */
+    public synchronized void truncateTo(long sequence) {
+        long last = Math.min(sequence, lastSequence());
+        if (last <= snapshotSequence) return;
+        int count = (int) (last - snapshotSequence);
+        List<byte[]> truncated = records.subList(0, count);
+        truncated.forEach(record -> MutationCodec.decode(ByteBuffer.wrap(record)).applyTo(snapshot));
+        truncated.clear();
+        snapshotSequence = last;
+    }
+
+    /**
+     * Returns the encoded mutations rebuilding the snapshot on an empty replica, with the sequence it is as of.
+     */
+    synchronized Snapshot snapshot() {
+        List<byte[]> mutations = StateSnapshot.of(snapshot).stream().map(MutationCodec::encode).toList();
+        return new Snapshot(mutations, snapshotSequence);
+    }
+
+    /**
+     * Returns encoded records starting at {@code fromSequence}, waiting up to {@code timeout} for the first one to
+     * be appended. An empty list means nothing was appended in time.
+     *
+     * @throws TruncatedLogException when {@code fromSequence} is no longer in the log
+     */
+    synchronized List<byte[]> awaitFrom(long fromSequence, Duration timeout) throws InterruptedException {
+        if (fromSequence < 1) throw new IllegalArgumentException("Sequence must be positive");
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (lastSequence() < fromSequence) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) return List.of();
+            wait(Math.max(1, remaining / 1_000_000));
+        }
+        if (fromSequence <= snapshotSequence) throw new TruncatedLogException(fromSequence);
+        return List.copyOf(records.subList((int) (fromSequence - snapshotSequence) - 1, records.size()));
+    }
+
+    private byte[] record(long sequence) {
+        if (sequence <= snapshotSequence || sequence > lastSequence())
+            throw new IllegalArgumentException("Sequence %d is not in the log".formatted(sequence));
+        return records.get((int) (sequence - snapshotSequence) - 1);
+    }
+
+    record Snapshot(List<byte[]> mutations, long sequence) {
+    }
+}
@@ -0,0 +1,42 @@
+package io.dragon.replication;
+
+import io.dragon.domain.Mission;
+import io.dragon.domain.Rocket;
+import io.dragon.domain.RocketStatus;
+import io.dragon.domain.SpaceXDragonRocketsRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * State of a {@link SpaceXDragonRocketsRepository} expressed as the mutations which rebuild it on an empty replica:
+ * rockets and missions are added first, then rockets are assigned, their statuses set and ended missions ended.
+ * Statuses are set after the assignments because a rocket cannot be in space without mission.
+ */
+final class StateSnapshot {
+
+    private StateSnapshot() {
+    }
+
+    static List<Mutation> of(SpaceXDragonRocketsRepository repository) {
+        List<Rocket> rockets = repository.queryRockets().list();
+        List<Mission> missions = repository.getDragonsSummary().missions();
+        List<Mutation> mutations = new ArrayList<>();
+        rockets.forEach(rocket -> mutations.add(new Mutation.AddRocket(rocket.name())));
+        missions.forEach(mission -> mutations.add(new Mutation.AddMission(mission.name())));
+        for (Mission mission : missions) {
+            if (mission.rockets().isEmpty()) continue;
+            List<String> rocketNames = mission.rockets().keySet().stream().sorted().toList();
+            mutations.add(new Mutation.AssignRockets(mission.name(), rocketNames));
+        }
+        for (Rocket rocket : rockets) {
+            if (rocket.status() != RocketStatus.ON_GROUND) {
+                mutations.add(new Mutation.SetRocketStatus(rocket.name(), rocket.status()));
+            }
+        }
+        for (Mission mission : missions) {
+            if (mission.isEnded()) mutations.add(new Mutation.EndMission(mission.name()));
+        }
+        return mutations;
+    }
+}
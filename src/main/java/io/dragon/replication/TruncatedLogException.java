@@ -0,0 +1,11 @@
+package io.dragon.replication;
+
+/**
+ * Thrown when mutations are requested from a sequence which was already folded into the snapshot of the log.
+ */
+final class TruncatedLogException extends IllegalStateException {
+
+    TruncatedLogException(long sequence) {
+        super("Sequence %d was truncated from the log".formatted(sequence));
+    }
+}
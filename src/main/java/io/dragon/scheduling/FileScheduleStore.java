@@ -0,0 +1,182 @@
+package io.dragon.scheduling;
+
+import io.dragon.codec.DragonCodec;
+import io.dragon.domain.RocketStatus;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Schedule store kept in an append-only file. Every change is one length-prefixed record encoded with
+ * {@link DragonCodec}, written through to the operating system before the call returns. {@link #open(Path)}
+ * replays the file, ignoring a record torn by a crash, and compacts it to the pending transitions and the highest
+ * id issued so far.
+ */
+public class FileScheduleStore implements ScheduleStore, AutoCloseable {
+
+    private static final byte ADD = 1;
+    private static final byte REMOVE = 2;
+    private static final byte LAST_ID = 3;
+    private static final byte END_MISSION = 1;
+    private static final byte SET_ROCKET_STATUS = 2;
+    private static final int LENGTH_SIZE = Integer.BYTES;
+
+    private final FileChannel channel;
+    private final List<StoredTransition> loaded;
+    private long lastId;
+
+    private FileScheduleStore(FileChannel channel, List<StoredTransition> loaded, long lastId) {
+        this.channel = channel;
+        this.loaded = loaded;
+        this.lastId = lastId;
+    }
+
+    public static FileScheduleStore open(Path path) throws IOException {
+        Map<Long, StoredTransition> pending = new LinkedHashMap<>();
+        long lastId = Files.exists(path) ? replay(path, pending) : 0;
+        Path compacted = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel out = FileChannel.open(compacted, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            write(out, ByteBuffer.allocate(LENGTH_SIZE + 1 + Long.BYTES)
+                    .putInt(1 + Long.BYTES).put(LAST_ID).putLong(lastId).flip());
+            for (StoredTransition transition : pending.values()) {
+                write(out, encodeAdd(transition));
+            }
+            out.force(true);
+        }
+        Files.move(compacted, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        return new FileScheduleStore(channel, List.copyOf(pending.values()), lastId);
+    }
+
+    @Override
+    public synchronized void add(StoredTransition transition) {
+        append(encodeAdd(transition));
+        lastId = Math.max(lastId, transition.id());
+    }
+
+    @Override
+    public synchronized void remove(Collection<Long> ids) {
+        if (ids.isEmpty()) return;
+        ByteBuffer record = ByteBuffer.allocate(LENGTH_SIZE + 1 + DragonCodec.sizeOfVarint(ids.size())
+                + ids.size() * Long.BYTES);
+        record.putInt(record.capacity() - LENGTH_SIZE);
+        record.put(REMOVE);
+        DragonCodec.putVarint(record, ids.size());
+        ids.forEach(record::putLong);
+        append(record.flip());
+    }
+
+    /**
+     * Returns the transitions pending when the file was opened.
+     */
+    @Override
+    public List<StoredTransition> load() {
+        return loaded;
+    }
+
+    @Override
+    public synchronized long lastId() {
+        return lastId;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private void append(ByteBuffer record) {
+        try {
+            write(channel, record);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write schedule", e);
+        }
+    }
+
+    private static void write(FileChannel channel, ByteBuffer record) throws IOException {
+        while (record.hasRemaining()) {
+            channel.write(record);
+        }
+    }
+
+    /**
+     * Reads the pending transitions into the map and returns the highest id found.
+     */
+    private static long replay(Path path, Map<Long, StoredTransition> pending) throws IOException {
+        ByteBuffer file = ByteBuffer.wrap(Files.readAllBytes(path));
+        long lastId = 0;
+        while (file.remaining() >= LENGTH_SIZE) {
+            int length = file.getInt();
+            if (length > file.remaining()) break;
+            ByteBuffer record = file.slice(file.position(), length);
+            file.position(file.position() + length);
+            byte type = record.get();
+            if (type == ADD) {
+                StoredTransition transition = decodeAdd(record);
+                pending.put(transition.id(), transition);
+                lastId = Math.max(lastId, transition.id());
+            } else if (type == LAST_ID) {
+                lastId = Math.max(lastId, record.getLong());
+            } else if (type == REMOVE) {
+                int count = DragonCodec.getVarint(record);
+                for (int i = 0; i < count; i++) {
+                    pending.remove(record.getLong());
+                }
+            } else {
+                throw new IOException("Unknown schedule record type %d in %s".formatted(type, path));
+            }
+        }
+        return lastId;
+    }
+
+    private static ByteBuffer encodeAdd(StoredTransition stored) {
+        ScheduledTransition transition = stored.transition();
+        int size = 1 + 2 * Long.BYTES + 1;
+        if (transition instanceof ScheduledTransition.EndMission endMission) {
+            size += DragonCodec.sizeOf(endMission.missionName());
+        } else if (transition instanceof ScheduledTransition.SetRocketStatus setRocketStatus) {
+            size += DragonCodec.sizeOf(setRocketStatus.rocketName()) + 1;
+        }
+        ByteBuffer record = ByteBuffer.allocate(LENGTH_SIZE + size);
+        record.putInt(size);
+        record.put(ADD);
+        record.putLong(stored.id());
+        record.putLong(stored.dueAt().toEpochMilli());
+        if (transition instanceof ScheduledTransition.EndMission endMission) {
+            record.put(END_MISSION);
+            DragonCodec.putString(record, endMission.missionName());
+        } else if (transition instanceof ScheduledTransition.SetRocketStatus setRocketStatus) {
+            record.put(SET_ROCKET_STATUS);
+            DragonCodec.putString(record, setRocketStatus.rocketName());
+            DragonCodec.putRocketStatus(record, setRocketStatus.status());
+        }
+        return record.flip();
+    }
+
+    private static StoredTransition decodeAdd(ByteBuffer record) {
+        long id = record.getLong();
+        Instant dueAt = Instant.ofEpochMilli(record.getLong());
+        byte type = record.get();
+        ScheduledTransition transition = switch (type) {
+            case END_MISSION -> new ScheduledTransition.EndMission(DragonCodec.getString(record));
+            case SET_ROCKET_STATUS -> {
+                String rocketName = DragonCodec.getString(record);
+                RocketStatus status = DragonCodec.getRocketStatus(record);
+                yield new ScheduledTransition.SetRocketStatus(rocketName, status);
+            }
+            default -> throw new IllegalArgumentException("Unknown transition type %d".formatted(type));
+        };
+        return new StoredTransition(id, dueAt, transition);
+    }
+}
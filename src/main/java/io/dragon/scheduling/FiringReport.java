@@ -0,0 +1,25 @@
+package io.dragon.scheduling;
+
+import io.dragon.domain.OperationResult;
+
+import java.util.List;
+
+/**
+ * Outcome of running the due transitions: how many were applied, which ones the domain rejected, such as ending a
+ * mission which was already ended by hand, and which ones failed with an unexpected exception, such as a
+ * repository error. Rejected transitions are not run again; failed ones are run again by the next run.
+ */
+public record FiringReport(int applied, List<Rejection> rejected, List<Failure> failed) {
+
+    static final FiringReport NONE = new FiringReport(0, List.of(), List.of());
+
+    public int fired() {
+        return applied + rejected.size() + failed.size();
+    }
+
+    public record Rejection(ScheduledTransition transition, OperationResult result) {
+    }
+
+    public record Failure(ScheduledTransition transition, RuntimeException cause) {
+    }
+}
@@ -0,0 +1,36 @@
+package io.dragon.scheduling;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Schedule store which survives only a restart of the {@link TransitionScheduler}, not of the process.
+ */
+public class InMemoryScheduleStore implements ScheduleStore {
+
+    private final Map<Long, StoredTransition> transitions = new LinkedHashMap<>();
+    private long lastId;
+
+    @Override
+    public synchronized void add(StoredTransition transition) {
+        transitions.put(transition.id(), transition);
+        lastId = Math.max(lastId, transition.id());
+    }
+
+    @Override
+    public synchronized void remove(Collection<Long> ids) {
+        ids.forEach(transitions::remove);
+    }
+
+    @Override
+    public synchronized List<StoredTransition> load() {
+        return List.copyOf(transitions.values());
+    }
+
+    @Override
+    public synchronized long lastId() {
+        return lastId;
+    }
+}
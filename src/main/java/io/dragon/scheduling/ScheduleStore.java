@@ -0,0 +1,29 @@
+package io.dragon.scheduling;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Keeps the pending transitions of a {@link TransitionScheduler}, so that a new scheduler can continue with them
+ * after a restart.
+ */
+public interface ScheduleStore {
+
+    void add(StoredTransition transition);
+
+    /**
+     * Forgets transitions which were run or cancelled.
+     */
+    void remove(Collection<Long> ids);
+
+    /**
+     * Returns the transitions which were added and not removed yet.
+     */
+    List<StoredTransition> load();
+
+    /**
+     * Returns the highest id ever added, including removed transitions, so that ids are not reused.
+     */
+    long lastId();
+
+}
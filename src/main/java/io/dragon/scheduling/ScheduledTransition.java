@@ -0,0 +1,29 @@
+package io.dragon.scheduling;
+
+import io.dragon.domain.OperationResult;
+import io.dragon.domain.RocketStatus;
+import io.dragon.domain.SpaceXDragonRocketsRepository;
+
+/**
+ * Domain operation to be run by a {@link TransitionScheduler} once it is due. Due transitions of the same kind
+ * are run together through the bulk operations of {@link SpaceXDragonRocketsRepository}; {@link #tryApplyTo}
+ * runs a single one when the batch was rejected.
+ */
+public sealed interface ScheduledTransition {
+
+    OperationResult tryApplyTo(SpaceXDragonRocketsRepository dragonRocketsRepository);
+
+    record EndMission(String missionName) implements ScheduledTransition {
+        @Override
+        public OperationResult tryApplyTo(SpaceXDragonRocketsRepository dragonRocketsRepository) {
+            return dragonRocketsRepository.tryEndMission(missionName);
+        }
+    }
+
+    record SetRocketStatus(String rocketName, RocketStatus status) implements ScheduledTransition {
+        @Override
+        public OperationResult tryApplyTo(SpaceXDragonRocketsRepository dragonRocketsRepository) {
+            return dragonRocketsRepository.trySetRocketStatus(rocketName, status);
+        }
+    }
+}
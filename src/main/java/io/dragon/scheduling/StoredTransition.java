@@ -0,0 +1,9 @@
+package io.dragon.scheduling;
+
+import java.time.Instant;
+
+/**
+ * Scheduled transition as kept by a {@link ScheduleStore}, identified by the id returned when it was scheduled.
+ */
+public record StoredTransition(long id, Instant dueAt, ScheduledTransition transition) {
+}
@@ -0,0 +1,171 @@
+package io.dragon.scheduling;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hierarchical timing wheel over non-negative ticks. Each level has 64 slots covering 6 bits of the tick, so
+ * eleven levels cover the whole {@code long} range without an overflow list. A task is kept at the level of the
+ * highest bit in which its deadline differs from the current tick and moves down when the wheel reaches its slot,
+ * which makes {@link #schedule(long, Object)} and {@link #cancel(Timer)} O(1). A bitmap of occupied slots per
+ * level lets {@link #advance(long)} jump straight to the next non-empty slot instead of visiting every tick.
+ * Not thread-safe.
+ */
+final class TimingWheel<T> {
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int LEVELS = (Long.SIZE + SLOT_BITS - 1) / SLOT_BITS;
+    private static final int OVERDUE = LEVELS * SLOTS;
+
+    private final Timer<T>[] buckets;
+    private final long[] occupied = new long[LEVELS];
+    private long currentTick;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    TimingWheel(long currentTick) {
+        if (currentTick < 0) throw new IllegalArgumentException("Tick must not be negative");
+        this.currentTick = currentTick;
+        this.buckets = (Timer<T>[]) new Timer<?>[OVERDUE + 1];
+        for (int i = 0; i < buckets.length; i++) {
+            Timer<T> sentinel = new Timer<>(-1, null);
+            sentinel.prev = sentinel;
+            sentinel.next = sentinel;
+            buckets[i] = sentinel;
+        }
+    }
+
+    /**
+     * Schedules the task for the given tick; a tick which is not after the current one is returned by the next
+     * {@link #advance(long)}.
+     */
+    Timer<T> schedule(long deadline, T task) {
+        Timer<T> timer = new Timer<>(deadline, task);
+        place(timer);
+        size++;
+        return timer;
+    }
+
+    boolean cancel(Timer<T> timer) {
+        if (timer.bucket < 0) return false;
+        unlink(timer);
+        size--;
+        return true;
+    }
+
+    /**
+     * Moves the wheel to the given tick and returns the tasks which became due, ordered by deadline. Tasks due at
+     * the same tick come in no particular order.
+     */
+    List<T> advance(long tick) {
+        List<T> due = new ArrayList<>();
+        expire(OVERDUE, due);
+        while (size > 0) {
+            int bucket = nextBucket();
+            long bucketTick = bucketTick(bucket);
+            if (bucketTick > tick) break;
+            currentTick = bucketTick;
+            expire(bucket, due);
+        }
+        currentTick = Math.max(currentTick, tick);
+        return due;
+    }
+
+    long currentTick() {
+        return currentTick;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Detaches the bucket and re-places its timers relative to the current tick, collecting the ones which are due.
+     */
+    private void expire(int bucket, List<T> due) {
+        Timer<T> sentinel = buckets[bucket];
+        Timer<T> timer = sentinel.next;
+        sentinel.next = sentinel;
+        sentinel.prev = sentinel;
+        if (bucket < OVERDUE) occupied[bucket / SLOTS] &= ~(1L << (bucket % SLOTS));
+        while (timer != sentinel) {
+            Timer<T> next = timer.next;
+            if (timer.deadline <= currentTick) {
+                timer.bucket = -1;
+                size--;
+                due.add(timer.task);
+            } else {
+                place(timer);
+            }
+            timer = next;
+        }
+    }
+
+    /**
+     * Finds the occupied slot reached first. A slot of a lower level is always reached before any slot of a higher
+     * one, because the lower level holds only deadlines within the current rotation of the level above.
+     */
+    private int nextBucket() {
+        for (int level = 0; level < LEVELS; level++) {
+            int digit = (int) (currentTick >>> (level * SLOT_BITS)) & (SLOTS - 1);
+            long ahead = occupied[level] & (-2L << digit);
+            if (ahead != 0) return level * SLOTS + Long.numberOfTrailingZeros(ahead);
+        }
+        throw new IllegalStateException("Timing wheel has no occupied slot");
+    }
+
+    private long bucketTick(int bucket) {
+        int level = bucket / SLOTS;
+        int shift = (level + 1) * SLOT_BITS;
+        long rotation = shift >= Long.SIZE ? 0 : currentTick >>> shift << shift;
+        return rotation | (long) (bucket % SLOTS) << (level * SLOT_BITS);
+    }
+
+    private void place(Timer<T> timer) {
+        int bucket;
+        if (timer.deadline <= currentTick) {
+            bucket = OVERDUE;
+        } else {
+            int level = (Long.SIZE - 1 - Long.numberOfLeadingZeros(timer.deadline ^ currentTick)) / SLOT_BITS;
+            int slot = (int) (timer.deadline >>> (level * SLOT_BITS)) & (SLOTS - 1);
+            bucket = level * SLOTS + slot;
+            occupied[level] |= 1L << slot;
+        }
+        Timer<T> sentinel = buckets[bucket];
+        timer.bucket = bucket;
+        timer.prev = sentinel.prev;
+        timer.next = sentinel;
+        sentinel.prev.next = timer;
+        sentinel.prev = timer;
+    }
+
+    private void unlink(Timer<T> timer) {
+        timer.prev.next = timer.next;
+        timer.next.prev = timer.prev;
+        Timer<T> sentinel = buckets[timer.bucket];
+        if (timer.bucket < OVERDUE && sentinel.next == sentinel)
+            occupied[timer.bucket / SLOTS] &= ~(1L << (timer.bucket % SLOTS));
+        timer.prev = null;
+        timer.next = null;
+        timer.bucket = -1;
+    }
+
+    static final class Timer<T> {
+
+        private final long deadline;
+        private final T task;
+        private Timer<T> prev;
+        private Timer<T> next;
+        private int bucket = -1;
+
+        private Timer(long deadline, T task) {
+            this.deadline = deadline;
+            this.task = task;
+        }
+
+        long deadline() {
+            return deadline;
+        }
+    }
+}
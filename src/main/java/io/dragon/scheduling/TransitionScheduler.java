@@ -0,0 +1,193 @@
+package io.dragon.scheduling;
+
+import io.dragon.domain.OperationResult;
+import io.dragon.domain.RocketStatus;
+import io.dragon.domain.SpaceXDragonRocketsRepository;
+import io.dragon.domain.exception.MissionDoesNotExistException;
+import io.dragon.domain.exception.RocketDoesNotExistException;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs transitions, such as ending a mission or bringing a rocket back from repair, at a given time. Pending
+ * transitions are kept in a {@link TimingWheel}, so scheduling and cancelling cost the same however many are
+ * pending, and in a {@link ScheduleStore}, from which a new scheduler picks them up after a restart.
+ * <p>
+ * Due transitions are run in the order of their due times; consecutive ones of the same kind go to the domain
+ * service as one {@code endMissions} or {@code setRocketStatuses} call. When the domain rejects such a batch, its
+ * transitions are run one by one and the rejected ones are reported. When a batch fails with any other exception,
+ * such as a repository error, the service has written nothing of it, so all its transitions are reported as failed,
+ * kept in the store and run again by the next run, while the other batches go on. A transition is removed from the
+ * store only after it was applied or rejected, so one may run again after a crash; the domain then rejects it as
+ * already done.
+ * <p>
+ * Time is read from the given clock and rounded to whole ticks; a transition never runs before its due time.
+ */
+public class TransitionScheduler implements AutoCloseable {
+
+    private final SpaceXDragonRocketsRepository dragonRocketsRepository;
+    private final ScheduleStore store;
+    private final Clock clock;
+    private final long tickMillis;
+    private final TimingWheel<StoredTransition> wheel;
+    private final Map<Long, TimingWheel.Timer<StoredTransition>> timers = new HashMap<>();
+    private long nextId;
+    private ScheduledExecutorService runner;
+
+    public TransitionScheduler(SpaceXDragonRocketsRepository dragonRocketsRepository, ScheduleStore store,
+                               Clock clock, Duration tick) {
+        if (tick.toMillis() < 1) throw new IllegalArgumentException("Tick must be at least one millisecond");
+        this.dragonRocketsRepository = dragonRocketsRepository;
+        this.store = store;
+        this.clock = clock;
+        this.tickMillis = tick.toMillis();
+        this.wheel = new TimingWheel<>(currentTick());
+        store.load().forEach(this::add);
+        this.nextId = store.lastId() + 1;
+    }
+
+    public long scheduleMissionEnd(String missionName, Instant at) {
+        return schedule(new ScheduledTransition.EndMission(missionName), at);
+    }
+
+    public long scheduleRocketStatus(String rocketName, RocketStatus status, Instant at) {
+        return schedule(new ScheduledTransition.SetRocketStatus(rocketName, status), at);
+    }
+
+    /**
+     * Schedules the transition and returns its id, which can be used to cancel it.
+     */
+    public synchronized long schedule(ScheduledTransition transition, Instant at) {
+        StoredTransition stored = new StoredTransition(nextId++, at, transition);
+        store.add(stored);
+        add(stored);
+        return stored.id();
+    }
+
+    public synchronized boolean cancel(long id) {
+        TimingWheel.Timer<StoredTransition> timer = timers.remove(id);
+        if (timer == null) return false;
+        wheel.cancel(timer);
+        store.remove(List.of(id));
+        return true;
+    }
+
+    public synchronized int pending() {
+        return wheel.size();
+    }
+
+    /**
+     * Runs the transitions due by the current time of the clock. The domain service is not thread-safe, so the
+     * caller has to be the only thread using it during the call.
+     */
+    public synchronized FiringReport runDue() {
+        List<StoredTransition> due = wheel.advance(currentTick());
+        if (due.isEmpty()) return FiringReport.NONE;
+        due.forEach(transition -> timers.remove(transition.id()));
+        List<FiringReport.Rejection> rejected = new ArrayList<>();
+        List<FiringReport.Failure> failed = new ArrayList<>();
+        List<StoredTransition> retried = new ArrayList<>();
+        int start = 0;
+        while (start < due.size()) {
+            Class<?> kind = due.get(start).transition().getClass();
+            int end = start + 1;
+            while (end < due.size() && due.get(end).transition().getClass() == kind) end++;
+            runBatch(due.subList(start, end), rejected, failed, retried);
+            start = end;
+        }
+        retried.forEach(this::add);
+        List<Long> ids = new ArrayList<>(due.size());
+        due.forEach(transition -> {
+            if (!timers.containsKey(transition.id())) ids.add(transition.id());
+        });
+        store.remove(ids);
+        return new FiringReport(due.size() - rejected.size() - failed.size(), List.copyOf(rejected),
+                List.copyOf(failed));
+    }
+
+    /**
+     * Calls {@link #runDue()} every tick on a daemon thread. The thread synchronizes on the domain service while
+     * running transitions, so other threads using the service have to synchronize on it as well. An exception
+     * escaping a run is passed to the thread's uncaught exception handler and the next tick runs as usual.
+     */
+    public synchronized void start() {
+        if (runner != null) throw new IllegalStateException("Scheduler is already started");
+        runner = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "transition-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        runner.scheduleWithFixedDelay(() -> {
+            try {
+                synchronized (dragonRocketsRepository) {
+                    runDue();
+                }
+            } catch (RuntimeException e) {
+                Thread thread = Thread.currentThread();
+                thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+            }
+        }, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public synchronized void close() {
+        if (runner != null) runner.shutdownNow();
+    }
+
+    private void add(StoredTransition transition) {
+        long dueTick = Math.floorDiv(transition.dueAt().toEpochMilli() + tickMillis - 1, tickMillis);
+        timers.put(transition.id(), wheel.schedule(dueTick, transition));
+    }
+
+    private long currentTick() {
+        return Math.floorDiv(clock.millis(), tickMillis);
+    }
+
+    private void runBatch(List<StoredTransition> batch, List<FiringReport.Rejection> rejected,
+                          List<FiringReport.Failure> failed, List<StoredTransition> retried) {
+        try {
+            if (batch.get(0).transition() instanceof ScheduledTransition.EndMission) {
+                dragonRocketsRepository.endMissions(batch.stream()
+                        .map(stored -> ((ScheduledTransition.EndMission) stored.transition()).missionName())
+                        .toList());
+            } else {
+                Map<String, RocketStatus> statuses = new LinkedHashMap<>();
+                for (StoredTransition stored : batch) {
+                    ScheduledTransition.SetRocketStatus setRocketStatus =
+                            (ScheduledTransition.SetRocketStatus) stored.transition();
+                    statuses.put(setRocketStatus.rocketName(), setRocketStatus.status());
+                }
+                dragonRocketsRepository.setRocketStatuses(statuses);
+            }
+            return;
+        } catch (MissionDoesNotExistException | RocketDoesNotExistException | IllegalStateException e) {
+            // bulk operations check everything before writing, so nothing was applied
+        } catch (RuntimeException e) {
+            // a failed write is rolled back by the service, so the whole batch runs again next time
+            for (StoredTransition stored : batch) {
+                failed.add(new FiringReport.Failure(stored.transition(), e));
+                retried.add(stored);
+            }
+            return;
+        }
+        for (StoredTransition stored : batch) {
+            try {
+                OperationResult result = stored.transition().tryApplyTo(dragonRocketsRepository);
+                if (!result.isOk()) rejected.add(new FiringReport.Rejection(stored.transition(), result));
+            } catch (RuntimeException e) {
+                failed.add(new FiringReport.Failure(stored.transition(), e));
+                retried.add(stored);
+            }
+        }
+    }
+}
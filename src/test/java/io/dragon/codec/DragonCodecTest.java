@@ -0,0 +1,157 @@
+package io.dragon.codec;
+
+import io.dragon.domain.ChangedMission;
+import io.dragon.domain.Mission;
+import io.dragon.domain.Rocket;
+import io.dragon.domain.RocketStatus;
+import io.dragon.domain.Summary;
+import io.dragon.domain.SummaryChanges;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+
+class DragonCodecTest {
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 1, 127, 128, 16_383, 16_384, Integer.MAX_VALUE, -1})
+    void shouldEncodeVarints(int value) {
+        //given buffer sized for the value
+        ByteBuffer buffer = ByteBuffer.allocate(DragonCodec.sizeOfVarint(value));
+
+        //when value is written and read back
+        DragonCodec.putVarint(buffer, value);
+        buffer.flip();
+
+        //then
+        assertThat(DragonCodec.getVarint(buffer)).isEqualTo(value);
+        assertThat(buffer.hasRemaining()).isFalse();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "falcon", "zażółć", "火箭", "rocket-🚀"})
+    void shouldEncodeStrings(String value) {
+        //given buffer sized for the value
+        ByteBuffer buffer = ByteBuffer.allocate(DragonCodec.sizeOf(value));
+
+        //when value is written and read back
+        DragonCodec.putString(buffer, value);
+        buffer.flip();
+
+        //then
+        assertThat(buffer.remaining()).isEqualTo(buffer.capacity());
+        assertThat(DragonCodec.getString(buffer)).isEqualTo(value);
+    }
+
+    @Test
+    void shouldEncodeRockets() {
+        //given rockets with and without mission
+        Rocket unassigned = Rocket.createNewRocket("lonely");
+        Rocket assigned = new Rocket("busy", RocketStatus.IN_SPACE, Optional.of("mars"));
+        ByteBuffer buffer = ByteBuffer.allocate(DragonCodec.sizeOf(unassigned) + DragonCodec.sizeOf(assigned));
+
+        //when rockets are written and read back
+        DragonCodec.putRocket(buffer, unassigned);
+        DragonCodec.putRocket(buffer, assigned);
+        buffer.flip();
+
+        //then
+        assertThat(DragonCodec.getRocket(buffer)).isEqualTo(unassigned);
+        assertThat(DragonCodec.getRocket(buffer)).isEqualTo(assigned);
+    }
+
+    @Test
+    void shouldEncodeSummaryInOrder() {
+        //given summary
+        Mission withRockets = Mission.create("alpha")
+                .assignRocket(new Rocket("rocket-1", RocketStatus.IN_REPAIR, Optional.of("alpha")))
+                .assignRocket(new Rocket("rocket-2", RocketStatus.ON_GROUND, Optional.of("alpha")));
+        Mission scheduled = Mission.create("beta");
+        Mission ended = Mission.create("gamma").endMission();
+        Summary summary = new Summary(List.of(withRockets, scheduled, ended));
+
+        //when summary is encoded and decoded
+        byte[] encoded = DragonCodec.encode(summary);
+        Summary decoded = DragonCodec.getSummary(ByteBuffer.wrap(encoded));
+
+        //then
+        assertThat(encoded).hasSize(DragonCodec.sizeOf(summary));
+        assertThat(encoded[0]).isEqualTo(DragonCodec.FORMAT_VERSION);
+        assertThat(decoded).isEqualTo(summary);
+    }
+
+    @Test
+    void shouldEncodeSummaryChanges() {
+        //given changes of two missions
+        Mission moved = Mission.create("moved")
+                .assignRocket(new Rocket("rocket-1", RocketStatus.IN_SPACE, Optional.of("moved")));
+        Mission ended = Mission.create("finished").endMission();
+        SummaryChanges changes = new SummaryChanges(-42L, 300_000_000_000L,
+                List.of(new ChangedMission(moved, 0), new ChangedMission(ended, 1_000)));
+        ByteBuffer buffer = ByteBuffer.allocate(DragonCodec.sizeOf(changes));
+
+        //when changes are written and read back
+        DragonCodec.putSummaryChanges(buffer, changes);
+        buffer.flip();
+
+        //then
+        assertThat(DragonCodec.getSummaryChanges(buffer)).isEqualTo(changes);
+        assertThat(buffer.hasRemaining()).isFalse();
+    }
+
+    @Test
+    void shouldRejectCountLargerThanRemainingBytes() {
+        //given summary claiming half a billion missions in a few bytes
+        ByteBuffer buffer = ByteBuffer.allocate(16);
+        buffer.put(DragonCodec.FORMAT_VERSION);
+        DragonCodec.putVarint(buffer, 500_000_000);
+        DragonCodec.putString(buffer, "mars");
+        buffer.flip();
+
+        //when and then
+        assertThatThrownBy(() -> DragonCodec.getSummary(buffer))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid count 500000000 with 5 bytes remaining");
+    }
+
+    @Test
+    void shouldRejectNegativeCount() {
+        //given mission with negative rocket count
+        ByteBuffer buffer = ByteBuffer.allocate(16);
+        DragonCodec.putString(buffer, "mars");
+        buffer.put((byte) 0);
+        DragonCodec.putVarint(buffer, -1);
+        buffer.flip();
+
+        //when and then
+        assertThatThrownBy(() -> DragonCodec.getMission(buffer))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageStartingWith("Invalid count -1");
+    }
+
+    @Test
+    void shouldDecodeFromDirectBuffer() {
+        //given summary written to direct buffer
+        Summary summary = new Summary(List.of(Mission.create("direct")));
+        ByteBuffer buffer = ByteBuffer.allocateDirect(DragonCodec.sizeOf(summary));
+        DragonCodec.putSummary(buffer, summary);
+        buffer.flip();
+
+        //when and then
+        assertThat(DragonCodec.getSummary(buffer)).isEqualTo(summary);
+    }
+
+    @Test
+    void shouldRejectUnknownVersion() {
+        assertThatThrownBy(() -> DragonCodec.getSummary(ByteBuffer.wrap(new byte[]{99, 0})))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Unsupported summary format version 99");
+    }
+}
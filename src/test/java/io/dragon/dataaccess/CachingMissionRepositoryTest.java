@@ -0,0 +1,41 @@
+package io.dragon.dataaccess;
+
+import io.dragon.domain.Mission;
+import io.dragon.domain.Rocket;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+
+class CachingMissionRepositoryTest {
+
+    private final InMemoryMissionRepository backend = new InMemoryMissionRepository();
+    private final CachingMissionRepository missionRepository = new CachingMissionRepository(backend, 100);
+
+    @Test
+    void shouldWriteUpdatesThrough() {
+        //given cached mission
+        String missionName = "cached-mission-1";
+        Mission mission = missionRepository.save(Mission.create(missionName));
+        missionRepository.findByName(missionName);
+
+        //when mission is updated
+        Mission updated = mission.assignRocket(Rocket.createNewRocket("falcon"));
+        missionRepository.update(updated);
+
+        //then cached and stored missions are updated
+        assertThat(missionRepository.findByName(missionName)).hasValue(updated);
+        assertThat(backend.findByName(missionName)).hasValue(updated);
+        assertThat(missionRepository.statistics().hits()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldReadAllMissionsFromBackend() {
+        //given missions
+        Mission first = missionRepository.save(Mission.create("first"));
+        Mission second = missionRepository.save(Mission.create("second"));
+
+        //when and then
+        assertThat(missionRepository.findAll()).containsExactlyInAnyOrder(first, second);
+    }
+}
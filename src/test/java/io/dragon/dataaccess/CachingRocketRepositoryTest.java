@@ -0,0 +1,63 @@
+package io.dragon.dataaccess;
+
+import io.dragon.domain.Rocket;
+import io.dragon.domain.RocketStatus;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+
+class CachingRocketRepositoryTest {
+
+    private final InMemoryRocketRepository backend = new InMemoryRocketRepository();
+    private final CachingRocketRepository rocketRepository = new CachingRocketRepository(backend, 100);
+
+    @Test
+    void shouldServeRepeatedReadsFromCache() {
+        //given rocket saved in backend only
+        String rocketName = "cached-1";
+        Rocket rocket = Rocket.createNewRocket(rocketName);
+        backend.save(rocket);
+
+        //when rocket is read twice
+        Optional<Rocket> first = rocketRepository.findByName(rocketName);
+        Optional<Rocket> second = rocketRepository.findByName(rocketName);
+
+        //then first read misses and second read hits
+        assertThat(first).hasValue(rocket);
+        assertThat(second).hasValue(rocket);
+        assertThat(rocketRepository.statistics()).isEqualTo(new CacheStatistics(1, 1, 0));
+    }
+
+    @Test
+    void shouldWriteUpdatesThrough() {
+        //given cached rocket
+        String rocketName = "cached-2";
+        Rocket rocket = rocketRepository.save(Rocket.createNewRocket(rocketName));
+
+        //when rocket is updated
+        Rocket updated = rocket.setStatus(RocketStatus.IN_REPAIR);
+        rocketRepository.update(updated);
+
+        //then both cache and backend hold the new state
+        assertThat(rocketRepository.findByName(rocketName)).hasValue(updated);
+        assertThat(backend.findByName(rocketName)).hasValue(updated);
+    }
+
+    @Test
+    void shouldNotCacheRocketWhenBackendRejectsWrite() {
+        //given rocket which is not in backend
+        Rocket rocket = Rocket.createNewRocket("cached-3");
+
+        //when update fails
+        assertThatThrownBy(() -> rocketRepository.update(rocket))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        //then rocket is not served from cache
+        assertThat(rocketRepository.exists(rocket.name())).isFalse();
+        assertThat(rocketRepository.findByName(rocket.name())).isEmpty();
+    }
+}
@@ -0,0 +1,83 @@
+package io.dragon.dataaccess;
+
+import io.dragon.domain.Mission;
+import io.dragon.domain.Rocket;
+import io.dragon.domain.SpaceXDragonRocketsRepository;
+import io.dragon.domain.Summary;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+
+class CopyOnWriteRepositoryTest {
+
+    @Test
+    void shouldPublishEveryWriteWithoutCoalescingWindow() {
+        //given service backed by copy-on-write store
+        try (CopyOnWriteFleetStore store = new CopyOnWriteFleetStore()) {
+            SpaceXDragonRocketsRepository dragonRocketsRepository = new SpaceXDragonRocketsRepository(
+                    new CopyOnWriteRocketRepository(store), new CopyOnWriteMissionRepository(store));
+
+            //when missions and rockets are changed
+            dragonRocketsRepository.addMission("luna");
+            dragonRocketsRepository.addMission("mars");
+            dragonRocketsRepository.addRocket("dragon-1");
+            dragonRocketsRepository.addRocket("dragon-2");
+            dragonRocketsRepository.assignRocketsToMission(Set.of("dragon-1", "dragon-2"), "luna");
+
+            //then summary is presorted and returned without copying
+            Summary summary = dragonRocketsRepository.getDragonsSummary();
+            assertThat(summary.missions()).extracting(Mission::name).containsExactly("luna", "mars");
+            assertThat(dragonRocketsRepository.getDragonsSummary().missions()).isSameAs(summary.missions());
+        }
+    }
+
+    @Test
+    void shouldCoalesceWritesUntilFlushed() {
+        //given store with a long coalescing window
+        try (CopyOnWriteFleetStore store = new CopyOnWriteFleetStore(Duration.ofHours(1))) {
+            CopyOnWriteMissionRepository missionRepository = new CopyOnWriteMissionRepository(store);
+            CopyOnWriteRocketRepository rocketRepository = new CopyOnWriteRocketRepository(store);
+
+            //when missions and rockets are written
+            missionRepository.save(Mission.create("luna"));
+            Rocket rocket = rocketRepository.save(Rocket.createNewRocket("dragon"));
+
+            //then they are found by name but not yet in sorted reads
+            assertThat(missionRepository.findByName("luna")).isPresent();
+            assertThat(rocketRepository.findByName("dragon")).hasValue(rocket);
+            assertThat(missionRepository.findAllSorted(Summary.MISSION_ORDER)).isEmpty();
+
+            //and they are published together on flush
+            store.flush();
+            assertThat(missionRepository.findAllSorted(Summary.MISSION_ORDER)).containsExactly(Mission.create("luna"));
+        }
+    }
+
+    @Test
+    void shouldRejectDuplicatedAndUnknownEntities() {
+        //given saved rocket and mission
+        try (CopyOnWriteFleetStore store = new CopyOnWriteFleetStore()) {
+            CopyOnWriteMissionRepository missionRepository = new CopyOnWriteMissionRepository(store);
+            CopyOnWriteRocketRepository rocketRepository = new CopyOnWriteRocketRepository(store);
+            Rocket rocket = rocketRepository.save(Rocket.createNewRocket("falcon"));
+            missionRepository.save(Mission.create("moon"));
+
+            //when and then
+            assertThatThrownBy(() -> rocketRepository.save(rocket))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("Rocket falcon already exists");
+            assertThatThrownBy(() -> missionRepository.update(Mission.create("mars")))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("Mission mars doesn't exist");
+            assertThatThrownBy(() -> rocketRepository.updateAll(List.of(rocket, Rocket.createNewRocket("dragon"))))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("Rocket dragon doesn't exist");
+        }
+    }
+}
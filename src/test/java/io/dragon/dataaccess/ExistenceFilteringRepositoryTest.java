@@ -0,0 +1,82 @@
+package io.dragon.dataaccess;
+
+import io.dragon.domain.Mission;
+import io.dragon.domain.Rocket;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+
+class ExistenceFilteringRepositoryTest {
+
+    @Test
+    void shouldAnswerUnknownRocketsWithoutAskingDelegate() {
+        //given filtered repository with saved rockets
+        CountingRocketRepository delegate = new CountingRocketRepository();
+        ExistenceFilteringRocketRepository rocketRepository =
+                new ExistenceFilteringRocketRepository(delegate, List.of(), 16, 0.01);
+        for (int i = 0; i < 1_000; i++) {
+            rocketRepository.save(Rocket.createNewRocket("rocket-" + i));
+        }
+
+        //when known and unknown rockets are looked up
+        for (int i = 0; i < 1_000; i++) {
+            assertThat(rocketRepository.exists("rocket-" + i)).isTrue();
+        }
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(rocketRepository.exists("unknown-" + i)).isFalse();
+        }
+
+        //then only possible hits reached the delegate
+        ExistenceFilterStatistics statistics = rocketRepository.statistics();
+        assertThat(delegate.lookups).isEqualTo(statistics.backendLookups());
+        assertThat(statistics.lookups()).isEqualTo(11_000);
+        assertThat(statistics.backendLookups() - statistics.falsePositives()).isEqualTo(1_000);
+        assertThat(statistics.observedFalsePositiveRate()).isLessThan(0.05);
+    }
+
+    @Test
+    void shouldSeedMissionFilterFromDelegate() {
+        //given missions stored before the filter is created
+        InMemoryMissionRepository delegate = new InMemoryMissionRepository();
+        delegate.save(Mission.create("moon"));
+        ExistenceFilteringMissionRepository missionRepository =
+                new ExistenceFilteringMissionRepository(delegate, 16, 0.01);
+
+        //when missions are looked up
+        Optional<Mission> moon = missionRepository.findByName("moon");
+
+        //then stored mission is found and the unknown one is not
+        assertThat(moon).isPresent();
+        assertThat(missionRepository.exists("mars")).isFalse();
+    }
+
+    @Test
+    void shouldFindMissionsStoredBehindTheFilterAfterRebuild() {
+        //given mission saved directly in the delegate
+        InMemoryMissionRepository delegate = new InMemoryMissionRepository();
+        ExistenceFilteringMissionRepository missionRepository =
+                new ExistenceFilteringMissionRepository(delegate, 16, 0.01);
+        delegate.save(Mission.create("venus"));
+
+        //when filter is rebuilt
+        missionRepository.rebuild();
+
+        //then mission is found
+        assertThat(missionRepository.exists("venus")).isTrue();
+    }
+
+    private static class CountingRocketRepository extends InMemoryRocketRepository {
+
+        private long lookups;
+
+        @Override
+        public boolean exists(String id) {
+            lookups++;
+            return super.exists(id);
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package io.dragon.dataaccess;
+
+import io.dragon.domain.Mission;
+import io.dragon.domain.MissionStatus;
+import io.dragon.domain.Rocket;
+import io.dragon.domain.RocketStatus;
+import io.dragon.domain.SpaceXDragonRocketsRepository;
+import io.dragon.domain.Summary;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+
+class JdbcRepositoryTest {
+
+    private final JdbcFleetStore store = new JdbcFleetStore(connect("jdbc:h2:mem:"));
+    private final JdbcRocketRepository rocketRepository = new JdbcRocketRepository(store);
+    private final JdbcMissionRepository missionRepository = new JdbcMissionRepository(store);
+
+    @AfterEach
+    void closeStore() {
+        store.close();
+    }
+
+    @Test
+    void shouldStoreRocketsAndMissions() {
+        //given saved rocket and mission
+        Rocket rocket = rocketRepository.save(Rocket.createNewRocket("falcon"));
+        missionRepository.save(Mission.create("moon"));
+
+        //when rocket is assigned to mission
+        Rocket assigned = rocketRepository.update(rocket.assignMission("moon").setStatus(RocketStatus.IN_SPACE));
+
+        //then rocket and mission are read back with the assignment
+        assertThat(rocketRepository.findByName("falcon")).hasValue(assigned);
+        assertThat(rocketRepository.findAll()).containsExactly(assigned);
+        assertThat(missionRepository.findByName("moon")).hasValue(
+                new Mission("moon", Map.of("falcon", assigned), false));
+        assertThat(rocketRepository.exists("falcon")).isTrue();
+        assertThat(missionRepository.exists("moon")).isTrue();
+        assertThat(rocketRepository.findByName("dragon")).isEmpty();
+        assertThat(missionRepository.exists("mars")).isFalse();
+    }
+
+    @Test
+    void shouldRejectDuplicatedAndUnknownEntities() {
+        //given saved rocket and mission
+        rocketRepository.save(Rocket.createNewRocket("falcon"));
+        missionRepository.save(Mission.create("moon"));
+
+        //when and then
+        assertThatThrownBy(() -> rocketRepository.save(Rocket.createNewRocket("falcon")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Rocket falcon already exists");
+        assertThatThrownBy(() -> missionRepository.save(Mission.create("moon")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Mission moon already exists");
+        assertThatThrownBy(() -> rocketRepository.update(Rocket.createNewRocket("dragon")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Rocket dragon doesn't exist");
+        assertThatThrownBy(() -> missionRepository.update(Mission.create("mars")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Mission mars doesn't exist");
+    }
+
+    @Test
+    void shouldRollBackWholeBatchWhenOneRocketIsMissing() {
+        //given saved rocket and mission
+        Rocket rocket = rocketRepository.save(Rocket.createNewRocket("falcon"));
+        missionRepository.save(Mission.create("moon"));
+
+        //when batch with unknown rocket is written
+        List<Rocket> batch = List.of(rocket.assignMission("moon"),
+                Rocket.createNewRocket("dragon").assignMission("moon"));
+        assertThatThrownBy(() -> rocketRepository.updateAll(batch))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Rocket dragon doesn't exist");
+
+        //then nothing is changed
+        assertThat(rocketRepository.findByName("falcon")).hasValue(rocket);
+        assertThat(missionRepository.findByName("moon").orElseThrow().rockets()).isEmpty();
+
+        //and next batch is not affected by the failed one
+        rocketRepository.updateAll(List.of(rocket.setStatus(RocketStatus.IN_REPAIR)));
+        assertThat(rocketRepository.findByName("falcon").orElseThrow().status()).isEqualTo(RocketStatus.IN_REPAIR);
+    }
+
+    @Test
+    void shouldEndMissionsInOneBatch() {
+        //given service backed by database with missions having rockets
+        SpaceXDragonRocketsRepository dragonRocketsRepository =
+                new SpaceXDragonRocketsRepository(rocketRepository, missionRepository);
+        for (int i = 0; i < 5; i++) {
+            dragonRocketsRepository.addMission("mission-" + i);
+            dragonRocketsRepository.addRocket("rocket-" + i);
+            dragonRocketsRepository.assignRocketToMission("rocket-" + i, "mission-" + i);
+        }
+
+        //when missions are ended together
+        dragonRocketsRepository.endMissions(List.of("mission-0", "mission-1", "mission-2", "mission-3"));
+
+        //then ended missions and released rockets are stored
+        assertThat(missionRepository.findAll()).extracting(Mission::status).containsExactly(
+                MissionStatus.ENDED, MissionStatus.ENDED, MissionStatus.ENDED, MissionStatus.ENDED,
+                MissionStatus.IN_PROGRESS);
+        assertThat(rocketRepository.findByName("rocket-0").orElseThrow().missionName()).isEmpty();
+
+        //and batch with unknown mission is rolled back
+        assertThatThrownBy(() -> missionRepository.updateAll(List.of(Mission.create("mission-4").endMission(),
+                Mission.create("unknown").endMission())))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Mission unknown doesn't exist");
+        assertThat(missionRepository.findByName("mission-4").orElseThrow().isEnded()).isFalse();
+    }
+
+    @Test
+    void shouldWriteAssignmentOnlyThroughRocketRepository() {
+        //given rockets assigned to a mission
+        missionRepository.save(Mission.create("mars"));
+        missionRepository.save(Mission.create("luna"));
+        Rocket falcon = rocketRepository.save(Rocket.createNewRocket("falcon").assignMission("mars"));
+        rocketRepository.save(Rocket.createNewRocket("dragon").assignMission("mars"));
+        Rocket heavy = rocketRepository.save(Rocket.createNewRocket("heavy"));
+
+        //when in one batch one rocket changes status, one changes mission and one is assigned
+        rocketRepository.updateAll(List.of(falcon.setStatus(RocketStatus.IN_SPACE),
+                new Rocket("dragon", RocketStatus.ON_GROUND, Optional.of("luna")), heavy.assignMission("luna")));
+
+        //then assignments follow the rockets
+        assertThat(rocketRepository.findByName("falcon").orElseThrow())
+                .isEqualTo(new Rocket("falcon", RocketStatus.IN_SPACE, Optional.of("mars")));
+        assertThat(missionRepository.findByName("luna").orElseThrow().rockets()).containsOnlyKeys("dragon", "heavy");
+
+        //and released rocket leaves its mission
+        rocketRepository.update(heavy);
+        assertThat(missionRepository.findByName("luna").orElseThrow().rockets()).containsOnlyKeys("dragon");
+
+        //and rockets of an updated mission are derived from the rocket rows
+        missionRepository.update(Mission.create("mars").endMission());
+        Mission mars = missionRepository.findByName("mars").orElseThrow();
+        assertThat(mars.isEnded()).isTrue();
+        assertThat(mars.rockets()).containsOnlyKeys("falcon");
+    }
+
+    @Test
+    void shouldReadAssignmentsOfLargeBatchInChunks() {
+        //given more rockets than fit in one IN list, half of them assigned
+        missionRepository.save(Mission.create("mars"));
+        List<Rocket> rockets = new ArrayList<>();
+        for (int i = 0; i < 150; i++) {
+            Rocket rocket = Rocket.createNewRocket("rocket-" + i);
+            rockets.add(rocketRepository.save(i % 2 == 0 ? rocket.assignMission("mars") : rocket));
+        }
+
+        //when every rocket changes status and the unassigned ones join the mission
+        rocketRepository.updateAll(rockets.stream()
+                .map(rocket -> rocket.missionName().isPresent() ? rocket.setStatus(RocketStatus.IN_SPACE)
+                        : rocket.assignMission("mars"))
+                .toList());
+
+        //then all rockets are assigned once
+        assertThat(missionRepository.findByName("mars").orElseThrow().rockets()).hasSize(150);
+        assertThat(rocketRepository.findByName("rocket-148").orElseThrow().status()).isEqualTo(RocketStatus.IN_SPACE);
+    }
+
+    @Test
+    void shouldRollBackWholeDomainOperationInUnitOfWork() {
+        //given service writing operations in units of work, with mission ends failing after they are sent
+        JdbcMissionRepository failingMissions = new JdbcMissionRepository(store) {
+            @Override
+            public void updateAll(Collection<Mission> missions) {
+                super.updateAll(missions);
+                if (missions.stream().anyMatch(Mission::isEnded))
+                    throw new DataAccessException("Cannot update missions", new SQLException("connection lost"));
+            }
+        };
+        new SpaceXDragonRocketsRepository(rocketRepository, missionRepository).addMission("mars");
+        SpaceXDragonRocketsRepository dragonRocketsRepository =
+                new SpaceXDragonRocketsRepository(rocketRepository, failingMissions, store);
+        dragonRocketsRepository.addRocket("dragon");
+        dragonRocketsRepository.assignRocketToMission("dragon", "mars");
+
+        //when mission end fails
+        assertThatThrownBy(() -> dragonRocketsRepository.endMission("mars"))
+                .isInstanceOf(DataAccessException.class);
+
+        //then neither the rocket release nor the mission end is stored
+        assertThat(missionRepository.findByName("mars").orElseThrow().isEnded()).isFalse();
+        assertThat(rocketRepository.findByName("dragon").orElseThrow().missionName()).hasValue("mars");
+    }
+
+    @Test
+    void shouldBackDomainService() {
+        //given service backed by database
+        SpaceXDragonRocketsRepository dragonRocketsRepository =
+                new SpaceXDragonRocketsRepository(rocketRepository, missionRepository);
+        dragonRocketsRepository.addMission("mars");
+        dragonRocketsRepository.addMission("luna");
+        dragonRocketsRepository.addRocket("dragon-1");
+        dragonRocketsRepository.addRocket("dragon-2");
+        dragonRocketsRepository.addRocket("dragon-3");
+
+        //when rockets are assigned, damaged and one mission is ended
+        dragonRocketsRepository.assignRocketsToMission(Set.of("dragon-1", "dragon-2"), "mars");
+        dragonRocketsRepository.assignRocketToMission("dragon-3", "luna");
+        dragonRocketsRepository.setRocketStatus("dragon-1", RocketStatus.IN_REPAIR);
+        dragonRocketsRepository.endMission("luna");
+
+        //then summary is read from database
+        Summary summary = dragonRocketsRepository.getDragonsSummary();
+        assertThat(summary.missions()).extracting(Mission::name).containsExactly("mars", "luna");
+        assertThat(summary.missions().get(0).status()).isEqualTo(MissionStatus.PENDING);
+        assertThat(summary.missions().get(0).rockets().get("dragon-1").status()).isEqualTo(RocketStatus.IN_REPAIR);
+        assertThat(summary.missions().get(1).status()).isEqualTo(MissionStatus.ENDED);
+        assertThat(rocketRepository.findByName("dragon-3").orElseThrow().missionName()).isEqualTo(Optional.empty());
+    }
+
+    @Test
+    void shouldKeepDataForNextStoreOnSameDatabase() {
+        //given rocket saved through one store
+        String url = "jdbc:h2:mem:shared-fleet;DB_CLOSE_DELAY=-1";
+        try (JdbcFleetStore first = new JdbcFleetStore(connect(url))) {
+            new JdbcRocketRepository(first).save(Rocket.createNewRocket("falcon"));
+        }
+
+        //when another store opens the same database
+        try (JdbcFleetStore second = new JdbcFleetStore(connect(url))) {
+
+            //then existing schema and data are reused
+            assertThat(new JdbcRocketRepository(second).exists("falcon")).isTrue();
+        }
+    }
+
+    private static Connection connect(String url) {
+        try {
+            return DriverManager.getConnection(url);
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
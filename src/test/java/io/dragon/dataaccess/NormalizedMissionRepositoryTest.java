@@ -0,0 +1,87 @@
+package io.dragon.dataaccess;
+
+import io.dragon.domain.Mission;
+import io.dragon.domain.MissionStatus;
+import io.dragon.domain.Rocket;
+import io.dragon.domain.RocketStatus;
+import io.dragon.domain.SpaceXDragonRocketsRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+
+class NormalizedMissionRepositoryTest {
+
+    private final InMemoryRocketRepository rocketRepository = new InMemoryRocketRepository();
+    private final CountingMissionRepository missionRepository = new CountingMissionRepository(rocketRepository);
+
+    @Test
+    void shouldResolveRocketsFromRocketRepository() {
+        //given mission with stored rocket
+        Rocket rocket = rocketRepository.save(new Rocket("falcon", RocketStatus.ON_GROUND, Optional.of("moon")));
+        missionRepository.save(Mission.create("moon").assignRocket(rocket));
+
+        //when rocket changes in rocket repository only
+        Rocket damaged = rocketRepository.update(rocket.setStatus(RocketStatus.IN_REPAIR));
+
+        //then mission reflects the new rocket state
+        Optional<Mission> mission = missionRepository.findByName("moon");
+        assertThat(mission).isPresent();
+        assertThat(mission.get().rockets()).containsEntry("falcon", damaged);
+        assertThat(mission.get().status()).isEqualTo(MissionStatus.PENDING);
+        assertThat(missionRepository.findAll()).containsExactly(mission.get());
+    }
+
+    @Test
+    void shouldRejectDuplicatedAndUnknownMissions() {
+        //given saved mission
+        Mission mission = missionRepository.save(Mission.create("mars"));
+
+        //when and then
+        assertThatThrownBy(() -> missionRepository.save(mission))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Mission mars already exists");
+        assertThatThrownBy(() -> missionRepository.update(Mission.create("venus")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Mission venus doesn't exist");
+    }
+
+    @Test
+    void shouldChangeRocketStatusWithoutRewritingMission() {
+        //given mission with rocket managed by domain service
+        SpaceXDragonRocketsRepository dragonRocketsRepository =
+                new SpaceXDragonRocketsRepository(rocketRepository, missionRepository);
+        dragonRocketsRepository.addMission("europa");
+        dragonRocketsRepository.addRocket("dragon");
+        dragonRocketsRepository.assignRocketToMission("dragon", "europa");
+        int updatesBefore = missionRepository.updates;
+
+        //when rocket status changes
+        dragonRocketsRepository.setRocketStatus("dragon", RocketStatus.IN_SPACE);
+
+        //then mission was not written
+        assertThat(missionRepository.updates).isEqualTo(updatesBefore);
+
+        //and summary shows the new rocket status
+        Mission mission = dragonRocketsRepository.getDragonsSummary().missions().get(0);
+        assertThat(mission.rockets().get("dragon").status()).isEqualTo(RocketStatus.IN_SPACE);
+    }
+
+    private static class CountingMissionRepository extends NormalizedMissionRepository {
+
+        private int updates;
+
+        CountingMissionRepository(InMemoryRocketRepository rocketRepository) {
+            super(rocketRepository);
+        }
+
+        @Override
+        public Mission update(Mission mission) {
+            updates++;
+            return super.update(mission);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package io.dragon.dataaccess;
+
+import io.dragon.domain.Mission;
+import io.dragon.domain.Rocket;
+import io.dragon.domain.Summary;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+
+class ShardedMissionRepositoryTest {
+
+    private final ShardedMissionRepository missionRepository = new ShardedMissionRepository(8);
+
+    @Test
+    void shouldSaveAndFindMissionsAcrossShards() {
+        //given missions
+        List<Mission> missions = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            missions.add(missionRepository.save(Mission.create("mission-" + i)));
+        }
+
+        //then each mission can be found
+        for (Mission mission : missions) {
+            assertThat(missionRepository.exists(mission.name())).isTrue();
+            assertThat(missionRepository.findByName(mission.name())).hasValue(mission);
+        }
+        assertThat(missionRepository.findAll()).containsExactlyInAnyOrderElementsOf(missions);
+    }
+
+    @Test
+    void shouldRejectDuplicatedMission() {
+        //given saved mission
+        Mission mission = missionRepository.save(Mission.create("duplicated"));
+
+        //when and then
+        assertThatThrownBy(() -> missionRepository.save(mission))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Mission duplicated already exists");
+    }
+
+    @Test
+    void shouldMergeShardsInSummaryOrder() {
+        //given missions with different rocket counts
+        List<Mission> missions = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            Mission mission = Mission.create("mission-" + i);
+            for (int r = 0; r < i % 5; r++) {
+                mission = mission.assignRocket(Rocket.createNewRocket("rocket-" + i + "-" + r));
+            }
+            missions.add(missionRepository.save(mission));
+        }
+
+        //when missions are read in summary order
+        List<Mission> sorted = missionRepository.findAllSorted(Summary.MISSION_ORDER);
+
+        //then order is the same as sorting all missions at once
+        assertThat(sorted).containsExactlyElementsOf(missions.stream().sorted(Summary.MISSION_ORDER).toList());
+    }
+
+    @Test
+    void shouldAcceptConcurrentWrites() throws Exception {
+        //given writers saving distinct missions
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<?>> writers = new ArrayList<>();
+        for (int writer = 0; writer < 4; writer++) {
+            int offset = writer * 1000;
+            writers.add(executor.submit(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    missionRepository.save(Mission.create("mission-" + (offset + i)));
+                }
+            }));
+        }
+
+        //when all writers finish
+        for (Future<?> writer : writers) {
+            writer.get();
+        }
+        executor.shutdown();
+
+        //then all missions are stored
+        assertThat(missionRepository.findAll()).hasSize(4000);
+    }
+}
@@ -0,0 +1,42 @@
+package io.dragon.dataaccess;
+
+import io.dragon.domain.Rocket;
+import io.dragon.domain.RocketStatus;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+
+class ShardedRocketRepositoryTest {
+
+    private final ShardedRocketRepository rocketRepository = new ShardedRocketRepository(4);
+
+    @Test
+    void shouldSaveAndUpdateRocket() {
+        //given saved rocket
+        String rocketName = "sharded-1";
+        Rocket rocket = rocketRepository.save(Rocket.createNewRocket(rocketName));
+
+        //when rocket is updated
+        Rocket updated = rocketRepository.update(rocket.setStatus(RocketStatus.IN_REPAIR));
+
+        //then updated rocket is stored
+        assertThat(rocketRepository.exists(rocketName)).isTrue();
+        assertThat(rocketRepository.findByName(rocketName)).hasValue(updated);
+    }
+
+    @Test
+    void shouldRejectUpdateOfNonExistingRocket() {
+        assertThatThrownBy(() -> rocketRepository.update(Rocket.createNewRocket("sharded-2")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Rocket sharded-2 doesn't exist");
+    }
+
+    @Test
+    void shouldRejectNonPositiveShardCount() {
+        assertThatThrownBy(() -> new ShardedRocketRepository(0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Shard count must be positive");
+    }
+}
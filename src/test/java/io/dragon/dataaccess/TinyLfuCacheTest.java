@@ -0,0 +1,92 @@
+package io.dragon.dataaccess;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+
+class TinyLfuCacheTest {
+
+    @Test
+    void shouldNeverExceedMaximumSize() {
+        //given small cache
+        TinyLfuCache<String, Integer> cache = new TinyLfuCache<>(10);
+
+        //when many distinct entries are added
+        for (int i = 0; i < 1000; i++) {
+            cache.put("key-" + i, i);
+        }
+
+        //then cache stays within its budget
+        assertThat(cache.size()).isEqualTo(10);
+        assertThat(cache.statistics().evictions()).isEqualTo(990);
+    }
+
+    @Test
+    void shouldKeepFrequentlyUsedEntriesWhenScanningColdEntries() {
+        //given cache with frequently requested entries
+        TinyLfuCache<String, Integer> cache = new TinyLfuCache<>(100);
+        for (int round = 0; round < 20; round++) {
+            for (int i = 0; i < 10; i++) {
+                if (cache.get("hot-" + i) == null) cache.put("hot-" + i, i);
+            }
+        }
+
+        //when a long scan of entries requested only once goes through the cache while hot entries are still used
+        for (int i = 0; i < 10_000; i++) {
+            if (cache.get("cold-" + i) == null) cache.put("cold-" + i, i);
+            if (i % 100 == 0) cache.get("hot-" + (i / 100) % 10);
+        }
+
+        //then hot entries are still cached
+        for (int i = 0; i < 10; i++) {
+            assertThat(cache.get("hot-" + i)).isEqualTo(i);
+        }
+    }
+
+    @Test
+    void shouldCountHitsAndMisses() {
+        //given cache with one entry
+        TinyLfuCache<String, Integer> cache = new TinyLfuCache<>(10);
+        cache.put("present", 1);
+
+        //when entries are requested
+        cache.get("present");
+        cache.get("present");
+        cache.get("absent");
+
+        //then statistics are recorded
+        CacheStatistics statistics = cache.statistics();
+        assertThat(statistics.hits()).isEqualTo(2);
+        assertThat(statistics.misses()).isEqualTo(1);
+        assertThat(statistics.hitRate()).isEqualTo(2.0 / 3);
+    }
+
+    @Test
+    void shouldReplaceAndInvalidateEntries() {
+        //given cache with one entry
+        TinyLfuCache<String, Integer> cache = new TinyLfuCache<>(10);
+        cache.put("key", 1);
+
+        //when entry is replaced
+        cache.put("key", 2);
+
+        //then new value is returned
+        assertThat(cache.get("key")).isEqualTo(2);
+        assertThat(cache.size()).isEqualTo(1);
+
+        //when entry is invalidated
+        cache.invalidate("key");
+
+        //then it is gone
+        assertThat(cache.contains("key")).isFalse();
+    }
+
+    @Test
+    void shouldRejectNonPositiveSize() {
+        assertThatThrownBy(() -> new TinyLfuCache<String, Integer>(0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Maximum size must be positive");
+    }
+}
@@ -0,0 +1,204 @@
+package io.dragon.domain;
+
+import io.dragon.dataaccess.InMemoryMissionRepository;
+import io.dragon.dataaccess.InMemoryRocketRepository;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+
+class CoalescingStatusUpdaterTest {
+
+    private final CountingRocketRepository rocketRepository = new CountingRocketRepository();
+    private final CountingMissionRepository missionRepository = new CountingMissionRepository();
+    private final SpaceXDragonRocketsRepository dragonRocketsRepository =
+            new SpaceXDragonRocketsRepository(rocketRepository, missionRepository);
+    private final ManualClock clock = new ManualClock();
+    private final CoalescingStatusUpdater updater =
+            new CoalescingStatusUpdater(dragonRocketsRepository, clock, Duration.ofSeconds(1));
+
+    @Test
+    void shouldWriteOnlyLatestStatusOfFlappingRockets() {
+        //given mission with ten rockets
+        dragonRocketsRepository.addMission("moon");
+        for (int i = 0; i < 10; i++) {
+            dragonRocketsRepository.addRocket("falcon-" + i);
+            dragonRocketsRepository.assignRocketToMission("falcon-" + i, "moon");
+        }
+        int rocketWrites = rocketRepository.writes;
+        int missionWrites = missionRepository.writes;
+
+        //when every rocket flaps between ground and space a hundred times within the window
+        for (int flip = 0; flip < 100; flip++) {
+            for (int i = 0; i < 10; i++) {
+                RocketStatus status = flip % 2 == 0 ? RocketStatus.IN_SPACE : RocketStatus.ON_GROUND;
+                updater.submit("falcon-" + i, i < 5 ? status : RocketStatus.IN_SPACE);
+            }
+        }
+        CoalescingStatusUpdater.Flush early = updater.flushDue();
+        clock.advance(Duration.ofSeconds(1));
+        CoalescingStatusUpdater.Flush flush = updater.flushDue();
+
+        //then nothing is written before the window passed
+        assertThat(early).isEqualTo(CoalescingStatusUpdater.Flush.NONE);
+
+        //and afterwards only rockets whose latest status differs are written, with their mission written once
+        assertThat(flush.submitted()).isEqualTo(1_000);
+        assertThat(flush.applied()).isEqualTo(10);
+        assertThat(flush.coalesced()).isEqualTo(990);
+        assertThat(rocketRepository.writes - rocketWrites).isEqualTo(5);
+        assertThat(missionRepository.writes - missionWrites).isEqualTo(1);
+        assertThat(updater.pending()).isZero();
+        Mission moon = missionRepository.findByName("moon").orElseThrow();
+        assertThat(moon.rockets().get("falcon-0").status()).isEqualTo(RocketStatus.ON_GROUND);
+        assertThat(moon.rockets().get("falcon-9").status()).isEqualTo(RocketStatus.IN_SPACE);
+    }
+
+    @Test
+    void shouldEnforceRulesOnLatestStatusPerMission() {
+        //given rockets of two missions and rockets without mission
+        dragonRocketsRepository.addMission("moon");
+        dragonRocketsRepository.addMission("mars");
+        Set.of("moon-rocket", "mars-rocket", "spare", "flapping-spare").forEach(dragonRocketsRepository::addRocket);
+        dragonRocketsRepository.assignRocketToMission("moon-rocket", "moon");
+        dragonRocketsRepository.assignRocketToMission("mars-rocket", "mars");
+        int missionWrites = missionRepository.writes;
+
+        //when statuses are submitted, including space without mission and an unknown rocket
+        updater.submit("moon-rocket", RocketStatus.IN_SPACE);
+        updater.submit("mars-rocket", RocketStatus.IN_REPAIR);
+        updater.submit("spare", RocketStatus.IN_SPACE);
+        updater.submit("flapping-spare", RocketStatus.IN_SPACE);
+        updater.submit("flapping-spare", RocketStatus.IN_REPAIR);
+        updater.submit("ghost", RocketStatus.IN_REPAIR);
+        CoalescingStatusUpdater.Flush flush = updater.flush();
+
+        //then latest statuses are checked by the service and each mission is written once
+        assertThat(flush.rejected()).isEqualTo(Map.of(
+                "spare", OperationResult.ROCKET_NOT_ASSIGNED,
+                "ghost", OperationResult.ROCKET_DOES_NOT_EXIST));
+        assertThat(flush.applied()).isEqualTo(3);
+        assertThat(missionRepository.writes - missionWrites).isEqualTo(2);
+        assertThat(rocketRepository.findByName("spare").orElseThrow().status()).isEqualTo(RocketStatus.ON_GROUND);
+        assertThat(rocketRepository.findByName("flapping-spare").orElseThrow().status())
+                .isEqualTo(RocketStatus.IN_REPAIR);
+        assertThat(missionRepository.findByName("mars").orElseThrow().status()).isEqualTo(MissionStatus.PENDING);
+    }
+
+    @Test
+    void shouldKeepGroupFailingUnexpectedlyForNextFlush() {
+        //given rocket repository failing to write one rocket
+        dragonRocketsRepository.addRocket("broken");
+        dragonRocketsRepository.addRocket("healthy");
+        rocketRepository.failing = "broken";
+
+        //when statuses of both rockets are flushed
+        updater.submit("broken", RocketStatus.IN_REPAIR);
+        updater.submit("healthy", RocketStatus.IN_REPAIR);
+        CoalescingStatusUpdater.Flush failedFlush = updater.flush();
+
+        //then the whole group is reported, buffered again and left unwritten
+        assertThat(failedFlush.applied()).isZero();
+        assertThat(failedFlush.failed()).containsOnlyKeys("broken", "healthy");
+        assertThat(failedFlush.failed().get("broken")).isInstanceOf(UncheckedIOException.class);
+        assertThat(updater.pending()).isEqualTo(2);
+        assertThat(rocketRepository.findByName("healthy").orElseThrow().status()).isEqualTo(RocketStatus.ON_GROUND);
+
+        //and it is written by the next flush once the repository recovers
+        rocketRepository.failing = null;
+        CoalescingStatusUpdater.Flush retried = updater.flush();
+        assertThat(retried.applied()).isEqualTo(2);
+        assertThat(retried.coalesced()).isZero();
+        assertThat(rocketRepository.findByName("broken").orElseThrow().status()).isEqualTo(RocketStatus.IN_REPAIR);
+    }
+
+    @Test
+    void shouldRetryGroupWhoseMissionWriteFailed() {
+        //given mission repository failing to write the mission of two rockets
+        dragonRocketsRepository.addMission("moon");
+        dragonRocketsRepository.addRocket("falcon-1");
+        dragonRocketsRepository.addRocket("falcon-2");
+        dragonRocketsRepository.assignRocketToMission("falcon-1", "moon");
+        dragonRocketsRepository.assignRocketToMission("falcon-2", "moon");
+        missionRepository.failing = true;
+
+        //when statuses of both rockets are flushed
+        updater.submit("falcon-1", RocketStatus.IN_SPACE);
+        updater.submit("falcon-2", RocketStatus.IN_REPAIR);
+        CoalescingStatusUpdater.Flush failedFlush = updater.flush();
+
+        //then no rocket is counted as applied and the rockets are left as they were
+        assertThat(failedFlush.applied()).isZero();
+        assertThat(failedFlush.failed()).containsOnlyKeys("falcon-1", "falcon-2");
+        assertThat(updater.pending()).isEqualTo(2);
+        assertThat(rocketRepository.findByName("falcon-1").orElseThrow().status()).isEqualTo(RocketStatus.ON_GROUND);
+
+        //and the next flush writes the rockets together with their mission
+        missionRepository.failing = false;
+        CoalescingStatusUpdater.Flush retried = updater.flush();
+        assertThat(retried.applied()).isEqualTo(2);
+        Mission moon = missionRepository.findByName("moon").orElseThrow();
+        assertThat(moon.rockets().get("falcon-1").status()).isEqualTo(RocketStatus.IN_SPACE);
+        assertThat(moon.status()).isEqualTo(MissionStatus.PENDING);
+    }
+
+    private static class CountingRocketRepository extends InMemoryRocketRepository {
+
+        private int writes;
+        private String failing;
+
+        @Override
+        public Rocket update(Rocket rocket) {
+            writes++;
+            if (rocket.name().equals(failing)) throw new UncheckedIOException(new IOException("disk full"));
+            return super.update(rocket);
+        }
+    }
+
+    private static class CountingMissionRepository extends InMemoryMissionRepository {
+
+        private int writes;
+        private boolean failing;
+
+        @Override
+        public Mission update(Mission mission) {
+            writes++;
+            if (failing) throw new UncheckedIOException(new IOException("disk full"));
+            return super.update(mission);
+        }
+    }
+
+    private static class ManualClock extends Clock {
+
+        private Instant now = Instant.parse("2030-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
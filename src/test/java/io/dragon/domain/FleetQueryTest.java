@@ -0,0 +1,189 @@
+package io.dragon.domain;
+
+import io.dragon.dataaccess.InMemoryMissionRepository;
+import io.dragon.dataaccess.InMemoryRocketRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+
+class FleetQueryTest {
+
+    private final RocketRepository rocketRepository = new InMemoryRocketRepository();
+    private final MissionRepository missionRepository = new InMemoryMissionRepository();
+    private final SpaceXDragonRocketsRepository dragonRocketsRepository =
+            new SpaceXDragonRocketsRepository(rocketRepository, missionRepository);
+
+    FleetQueryTest() {
+        dragonRocketsRepository.enableIndexes(FleetIndex.QUERIES);
+    }
+
+    @Test
+    void shouldAnswerDashboardQueryFromStatusIndex() {
+        //given missions in progress with different numbers of rockets, some of them in space
+        addMissionWithRockets("big-in-space", 12);
+        dragonRocketsRepository.setRocketStatus("big-in-space-0", RocketStatus.IN_SPACE);
+        addMissionWithRockets("another-big-in-space", 11);
+        dragonRocketsRepository.setRocketStatus("another-big-in-space-3", RocketStatus.IN_SPACE);
+        addMissionWithRockets("big-on-ground", 15);
+        addMissionWithRockets("small-in-space", 3);
+        dragonRocketsRepository.setRocketStatus("small-in-space-1", RocketStatus.IN_SPACE);
+        addMissionWithRockets("big-pending", 11);
+        dragonRocketsRepository.setRocketStatus("big-pending-0", RocketStatus.IN_SPACE);
+        dragonRocketsRepository.setRocketStatus("big-pending-1", RocketStatus.IN_REPAIR);
+
+        //when dashboard query runs
+        MissionQuery query = dragonRocketsRepository.queryMissions()
+                .withStatus(MissionStatus.IN_PROGRESS)
+                .withMoreRocketsThan(10)
+                .withAnyRocketIn(RocketStatus.IN_SPACE)
+                .sortedBy(Comparator.comparing(Mission::name))
+                .limit(50);
+
+        //then matching missions are returned in requested order
+        assertThat(query.list()).extracting(Mission::name).containsExactly("another-big-in-space", "big-in-space");
+        assertThat(query.accessPath()).isEqualTo(MissionQuery.AccessPath.STATUS);
+    }
+
+    @Test
+    void shouldPushPredicatesToMostSelectiveIndex() {
+        //given many scheduled missions and one mission with a rocket in space
+        IntStream.range(0, 20).forEach(i -> dragonRocketsRepository.addMission("scheduled-" + i));
+        addMissionWithRockets("orbit", 2);
+        dragonRocketsRepository.setRocketStatus("orbit-0", RocketStatus.IN_SPACE);
+
+        //when queries with different conditions are planned
+        MissionQuery byName = dragonRocketsRepository.queryMissions().named("orbit");
+        MissionQuery byRocketStatus = dragonRocketsRepository.queryMissions()
+                .withStatus(MissionStatus.SCHEDULED, MissionStatus.IN_PROGRESS)
+                .withAnyRocketIn(RocketStatus.IN_SPACE);
+        MissionQuery byRocketCount = dragonRocketsRepository.queryMissions().withRocketCountBetween(1, 5);
+        MissionQuery byCondition = dragonRocketsRepository.queryMissions()
+                .where(mission -> mission.name().endsWith("7"));
+
+        //then each uses the index with the fewest candidates and returns the same missions as a scan
+        assertThat(byName.accessPath()).isEqualTo(MissionQuery.AccessPath.NAME);
+        assertThat(byName.list()).extracting(Mission::name).containsExactly("orbit");
+        assertThat(byRocketStatus.accessPath()).isEqualTo(MissionQuery.AccessPath.ROCKET_STATUS);
+        assertThat(byRocketStatus.list()).extracting(Mission::name).containsExactly("orbit");
+        assertThat(byRocketCount.accessPath()).isEqualTo(MissionQuery.AccessPath.ROCKET_COUNT);
+        assertThat(byRocketCount.list()).extracting(Mission::name).containsExactly("orbit");
+        assertThat(byCondition.accessPath()).isEqualTo(MissionQuery.AccessPath.SCAN);
+        assertThat(byCondition.list()).extracting(Mission::name).containsExactly("scheduled-7", "scheduled-17");
+    }
+
+    @Test
+    void shouldQueryRocketsByMissionAndStatus() {
+        //given rockets of a mission and unassigned rockets
+        addMissionWithRockets("moon", 3);
+        dragonRocketsRepository.setRocketStatus("moon-2", RocketStatus.IN_REPAIR);
+        dragonRocketsRepository.addRocket("spare-b");
+        dragonRocketsRepository.addRocket("spare-a");
+        dragonRocketsRepository.setRocketStatus("spare-a", RocketStatus.IN_REPAIR);
+
+        //when rockets are queried
+        RocketQuery ofMission = dragonRocketsRepository.queryRockets().assignedTo("moon").limit(2);
+        RocketQuery inRepair = dragonRocketsRepository.queryRockets().withStatus(RocketStatus.IN_REPAIR);
+        RocketQuery unassigned = dragonRocketsRepository.queryRockets().unassigned();
+
+        //then rockets are found through the mission and status indexes
+        assertThat(ofMission.accessPath()).isEqualTo(RocketQuery.AccessPath.MISSION);
+        assertThat(ofMission.list()).extracting(Rocket::name).containsExactly("moon-0", "moon-1");
+        assertThat(inRepair.accessPath()).isEqualTo(RocketQuery.AccessPath.STATUS);
+        assertThat(inRepair.list()).extracting(Rocket::name).containsExactly("moon-2", "spare-a");
+        assertThat(unassigned.accessPath()).isEqualTo(RocketQuery.AccessPath.SCAN);
+        assertThat(unassigned.list()).extracting(Rocket::name).containsExactly("spare-a", "spare-b");
+    }
+
+    @Test
+    void shouldRejectRocketCountWhichCannotBeExceeded() {
+        //when and then
+        assertThatThrownBy(() -> dragonRocketsRepository.queryMissions().withMoreRocketsThan(Integer.MAX_VALUE))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("No mission can have more than 2147483647 rockets");
+        assertThat(dragonRocketsRepository.queryMissions().withMoreRocketsThan(-5).accessPath())
+                .isEqualTo(MissionQuery.AccessPath.SCAN);
+    }
+
+    @Test
+    void shouldQueryRepositoriesWithoutIndex() {
+        //given service without query index and rockets written directly to the repository
+        SpaceXDragonRocketsRepository unindexed = new SpaceXDragonRocketsRepository(rocketRepository, missionRepository);
+        unindexed.addRocket("through-service");
+        rocketRepository.save(Rocket.createNewRocket("direct"));
+
+        //when rockets on ground are queried
+        List<Rocket> rockets = unindexed.queryRockets().withStatus(RocketStatus.ON_GROUND).list();
+
+        //then rockets are read from the repository
+        assertThat(rockets).extracting(Rocket::name).containsExactly("direct", "through-service");
+    }
+
+    @Test
+    void shouldMatchScanOfRepositoriesAfterRandomChanges() {
+        //given fleet changed at random
+        Random random = new Random(49);
+        RocketStatus[] rocketStatuses = RocketStatus.values();
+        MissionStatus[] missionStatuses = MissionStatus.values();
+        IntStream.range(0, 30).forEach(i -> dragonRocketsRepository.addMission("mission-" + i));
+        IntStream.range(0, 200).forEach(i -> dragonRocketsRepository.addRocket("rocket-" + i));
+        for (int i = 0; i < 2_000; i++) {
+            String rocketName = "rocket-" + random.nextInt(200);
+            String missionName = "mission-" + random.nextInt(30);
+            switch (random.nextInt(4)) {
+                case 0 -> dragonRocketsRepository.tryAssignRocketToMission(rocketName, missionName);
+                case 1 -> dragonRocketsRepository.trySetRocketStatus(rocketName,
+                        rocketStatuses[random.nextInt(rocketStatuses.length)]);
+                case 2 -> dragonRocketsRepository.tryEndMission(missionName);
+                default -> dragonRocketsRepository.tryAddMission(missionName + "-" + i);
+            }
+        }
+
+        for (int i = 0; i < 200; i++) {
+            //when random query runs
+            MissionStatus status = missionStatuses[random.nextInt(missionStatuses.length)];
+            RocketStatus rocketStatus = rocketStatuses[random.nextInt(rocketStatuses.length)];
+            int min = random.nextInt(4);
+            int max = min + random.nextInt(6);
+            int limit = random.nextInt(10);
+            boolean byStatus = random.nextBoolean();
+            boolean byRocketCount = random.nextBoolean();
+            boolean byRocketStatus = random.nextBoolean();
+            MissionQuery query = dragonRocketsRepository.queryMissions().limit(limit);
+            if (byStatus) query.withStatus(status);
+            if (byRocketCount) query.withRocketCountBetween(min, max);
+            if (byRocketStatus) query.withAnyRocketIn(rocketStatus);
+            List<Mission> expected = missionRepository.findAll().stream()
+                    .filter(mission -> !byStatus || mission.status() == status)
+                    .filter(mission -> !byRocketCount
+                            || mission.rockets().size() >= min && mission.rockets().size() <= max)
+                    .filter(mission -> !byRocketStatus || mission.rockets().values().stream()
+                            .anyMatch(rocket -> rocket.status() == rocketStatus))
+                    .sorted(Summary.MISSION_ORDER)
+                    .limit(limit)
+                    .toList();
+
+            //then it returns what filtering all missions returns
+            assertThat(query.list()).isEqualTo(expected);
+        }
+        assertThat(dragonRocketsRepository.queryRockets().withStatus(RocketStatus.IN_SPACE).list())
+                .containsExactlyElementsOf(rocketRepository.findAll().stream()
+                        .filter(rocket -> rocket.status() == RocketStatus.IN_SPACE)
+                        .sorted(Comparator.comparing(Rocket::name))
+                        .toList());
+    }
+
+    private void addMissionWithRockets(String missionName, int rockets) {
+        dragonRocketsRepository.addMission(missionName);
+        List<String> rocketNames = IntStream.range(0, rockets).mapToObj(i -> missionName + "-" + i).toList();
+        rocketNames.forEach(dragonRocketsRepository::addRocket);
+        dragonRocketsRepository.assignRocketsToMission(Set.copyOf(rocketNames), missionName);
+    }
+}
@@ -0,0 +1,79 @@
+package io.dragon.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+
+class FreeRocketPoolTest {
+
+    @Test
+    void shouldNeverClaimTheSameRocketTwice() throws Exception {
+        //given pool with many free rockets
+        List<Rocket> rockets = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            rockets.add(Rocket.createNewRocket("rocket-" + i));
+        }
+        FreeRocketPool pool = new FreeRocketPool(rockets);
+
+        //when several threads claim rockets at the same time
+        Set<String> claimed = ConcurrentHashMap.newKeySet();
+        List<Future<Integer>> claims = new ArrayList<>();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            for (int thread = 0; thread < 8; thread++) {
+                claims.add(executor.submit(() -> {
+                    start.await();
+                    int count = 0;
+                    List<String> batch;
+                    while (!(batch = pool.claim(7)).isEmpty()) {
+                        claimed.addAll(batch);
+                        count += batch.size();
+                    }
+                    return count;
+                }));
+            }
+            start.countDown();
+            int total = 0;
+            for (Future<Integer> claim : claims) {
+                total += claim.get();
+            }
+
+            //then every rocket was claimed exactly once
+            assertThat(total).isEqualTo(rockets.size());
+            assertThat(claimed).hasSize(rockets.size());
+            assertThat(pool.size()).isZero();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void shouldSkipRocketsWhichStoppedBeingFree() {
+        //given free rockets
+        Rocket flipping = Rocket.createNewRocket("flipping");
+        Rocket damaged = flipping.setStatus(RocketStatus.IN_REPAIR);
+        FreeRocketPool pool = new FreeRocketPool(List.of(flipping, Rocket.createNewRocket("steady")));
+
+        //when one of them keeps changing status and ends damaged
+        for (int i = 0; i < 1_000; i++) {
+            pool.rocketStatusChanged(flipping, damaged);
+            pool.rocketStatusChanged(damaged, flipping);
+        }
+        pool.rocketStatusChanged(flipping, damaged);
+
+        //then only the steady rocket is claimed
+        assertThat(pool.claim(2)).containsExactly("steady");
+        assertThat(pool.claim(1)).isEmpty();
+    }
+}
@@ -0,0 +1,91 @@
+package io.dragon.domain;
+
+import io.dragon.dataaccess.InMemoryMissionRepository;
+import io.dragon.dataaccess.InMemoryRocketRepository;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.Iterator;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+
+class LazySummaryTest {
+
+    private final MissionRepository missionRepository = new InMemoryMissionRepository();
+
+    @Test
+    void shouldIterateMissionsInSummaryOrder() {
+        //given missions with different number of rockets
+        SpaceXDragonRocketsRepository dragonRocketsRepository = fleet();
+
+        //when lazy summary is streamed
+        LazySummary summary = dragonRocketsRepository.getLazyDragonsSummary();
+
+        //then missions come in the same order as in the summary
+        assertThat(summary.stream().toList()).isEqualTo(dragonRocketsRepository.getDragonsSummary().missions());
+        assertThat(summary.first(2).missions()).extracting(Mission::name).containsExactly("mars", "luna");
+    }
+
+    @Test
+    void shouldPrintOnlyRequestedMissions() {
+        //given missions with different number of rockets
+        SpaceXDragonRocketsRepository dragonRocketsRepository = fleet();
+
+        //when first mission is printed
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        dragonRocketsRepository.getLazyDragonsSummary().printSummary(new PrintStream(output), 1);
+
+        //then only its block is printed
+        Mission mars = missionRepository.findByName("mars").orElseThrow();
+        assertThat(output.toString()).isEqualTo(mars.printToStatus() + System.lineSeparator());
+    }
+
+    @Test
+    void shouldReflectChangesMadeAfterViewWasCreated() {
+        //given lazy summary
+        SpaceXDragonRocketsRepository dragonRocketsRepository = fleet();
+        LazySummary summary = dragonRocketsRepository.getLazyDragonsSummary();
+
+        //when mission is ended
+        dragonRocketsRepository.endMission("mars");
+
+        //then iteration shows the ended mission last
+        Iterator<Mission> missions = summary.iterator();
+        assertThat(missions.next().name()).isEqualTo("luna");
+        assertThat(summary.stream().map(Mission::name)).containsExactly("luna", "venus", "mars");
+        assertThat(summary.statusBlocks().skip(2).findFirst()).hasValue("mars - Ended - Dragons: 0\n");
+    }
+
+    @Test
+    void shouldIncludeMissionsSavedBeforeServiceWasCreated() {
+        //given mission saved directly in repository
+        missionRepository.save(Mission.create("saved"));
+
+        //when service is created with lazy summary
+        SpaceXDragonRocketsRepository dragonRocketsRepository =
+                new SpaceXDragonRocketsRepository(new InMemoryRocketRepository(), missionRepository);
+        dragonRocketsRepository.enableIndexes(FleetIndex.LAZY_SUMMARY);
+
+        //then mission is in lazy summary
+        assertThat(dragonRocketsRepository.getLazyDragonsSummary().stream()).extracting(Mission::name)
+                .containsExactly("saved");
+    }
+
+    private SpaceXDragonRocketsRepository fleet() {
+        SpaceXDragonRocketsRepository dragonRocketsRepository =
+                new SpaceXDragonRocketsRepository(new InMemoryRocketRepository(), missionRepository);
+        dragonRocketsRepository.enableIndexes(FleetIndex.LAZY_SUMMARY);
+        dragonRocketsRepository.addMission("venus");
+        dragonRocketsRepository.addMission("luna");
+        dragonRocketsRepository.addMission("mars");
+        dragonRocketsRepository.addRocket("dragon-1");
+        dragonRocketsRepository.addRocket("dragon-2");
+        dragonRocketsRepository.addRocket("dragon-3");
+        dragonRocketsRepository.assignRocketsToMission(Set.of("dragon-1", "dragon-2"), "mars");
+        dragonRocketsRepository.assignRocketToMission("dragon-3", "luna");
+        return dragonRocketsRepository;
+    }
+}
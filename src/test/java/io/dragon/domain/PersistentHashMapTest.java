@@ -0,0 +1,85 @@
+package io.dragon.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+
+class PersistentHashMapTest {
+
+    @Test
+    void shouldKeepPreviousVersionsUnchanged() {
+        //given map with two keys
+        PersistentHashMap<String, Integer> first = PersistentHashMap.<String, Integer>empty().put("a", 1).put("b", 2);
+
+        //when a key is replaced and another added
+        PersistentHashMap<String, Integer> second = first.put("a", 10).put("c", 3);
+
+        //then both versions answer with their own values
+        assertThat(first.get("a")).isEqualTo(1);
+        assertThat(first.get("c")).isNull();
+        assertThat(first.size()).isEqualTo(2);
+        assertThat(second.get("a")).isEqualTo(10);
+        assertThat(second.get("b")).isEqualTo(2);
+        assertThat(second.size()).isEqualTo(3);
+        assertThat(second.put("b", 2)).isSameAs(second);
+    }
+
+    @Test
+    void shouldStoreKeysWithEqualHashes() {
+        //given keys with equal hash codes
+        PersistentHashMap<String, String> map = PersistentHashMap.<String, String>empty()
+                .put("Aa", "first")
+                .put("BB", "second")
+                .put("C#", "third");
+
+        //when one of them is replaced
+        PersistentHashMap<String, String> replaced = map.put("BB", "replaced");
+
+        //then all of them are found
+        assertThat(replaced.get("Aa")).isEqualTo("first");
+        assertThat(replaced.get("BB")).isEqualTo("replaced");
+        assertThat(replaced.get("C#")).isEqualTo("third");
+        assertThat(replaced.size()).isEqualTo(3);
+        assertThat(map.get("BB")).isEqualTo("second");
+    }
+
+    @Test
+    void shouldMatchHashMapForRandomChanges() {
+        //given random keys, some of them with equal hash codes
+        Random random = new Random(48);
+        Map<String, Integer> expected = new HashMap<>();
+        PersistentHashMap<String, Integer> map = PersistentHashMap.empty();
+
+        //when they are put in both maps
+        for (int i = 0; i < 50_000; i++) {
+            String key = random.nextBoolean() ? "key-" + random.nextInt(20_000) : collidingKey(random.nextInt(8));
+            expected.put(key, i);
+            map = map.put(key, i);
+        }
+
+        //then persistent map holds the same entries
+        assertThat(map.size()).isEqualTo(expected.size());
+        List<Integer> values = new ArrayList<>();
+        map.forEachValue(values::add);
+        assertThat(values).containsExactlyInAnyOrderElementsOf(expected.values());
+        for (Map.Entry<String, Integer> entry : expected.entrySet()) {
+            assertThat(map.get(entry.getKey())).isEqualTo(entry.getValue());
+        }
+        assertThat(map.get("missing")).isNull();
+    }
+
+    private static String collidingKey(int pattern) {
+        StringBuilder key = new StringBuilder();
+        for (int bit = 0; bit < 3; bit++) {
+            key.append((pattern & (1 << bit)) == 0 ? "Aa" : "BB");
+        }
+        return key.toString();
+    }
+}
@@ -0,0 +1,146 @@
+package io.dragon.domain;
+
+import io.dragon.dataaccess.InMemoryMissionRepository;
+import io.dragon.dataaccess.InMemoryRocketRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+
+class RepairBacklogTest {
+
+    private final RocketRepository rocketRepository = new InMemoryRocketRepository();
+    private final MissionRepository missionRepository = new InMemoryMissionRepository();
+    private final SpaceXDragonRocketsRepository dragonRocketsRepository =
+            new SpaceXDragonRocketsRepository(rocketRepository, missionRepository, new TickingClock());
+
+    RepairBacklogTest() {
+        dragonRocketsRepository.enableIndexes(FleetIndex.REPAIR_BACKLOG);
+    }
+
+    @Test
+    void shouldOrderRepairsByBlockedMissionsAndTimeInRepair() {
+        //given damaged rockets of a mission, of another mission with two of them and one without mission
+        dragonRocketsRepository.addMission("single");
+        dragonRocketsRepository.addMission("double");
+        List.of("unassigned", "second", "first", "only").forEach(dragonRocketsRepository::addRocket);
+        dragonRocketsRepository.assignRocketsToMission(Set.of("first", "second"), "double");
+        dragonRocketsRepository.assignRocketToMission("only", "single");
+        damage("unassigned");
+        damage("first");
+        damage("second");
+        damage("only");
+
+        //when next repairs are requested
+        List<Repair> repairs = dragonRocketsRepository.getNextRepairs(10);
+
+        //then repair unblocking a mission comes first and rocket without mission last
+        assertThat(repairs).extracting(Repair::rocketName).containsExactly("only", "first", "second", "unassigned");
+        assertThat(repairs.get(0).unblockedMission()).contains("single");
+        assertThat(repairs.get(1).unblockedMission()).isEmpty();
+        assertThat(repairs.get(1).missionName()).contains("double");
+        assertThat(dragonRocketsRepository.getMissionsUnblockedBy(List.of("first", "only"))).containsExactly("single");
+        assertThat(dragonRocketsRepository.getMissionsUnblockedBy(List.of("first", "second")))
+                .containsExactly("double");
+
+        //when one rocket of the mission with two damaged rockets is repaired
+        dragonRocketsRepository.setRocketStatus("first", RocketStatus.ON_GROUND);
+
+        //then the other one now unblocks its mission
+        assertThat(dragonRocketsRepository.getNextRepairs(2)).extracting(Repair::rocketName)
+                .containsExactly("second", "only");
+        assertThat(dragonRocketsRepository.getRepairBacklogSize()).isEqualTo(3);
+
+        //when mission ends
+        dragonRocketsRepository.endMission("double");
+
+        //then its damaged rocket stays in the backlog without mission
+        assertThat(dragonRocketsRepository.getNextRepairs(3)).extracting(Repair::rocketName)
+                .containsExactly("only", "unassigned", "second");
+    }
+
+    @Test
+    void shouldKeepPriorityOrderUnderRandomChanges() {
+        //given missions and rockets
+        Random random = new Random(11);
+        for (int i = 0; i < 20; i++) {
+            dragonRocketsRepository.addMission("mission-" + i);
+        }
+        for (int i = 0; i < 200; i++) {
+            dragonRocketsRepository.addRocket("rocket-" + i);
+        }
+
+        //when random operations run
+        for (int i = 0; i < 5_000; i++) {
+            String rocketName = "rocket-" + random.nextInt(200);
+            String missionName = "mission-" + random.nextInt(20);
+            switch (random.nextInt(4)) {
+                case 0 -> dragonRocketsRepository.tryAssignRocketToMission(rocketName, missionName);
+                case 1 -> dragonRocketsRepository.trySetRocketStatus(rocketName, RocketStatus.IN_REPAIR);
+                case 2 -> dragonRocketsRepository.trySetRocketStatus(rocketName, RocketStatus.ON_GROUND);
+                default -> {
+                    if (random.nextInt(20) == 0) {
+                        dragonRocketsRepository.tryEndMission(missionName);
+                        dragonRocketsRepository.addMission("mission-" + (20 + i));
+                    }
+                }
+            }
+        }
+
+        //then backlog holds every damaged rocket in priority order
+        List<Repair> backlog = dragonRocketsRepository.getNextRepairs(Integer.MAX_VALUE);
+        assertThat(backlog).extracting(Repair::rocketName).containsExactlyInAnyOrderElementsOf(
+                rocketRepository.findAll().stream()
+                        .filter(rocket -> rocket.status() == RocketStatus.IN_REPAIR)
+                        .map(Rocket::name)
+                        .toList());
+        for (Repair repair : backlog) {
+            assertThat(repair.missionName())
+                    .isEqualTo(rocketRepository.findByName(repair.rocketName()).orElseThrow().missionName());
+            long damagedInMission = repair.missionName().stream()
+                    .flatMap(missionName -> missionRepository.findByName(missionName).orElseThrow()
+                            .rockets().values().stream())
+                    .filter(rocket -> rocket.status() == RocketStatus.IN_REPAIR)
+                    .count();
+            assertThat(repair.unblocksMission()).isEqualTo(damagedInMission == 1);
+        }
+        assertThat(backlog).isSortedAccordingTo(Comparator.comparing((Repair repair) -> !repair.unblocksMission())
+                .thenComparing(repair -> repair.missionName().isEmpty())
+                .thenComparing(Repair::inRepairSince));
+    }
+
+    private void damage(String rocketName) {
+        dragonRocketsRepository.setRocketStatus(rocketName, RocketStatus.IN_REPAIR);
+    }
+
+    private static class TickingClock extends Clock {
+
+        private Instant now = Instant.parse("2030-01-01T00:00:00Z");
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            now = now.plus(Duration.ofMinutes(1));
+            return now;
+        }
+    }
+}
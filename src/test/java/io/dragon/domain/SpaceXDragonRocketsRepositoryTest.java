@@ -8,9 +8,20 @@ import io.dragon.domain.exception.RocketAlreadyExistsException;
 import io.dragon.domain.exception.RocketDoesNotExistException;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.assertj.core.api.Assertions.*;
 
@@ -593,4 +604,429 @@ class SpaceXDragonRocketsRepositoryTest {
         assertThat(sortedMissions.get(1).rockets()).hasSize(2);
         assertThat(sortedMissions.get(2).rockets()).hasSize(2);
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldNotifyListenersAboutCommittedChanges() {
+        //given registered listener
+        List<String> events = new ArrayList<>();
+        dragonRocketsRepository.addListener(new FleetChangeListener() {
+            @Override
+            public void rocketAdded(Rocket rocket) {
+                events.add("rocketAdded " + rocket.name());
+            }
+
+            @Override
+            public void missionAdded(Mission mission) {
+                events.add("missionAdded " + mission.name());
+            }
+
+            @Override
+            public void rocketsAssigned(Mission mission, Collection<Rocket> assignedRockets) {
+                events.add("rocketsAssigned " + mission.name() + " " + assignedRockets.size());
+            }
+
+            @Override
+            public void rocketStatusChanged(Rocket previous, Rocket updated) {
+                events.add("rocketStatusChanged " + updated.name() + " " + updated.status());
+            }
+
+            @Override
+            public void missionEnded(Mission previous, Mission ended) {
+                events.add("missionEnded " + ended.name());
+            }
+
+            @Override
+            public void missionChanged(Mission previous, Mission updated) {
+                events.add("missionChanged " + updated.name() + " " + updated.status());
+            }
+        });
+
+        //when fleet is changed
+        dragonRocketsRepository.addMission("listened");
+        dragonRocketsRepository.addRocket("listened-rocket");
+        dragonRocketsRepository.assignRocketToMission("listened-rocket", "listened");
+        dragonRocketsRepository.setRocketStatus("listened-rocket", RocketStatus.IN_REPAIR);
+        dragonRocketsRepository.endMission("listened");
+
+        //then listener receives changes in order
+        assertThat(events).containsExactly(
+                "missionAdded listened",
+                "rocketAdded listened-rocket",
+                "rocketsAssigned listened 1",
+                "missionChanged listened IN_PROGRESS",
+                "rocketStatusChanged listened-rocket IN_REPAIR",
+                "missionChanged listened PENDING",
+                "missionEnded listened",
+                "missionChanged listened ENDED");
+    }
+
+    @Test
+    void shouldPrintSummaryReflectingChanges() {
+        //given mission with rocket
+        dragonRocketsRepository.addMission("printed");
+        dragonRocketsRepository.addRocket("printed-rocket");
+        dragonRocketsRepository.assignRocketToMission("printed-rocket", "printed");
+        String before = printSummary();
+
+        //when rocket status is changed
+        dragonRocketsRepository.setRocketStatus("printed-rocket", RocketStatus.IN_REPAIR);
+
+        //then printed summary shows new state
+        String after = printSummary();
+        String separator = System.lineSeparator();
+        assertThat(before).isEqualTo("printed - In Progress - Dragons: 1\n\tprinted-rocket - On ground\n" + separator);
+        assertThat(after).isEqualTo("printed - Pending - Dragons: 1\n\tprinted-rocket - In repair\n" + separator);
+    }
+
+    @Test
+    void shouldReturnResultsInsteadOfThrowingForExpectedFailures() {
+        //given rocket assigned to mission and ended mission
+        dragonRocketsRepository.addRocket("result-rocket");
+        dragonRocketsRepository.addRocket("free-rocket");
+        dragonRocketsRepository.addMission("result-mission");
+        dragonRocketsRepository.addMission("ended-mission");
+        dragonRocketsRepository.assignRocketToMission("result-rocket", "result-mission");
+        dragonRocketsRepository.endMission("ended-mission");
+
+        //when failing operations are tried
+        //then failure results are returned
+        assertThat(dragonRocketsRepository.tryAddRocket("result-rocket")).isEqualTo(OperationResult.ROCKET_ALREADY_EXISTS);
+        assertThat(dragonRocketsRepository.tryAddMission("result-mission")).isEqualTo(OperationResult.MISSION_ALREADY_EXISTS);
+        assertThat(dragonRocketsRepository.tryAssignRocketToMission("missing", "result-mission"))
+                .isEqualTo(OperationResult.ROCKET_DOES_NOT_EXIST);
+        assertThat(dragonRocketsRepository.tryAssignRocketToMission("free-rocket", "missing"))
+                .isEqualTo(OperationResult.MISSION_DOES_NOT_EXIST);
+        assertThat(dragonRocketsRepository.tryAssignRocketToMission("result-rocket", "result-mission"))
+                .isEqualTo(OperationResult.ROCKET_ALREADY_ASSIGNED);
+        assertThat(dragonRocketsRepository.tryAssignRocketsToMission(Set.of("free-rocket", "result-rocket"), "result-mission"))
+                .isEqualTo(OperationResult.ROCKET_ALREADY_ASSIGNED);
+        assertThat(dragonRocketsRepository.trySetRocketStatus("missing", RocketStatus.IN_REPAIR))
+                .isEqualTo(OperationResult.ROCKET_DOES_NOT_EXIST);
+        assertThat(dragonRocketsRepository.trySetRocketStatus("free-rocket", RocketStatus.IN_SPACE))
+                .isEqualTo(OperationResult.ROCKET_NOT_ASSIGNED);
+        assertThat(dragonRocketsRepository.tryEndMission("missing")).isEqualTo(OperationResult.MISSION_DOES_NOT_EXIST);
+        assertThat(dragonRocketsRepository.tryEndMission("ended-mission")).isEqualTo(OperationResult.MISSION_ALREADY_ENDED);
+
+        //and nothing is changed
+        assertThat(rocketRepository.findByName("free-rocket")).hasValue(Rocket.createNewRocket("free-rocket"));
+        assertThat(missionRepository.findByName("result-mission").orElseThrow().rockets()).containsOnlyKeys("result-rocket");
+    }
+
+    @Test
+    void shouldApplySuccessfulTriedOperations() {
+        //given rockets and mission added with tried operations
+        assertThat(dragonRocketsRepository.tryAddRocket("tried-1")).isEqualTo(OperationResult.OK);
+        assertThat(dragonRocketsRepository.tryAddRocket("tried-2")).isEqualTo(OperationResult.OK);
+        assertThat(dragonRocketsRepository.tryAddMission("tried")).isEqualTo(OperationResult.OK);
+
+        //when rockets are assigned and sent to space
+        assertThat(dragonRocketsRepository.tryAssignRocketsToMission(Set.of("tried-1", "tried-2"), "tried"))
+                .isEqualTo(OperationResult.OK);
+        assertThat(dragonRocketsRepository.trySetRocketStatus("tried-1", RocketStatus.IN_SPACE)).isEqualTo(OperationResult.OK);
+
+        //then changes are saved
+        Mission mission = missionRepository.findByName("tried").orElseThrow();
+        assertThat(mission.rockets()).containsOnlyKeys("tried-1", "tried-2");
+        assertThat(mission.rockets().get("tried-1").status()).isEqualTo(RocketStatus.IN_SPACE);
+
+        //and mission can be ended
+        assertThat(dragonRocketsRepository.tryEndMission("tried")).isEqualTo(OperationResult.OK);
+        assertThat(rocketRepository.findByName("tried-1").orElseThrow().missionName()).isEmpty();
+        assertThat(missionRepository.findByName("tried").orElseThrow().isEnded()).isTrue();
+    }
+
+    @Test
+    void shouldMaintainFleetStatistics() {
+        //given rockets and missions
+        dragonRocketsRepository.enableIndexes(FleetIndex.STATISTICS);
+        dragonRocketsRepository.addRocket("counted-1");
+        dragonRocketsRepository.addRocket("counted-2");
+        dragonRocketsRepository.addRocket("counted-3");
+        dragonRocketsRepository.addMission("counted");
+        dragonRocketsRepository.addMission("counted-scheduled");
+
+        //when rockets are assigned, damaged and sent to space
+        dragonRocketsRepository.assignRocketsToMission(Set.of("counted-1", "counted-2"), "counted");
+        dragonRocketsRepository.setRocketStatus("counted-1", RocketStatus.IN_SPACE);
+        dragonRocketsRepository.setRocketStatus("counted-2", RocketStatus.IN_REPAIR);
+
+        //then statistics reflect current state
+        FleetStatistics statistics = dragonRocketsRepository.getFleetStatistics();
+        assertThat(statistics.rocketsByStatus()).containsExactlyInAnyOrderEntriesOf(Map.of(
+                RocketStatus.ON_GROUND, 1L, RocketStatus.IN_SPACE, 1L, RocketStatus.IN_REPAIR, 1L));
+        assertThat(statistics.missionsByStatus()).containsExactlyInAnyOrderEntriesOf(Map.of(
+                MissionStatus.SCHEDULED, 1L, MissionStatus.PENDING, 1L,
+                MissionStatus.IN_PROGRESS, 0L, MissionStatus.ENDED, 0L));
+        assertThat(statistics.assignedRockets()).isEqualTo(2);
+        assertThat(statistics.unassignedRockets()).isEqualTo(1);
+
+        //when mission is ended
+        dragonRocketsRepository.endMission("counted");
+
+        //then rockets are back on ground or still in repair
+        FleetStatistics ended = dragonRocketsRepository.getFleetStatistics();
+        assertThat(ended.rocketsByStatus()).containsExactlyInAnyOrderEntriesOf(Map.of(
+                RocketStatus.ON_GROUND, 2L, RocketStatus.IN_SPACE, 0L, RocketStatus.IN_REPAIR, 1L));
+        assertThat(ended.missionsByStatus()).containsEntry(MissionStatus.ENDED, 1L)
+                .containsEntry(MissionStatus.PENDING, 0L);
+        assertThat(ended.assignedRockets()).isZero();
+        assertThat(ended.rockets()).isEqualTo(3);
+        assertThat(ended.missions()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldCountRocketsAndMissionsAlreadyInRepositories() {
+        //given repositories filled before the service is created
+        RocketRepository filledRockets = new InMemoryRocketRepository();
+        MissionRepository filledMissions = new InMemoryMissionRepository();
+        Rocket assigned = filledRockets.save(new Rocket("existing-1", RocketStatus.IN_SPACE, Optional.of("existing")));
+        filledRockets.save(Rocket.createNewRocket("existing-2"));
+        filledMissions.save(Mission.create("existing").assignRocket(assigned));
+        filledMissions.save(Mission.create("existing-scheduled"));
+
+        //when service is created and a rocket changes status
+        SpaceXDragonRocketsRepository repository = new SpaceXDragonRocketsRepository(filledRockets, filledMissions);
+        repository.enableIndexes(FleetIndex.STATISTICS);
+        FleetStatistics initial = repository.getFleetStatistics();
+        repository.setRocketStatus("existing-2", RocketStatus.IN_REPAIR);
+
+        //then statistics include the existing fleet and never go negative
+        assertThat(initial.rocketsByStatus()).containsExactlyInAnyOrderEntriesOf(Map.of(
+                RocketStatus.ON_GROUND, 1L, RocketStatus.IN_SPACE, 1L, RocketStatus.IN_REPAIR, 0L));
+        assertThat(initial.missionsByStatus()).containsEntry(MissionStatus.IN_PROGRESS, 1L)
+                .containsEntry(MissionStatus.SCHEDULED, 1L);
+        assertThat(initial.assignedRockets()).isEqualTo(1);
+        assertThat(initial.unassignedRockets()).isEqualTo(1);
+        assertThat(repository.getFleetStatistics().rocketsByStatus()).containsExactlyInAnyOrderEntriesOf(Map.of(
+                RocketStatus.ON_GROUND, 0L, RocketStatus.IN_SPACE, 1L, RocketStatus.IN_REPAIR, 1L));
+    }
+
+    @Test
+    void shouldSetStatusesOfManyRocketsWritingEachMissionOnce() {
+        //given rockets spread over two missions and one rocket without mission
+        List<Collection<Mission>> missionWrites = new ArrayList<>();
+        MissionRepository countingMissionRepository = new InMemoryMissionRepository() {
+            @Override
+            public void updateAll(Collection<Mission> missions) {
+                missionWrites.add(List.copyOf(missions));
+                super.updateAll(missions);
+            }
+        };
+        SpaceXDragonRocketsRepository repository =
+                new SpaceXDragonRocketsRepository(new InMemoryRocketRepository(), countingMissionRepository);
+        repository.enableIndexes(FleetIndex.STATISTICS);
+        repository.addMission("bulk-1");
+        repository.addMission("bulk-2");
+        List.of("bulk-a", "bulk-b", "bulk-c", "bulk-d", "bulk-free").forEach(repository::addRocket);
+        repository.assignRocketsToMission(Set.of("bulk-a", "bulk-b", "bulk-c"), "bulk-1");
+        repository.assignRocketToMission("bulk-d", "bulk-2");
+        missionWrites.clear();
+
+        //when statuses are changed at once
+        repository.setRocketStatuses(Map.of(
+                "bulk-a", RocketStatus.IN_SPACE,
+                "bulk-b", RocketStatus.IN_SPACE,
+                "bulk-c", RocketStatus.IN_REPAIR,
+                "bulk-d", RocketStatus.IN_SPACE,
+                "bulk-free", RocketStatus.IN_REPAIR));
+
+        //then every mission is written once in a single batch
+        assertThat(missionWrites).hasSize(1);
+        assertThat(missionWrites.get(0)).extracting(Mission::name).containsExactlyInAnyOrder("bulk-1", "bulk-2");
+
+        //and missions and statistics reflect new statuses
+        Mission first = countingMissionRepository.findByName("bulk-1").orElseThrow();
+        assertThat(first.status()).isEqualTo(MissionStatus.PENDING);
+        assertThat(first.rockets().get("bulk-a").status()).isEqualTo(RocketStatus.IN_SPACE);
+        assertThat(countingMissionRepository.findByName("bulk-2").orElseThrow().status())
+                .isEqualTo(MissionStatus.IN_PROGRESS);
+        assertThat(repository.getFleetStatistics().rocketsByStatus()).containsExactlyInAnyOrderEntriesOf(Map.of(
+                RocketStatus.ON_GROUND, 0L, RocketStatus.IN_SPACE, 3L, RocketStatus.IN_REPAIR, 2L));
+    }
+
+    @Test
+    void shouldEndManyMissionsAtOnce() {
+        //given missions with and without rockets
+        dragonRocketsRepository.enableIndexes(FleetIndex.STATISTICS);
+        dragonRocketsRepository.addMission("ending-1");
+        dragonRocketsRepository.addMission("ending-2");
+        dragonRocketsRepository.addMission("ending-3");
+        dragonRocketsRepository.addRocket("ending-a");
+        dragonRocketsRepository.addRocket("ending-b");
+        dragonRocketsRepository.assignRocketToMission("ending-a", "ending-1");
+        dragonRocketsRepository.assignRocketToMission("ending-b", "ending-2");
+        dragonRocketsRepository.setRocketStatus("ending-b", RocketStatus.IN_REPAIR);
+
+        //when missions are ended together
+        dragonRocketsRepository.endMissions(List.of("ending-1", "ending-2", "ending-3"));
+
+        //then missions are ended and rockets released
+        assertThat(dragonRocketsRepository.getDragonsSummary().missions())
+                .allSatisfy(mission -> assertThat(mission.status()).isEqualTo(MissionStatus.ENDED));
+        assertThat(rocketRepository.findByName("ending-a"))
+                .contains(new Rocket("ending-a", RocketStatus.ON_GROUND, Optional.empty()));
+        assertThat(rocketRepository.findByName("ending-b"))
+                .contains(new Rocket("ending-b", RocketStatus.IN_REPAIR, Optional.empty()));
+        assertThat(dragonRocketsRepository.getFleetStatistics().missionsByStatus())
+                .containsEntry(MissionStatus.ENDED, 3L);
+    }
+
+    @Test
+    void shouldNotWriteAnythingWhenBulkOperationFails() {
+        //given mission with rocket
+        dragonRocketsRepository.addMission("atomic");
+        dragonRocketsRepository.addRocket("atomic-rocket");
+        dragonRocketsRepository.assignRocketToMission("atomic-rocket", "atomic");
+
+        //when bulk operations reference unknown entities
+        assertThatThrownBy(() -> dragonRocketsRepository.endMissions(List.of("atomic", "unknown")))
+                .isInstanceOf(MissionDoesNotExistException.class);
+        Map<String, RocketStatus> statuses = new LinkedHashMap<>();
+        statuses.put("atomic-rocket", RocketStatus.IN_SPACE);
+        statuses.put("unknown-rocket", RocketStatus.IN_SPACE);
+        assertThatThrownBy(() -> dragonRocketsRepository.setRocketStatuses(statuses))
+                .isInstanceOf(RocketDoesNotExistException.class);
+
+        //then nothing was changed
+        assertThat(missionRepository.findByName("atomic").orElseThrow().status()).isEqualTo(MissionStatus.IN_PROGRESS);
+        assertThat(rocketRepository.findByName("atomic-rocket").orElseThrow().status())
+                .isEqualTo(RocketStatus.ON_GROUND);
+    }
+
+    @Test
+    void shouldAssignAvailableRocketsOnly() {
+        //given rockets in every state
+        dragonRocketsRepository.enableIndexes(FleetIndex.FREE_ROCKETS);
+        dragonRocketsRepository.addMission("staffed");
+        dragonRocketsRepository.addMission("busy");
+        List.of("free-1", "free-2", "free-3", "damaged", "taken").forEach(dragonRocketsRepository::addRocket);
+        dragonRocketsRepository.setRocketStatus("damaged", RocketStatus.IN_REPAIR);
+        dragonRocketsRepository.assignRocketToMission("taken", "busy");
+
+        //when more rockets are requested than available
+        List<Rocket> assigned = dragonRocketsRepository.assignAvailableRockets("staffed", 5);
+
+        //then only free rockets are assigned
+        assertThat(assigned).extracting(Rocket::name).containsExactlyInAnyOrder("free-1", "free-2", "free-3");
+        assertThat(missionRepository.findByName("staffed").orElseThrow().rockets()).hasSize(3);
+        assertThat(dragonRocketsRepository.getAvailableRocketCount()).isZero();
+
+        //when mission ends and rocket is repaired
+        dragonRocketsRepository.endMission("busy");
+        dragonRocketsRepository.setRocketStatus("damaged", RocketStatus.ON_GROUND);
+
+        //then released and repaired rockets are available again
+        assertThat(dragonRocketsRepository.getAvailableRocketCount()).isEqualTo(2);
+        assertThat(dragonRocketsRepository.assignAvailableRockets("staffed", 1)).hasSize(1);
+        assertThat(dragonRocketsRepository.getAvailableRocketCount()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldGiveMissionEveryRocketAssignedFromSeveralThreads() throws Exception {
+        //given many free rockets
+        dragonRocketsRepository.enableIndexes(FleetIndex.FREE_ROCKETS);
+        dragonRocketsRepository.addMission("crowded");
+        for (int i = 0; i < 1_000; i++) {
+            dragonRocketsRepository.addRocket("crowded-" + i);
+        }
+
+        //when several threads assign available rockets to the same mission at the same time
+        Set<String> assigned = ConcurrentHashMap.newKeySet();
+        List<Future<Integer>> assignments = new ArrayList<>();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            for (int thread = 0; thread < 8; thread++) {
+                assignments.add(executor.submit(() -> {
+                    start.await();
+                    int count = 0;
+                    List<Rocket> batch;
+                    while (!(batch = dragonRocketsRepository.assignAvailableRockets("crowded", 3)).isEmpty()) {
+                        batch.forEach(rocket -> assigned.add(rocket.name()));
+                        count += batch.size();
+                    }
+                    return count;
+                }));
+            }
+            start.countDown();
+            int total = 0;
+            for (Future<Integer> assignment : assignments) {
+                total += assignment.get();
+            }
+
+            //then every rocket was assigned once and the mission holds all of them
+            assertThat(total).isEqualTo(1_000);
+            assertThat(assigned).hasSize(1_000);
+            assertThat(missionRepository.findByName("crowded").orElseThrow().rockets()).hasSize(1_000);
+            assertThat(rocketRepository.findByName("crowded-0").orElseThrow().missionName()).contains("crowded");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void shouldFindAvailableRocketsStoredBeforeServiceWasCreated() {
+        //given rockets stored before the service is created
+        rocketRepository.save(Rocket.createNewRocket("stored-free"));
+        rocketRepository.save(new Rocket("stored-damaged", RocketStatus.IN_REPAIR, Optional.empty()));
+        missionRepository.save(Mission.create("later"));
+        SpaceXDragonRocketsRepository restarted =
+                new SpaceXDragonRocketsRepository(rocketRepository, missionRepository);
+        restarted.enableIndexes(FleetIndex.FREE_ROCKETS);
+
+        //when rockets are requested
+        List<Rocket> assigned = restarted.assignAvailableRockets("later", 2);
+
+        //then the free stored rocket is assigned
+        assertThat(assigned).extracting(Rocket::name).containsExactly("stored-free");
+    }
+
+    @Test
+    void shouldWriteBackRocketsWhenMissionWriteFails() {
+        //given repositories without transactions whose mission writes fail
+        MissionRepository failingMissions = new InMemoryMissionRepository() {
+            @Override
+            public Mission update(Mission mission) {
+                throw new IllegalArgumentException("Disk full");
+            }
+        };
+        SpaceXDragonRocketsRepository repository = new SpaceXDragonRocketsRepository(rocketRepository, failingMissions);
+        repository.addMission("unwritable");
+        repository.addRocket("written-back");
+
+        //when rocket is assigned
+        assertThatThrownBy(() -> repository.assignRocketToMission("written-back", "unwritable"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Disk full");
+
+        //then the rocket is written back without mission
+        assertThat(rocketRepository.findByName("written-back")).hasValue(Rocket.createNewRocket("written-back"));
+        assertThat(failingMissions.findByName("unwritable").orElseThrow().rockets()).isEmpty();
+    }
+
+    @Test
+    void shouldRequireIndexesToBeEnabled() {
+        //given service without indexes
+        dragonRocketsRepository.addMission("unindexed");
+
+        //when and then
+        assertThatThrownBy(() -> dragonRocketsRepository.getFleetStatistics())
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Index STATISTICS is not enabled");
+        assertThatThrownBy(() -> dragonRocketsRepository.assignAvailableRockets("unindexed", 1))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Index FREE_ROCKETS is not enabled");
+        assertThat(dragonRocketsRepository.getDragonsSummary().missions()).hasSize(1);
+
+        //and enabled index is seeded from the repositories
+        dragonRocketsRepository.enableIndexes(FleetIndex.SUMMARY_CHANGES);
+        assertThat(dragonRocketsRepository.getSummaryChangesSince(0).changes()).hasSize(1);
+        assertThat(dragonRocketsRepository.getLazyDragonsSummary().stream()).hasSize(1);
+    }
+
+    private String printSummary() {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        dragonRocketsRepository.printDragonsSummary(new PrintStream(output));
+        return output.toString();
+    }
+}
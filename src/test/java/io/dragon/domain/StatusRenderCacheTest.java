@@ -0,0 +1,57 @@
+package io.dragon.domain;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+
+class StatusRenderCacheTest {
+
+    private final StatusRenderCache renderCache = new StatusRenderCache();
+
+    @Test
+    void shouldReuseRenderedBlockOfUnchangedMission() {
+        //given rendered mission
+        Mission mission = Mission.create("static").assignRocket(Rocket.createNewRocket("falcon"));
+        String first = renderCache.render(mission);
+
+        //when mission is rendered again
+        String second = renderCache.render(mission);
+
+        //then cached block is returned
+        assertThat(second).isSameAs(first).isEqualTo(mission.printToStatus());
+    }
+
+    @Test
+    void shouldRenderAgainAfterMissionChanged() {
+        //given rendered mission
+        Mission mission = Mission.create("changing");
+        renderCache.render(mission);
+
+        //when mission is changed
+        Mission changed = mission.assignRocket(Rocket.createNewRocket("falcon"));
+        renderCache.missionChanged(mission, changed);
+
+        //then new state is rendered
+        assertThat(renderCache.size()).isZero();
+        assertThat(renderCache.render(changed)).isEqualTo(changed.printToStatus());
+    }
+
+    @Test
+    void shouldNotServeBlockOfOtherMissionState() {
+        //given rendered mission which was changed afterwards
+        Mission stale = Mission.create("snapshot");
+        Mission current = stale.assignRocket(Rocket.createNewRocket("falcon"));
+        renderCache.render(stale);
+        renderCache.missionChanged(stale, current);
+
+        //when old snapshot is rendered again before the current state
+        String staleBlock = renderCache.render(stale);
+        String currentBlock = renderCache.render(current);
+
+        //then each state gets its own block
+        assertThat(staleBlock).isEqualTo(stale.printToStatus());
+        assertThat(currentBlock).isEqualTo(current.printToStatus());
+        assertThat(renderCache.render(current)).isSameAs(currentBlock);
+    }
+}
@@ -0,0 +1,101 @@
+package io.dragon.domain;
+
+import io.dragon.dataaccess.InMemoryMissionRepository;
+import io.dragon.dataaccess.InMemoryRocketRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+
+class SummaryChangesTest {
+
+    private final SpaceXDragonRocketsRepository dragonRocketsRepository =
+            new SpaceXDragonRocketsRepository(new InMemoryRocketRepository(), new InMemoryMissionRepository());
+
+    SummaryChangesTest() {
+        dragonRocketsRepository.enableIndexes(FleetIndex.SUMMARY_CHANGES);
+    }
+
+    @Test
+    void shouldReturnEveryMissionSinceVersionZero() {
+        //given missions
+        dragonRocketsRepository.addMission("luna");
+        dragonRocketsRepository.addMission("mars");
+
+        //when changes since version zero are requested
+        SummaryChanges changes = dragonRocketsRepository.getSummaryChangesSince(0);
+
+        //then whole summary is returned with positions
+        assertThat(changes.version()).isEqualTo(dragonRocketsRepository.getSummaryVersion()).isEqualTo(2);
+        assertThat(changes.changes()).extracting(change -> change.mission().name(), ChangedMission::position)
+                .containsExactly(tuple("mars", 0), tuple("luna", 1));
+    }
+
+    @Test
+    void shouldReturnOnlyMissionsChangedSinceVersion() {
+        //given missions and rockets
+        dragonRocketsRepository.addMission("luna");
+        dragonRocketsRepository.addMission("mars");
+        dragonRocketsRepository.addMission("venus");
+        dragonRocketsRepository.addRocket("dragon-1");
+        dragonRocketsRepository.addRocket("dragon-2");
+        long version = dragonRocketsRepository.getSummaryVersion();
+
+        //when rockets are assigned to one mission and damaged
+        dragonRocketsRepository.assignRocketsToMission(Set.of("dragon-1", "dragon-2"), "luna");
+        dragonRocketsRepository.setRocketStatus("dragon-1", RocketStatus.IN_REPAIR);
+
+        //then only that mission is returned, at its new position
+        SummaryChanges changes = dragonRocketsRepository.getSummaryChangesSince(version);
+        assertThat(changes.changes()).hasSize(1);
+        assertThat(changes.changes().get(0).position()).isZero();
+        assertThat(changes.changes().get(0).mission().status()).isEqualTo(MissionStatus.PENDING);
+        assertThat(changes.version()).isGreaterThan(version);
+
+        //and nothing is returned when nothing changed
+        assertThat(dragonRocketsRepository.getSummaryChangesSince(changes.version()).isEmpty()).isTrue();
+    }
+
+    @Test
+    void shouldReturnEveryMissionForVersionOfAnotherEpoch() {
+        //given client holding the summary of a service which then restarts with the same repositories
+        RocketRepository rocketRepository = new InMemoryRocketRepository();
+        MissionRepository missionRepository = new InMemoryMissionRepository();
+        SpaceXDragonRocketsRepository before = new SpaceXDragonRocketsRepository(rocketRepository, missionRepository);
+        before.enableIndexes(FleetIndex.SUMMARY_CHANGES);
+        before.addMission("luna");
+        before.addMission("mars");
+        before.addMission("venus");
+        SummaryChanges held = before.getSummaryChangesSince(0);
+        SpaceXDragonRocketsRepository restarted =
+                new SpaceXDragonRocketsRepository(rocketRepository, missionRepository);
+        restarted.enableIndexes(FleetIndex.SUMMARY_CHANGES);
+        restarted.addMission("titan");
+
+        //when the client asks for changes since the version it holds
+        SummaryChanges changes = restarted.getSummaryChangesSince(held.epoch(), held.version());
+
+        //then the new epoch tells it to replace its summary, which every mission is returned for
+        assertThat(changes.epoch()).isNotEqualTo(held.epoch()).isEqualTo(restarted.getSummaryEpoch());
+        assertThat(changes.version()).isEqualTo(4);
+        assertThat(changes.changes()).extracting(change -> change.mission().name())
+                .containsExactly("venus", "titan", "mars", "luna");
+        assertThat(restarted.getSummaryChangesSince(changes.epoch(), changes.version()).isEmpty()).isTrue();
+    }
+
+    @Test
+    void shouldNotChangeVersionForRocketsWithoutMission() {
+        //given rocket without mission
+        dragonRocketsRepository.addRocket("dragon");
+        long version = dragonRocketsRepository.getSummaryVersion();
+
+        //when its status is changed
+        dragonRocketsRepository.setRocketStatus("dragon", RocketStatus.IN_REPAIR);
+
+        //then summary is unchanged
+        assertThat(dragonRocketsRepository.getSummaryVersion()).isEqualTo(version);
+    }
+}
@@ -0,0 +1,131 @@
+package io.dragon.domain;
+
+import io.dragon.dataaccess.InMemoryMissionRepository;
+import io.dragon.dataaccess.InMemoryRocketRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+
+class SummaryHistoryTest {
+
+    private static final Instant START = Instant.parse("2030-01-01T00:00:00Z");
+
+    private final ManualClock clock = new ManualClock();
+    private final SpaceXDragonRocketsRepository dragonRocketsRepository = new SpaceXDragonRocketsRepository(
+            new InMemoryRocketRepository(), new InMemoryMissionRepository(), clock, Duration.ofHours(1));
+
+    @Test
+    void shouldReturnSummaryAsItWasAtPastInstant() {
+        //given mission changed over time
+        dragonRocketsRepository.addMission("moon");
+        dragonRocketsRepository.addRocket("falcon");
+        clock.advance(Duration.ofMinutes(1));
+        dragonRocketsRepository.assignRocketToMission("falcon", "moon");
+        Summary withRocket = dragonRocketsRepository.getDragonsSummary();
+        clock.advance(Duration.ofMinutes(1));
+        dragonRocketsRepository.setRocketStatus("falcon", RocketStatus.IN_REPAIR);
+        dragonRocketsRepository.addMission("mars");
+        clock.advance(Duration.ofMinutes(1));
+        dragonRocketsRepository.endMission("moon");
+
+        //when summaries as of past instants are requested
+        Summary atStart = dragonRocketsRepository.getDragonsSummaryAsOf(START.plusSeconds(30));
+        Summary afterAssignment = dragonRocketsRepository.getDragonsSummaryAsOf(START.plusSeconds(90));
+        Summary afterRepair = dragonRocketsRepository.getDragonsSummaryAsOf(START.plusSeconds(120));
+        Summary now = dragonRocketsRepository.getDragonsSummaryAsOf(clock.instant());
+
+        //then each of them matches the state at that instant
+        assertThat(atStart.missions()).containsExactly(Mission.create("moon"));
+        assertThat(afterAssignment).isEqualTo(withRocket);
+        assertThat(afterRepair.missions()).extracting(Mission::name).containsExactly("moon", "mars");
+        assertThat(afterRepair.missions().get(0).status()).isEqualTo(MissionStatus.PENDING);
+        assertThat(now).isEqualTo(dragonRocketsRepository.getDragonsSummary());
+    }
+
+    @Test
+    void shouldForgetVersionsOlderThanRetention() {
+        //given missions added over more than the retention window
+        for (int i = 0; i < 5; i++) {
+            dragonRocketsRepository.addMission("mission-" + i);
+            clock.advance(Duration.ofMinutes(20));
+        }
+
+        //when summaries before and at the start of the window are requested
+        Instant windowStart = clock.instant().minus(Duration.ofHours(1));
+
+        //then only the window is answered, starting from the version in force at its start
+        assertThat(dragonRocketsRepository.getDragonsSummaryAsOf(windowStart).missions())
+                .extracting(Mission::name)
+                .containsExactlyInAnyOrder("mission-0", "mission-1", "mission-2");
+        assertThatThrownBy(() -> dragonRocketsRepository.getDragonsSummaryAsOf(windowStart.minusMillis(1)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("outside of the retention window");
+    }
+
+    @Test
+    void shouldKeepOneVersionPerChangeWithinWindow() {
+        //given history listener with existing mission
+        SummaryHistory history = new SummaryHistory(clock, Duration.ofMinutes(10), List.of(Mission.create("moon")));
+        Mission mars = Mission.create("mars");
+
+        //when missions change within one millisecond and later
+        history.missionAdded(mars);
+        history.missionChanged(mars, mars.endMission());
+        clock.advance(Duration.ofMinutes(5));
+        history.missionAdded(Mission.create("venus"));
+        clock.advance(Duration.ofMinutes(30));
+        history.missionAdded(Mission.create("europa"));
+
+        //then versions outside of the window are dropped except the one in force at its start
+        assertThat(history.versionCount()).isEqualTo(2);
+        assertThat(history.summaryAsOf(clock.instant().minus(Duration.ofMinutes(10))).missions())
+                .extracting(Mission::name)
+                .containsExactly("venus", "moon", "mars");
+    }
+
+    @Test
+    void shouldNotRecordSummariesWithoutRetention() {
+        //given service created without summary retention
+        SpaceXDragonRocketsRepository withoutRetention = new SpaceXDragonRocketsRepository(
+                new InMemoryRocketRepository(), new InMemoryMissionRepository(), clock);
+        withoutRetention.addMission("moon");
+
+        //when and then
+        assertThatThrownBy(() -> withoutRetention.getDragonsSummaryAsOf(clock.instant()))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Summaries are kept only with retention");
+    }
+
+    private static class ManualClock extends Clock {
+
+        private Instant now = START;
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
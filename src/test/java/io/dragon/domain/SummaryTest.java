@@ -0,0 +1,54 @@
+package io.dragon.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+
+class SummaryTest {
+
+    @Test
+    void shouldPrintMissionBlocksSeparatedByEmptyLine() {
+        //given summary of two missions
+        Mission first = Mission.create("first").assignRocket(Rocket.createNewRocket("falcon"));
+        Mission second = Mission.create("second");
+        Summary summary = new Summary(List.of(first, second));
+
+        //when summary is printed
+        String printed = print(summary);
+
+        //then
+        String separator = System.lineSeparator();
+        assertThat(printed).isEqualTo(first.printToStatus() + separator + second.printToStatus() + separator);
+    }
+
+    @Test
+    void shouldPrintLargeSummaryInOrder() {
+        //given summary above parallel threshold
+        List<Mission> missions = new ArrayList<>();
+        for (int i = 0; i < Summary.PARALLEL_THRESHOLD * 2 + 7; i++) {
+            Mission mission = Mission.create("mission-" + i);
+            if (i % 3 == 0) mission = mission.assignRocket(Rocket.createNewRocket("rocket-" + i));
+            missions.add(mission);
+        }
+
+        //when summary is printed
+        String printed = print(new Summary(missions));
+
+        //then output is identical to rendering missions one by one
+        StringBuilder expected = new StringBuilder();
+        missions.forEach(mission -> expected.append(mission.printToStatus()).append(System.lineSeparator()));
+        assertThat(printed).isEqualTo(expected.toString());
+    }
+
+    private static String print(Summary summary) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        summary.printSummary(new PrintStream(output));
+        return output.toString();
+    }
+}
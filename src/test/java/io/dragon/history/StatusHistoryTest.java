@@ -0,0 +1,245 @@
+package io.dragon.history;
+
+import io.dragon.dataaccess.InMemoryMissionRepository;
+import io.dragon.dataaccess.InMemoryRocketRepository;
+import io.dragon.domain.FleetIndex;
+import io.dragon.domain.Repair;
+import io.dragon.domain.RocketStatus;
+import io.dragon.domain.SpaceXDragonRocketsRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+
+class StatusHistoryTest {
+
+    private static final Instant START = Instant.parse("2030-01-01T00:00:00Z");
+
+    @TempDir
+    Path directory;
+
+    private final ManualClock clock = new ManualClock();
+    private final InMemoryRocketRepository rocketRepository = new InMemoryRocketRepository();
+    private final InMemoryMissionRepository missionRepository = new InMemoryMissionRepository();
+    private final SpaceXDragonRocketsRepository dragonRocketsRepository =
+            new SpaceXDragonRocketsRepository(rocketRepository, missionRepository, clock);
+    private Path file;
+    private StatusHistory history;
+
+    @BeforeEach
+    void openHistory() throws IOException {
+        file = directory.resolve("history");
+        history = StatusHistory.open(clock, file, 4);
+        dragonRocketsRepository.addListener(history);
+    }
+
+    @AfterEach
+    void closeHistory() throws IOException {
+        history.close();
+    }
+
+    @Test
+    void shouldRecordEventsAndScanTimeRange() {
+        //given rocket going through a mission, across several blocks
+        dragonRocketsRepository.addMission("moon");
+        dragonRocketsRepository.addRocket("falcon");
+        clock.advance(Duration.ofMinutes(10));
+        dragonRocketsRepository.assignRocketToMission("falcon", "moon");
+        clock.advance(Duration.ofMinutes(10));
+        dragonRocketsRepository.setRocketStatus("falcon", RocketStatus.IN_SPACE);
+        clock.advance(Duration.ofMinutes(10));
+        dragonRocketsRepository.setRocketStatus("falcon", RocketStatus.IN_REPAIR);
+        clock.advance(Duration.ofMinutes(10));
+        dragonRocketsRepository.endMission("moon");
+
+        //when range in the middle is scanned
+        List<StatusEvent> events =
+                history.events(START.plus(Duration.ofMinutes(10)), START.plus(Duration.ofMinutes(40)));
+
+        //then only events inside the range are returned, in order
+        assertThat(events).containsExactly(
+                new StatusEvent(START.plus(Duration.ofMinutes(10)), "falcon", HistoryEventType.ASSIGNED,
+                        RocketStatus.ON_GROUND, Optional.of("moon")),
+                new StatusEvent(START.plus(Duration.ofMinutes(20)), "falcon", HistoryEventType.STATUS_CHANGED,
+                        RocketStatus.IN_SPACE, Optional.of("moon")),
+                new StatusEvent(START.plus(Duration.ofMinutes(30)), "falcon", HistoryEventType.STATUS_CHANGED,
+                        RocketStatus.IN_REPAIR, Optional.of("moon")));
+        assertThat(history.size()).isEqualTo(5);
+        assertThat(history.events(START, START.plus(Duration.ofHours(1))).get(4))
+                .isEqualTo(new StatusEvent(START.plus(Duration.ofMinutes(40)), "falcon", HistoryEventType.RELEASED,
+                        RocketStatus.IN_REPAIR, Optional.of("moon")));
+    }
+
+    @Test
+    void shouldAggregateTimeInStatusAndRepairs() {
+        //given two rockets in space on different missions and repairs of different length
+        dragonRocketsRepository.addMission("mars");
+        dragonRocketsRepository.addMission("venus");
+        dragonRocketsRepository.addRocket("red");
+        dragonRocketsRepository.addRocket("blue");
+        dragonRocketsRepository.assignRocketToMission("red", "mars");
+        dragonRocketsRepository.assignRocketToMission("blue", "venus");
+        dragonRocketsRepository.setRocketStatus("red", RocketStatus.IN_SPACE);
+        dragonRocketsRepository.setRocketStatus("blue", RocketStatus.IN_SPACE);
+        clock.advance(Duration.ofHours(2));
+        dragonRocketsRepository.setRocketStatus("red", RocketStatus.IN_REPAIR);
+        clock.advance(Duration.ofHours(1));
+        dragonRocketsRepository.setRocketStatus("red", RocketStatus.ON_GROUND);
+        dragonRocketsRepository.setRocketStatus("blue", RocketStatus.IN_REPAIR);
+        clock.advance(Duration.ofHours(3));
+        dragonRocketsRepository.setRocketStatus("blue", RocketStatus.ON_GROUND);
+        clock.advance(Duration.ofHours(1));
+
+        //when whole history and its second half are aggregated
+        HistoryAggregate all = history.aggregate(START, START.plus(Duration.ofDays(1)));
+        HistoryAggregate later = history.aggregate(START.plus(Duration.ofHours(4)), START.plus(Duration.ofDays(1)));
+
+        //then totals count only the time inside the range
+        assertThat(all.timeInSpaceByMission()).containsEntry("mars", Duration.ofHours(2))
+                .containsEntry("venus", Duration.ofHours(3));
+        assertThat(all.timeByStatus()).containsEntry(RocketStatus.IN_REPAIR, Duration.ofHours(4))
+                .containsEntry(RocketStatus.ON_GROUND, Duration.ofHours(5));
+        assertThat(all.completedRepairs()).isEqualTo(2);
+        assertThat(all.meanTimeInRepair()).contains(Duration.ofHours(2));
+        assertThat(later.timeByStatus()).containsEntry(RocketStatus.IN_REPAIR, Duration.ofHours(2))
+                .containsEntry(RocketStatus.IN_SPACE, Duration.ZERO);
+        assertThat(later.completedRepairs()).isEqualTo(1);
+        assertThat(later.meanTimeInRepair()).contains(Duration.ofHours(3));
+    }
+
+    @Test
+    void shouldStoreEventsCompactly() throws IOException {
+        //given many status changes of a fleet
+        for (int i = 0; i < 1_000; i++) {
+            dragonRocketsRepository.addRocket("rocket-" + i);
+        }
+        try (StatusHistory compact = StatusHistory.open(clock, directory.resolve("compact"))) {
+            dragonRocketsRepository.addListener(compact);
+            for (int round = 0; round < 20; round++) {
+                for (int i = 0; i < 1_000; i++) {
+                    clock.advance(Duration.ofMillis(3));
+                    dragonRocketsRepository.setRocketStatus("rocket-" + i,
+                            round % 2 == 0 ? RocketStatus.IN_REPAIR : RocketStatus.ON_GROUND);
+                }
+            }
+
+            //then sealed blocks take a few bytes per event
+            long sealedEvents = compact.size() / StatusHistory.BLOCK_SIZE * StatusHistory.BLOCK_SIZE;
+            assertThat(compact.encodedBytes()).isLessThan(sealedEvents * 6);
+            assertThat(Files.size(directory.resolve("compact"))).isLessThan(sealedEvents * 7);
+        }
+    }
+
+    @Test
+    void shouldReloadHistoryAfterRestart() throws IOException {
+        //given rocket going through a mission, recorded across several blocks, and the history closed
+        dragonRocketsRepository.addMission("moon");
+        dragonRocketsRepository.addRocket("falcon");
+        clock.advance(Duration.ofMinutes(10));
+        dragonRocketsRepository.assignRocketToMission("falcon", "moon");
+        clock.advance(Duration.ofMinutes(10));
+        dragonRocketsRepository.setRocketStatus("falcon", RocketStatus.IN_REPAIR);
+        clock.advance(Duration.ofMinutes(10));
+        dragonRocketsRepository.setRocketStatus("falcon", RocketStatus.ON_GROUND);
+        clock.advance(Duration.ofMinutes(10));
+        dragonRocketsRepository.endMission("moon");
+        List<StatusEvent> recorded = history.events(START, START.plus(Duration.ofHours(1)));
+        history.close();
+
+        //when it is opened again from the same file, after a crash tore a record being appended
+        try (var torn = Files.newByteChannel(file, StandardOpenOption.APPEND)) {
+            torn.write(ByteBuffer.allocate(6).putInt(1_000).flip());
+        }
+        try (StatusHistory reopened = StatusHistory.open(clock, file, 4)) {
+
+            //then every event is read back
+            assertThat(reopened.size()).isEqualTo(5);
+            assertThat(reopened.events(START, START.plus(Duration.ofHours(1)))).isEqualTo(recorded);
+            assertThat(reopened.aggregate(START, START.plus(Duration.ofHours(1))).meanTimeInRepair())
+                    .contains(Duration.ofMinutes(10));
+
+            //and events recorded afterwards use the names stored before the restart
+            dragonRocketsRepository.removeListener(history);
+            dragonRocketsRepository.addListener(reopened);
+            clock.advance(Duration.ofMinutes(10));
+            dragonRocketsRepository.addRocket("dragon");
+            dragonRocketsRepository.setRocketStatus("falcon", RocketStatus.IN_REPAIR);
+            assertThat(reopened.events(START.plus(Duration.ofMinutes(50)), START.plus(Duration.ofHours(1))))
+                    .extracting(StatusEvent::rocketName).containsExactly("dragon", "falcon");
+        }
+    }
+
+    @Test
+    void shouldGiveRepairBacklogTimeRocketsEnteredRepairBeforeRestart() throws IOException {
+        //given rockets entering and leaving repair, recorded before a restart
+        List.of("early", "back", "fixed").forEach(dragonRocketsRepository::addRocket);
+        clock.advance(Duration.ofMinutes(10));
+        dragonRocketsRepository.setRocketStatus("early", RocketStatus.IN_REPAIR);
+        clock.advance(Duration.ofMinutes(10));
+        dragonRocketsRepository.setRocketStatus("back", RocketStatus.IN_REPAIR);
+        dragonRocketsRepository.setRocketStatus("fixed", RocketStatus.IN_REPAIR);
+        clock.advance(Duration.ofMinutes(10));
+        dragonRocketsRepository.setRocketStatus("back", RocketStatus.ON_GROUND);
+        clock.advance(Duration.ofMinutes(10));
+        dragonRocketsRepository.setRocketStatus("fixed", RocketStatus.ON_GROUND);
+        clock.advance(Duration.ofMinutes(10));
+        dragonRocketsRepository.setRocketStatus("back", RocketStatus.IN_REPAIR);
+        history.close();
+
+        //when the service is created again later with the history reopened as its repair log
+        clock.advance(Duration.ofHours(2));
+        try (StatusHistory reopened = StatusHistory.open(clock, file, 4)) {
+            SpaceXDragonRocketsRepository restarted =
+                    new SpaceXDragonRocketsRepository(rocketRepository, missionRepository, clock);
+            restarted.setRepairLog(reopened);
+            restarted.enableIndexes(FleetIndex.REPAIR_BACKLOG);
+
+            //then rockets in repair keep the time they last entered it and repaired ones are left out
+            assertThat(restarted.getNextRepairs(10))
+                    .extracting(Repair::rocketName, Repair::inRepairSince)
+                    .containsExactly(tuple("early", START.plus(Duration.ofMinutes(10))),
+                            tuple("back", START.plus(Duration.ofMinutes(50))));
+        }
+    }
+
+    private static class ManualClock extends Clock {
+
+        private Instant now = START;
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package io.dragon.monitoring;
+
+import io.dragon.dataaccess.InMemoryMissionRepository;
+import io.dragon.dataaccess.InMemoryRocketRepository;
+import io.dragon.dataaccess.JfrMissionRepository;
+import io.dragon.dataaccess.JfrRocketRepository;
+import io.dragon.domain.Rocket;
+import io.dragon.domain.SpaceXDragonRocketsRepository;
+import io.dragon.domain.exception.MissionDoesNotExistException;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+class DomainOperationEventTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void shouldRecordDomainOperationsAndRepositoryCalls() throws IOException {
+        //given
+        SpaceXDragonRocketsRepository repository = new SpaceXDragonRocketsRepository(
+                new JfrRocketRepository(new InMemoryRocketRepository()),
+                new JfrMissionRepository(new InMemoryMissionRepository()));
+        Path file = directory.resolve("dragon.jfr");
+
+        //when
+        try (Recording recording = new Recording()) {
+            recording.enable("io.dragon.DomainOperation");
+            recording.enable("io.dragon.RepositoryCall");
+            recording.start();
+            repository.addRocket("Dragon 1");
+            repository.addRocket("Dragon 2");
+            repository.addMission("Mars");
+            repository.assignRocketsToMission(Set.of("Dragon 1", "Dragon 2"), "Mars");
+            assertThatThrownBy(() -> repository.endMission("Luna")).isInstanceOf(MissionDoesNotExistException.class);
+            recording.stop();
+            recording.dump(file);
+        }
+
+        //then
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        List<RecordedEvent> operations = events.stream()
+                .filter(event -> event.getEventType().getName().equals("io.dragon.DomainOperation"))
+                .toList();
+        assertThat(operations).extracting(event -> event.getString("operation"))
+                .containsExactlyInAnyOrder("addRocket", "addRocket", "addMission", "assignRocketsToMission", "endMission");
+        RecordedEvent assignment = operations.stream()
+                .filter(event -> event.getString("operation").equals("assignRocketsToMission"))
+                .findFirst().orElseThrow();
+        assertThat(assignment.getString("missionName")).isEqualTo("Mars");
+        assertThat(assignment.getInt("batchSize")).isEqualTo(2);
+        assertThat(assignment.getInt("rocketsTouched")).isEqualTo(2);
+        assertThat(assignment.getBoolean("succeeded")).isTrue();
+        RecordedEvent failed = operations.stream()
+                .filter(event -> event.getString("operation").equals("endMission"))
+                .findFirst().orElseThrow();
+        assertThat(failed.getBoolean("succeeded")).isFalse();
+        assertThat(events).anyMatch(event -> event.getEventType().getName().equals("io.dragon.RepositoryCall")
+                && event.getString("repository").equals("mission")
+                && event.getString("method").equals("findByName")
+                && event.getString("entityName").equals("Luna")
+                && event.getInt("results") == 0
+                && event.getBoolean("succeeded"));
+    }
+
+    @Test
+    void shouldRecordRepositoryCallWhichThrew() throws IOException {
+        //given
+        JfrRocketRepository rocketRepository = new JfrRocketRepository(new InMemoryRocketRepository());
+        rocketRepository.save(Rocket.createNewRocket("Dragon 1"));
+        Path file = directory.resolve("failed.jfr");
+
+        //when
+        try (Recording recording = new Recording()) {
+            recording.enable("io.dragon.RepositoryCall");
+            recording.start();
+            assertThatThrownBy(() -> rocketRepository.save(Rocket.createNewRocket("Dragon 1")))
+                    .isInstanceOf(IllegalArgumentException.class);
+            rocketRepository.save(Rocket.createNewRocket("Dragon 2"));
+            recording.stop();
+            recording.dump(file);
+        }
+
+        //then
+        assertThat(RecordingFile.readAllEvents(file))
+                .filteredOn(event -> event.getEventType().getName().equals("io.dragon.RepositoryCall"))
+                .extracting(event -> event.getString("entityName"), event -> event.getBoolean("succeeded"))
+                .containsExactly(tuple("Dragon 1", false), tuple("Dragon 2", true));
+    }
+
+    @Test
+    void shouldRecordOnlySampledOperations() throws IOException {
+        //given
+        SpaceXDragonRocketsRepository repository = new SpaceXDragonRocketsRepository(
+                new InMemoryRocketRepository(), new InMemoryMissionRepository());
+        Path file = directory.resolve("sampled.jfr");
+
+        //when
+        try (Recording recording = new Recording()) {
+            recording.enable("io.dragon.DomainOperation").with("sampleEvery", "10");
+            recording.start();
+            for (int i = 0; i < 100; i++) {
+                repository.addRocket("Dragon " + i);
+            }
+            recording.stop();
+            recording.dump(file);
+        }
+
+        //then
+        assertThat(RecordingFile.readAllEvents(file))
+                .filteredOn(event -> event.getEventType().getName().equals("io.dragon.DomainOperation"))
+                .hasSize(10);
+    }
+}
@@ -0,0 +1,192 @@
+package io.dragon.remote;
+
+import io.dragon.codec.DragonCodec;
+import io.dragon.dataaccess.InMemoryMissionRepository;
+import io.dragon.dataaccess.InMemoryRocketRepository;
+import io.dragon.domain.FleetIndex;
+import io.dragon.domain.RocketStatus;
+import io.dragon.domain.SpaceXDragonRocketsRepository;
+import io.dragon.domain.Summary;
+import io.dragon.domain.SummaryChanges;
+import io.dragon.domain.exception.MissionDoesNotExistException;
+import io.dragon.domain.exception.RocketAlreadyExistsException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+
+class DragonServerTest {
+
+    private final SpaceXDragonRocketsRepository dragonRocketsRepository =
+            new SpaceXDragonRocketsRepository(new InMemoryRocketRepository(), new InMemoryMissionRepository());
+    private DragonServer server;
+    private DragonClient client;
+
+    @BeforeEach
+    void start() throws IOException {
+        server = DragonServer.start(dragonRocketsRepository, new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        client = DragonClient.connect(server.address());
+    }
+
+    @AfterEach
+    void stop() throws IOException {
+        client.close();
+        server.close();
+    }
+
+    @Test
+    void shouldExecuteOperationsRemotely() throws Exception {
+        //when operations are sent through the client
+        client.addMission("alpha").get();
+        client.addRocket("rocket-1").get();
+        client.addRocket("rocket-2").get();
+        client.addRocket("rocket-3").get();
+        client.assignRocketsToMission(Set.of("rocket-1", "rocket-2"), "alpha").get();
+        client.assignRocketToMission("rocket-3", "alpha").get();
+        client.setRocketStatus("rocket-1", RocketStatus.IN_REPAIR).get();
+
+        //then remote summary is the same as local one
+        Summary summary = client.getDragonsSummary().get();
+        assertThat(summary).isEqualTo(dragonRocketsRepository.getDragonsSummary());
+        assertThat(summary.missions()).hasSize(1);
+        assertThat(summary.missions().get(0).rockets()).hasSize(3);
+    }
+
+    @Test
+    void shouldSendSummaryChangesWithTheirEpoch() throws Exception {
+        //given missions and a client holding the summary
+        dragonRocketsRepository.enableIndexes(FleetIndex.SUMMARY_CHANGES);
+        client.addMission("alpha").get();
+        SummaryChanges held = client.getSummaryChangesSince(0, 0).get();
+        client.addMission("beta").get();
+
+        //when changes are fetched for the epoch held and for another one
+        SummaryChanges sameEpoch = client.getSummaryChangesSince(held.epoch(), held.version()).get();
+        SummaryChanges otherEpoch = client.getSummaryChangesSince(held.epoch() + 1, held.version()).get();
+
+        //then only the new mission is sent for the same epoch and every mission for another one
+        assertThat(held.epoch()).isEqualTo(dragonRocketsRepository.getSummaryEpoch());
+        assertThat(sameEpoch.changes()).extracting(change -> change.mission().name()).containsExactly("beta");
+        assertThat(otherEpoch.changes()).extracting(change -> change.mission().name())
+                .containsExactly("beta", "alpha");
+        assertThat(otherEpoch.epoch()).isEqualTo(held.epoch());
+    }
+
+    @Test
+    void shouldAnswerPipelinedRequests() throws Exception {
+        //given many requests sent without waiting for responses
+        List<CompletableFuture<Void>> responses = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            responses.add(client.addMission("mission-" + i));
+            responses.add(client.addRocket("rocket-" + i));
+            responses.add(client.assignRocketToMission("rocket-" + i, "mission-" + i));
+        }
+
+        //when all responses arrive
+        CompletableFuture.allOf(responses.toArray(CompletableFuture[]::new)).get();
+
+        //then every operation was applied
+        assertThat(client.getDragonsSummary().get().missions()).hasSize(10_000);
+    }
+
+    @Test
+    void shouldRethrowDomainExceptions() throws Exception {
+        //given existing rocket
+        client.addRocket("rocket-1").get();
+
+        //when and then
+        assertThatThrownBy(() -> client.addRocket("rocket-1").get())
+                .isInstanceOf(ExecutionException.class)
+                .cause()
+                .isExactlyInstanceOf(RocketAlreadyExistsException.class)
+                .hasMessage("Rocket with name rocket-1 already exists in the system");
+        assertThatThrownBy(() -> client.endMission("missing").get())
+                .cause()
+                .isExactlyInstanceOf(MissionDoesNotExistException.class);
+        assertThatThrownBy(() -> client.setRocketStatus("rocket-1", RocketStatus.IN_SPACE).get())
+                .cause()
+                .isExactlyInstanceOf(IllegalStateException.class)
+                .hasMessage("Cannot send rocket to space without mission");
+    }
+
+    @Test
+    void shouldServeSeveralClients() throws Exception {
+        //given second client
+        try (DragonClient second = DragonClient.connect(server.address())) {
+
+            //when both clients write
+            client.addMission("first").get();
+            second.addMission("second").get();
+
+            //then both see all changes
+            assertThat(client.getDragonsSummary().get()).isEqualTo(second.getDragonsSummary().get());
+            assertThat(second.getDragonsSummary().get().missions()).hasSize(2);
+        }
+    }
+
+    @Test
+    void shouldCloseOnlyConnectionSendingMalformedFrame() throws Exception {
+        //given client with pending state
+        client.addMission("alpha").get();
+
+        for (int length : new int[]{0, -1, Integer.MAX_VALUE}) {
+            //when another connection sends a frame with invalid length
+            try (SocketChannel malformed = SocketChannel.open(server.address())) {
+                malformed.write(ByteBuffer.allocate(Integer.BYTES).putInt(0, length));
+
+                //then server closes that connection
+                assertThat(malformed.read(ByteBuffer.allocate(1))).isEqualTo(-1);
+            }
+
+            //and keeps serving other clients
+            client.addRocket("rocket-" + length).get();
+        }
+        try (DragonClient second = DragonClient.connect(server.address())) {
+            assertThat(second.getDragonsSummary().get().missions()).hasSize(1);
+        }
+    }
+
+    @Test
+    void shouldRejectRocketCountLargerThanRequest() throws Exception {
+        //given mission to assign rockets to
+        client.addMission("alpha").get();
+        client.addRocket("rocket-1").get();
+
+        //when another connection claims half a billion rockets in a few bytes
+        try (SocketChannel hostile = SocketChannel.open(server.address())) {
+            ByteBuffer request = ByteBuffer.allocate(64);
+            request.position(Protocol.LENGTH_SIZE);
+            request.putInt(7).put(Protocol.ASSIGN_ROCKETS);
+            DragonCodec.putString(request, "alpha");
+            DragonCodec.putVarint(request, 500_000_000);
+            DragonCodec.putString(request, "rocket-1");
+            request.putInt(0, request.position() - Protocol.LENGTH_SIZE).flip();
+            hostile.write(request);
+
+            //then request is rejected without assigning anything
+            ByteBuffer response = ByteBuffer.allocate(Protocol.LENGTH_SIZE + Protocol.RESPONSE_HEADER_SIZE);
+            while (response.hasRemaining()) {
+                assertThat(hostile.read(response)).isNotNegative();
+            }
+            assertThat(response.getInt(Protocol.LENGTH_SIZE)).isEqualTo(7);
+            assertThat(response.get(Protocol.LENGTH_SIZE + Integer.BYTES)).isEqualTo(Protocol.ILLEGAL_ARGUMENT);
+        }
+
+        //and server keeps serving clients
+        assertThat(client.getDragonsSummary().get().missions().get(0).rockets()).isEmpty();
+    }
+}
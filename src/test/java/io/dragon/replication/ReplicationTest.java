@@ -0,0 +1,203 @@
+package io.dragon.replication;
+
+import io.dragon.dataaccess.InMemoryMissionRepository;
+import io.dragon.dataaccess.InMemoryRocketRepository;
+import io.dragon.domain.RocketStatus;
+import io.dragon.domain.SpaceXDragonRocketsRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+
+class ReplicationTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    private final SpaceXDragonRocketsRepository leader = newRepository();
+    private ReplicationLeader replicationLeader;
+
+    @BeforeEach
+    void startLeader() throws IOException {
+        replicationLeader = ReplicationLeader.attach(leader, new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+    }
+
+    @AfterEach
+    void stopLeader() throws IOException {
+        replicationLeader.close();
+    }
+
+    @Test
+    void shouldReplicateCommittedMutationsToFollower() throws Exception {
+        //given follower of empty leader
+        try (ReplicationFollower follower = ReplicationFollower.connect(newRepository(), 0, replicationLeader.address())) {
+
+            //when leader is changed
+            leader.addMission("alpha");
+            leader.addMission("beta");
+            leader.addRocket("rocket-1");
+            leader.addRocket("rocket-2");
+            leader.addRocket("rocket-3");
+            leader.assignRocketsToMission(Set.of("rocket-1", "rocket-2"), "alpha");
+            leader.assignRocketToMission("rocket-3", "beta");
+            leader.setRocketStatus("rocket-1", RocketStatus.IN_SPACE);
+            leader.setRocketStatus("rocket-2", RocketStatus.IN_REPAIR);
+            leader.endMission("beta");
+
+            //then follower applies every mutation
+            assertThat(follower.awaitSequence(replicationLeader.lastSequence(), TIMEOUT)).isTrue();
+            assertThat(follower.appliedSequence()).isEqualTo(10);
+            assertThat(follower.lag()).isZero();
+            assertThat(follower.failure()).isEmpty();
+
+            //and serves the same summary
+            assertThat(follower.getDragonsSummary()).isEqualTo(leader.getDragonsSummary());
+        }
+    }
+
+    @Test
+    void shouldCatchUpFromSequence() throws Exception {
+        //given leader with history
+        leader.addMission("alpha");
+        leader.addRocket("rocket-1");
+        leader.assignRocketToMission("rocket-1", "alpha");
+
+        //and replica which already applied the first two mutations
+        SpaceXDragonRocketsRepository replica = newRepository();
+        replica.addMission("alpha");
+        replica.addRocket("rocket-1");
+
+        //when replica connects from its last applied sequence
+        try (ReplicationFollower follower = ReplicationFollower.connect(replica, 2, replicationLeader.address())) {
+
+            //then only missing mutation is applied
+            assertThat(follower.awaitSequence(3, TIMEOUT)).isTrue();
+            assertThat(follower.failure()).isEmpty();
+            assertThat(follower.getDragonsSummary()).isEqualTo(leader.getDragonsSummary());
+        }
+    }
+
+    @Test
+    void shouldShipStateWhichExistedBeforeAttaching() throws Exception {
+        //given leader with state changed before replication was attached
+        SpaceXDragonRocketsRepository existing = newRepository();
+        existing.addMission("alpha");
+        existing.addMission("beta");
+        existing.addRocket("rocket-1");
+        existing.addRocket("rocket-2");
+        existing.addRocket("rocket-3");
+        existing.assignRocketsToMission(Set.of("rocket-1", "rocket-2"), "alpha");
+        existing.setRocketStatus("rocket-1", RocketStatus.IN_SPACE);
+        existing.setRocketStatus("rocket-3", RocketStatus.IN_REPAIR);
+        existing.endMission("beta");
+
+        try (ReplicationLeader existingLeader = ReplicationLeader.attach(existing, loopback());
+             ReplicationFollower follower = ReplicationFollower.connect(newRepository(), 0, existingLeader.address())) {
+
+            //when leader changes after attaching
+            existing.setRocketStatus("rocket-2", RocketStatus.IN_REPAIR);
+
+            //then follower receives previous state and the new change
+            assertThat(follower.awaitSequence(1, TIMEOUT)).isTrue();
+            assertThat(follower.failure()).isEmpty();
+            assertThat(follower.getDragonsSummary()).isEqualTo(existing.getDragonsSummary());
+        }
+    }
+
+    @Test
+    void shouldTruncateLogAcknowledgedByFollowers() throws Exception {
+        //given follower applying changes of the leader
+        try (ReplicationFollower follower =
+                     ReplicationFollower.connect(newRepository(), 0, replicationLeader.address())) {
+            for (int i = 0; i < 50; i++) {
+                leader.addMission("mission-" + i);
+                leader.addRocket("rocket-" + i);
+                leader.assignRocketToMission("rocket-" + i, "mission-" + i);
+            }
+            assertThat(follower.awaitSequence(replicationLeader.lastSequence(), TIMEOUT)).isTrue();
+
+            //when follower acknowledges applied mutations
+            long deadline = System.nanoTime() + TIMEOUT.toNanos();
+            while (replicationLeader.firstSequence() <= 150 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+
+            //then acknowledged mutations are truncated from the log
+            assertThat(replicationLeader.firstSequence()).isEqualTo(151);
+        }
+
+        //and new empty replica catches up from the snapshot
+        leader.setRocketStatus("rocket-7", RocketStatus.IN_SPACE);
+        try (ReplicationFollower fresh = ReplicationFollower.connect(newRepository(), 0, replicationLeader.address())) {
+            assertThat(fresh.awaitSequence(151, TIMEOUT)).isTrue();
+            assertThat(fresh.getDragonsSummary()).isEqualTo(leader.getDragonsSummary());
+        }
+
+        //and replica which needs a truncated sequence fails
+        try (ReplicationFollower stale = ReplicationFollower.connect(newRepository(), 5, replicationLeader.address())) {
+            assertThat(stale.awaitSequence(6, TIMEOUT)).isFalse();
+            assertThat(stale.failure()).get().isInstanceOf(IllegalStateException.class);
+        }
+    }
+
+    @Test
+    void shouldBoundLogWithoutFollowers() throws Exception {
+        //given leader keeping at most 100 mutations
+        SpaceXDragonRocketsRepository bounded = newRepository();
+        try (ReplicationLeader boundedLeader = ReplicationLeader.attach(bounded, loopback(), 100)) {
+
+            //when many more mutations are committed without followers
+            for (int i = 0; i < 300; i++) {
+                bounded.addRocket("rocket-" + i);
+            }
+
+            //then only the newest are kept and an empty replica still receives the whole state
+            assertThat(boundedLeader.lastSequence() - boundedLeader.firstSequence() + 1).isLessThanOrEqualTo(100);
+            try (ReplicationFollower follower =
+                         ReplicationFollower.connect(newRepository(), 0, boundedLeader.address())) {
+                assertThat(follower.awaitSequence(300, TIMEOUT)).isTrue();
+                assertThat(follower.getDragonsSummary()).isEqualTo(bounded.getDragonsSummary());
+            }
+        }
+    }
+
+    @Test
+    void shouldEncodeAndDecodeMutations() {
+        //given log with every kind of mutation
+        ReplicationLog log = new ReplicationLog();
+        Mutation[] mutations = {
+                new Mutation.AddRocket("rocket-ż"),
+                new Mutation.AddMission("mission"),
+                new Mutation.AssignRockets("mission", List.of("rocket-ż", "rocket-2")),
+                new Mutation.SetRocketStatus("rocket-ż", RocketStatus.IN_REPAIR),
+                new Mutation.EndMission("mission")
+        };
+
+        //when mutations are appended
+        for (Mutation mutation : mutations) {
+            log.append(mutation);
+        }
+
+        //then they are read back unchanged
+        assertThat(log.lastSequence()).isEqualTo(mutations.length);
+        for (int i = 0; i < mutations.length; i++) {
+            assertThat(log.get(i + 1)).isEqualTo(mutations[i]);
+        }
+    }
+
+    private static InetSocketAddress loopback() {
+        return new InetSocketAddress(InetAddress.getLoopbackAddress(), 0);
+    }
+
+    private static SpaceXDragonRocketsRepository newRepository() {
+        return new SpaceXDragonRocketsRepository(new InMemoryRocketRepository(), new InMemoryMissionRepository());
+    }
+}
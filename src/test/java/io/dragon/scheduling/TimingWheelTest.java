@@ -0,0 +1,73 @@
+package io.dragon.scheduling;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+
+class TimingWheelTest {
+
+    @Test
+    void shouldReturnTasksInDeadlineOrderAcrossLevels() {
+        //given tasks due at near and far ticks
+        TimingWheel<Long> wheel = new TimingWheel<>(1_000);
+        Random random = new Random(7);
+        List<Long> deadlines = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            long deadline = 1_000 + 1 + (random.nextLong() >>> (1 + random.nextInt(50)));
+            deadlines.add(deadline);
+            wheel.schedule(deadline, deadline);
+        }
+
+        //when wheel advances in uneven steps to the last deadline
+        List<Long> fired = new ArrayList<>();
+        long last = deadlines.stream().mapToLong(Long::longValue).max().orElseThrow();
+        long tick = 1_000;
+        while (tick < last) {
+            tick = Math.min(last, tick + 1 + (random.nextLong() >>> 20));
+            List<Long> due = wheel.advance(tick);
+            long current = tick;
+            assertThat(due).allSatisfy(deadline -> assertThat(deadline).isLessThanOrEqualTo(current));
+            fired.addAll(due);
+        }
+
+        //then every task fired once, in deadline order
+        assertThat(fired).isSorted().hasSize(deadlines.size());
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void shouldNotReturnCancelledTasks() {
+        //given scheduled tasks
+        TimingWheel<String> wheel = new TimingWheel<>(0);
+        TimingWheel.Timer<String> cancelled = wheel.schedule(70, "cancelled");
+        wheel.schedule(70, "kept");
+        wheel.schedule(5_000, "later");
+
+        //when one is cancelled
+        boolean result = wheel.cancel(cancelled);
+
+        //then only the others fire
+        assertThat(result).isTrue();
+        assertThat(wheel.cancel(cancelled)).isFalse();
+        assertThat(wheel.advance(100)).containsExactly("kept");
+        assertThat(wheel.advance(10_000)).containsExactly("later");
+    }
+
+    @Test
+    void shouldReturnTasksScheduledInThePastOnNextAdvance() {
+        //given wheel already at a later tick
+        TimingWheel<String> wheel = new TimingWheel<>(500);
+
+        //when task is scheduled before the current tick
+        wheel.schedule(100, "late");
+
+        //then it is returned without moving the wheel
+        assertThat(wheel.advance(500)).containsExactly("late");
+        assertThat(wheel.currentTick()).isEqualTo(500);
+    }
+}
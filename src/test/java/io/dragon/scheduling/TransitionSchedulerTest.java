@@ -0,0 +1,284 @@
+package io.dragon.scheduling;
+
+import io.dragon.dataaccess.InMemoryMissionRepository;
+import io.dragon.dataaccess.InMemoryRocketRepository;
+import io.dragon.domain.FleetChangeListener;
+import io.dragon.domain.FleetIndex;
+import io.dragon.domain.Mission;
+import io.dragon.domain.MissionStatus;
+import io.dragon.domain.OperationResult;
+import io.dragon.domain.Rocket;
+import io.dragon.domain.RocketStatus;
+import io.dragon.domain.SpaceXDragonRocketsRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+
+class TransitionSchedulerTest {
+
+    private static final Instant START = Instant.parse("2030-01-01T00:00:00Z");
+
+    private final ManualClock clock = new ManualClock(START);
+    private final SpaceXDragonRocketsRepository dragonRocketsRepository =
+            new SpaceXDragonRocketsRepository(new InMemoryRocketRepository(), new InMemoryMissionRepository());
+
+    TransitionSchedulerTest() {
+        dragonRocketsRepository.enableIndexes(FleetIndex.STATISTICS);
+    }
+
+    @Test
+    void shouldRunTransitionsWhenTheyAreDue() {
+        //given mission with damaged rocket and scheduled transitions
+        dragonRocketsRepository.addMission("moon");
+        dragonRocketsRepository.addRocket("falcon");
+        dragonRocketsRepository.assignRocketToMission("falcon", "moon");
+        dragonRocketsRepository.setRocketStatus("falcon", RocketStatus.IN_REPAIR);
+        TransitionScheduler scheduler = new TransitionScheduler(dragonRocketsRepository,
+                new InMemoryScheduleStore(), clock, Duration.ofMillis(10));
+        scheduler.scheduleRocketStatus("falcon", RocketStatus.IN_SPACE, START.plusSeconds(60));
+        scheduler.scheduleMissionEnd("moon", START.plus(Duration.ofDays(3)));
+
+        //when time passes the first due time only
+        clock.advance(Duration.ofSeconds(59));
+        FiringReport early = scheduler.runDue();
+        clock.advance(Duration.ofSeconds(1));
+        FiringReport repaired = scheduler.runDue();
+
+        //then only the status change ran
+        assertThat(early.fired()).isZero();
+        assertThat(repaired.applied()).isEqualTo(1);
+        assertThat(missionStatus("moon")).isEqualTo(MissionStatus.IN_PROGRESS);
+
+        //when time passes the second due time
+        clock.advance(Duration.ofDays(4));
+        FiringReport ended = scheduler.runDue();
+
+        //then mission is ended
+        assertThat(ended.applied()).isEqualTo(1);
+        assertThat(missionStatus("moon")).isEqualTo(MissionStatus.ENDED);
+        assertThat(scheduler.pending()).isZero();
+    }
+
+    @Test
+    void shouldEndDueMissionsInOneBatchAndReportRejected() {
+        //given many missions scheduled to end, one of them already ended by hand
+        List<Mission> changes = new ArrayList<>();
+        dragonRocketsRepository.addListener(new FleetChangeListener() {
+            @Override
+            public void missionChanged(Mission previous, Mission updated) {
+                changes.add(updated);
+            }
+        });
+        TransitionScheduler scheduler = new TransitionScheduler(dragonRocketsRepository,
+                new InMemoryScheduleStore(), clock, Duration.ofMillis(1));
+        for (int i = 0; i < 100; i++) {
+            dragonRocketsRepository.addMission("mission-" + i);
+            scheduler.scheduleMissionEnd("mission-" + i, START.plusMillis(i));
+        }
+        dragonRocketsRepository.endMission("mission-50");
+        changes.clear();
+
+        //when all of them are due
+        clock.advance(Duration.ofSeconds(1));
+        FiringReport report = scheduler.runDue();
+
+        //then the others are ended and the ended one is reported
+        assertThat(report.applied()).isEqualTo(99);
+        assertThat(report.rejected()).containsExactly(new FiringReport.Rejection(
+                new ScheduledTransition.EndMission("mission-50"), OperationResult.MISSION_ALREADY_ENDED));
+        assertThat(changes).hasSize(99);
+        assertThat(dragonRocketsRepository.getFleetStatistics().missionsByStatus())
+                .containsEntry(MissionStatus.ENDED, 100L);
+    }
+
+    @Test
+    void shouldReportUnexpectedFailureAndRunBatchAgain() {
+        //given rocket repository failing to write one rocket and transitions of two rockets due together
+        AtomicBoolean failing = new AtomicBoolean(true);
+        InMemoryRocketRepository rocketRepository = new InMemoryRocketRepository() {
+            @Override
+            public Rocket update(Rocket rocket) {
+                if (failing.get() && rocket.name().equals("broken")) {
+                    throw new UncheckedIOException(new IOException("disk full"));
+                }
+                return super.update(rocket);
+            }
+        };
+        SpaceXDragonRocketsRepository repository =
+                new SpaceXDragonRocketsRepository(rocketRepository, new InMemoryMissionRepository());
+        repository.addRocket("broken");
+        repository.addRocket("healthy");
+        InMemoryScheduleStore store = new InMemoryScheduleStore();
+        TransitionScheduler scheduler = new TransitionScheduler(repository, store, clock, Duration.ofMillis(1));
+        scheduler.scheduleRocketStatus("broken", RocketStatus.IN_REPAIR, START.plusMillis(1));
+        scheduler.scheduleRocketStatus("healthy", RocketStatus.IN_REPAIR, START.plusMillis(2));
+        scheduler.scheduleRocketStatus("healthy", RocketStatus.ON_GROUND, START.plusSeconds(2));
+
+        //when the first two are due
+        clock.advance(Duration.ofSeconds(1));
+        FiringReport report = scheduler.runDue();
+
+        //then the whole batch is reported, left unwritten and kept
+        assertThat(report.applied()).isZero();
+        assertThat(report.failed()).extracting(FiringReport.Failure::transition).containsExactly(
+                new ScheduledTransition.SetRocketStatus("broken", RocketStatus.IN_REPAIR),
+                new ScheduledTransition.SetRocketStatus("healthy", RocketStatus.IN_REPAIR));
+        assertThat(report.failed().get(0).cause()).isInstanceOf(UncheckedIOException.class);
+        assertThat(rocketRepository.findByName("healthy").orElseThrow().status()).isEqualTo(RocketStatus.ON_GROUND);
+        assertThat(store.load()).hasSize(3);
+        assertThat(scheduler.pending()).isEqualTo(3);
+
+        //and it runs again with later transitions once the repository recovers
+        failing.set(false);
+        clock.advance(Duration.ofSeconds(1));
+        assertThat(scheduler.runDue().applied()).isEqualTo(3);
+        assertThat(rocketRepository.findByName("broken").orElseThrow().status()).isEqualTo(RocketStatus.IN_REPAIR);
+        assertThat(rocketRepository.findByName("healthy").orElseThrow().status()).isEqualTo(RocketStatus.ON_GROUND);
+        assertThat(scheduler.pending()).isZero();
+        assertThat(store.load()).isEmpty();
+    }
+
+    @Test
+    void shouldKeepMissionEndsWhoseMissionWriteFailed() {
+        //given mission repository failing to write ended missions and two missions with rockets to end
+        AtomicBoolean failing = new AtomicBoolean(true);
+        InMemoryRocketRepository rocketRepository = new InMemoryRocketRepository();
+        InMemoryMissionRepository missionRepository = new InMemoryMissionRepository() {
+            @Override
+            public Mission update(Mission mission) {
+                if (failing.get() && mission.isEnded()) throw new UncheckedIOException(new IOException("disk full"));
+                return super.update(mission);
+            }
+        };
+        SpaceXDragonRocketsRepository repository =
+                new SpaceXDragonRocketsRepository(rocketRepository, missionRepository);
+        repository.addMission("moon");
+        repository.addMission("mars");
+        repository.addRocket("falcon");
+        repository.assignRocketToMission("falcon", "moon");
+        InMemoryScheduleStore store = new InMemoryScheduleStore();
+        TransitionScheduler scheduler = new TransitionScheduler(repository, store, clock, Duration.ofMillis(1));
+        scheduler.scheduleMissionEnd("moon", START.plusMillis(1));
+        scheduler.scheduleMissionEnd("mars", START.plusMillis(2));
+
+        //when both are due
+        clock.advance(Duration.ofSeconds(1));
+        FiringReport report = scheduler.runDue();
+
+        //then neither is counted as applied and the rocket stays with its mission
+        assertThat(report.applied()).isZero();
+        assertThat(report.failed()).hasSize(2);
+        assertThat(rocketRepository.findByName("falcon").orElseThrow().missionName()).contains("moon");
+        assertThat(missionRepository.findByName("moon").orElseThrow().isEnded()).isFalse();
+        assertThat(store.load()).hasSize(2);
+
+        //and both missions are ended by the next run once the repository recovers
+        failing.set(false);
+        assertThat(scheduler.runDue().applied()).isEqualTo(2);
+        assertThat(rocketRepository.findByName("falcon").orElseThrow().missionName()).isEmpty();
+        assertThat(missionRepository.findByName("mars").orElseThrow().isEnded()).isTrue();
+        assertThat(store.load()).isEmpty();
+    }
+
+    @Test
+    void shouldNotRunCancelledTransition() {
+        //given scheduled mission end
+        dragonRocketsRepository.addMission("mars");
+        TransitionScheduler scheduler = new TransitionScheduler(dragonRocketsRepository,
+                new InMemoryScheduleStore(), clock, Duration.ofMillis(1));
+        long id = scheduler.scheduleMissionEnd("mars", START.plusSeconds(1));
+
+        //when it is cancelled
+        boolean cancelled = scheduler.cancel(id);
+        clock.advance(Duration.ofSeconds(2));
+
+        //then nothing runs
+        assertThat(cancelled).isTrue();
+        assertThat(scheduler.runDue().fired()).isZero();
+        assertThat(missionStatus("mars")).isEqualTo(MissionStatus.SCHEDULED);
+    }
+
+    @Test
+    void shouldRecoverScheduleFromFileAfterRestart(@TempDir Path directory) throws Exception {
+        //given transitions scheduled and one of them run before the restart
+        Path file = directory.resolve("schedule");
+        dragonRocketsRepository.addMission("europa");
+        dragonRocketsRepository.addMission("titan");
+        dragonRocketsRepository.addMission("io");
+        long cancelled;
+        try (FileScheduleStore store = FileScheduleStore.open(file)) {
+            TransitionScheduler scheduler = new TransitionScheduler(dragonRocketsRepository, store, clock,
+                    Duration.ofMillis(1));
+            scheduler.scheduleMissionEnd("europa", START.plusSeconds(1));
+            scheduler.scheduleMissionEnd("titan", START.plusSeconds(10));
+            cancelled = scheduler.scheduleMissionEnd("io", START.plusSeconds(10));
+            scheduler.cancel(cancelled);
+            clock.advance(Duration.ofSeconds(5));
+            scheduler.runDue();
+        }
+
+        //when scheduler is created again from the same file after the due time
+        clock.advance(Duration.ofSeconds(10));
+        try (FileScheduleStore store = FileScheduleStore.open(file)) {
+            TransitionScheduler scheduler = new TransitionScheduler(dragonRocketsRepository, store, clock,
+                    Duration.ofMillis(1));
+            long next = scheduler.scheduleMissionEnd("io", START.plusSeconds(60));
+
+            //then only the pending transition is recovered and runs
+            assertThat(store.load()).extracting(StoredTransition::transition)
+                    .containsExactly(new ScheduledTransition.EndMission("titan"));
+            assertThat(next).isGreaterThan(cancelled);
+            assertThat(scheduler.runDue().applied()).isEqualTo(1);
+        }
+        assertThat(missionStatus("titan")).isEqualTo(MissionStatus.ENDED);
+        assertThat(missionStatus("io")).isEqualTo(MissionStatus.SCHEDULED);
+    }
+
+    private MissionStatus missionStatus(String missionName) {
+        return dragonRocketsRepository.getDragonsSummary().missions().stream()
+                .filter(mission -> mission.name().equals(missionName))
+                .findFirst().orElseThrow().status();
+    }
+
+    private static class ManualClock extends Clock {
+
+        private Instant now;
+
+        ManualClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}